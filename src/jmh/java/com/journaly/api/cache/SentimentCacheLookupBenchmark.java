@@ -0,0 +1,83 @@
+package com.journaly.api.cache;
+
+import com.azure.ai.textanalytics.models.DocumentSentiment;
+import com.azure.ai.textanalytics.models.SentimentConfidenceScores;
+import com.azure.ai.textanalytics.models.TextSentiment;
+import com.azure.core.util.IterableStream;
+import com.journaly.api.config.CacheConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tra cache cảm xúc như {@code AIService.findCachedSentiment}: băm SHA-256 nội dung
+ * ({@link ContentDigestKeyGenerator#digest}) rồi đọc Caffeine qua {@link Cache} của Spring.
+ * <p>
+ * Cache được dựng bằng chính {@link CacheConfig} (chế độ local) với cấu hình mặc định. Phần băm tỉ lệ với
+ * độ dài nội dung, nên so sánh hai giá trị {@code contentLength} để tách chi phí băm khỏi chi phí tra.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SentimentCacheLookupBenchmark {
+
+    private static final int CACHED_ENTRIES = 5_000;
+
+    @Param({"200", "5000"})
+    int contentLength;
+
+    private Cache cache;
+    private String cachedText;
+    private String missingText;
+
+    @Setup
+    public void setUp() {
+        cache = new CacheConfig().cacheManager(10_000, 16_777_216, Duration.ofHours(6), Duration.ofSeconds(30),
+                Optional.empty()).getCache(CacheConfig.SENTIMENTS);
+        DocumentSentiment sentiment = new DocumentSentiment(TextSentiment.POSITIVE,
+                new SentimentConfidenceScores(0.05, 0.15, 0.80),
+                new IterableStream<>(Collections.emptyList()), new IterableStream<>(Collections.emptyList()));
+        for (int i = 0; i < CACHED_ENTRIES; i++) {
+            cache.put(ContentDigestKeyGenerator.digest(text(i)), sentiment);
+        }
+        cachedText = text(CACHED_ENTRIES / 2);
+        missingText = text(CACHED_ENTRIES + 1);
+    }
+
+    private String text(int index) {
+        String prefix = "Bài viết " + index + ": ";
+        return prefix + "x".repeat(Math.max(0, contentLength - prefix.length()));
+    }
+
+    @Benchmark
+    public String digest() {
+        return ContentDigestKeyGenerator.digest(cachedText);
+    }
+
+    @Benchmark
+    public DocumentSentiment hit() {
+        return cache.get(ContentDigestKeyGenerator.digest(cachedText), DocumentSentiment.class);
+    }
+
+    @Benchmark
+    public DocumentSentiment miss() {
+        return cache.get(ContentDigestKeyGenerator.digest(missingText), DocumentSentiment.class);
+    }
+}
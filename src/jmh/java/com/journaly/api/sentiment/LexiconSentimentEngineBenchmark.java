@@ -0,0 +1,51 @@
+package com.journaly.api.sentiment;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Độ trễ chấm điểm cục bộ theo độ dài entry. Chạy với {@code -prof gc} để xác nhận
+ * tokenizer không cấp phát ngoài {@link SentimentEstimate} trả về.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LexiconSentimentEngineBenchmark {
+
+    private static final String SENTENCE_VI = "Hôm nay tôi rất vui nhưng hơi mệt vì công việc không suôn sẻ lắm. ";
+    private static final String SENTENCE_EN = "Today I felt really happy, but work was not great and I am tired. ";
+
+    @Param({"1", "10", "100"})
+    int sentences;
+
+    @Param({"vi", "en"})
+    String language;
+
+    private LexiconSentimentEngine engine;
+    private String text;
+
+    @Setup
+    public void setUp() {
+        engine = new LexiconSentimentEngine();
+        text = ("vi".equals(language) ? SENTENCE_VI : SENTENCE_EN).repeat(sentences);
+    }
+
+    @Benchmark
+    public SentimentEstimate estimate() {
+        return engine.estimate(text);
+    }
+}
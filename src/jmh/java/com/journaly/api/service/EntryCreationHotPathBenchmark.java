@@ -0,0 +1,96 @@
+package com.journaly.api.service;
+
+import com.azure.ai.textanalytics.models.SentimentConfidenceScores;
+import com.azure.ai.textanalytics.models.TextSentiment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Phần CPU của {@code JournalService.createJournalEntry} sau khi có kết quả Azure: diễn giải nhãn,
+ * chọn câu phỏng đoán và tag gợi ý, đổi điểm sang {@link BigDecimal}.
+ * <p>
+ * Chạy {@code mvn -Pjmh test-compile exec:exec -Djmh.args="EntryCreationHotPathBenchmark -prof gc"}; cột
+ * {@code gc.alloc.rate.norm} (B/op) phải giữ nguyên giữa các lần đổi code. Chạy 4 thread để lộ tranh chấp
+ * trên state dùng chung (vd: một {@code Random} static).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class EntryCreationHotPathBenchmark {
+
+    @Param({"POSITIVE", "NEGATIVE", "MIXED", "NEUTRAL"})
+    String expected;
+
+    private SentimentConfidenceScores scores;
+    private TextSentiment sentiment;
+
+    @Setup
+    public void setUp() {
+        // Thứ tự tham số của SentimentConfidenceScores: negative, neutral, positive
+        scores = switch (expected) {
+            case "POSITIVE" -> new SentimentConfidenceScores(0.05, 0.15, 0.80);
+            case "NEGATIVE" -> new SentimentConfidenceScores(0.80, 0.15, 0.05);
+            case "MIXED" -> new SentimentConfidenceScores(0.40, 0.20, 0.40);
+            default -> new SentimentConfidenceScores(0.10, 0.80, 0.10);
+        };
+        sentiment = JournalService.interpretSentimentFromScores(scores);
+        if (!sentiment.toString().equalsIgnoreCase(expected)) {
+            throw new IllegalStateException("Scores for " + expected + " were interpreted as " + sentiment);
+        }
+    }
+
+    @Benchmark
+    public TextSentiment interpretSentiment() {
+        return JournalService.interpretSentimentFromScores(scores);
+    }
+
+    @Benchmark
+    public String selectGuessPhrase() {
+        return JournalService.selectGuessPhrase(sentiment);
+    }
+
+    @Benchmark
+    public List<String> selectSuggestedTags() {
+        return JournalService.selectSuggestedTags(sentiment);
+    }
+
+    @Benchmark
+    public void convertScores(Blackhole blackhole) {
+        blackhole.consume(BigDecimal.valueOf(scores.getPositive()));
+        blackhole.consume(BigDecimal.valueOf(scores.getNegative()));
+        blackhole.consume(BigDecimal.valueOf(scores.getNeutral()));
+    }
+
+    /**
+     * Cả chuỗi như trong {@code saveNewEntry}, không tính database.
+     */
+    @Benchmark
+    public void interpretAndRespond(Blackhole blackhole) {
+        TextSentiment interpreted = JournalService.interpretSentimentFromScores(scores);
+        blackhole.consume(interpreted.toString());
+        blackhole.consume(BigDecimal.valueOf(scores.getPositive()));
+        blackhole.consume(BigDecimal.valueOf(scores.getNegative()));
+        blackhole.consume(BigDecimal.valueOf(scores.getNeutral()));
+        blackhole.consume(JournalService.selectGuessPhrase(interpreted));
+        blackhole.consume(JournalService.selectSuggestedTags(interpreted));
+    }
+}
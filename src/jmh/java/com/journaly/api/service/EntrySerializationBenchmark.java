@@ -0,0 +1,78 @@
+package com.journaly.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.journaly.api.dto.CreateEntryResponse;
+import com.journaly.api.entity.JournalEntry;
+import com.journaly.api.entity.SentimentStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chi phí Jackson cho phản hồi của {@code POST /api/entries/create} và của entity {@link JournalEntry}
+ * (vẫn được trả về bởi {@code PUT /api/entries/{id}/tags}).
+ * <p>
+ * ObjectMapper được tạo bằng {@link Jackson2ObjectMapperBuilder} như Spring MVC (có JavaTimeModule), và
+ * ghi vào byte[] như message converter. Chạy với {@code -prof gc} để theo dõi B/op.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntrySerializationBenchmark {
+
+    @Param({"200", "5000"})
+    int contentLength;
+
+    private ObjectWriter writer;
+    private CreateEntryResponse response;
+    private JournalEntry entry;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writer();
+
+        response = new CreateEntryResponse(UUID.randomUUID(), "Có vẻ như đây là một khoảnh khắc đáng nhớ.",
+                List.of("#vui_vẻ", "#biết_ơn", "#hạnh_phúc"), false, SentimentStatus.COMPLETED);
+
+        entry = new JournalEntry();
+        entry.setId(UUID.randomUUID());
+        entry.setContent("Hôm nay tôi rất vui vì được gặp lại bạn cũ. ".repeat(contentLength / 44 + 1)
+                .substring(0, contentLength));
+        entry.setCreatedAt(OffsetDateTime.parse("2026-03-01T08:30:00+07:00"));
+        entry.setSentimentLabel("positive");
+        entry.setPositiveScore(BigDecimal.valueOf(0.81));
+        entry.setNegativeScore(BigDecimal.valueOf(0.04));
+        entry.setNeutralScore(BigDecimal.valueOf(0.15));
+        entry.setSentimentStatus(SentimentStatus.COMPLETED);
+    }
+
+    @Benchmark
+    public byte[] createEntryResponse() throws Exception {
+        return writer.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] journalEntry() throws Exception {
+        return writer.writeValueAsBytes(entry);
+    }
+}
@@ -0,0 +1,65 @@
+package com.journaly.api.service;
+
+import com.journaly.api.cache.TagDictionary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Phần trong bộ nhớ của {@link TagService#resolve} khi mọi tag đã quen: chuẩn hóa danh sách tên rồi tra
+ * {@link TagDictionary}. Đây là đường đi của phần lớn lần gắn tag, không chạm database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TagLookupBenchmark {
+
+    @Param({"3", "20"})
+    int tags;
+
+    private TagDictionary dictionary;
+    private UUID userId;
+    private List<String> names;
+
+    @Setup
+    public void setUp() {
+        dictionary = new TagDictionary(null, Optional.empty(), new SimpleMeterRegistry(),
+                100_000, Duration.ofHours(1), 0);
+        userId = UUID.randomUUID();
+        names = new ArrayList<>(tags);
+        for (int i = 0; i < tags; i++) {
+            String name = "#tag_" + i;
+            dictionary.put(userId, name, (long) i);
+            // Tên gửi lên thường có khoảng trắng thừa và bị lặp
+            names.add(" " + name + " ");
+        }
+        names.add(names.getFirst());
+    }
+
+    @Benchmark
+    public void normalizeAndLookUp(Blackhole blackhole) {
+        for (String name : TagService.normalize(names)) {
+            blackhole.consume(dictionary.find(userId, name));
+        }
+    }
+}
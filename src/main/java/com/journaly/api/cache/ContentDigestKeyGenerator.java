@@ -0,0 +1,40 @@
+package com.journaly.api.cache;
+
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Sinh khóa cache từ SHA-256 của nội dung bài viết.
+ * Thay cho {@code #text.hashCode()} vốn có thể trùng giữa hai nội dung khác nhau.
+ */
+@Component(ContentDigestKeyGenerator.BEAN_NAME)
+public class ContentDigestKeyGenerator implements KeyGenerator {
+
+    public static final String BEAN_NAME = "sentimentKeyGenerator";
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        if (params.length != 1 || !(params[0] instanceof String text)) {
+            throw new IllegalArgumentException("Sentiment cache key requires a single String argument: " + method);
+        }
+        return digest(text);
+    }
+
+    /**
+     * SHA-256 của nội dung (UTF-8), dạng hex 64 ký tự.
+     */
+    public static String digest(String text) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.journaly.api.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Kênh phát thông điệp invalidation tới mọi instance (kể cả instance gửi).
+ */
+public interface InvalidationBus {
+
+    void publish(String message);
+
+    void subscribe(Consumer<String> listener);
+}
@@ -0,0 +1,60 @@
+package com.journaly.api.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * {@link InvalidationBus} qua Redis pub/sub. Lỗi Redis chỉ được ghi log: bên nhận vẫn còn TTL làm lưới an toàn.
+ */
+@Slf4j
+public class RedisInvalidationBus implements InvalidationBus, DisposableBean {
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final ChannelTopic topic;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    public RedisInvalidationBus(RedisTemplate<String, byte[]> redisTemplate,
+                                RedisConnectionFactory connectionFactory,
+                                String channel) {
+        this.redisTemplate = redisTemplate;
+        this.topic = new ChannelTopic(channel);
+        // Giống RedisSentimentStore: không để lifecycle của Spring phụ thuộc vào việc Redis có truy cập được không
+        this.listenerContainer = new RedisMessageListenerContainer();
+        this.listenerContainer.setConnectionFactory(connectionFactory);
+        this.listenerContainer.afterPropertiesSet();
+    }
+
+    @Override
+    public void publish(String message) {
+        try {
+            redisTemplate.convertAndSend(topic.getTopic(), message.getBytes(StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish invalidation on {}: {}", topic.getTopic(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        listenerContainer.addMessageListener(
+                (message, pattern) -> listener.accept(new String(message.getBody(), StandardCharsets.UTF_8)),
+                topic);
+        try {
+            listenerContainer.start();
+        } catch (RuntimeException e) {
+            log.warn("Redis unavailable, subscription to {} will retry in background: {}",
+                    topic.getTopic(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        listenerContainer.destroy();
+    }
+}
@@ -0,0 +1,97 @@
+package com.journaly.api.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * L2 trên Redis: giá trị nhị phân với TTL, invalidation qua pub/sub.
+ */
+@Slf4j
+public class RedisSentimentStore implements RemoteSentimentStore, DisposableBean {
+
+    static final String KEY_PREFIX = "journaly:sentiments:";
+    static final ChannelTopic INVALIDATION_TOPIC = new ChannelTopic("journaly:sentiments:invalidate");
+    private static final int CLEAR_BATCH_SIZE = 500;
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    public RedisSentimentStore(RedisTemplate<String, byte[]> redisTemplate, RedisConnectionFactory connectionFactory) {
+        this.redisTemplate = redisTemplate;
+        // Không đăng ký container như một bean: lifecycle của Spring sẽ làm hỏng quá trình khởi động
+        // nếu Redis không truy cập được, trong khi ở đây Redis chỉ là tầng cache phụ.
+        this.listenerContainer = new RedisMessageListenerContainer();
+        this.listenerContainer.setConnectionFactory(connectionFactory);
+        this.listenerContainer.afterPropertiesSet();
+    }
+
+    @Override
+    public byte[] get(String key) {
+        return redisTemplate.opsForValue().get(KEY_PREFIX + key);
+    }
+
+    @Override
+    public void put(String key, byte[] value, Duration timeToLive) {
+        redisTemplate.opsForValue().set(KEY_PREFIX + key, value, timeToLive);
+    }
+
+    @Override
+    public void evict(String key) {
+        redisTemplate.unlink(KEY_PREFIX + key);
+    }
+
+    @Override
+    public void clear() {
+        // SCAN + UNLINK theo lô để không chặn Redis như KEYS/DEL
+        ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(CLEAR_BATCH_SIZE).build();
+        List<String> batch = new ArrayList<>(CLEAR_BATCH_SIZE);
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() == CLEAR_BATCH_SIZE) {
+                    redisTemplate.unlink(batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            redisTemplate.unlink(batch);
+        }
+    }
+
+    @Override
+    public void publishInvalidation(String message) {
+        redisTemplate.convertAndSend(INVALIDATION_TOPIC.getTopic(), message.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void subscribeInvalidations(Consumer<String> listener) {
+        listenerContainer.addMessageListener(
+                (message, pattern) -> listener.accept(new String(message.getBody(), StandardCharsets.UTF_8)),
+                INVALIDATION_TOPIC);
+        try {
+            listenerContainer.start();
+        } catch (RuntimeException e) {
+            // Container tự thử kết nối lại theo backoff; trong lúc đó các node chỉ dựa vào TTL của L1
+            log.warn("Redis unavailable, sentiment cache invalidation subscription will retry in background: {}",
+                    e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        listenerContainer.destroy();
+    }
+}
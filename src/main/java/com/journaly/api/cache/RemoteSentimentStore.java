@@ -0,0 +1,26 @@
+package com.journaly.api.cache;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Tầng cache dùng chung (L2) giữa các instance, lưu giá trị đã mã hóa bởi {@link SentimentCodec}.
+ * Mọi phương thức có thể ném exception khi backend không truy cập được; {@link TwoTierCache} tự xử lý fallback.
+ */
+public interface RemoteSentimentStore {
+
+    byte[] get(String key);
+
+    void put(String key, byte[] value, Duration timeToLive);
+
+    void evict(String key);
+
+    void clear();
+
+    /**
+     * Gửi thông điệp invalidation tới tất cả các instance (kể cả instance hiện tại).
+     */
+    void publishInvalidation(String message);
+
+    void subscribeInvalidations(Consumer<String> listener);
+}
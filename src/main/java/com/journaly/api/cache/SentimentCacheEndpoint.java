@@ -0,0 +1,91 @@
+package com.journaly.api.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.journaly.api.config.CacheConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Endpoint quản trị cho cache "sentiments":
+ * GET /actuator/sentimentcache để xem thống kê, DELETE để xóa toàn bộ.
+ */
+@Slf4j
+@Component
+@Endpoint(id = "sentimentcache")
+@RequiredArgsConstructor
+public class SentimentCacheEndpoint {
+
+    private final CacheManager cacheManager;
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        Cache<Object, Object> cache = nativeCache();
+        CacheStats stats = cache.stats();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("name", CacheConfig.SENTIMENTS);
+        result.put("size", cache.estimatedSize());
+        cache.policy().eviction().ifPresent(eviction -> {
+            eviction.weightedSize().ifPresent(weight -> result.put("weightedSize", weight));
+            result.put("maximumWeight", eviction.getMaximum());
+        });
+        cache.policy().expireAfterWrite()
+                .map(Policy.FixedExpiration::getExpiresAfter)
+                .ifPresent(ttl -> result.put("expireAfterWrite", ttl.toString()));
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("evictionWeight", stats.evictionWeight());
+        if (springCache() instanceof TwoTierCache twoTierCache) {
+            result.put("mode", "near");
+            result.put("remoteAvailable", twoTierCache.isRemoteAvailable());
+            result.put("remoteHitCount", twoTierCache.getRemoteHits());
+            result.put("remoteMissCount", twoTierCache.getRemoteMisses());
+            result.put("remoteErrorCount", twoTierCache.getRemoteErrors());
+        } else {
+            result.put("mode", "local");
+        }
+        return result;
+    }
+
+    @DeleteOperation
+    public Map<String, Object> flush() {
+        Cache<Object, Object> cache = nativeCache();
+        long sizeBefore = cache.estimatedSize();
+        // Qua Spring Cache để ở chế độ near, L2 và L1 của các node khác cũng được xóa
+        springCache().invalidate();
+        log.info("Sentiment cache flushed via admin endpoint ({} entries)", sizeBefore);
+        return Map.of("name", CacheConfig.SENTIMENTS, "flushed", sizeBefore);
+    }
+
+    private org.springframework.cache.Cache springCache() {
+        org.springframework.cache.Cache cache = cacheManager.getCache(CacheConfig.SENTIMENTS);
+        if (cache == null) {
+            throw new IllegalStateException("Cache '" + CacheConfig.SENTIMENTS + "' is not configured");
+        }
+        return cache;
+    }
+
+    private Cache<Object, Object> nativeCache() {
+        org.springframework.cache.Cache cache = springCache();
+        if (cache instanceof CaffeineCache caffeineCache) {
+            return caffeineCache.getNativeCache();
+        }
+        if (cache instanceof TwoTierCache twoTierCache) {
+            return twoTierCache.getNativeCache();
+        }
+        throw new IllegalStateException("Cache '" + CacheConfig.SENTIMENTS + "' is not backed by Caffeine");
+    }
+}
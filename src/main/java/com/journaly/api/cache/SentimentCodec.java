@@ -0,0 +1,75 @@
+package com.journaly.api.cache;
+
+import com.azure.ai.textanalytics.models.DocumentSentiment;
+import com.azure.ai.textanalytics.models.SentimentConfidenceScores;
+import com.azure.ai.textanalytics.models.TextSentiment;
+import com.azure.core.util.IterableStream;
+
+import java.util.Collections;
+
+/**
+ * Mã hóa nhị phân gọn cho kết quả sentiment lưu trong L2 (Redis).
+ * <p>
+ * Định dạng 8 byte: [version][label][positive:u16][negative:u16][neutral:u16].
+ * Điểm được lưu dạng fixed-point x10000, khớp với scale 4 của các cột điểm trong journal_entries.
+ * Câu và cảnh báo không được lưu vì không ai dùng tới sau khi phân tích.
+ */
+public final class SentimentCodec {
+
+    static final byte VERSION = 1;
+    static final int ENCODED_LENGTH = 8;
+    private static final double SCALE = 10_000d;
+
+    private static final TextSentiment[] LABELS = {
+            TextSentiment.POSITIVE, TextSentiment.NEGATIVE, TextSentiment.NEUTRAL, TextSentiment.MIXED
+    };
+
+    private SentimentCodec() {
+    }
+
+    public static byte[] encode(DocumentSentiment sentiment) {
+        SentimentConfidenceScores scores = sentiment.getConfidenceScores();
+        byte[] bytes = new byte[ENCODED_LENGTH];
+        bytes[0] = VERSION;
+        bytes[1] = labelIndex(sentiment.getSentiment());
+        writeScore(bytes, 2, scores.getPositive());
+        writeScore(bytes, 4, scores.getNegative());
+        writeScore(bytes, 6, scores.getNeutral());
+        return bytes;
+    }
+
+    /**
+     * @return kết quả đã giải mã, hoặc null nếu dữ liệu không đúng định dạng/phiên bản (coi như cache miss).
+     */
+    public static DocumentSentiment decode(byte[] bytes) {
+        if (bytes == null || bytes.length != ENCODED_LENGTH || bytes[0] != VERSION
+                || bytes[1] < 0 || bytes[1] >= LABELS.length) {
+            return null;
+        }
+        SentimentConfidenceScores scores = new SentimentConfidenceScores(
+                readScore(bytes, 4), readScore(bytes, 6), readScore(bytes, 2));
+        return new DocumentSentiment(LABELS[bytes[1]], scores,
+                new IterableStream<>(Collections.emptyList()),
+                new IterableStream<>(Collections.emptyList()));
+    }
+
+    private static byte labelIndex(TextSentiment label) {
+        for (byte i = 0; i < LABELS.length; i++) {
+            if (LABELS[i].equals(label)) {
+                return i;
+            }
+        }
+        return 2; // Nhãn lạ -> NEUTRAL
+    }
+
+    private static void writeScore(byte[] bytes, int offset, double score) {
+        int fixed = (int) Math.round(Math.max(0d, Math.min(1d, score)) * SCALE);
+        bytes[offset] = (byte) (fixed >>> 8);
+        bytes[offset + 1] = (byte) fixed;
+    }
+
+    private static double readScore(byte[] bytes, int offset) {
+        int fixed = ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+        return fixed / SCALE;
+    }
+}
@@ -0,0 +1,41 @@
+package com.journaly.api.cache;
+
+import com.azure.ai.textanalytics.models.DocumentSentiment;
+import com.azure.ai.textanalytics.models.SentenceSentiment;
+import com.github.benmanes.caffeine.cache.Weigher;
+
+/**
+ * Ước lượng số byte mà một entry trong cache "sentiments" chiếm giữ.
+ * <p>
+ * Mỗi entry nặng ít nhất {@code minimumWeight}, nên một ngân sách trọng lượng duy nhất
+ * giới hạn đồng thời tổng số byte và số entry (tối đa {@code maximumWeight / minimumWeight}).
+ */
+public class SentimentWeigher implements Weigher<Object, Object> {
+
+    // Khóa hex SHA-256 (64 ký tự) + header của entry trong Caffeine
+    private static final int KEY_BYTES = 64 + 40 + 48;
+    // DocumentSentiment + SentimentConfidenceScores + hai IterableStream
+    private static final int DOCUMENT_BYTES = 160;
+    private static final int SENTENCE_BYTES = 96;
+
+    private final int minimumWeight;
+
+    public SentimentWeigher(int minimumWeight) {
+        this.minimumWeight = Math.max(1, minimumWeight);
+    }
+
+    @Override
+    public int weigh(Object key, Object value) {
+        long bytes = KEY_BYTES;
+        if (value instanceof DocumentSentiment sentiment) {
+            bytes += DOCUMENT_BYTES;
+            if (sentiment.getSentences() != null) {
+                for (SentenceSentiment sentence : sentiment.getSentences()) {
+                    String text = sentence.getText();
+                    bytes += SENTENCE_BYTES + (text != null ? 2L * text.length() : 0);
+                }
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(minimumWeight, bytes));
+    }
+}
@@ -0,0 +1,156 @@
+package com.journaly.api.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Từ điển (user, tên tag) → id tag trong bộ nhớ, để gắn tag quen thuộc mà không cần truy vấn.
+ * <p>
+ * Id của một tên tag không đổi trong suốt vòng đời của tag (unique (user_id, name)), nên chỉ cần:
+ * <ul>
+ *     <li>ghi vào từ điển sau khi transaction tạo tag commit, để id của INSERT bị rollback không lọt vào;</li>
+ *     <li>phát invalidation tới các instance khác khi tag bị xóa ({@link #evict}), TTL làm lưới an toàn
+ *     khi thông điệp bị mất.</li>
+ * </ul>
+ * Hai request cùng tạo một tag lần đầu đều nhận cùng id từ database (insert-on-conflict rồi đọc lại),
+ * nên ghi trùng vào từ điển là vô hại.
+ */
+@Slf4j
+@Component
+public class TagDictionary {
+
+    static final String NAME = "tags";
+    private static final char SEPARATOR = '|';
+    private static final String ALL_KEYS = "*";
+
+    record Key(UUID userId, String name) {
+    }
+
+    private final Cache<Key, Long> ids;
+    private final JdbcTemplate jdbcTemplate;
+    private final Optional<InvalidationBus> invalidationBus;
+    private final long warmUpLimit;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public TagDictionary(JdbcTemplate jdbcTemplate,
+                         Optional<InvalidationBus> invalidationBus,
+                         MeterRegistry meterRegistry,
+                         @Value("${cache.tags.maximum-size:100000}") long maximumSize,
+                         @Value("${cache.tags.expire-after-write:1h}") Duration expireAfterWrite,
+                         @Value("${cache.tags.warm-up-limit:50000}") long warmUpLimit) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.invalidationBus = invalidationBus;
+        this.warmUpLimit = Math.min(warmUpLimit, maximumSize);
+        this.ids = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, ids, NAME);
+        Gauge.builder("cache.hit.ratio", ids, cache -> cache.stats().hitRate())
+                .tag("cache", NAME)
+                .description("Hit ratio of the in-memory tag dictionary")
+                .register(meterRegistry);
+
+        invalidationBus.ifPresent(bus -> bus.subscribe(this::onInvalidation));
+    }
+
+    /**
+     * Nạp sẵn các tag mới nhất khi ứng dụng khởi động xong; lỗi chỉ làm từ điển bắt đầu rỗng.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (warmUpLimit <= 0) {
+            return;
+        }
+        try {
+            long[] loaded = {0};
+            jdbcTemplate.query(connection -> {
+                var statement = connection.prepareStatement("select id, user_id, name from tags order by id desc");
+                statement.setMaxRows((int) Math.min(Integer.MAX_VALUE, warmUpLimit));
+                statement.setFetchSize(1_000);
+                return statement;
+            }, resultSet -> {
+                ids.put(new Key(resultSet.getObject("user_id", UUID.class), resultSet.getString("name")),
+                        resultSet.getLong("id"));
+                loaded[0]++;
+            });
+            log.info("Tag dictionary warmed up with {} tags", loaded[0]);
+        } catch (RuntimeException e) {
+            log.warn("Tag dictionary warm-up failed, starting empty: {}", e.getMessage());
+        }
+    }
+
+    public Long find(UUID userId, String name) {
+        return ids.getIfPresent(new Key(userId, name));
+    }
+
+    /**
+     * Ghi id của tag; nếu đang trong transaction thì chỉ ghi sau khi commit.
+     */
+    public void put(UUID userId, String name, Long id) {
+        Key key = new Key(userId, name);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ids.put(key, id);
+                }
+            });
+        } else {
+            ids.put(key, id);
+        }
+    }
+
+    /**
+     * Xóa một tag khỏi từ điển ở mọi instance; gọi khi tag bị xóa hoặc đổi tên.
+     */
+    public void evict(UUID userId, String name) {
+        ids.invalidate(new Key(userId, name));
+        invalidationBus.ifPresent(bus -> bus.publish(nodeId + SEPARATOR + userId + SEPARATOR + name));
+    }
+
+    public void invalidateAll() {
+        ids.invalidateAll();
+        invalidationBus.ifPresent(bus -> bus.publish(nodeId + SEPARATOR + ALL_KEYS));
+    }
+
+    /**
+     * Xử lý thông điệp từ instance khác: {@code node|*} hoặc {@code node|userId|name}.
+     */
+    void onInvalidation(String message) {
+        if (message.startsWith(nodeId + SEPARATOR)) {
+            return;
+        }
+        String[] parts = message.split("\\|", 3);
+        if (parts.length == 2 && ALL_KEYS.equals(parts[1])) {
+            ids.invalidateAll();
+        } else if (parts.length == 3) {
+            UUID userId = "null".equals(parts[1]) ? null : UUID.fromString(parts[1]);
+            ids.invalidate(new Key(userId, parts[2]));
+        }
+    }
+
+    public Map<String, Object> stats() {
+        var stats = ids.stats();
+        return Map.of("name", NAME, "size", ids.estimatedSize(), "hitCount", stats.hitCount(),
+                "missCount", stats.missCount(), "hitRate", stats.hitRate());
+    }
+}
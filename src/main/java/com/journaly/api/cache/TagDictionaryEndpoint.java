@@ -0,0 +1,36 @@
+package com.journaly.api.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Endpoint quản trị cho từ điển tag:
+ * GET /actuator/tagdictionary để xem thống kê, DELETE để xóa toàn bộ trên mọi instance.
+ */
+@Slf4j
+@Component
+@Endpoint(id = "tagdictionary")
+@RequiredArgsConstructor
+public class TagDictionaryEndpoint {
+
+    private final TagDictionary tagDictionary;
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return tagDictionary.stats();
+    }
+
+    @DeleteOperation
+    public Map<String, Object> flush() {
+        Object sizeBefore = tagDictionary.stats().get("size");
+        tagDictionary.invalidateAll();
+        log.info("Tag dictionary flushed via admin endpoint ({} entries)", sizeBefore);
+        return Map.of("name", TagDictionary.NAME, "flushed", sizeBefore);
+    }
+}
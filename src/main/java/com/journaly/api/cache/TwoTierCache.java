@@ -0,0 +1,244 @@
+package com.journaly.api.cache;
+
+import com.azure.ai.textanalytics.models.DocumentSentiment;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Near-cache: L1 Caffeine trong tiến trình đứng trước L2 dùng chung ({@link RemoteSentimentStore}).
+ * <p>
+ * Đọc: L1 -> L2 -> (miss). Ghi: cả hai tầng. Evict/clear được phát qua pub/sub để các node khác xóa L1.
+ * Khi L2 lỗi, cache tạm thời chỉ dùng L1 trong {@code remoteRetryInterval} rồi mới thử lại,
+ * để một Redis chết không cộng thêm timeout vào mỗi request.
+ */
+@Slf4j
+public class TwoTierCache implements Cache {
+
+    private static final String SEPARATOR = "|";
+    private static final String ALL_KEYS = "*";
+
+    private final CaffeineCache local;
+    private final RemoteSentimentStore remote;
+    private final Duration timeToLive;
+    private final long remoteRetryIntervalMillis;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder remoteMisses = new LongAdder();
+    private final LongAdder remoteErrors = new LongAdder();
+    private volatile long remoteDisabledUntil;
+
+    public TwoTierCache(CaffeineCache local, RemoteSentimentStore remote,
+                        Duration timeToLive, Duration remoteRetryInterval) {
+        this.local = local;
+        this.remote = remote;
+        this.timeToLive = timeToLive;
+        this.remoteRetryIntervalMillis = remoteRetryInterval.toMillis();
+    }
+
+    @Override
+    public String getName() {
+        return local.getName();
+    }
+
+    @Override
+    public com.github.benmanes.caffeine.cache.Cache<Object, Object> getNativeCache() {
+        return local.getNativeCache();
+    }
+
+    public CaffeineCache getLocal() {
+        return local;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper wrapper = local.get(key);
+        if (wrapper != null) {
+            return wrapper;
+        }
+        DocumentSentiment value = getRemote(key);
+        if (value == null) {
+            return null;
+        }
+        local.put(key, value);
+        return new SimpleValueWrapper(value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = (wrapper != null ? wrapper.get() : null);
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return local.get(key, () -> {
+            DocumentSentiment value = getRemote(key);
+            if (value != null) {
+                return (T) value;
+            }
+            T loaded = valueLoader.call();
+            putRemote(key, loaded);
+            return loaded;
+        });
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        CompletableFuture<?> result = local.retrieve(key);
+        if (result != null) {
+            return result;
+        }
+        DocumentSentiment value = getRemote(key);
+        if (value == null) {
+            return null;
+        }
+        local.put(key, value);
+        return CompletableFuture.completedFuture(value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        return local.retrieve(key, () -> {
+            DocumentSentiment value = getRemote(key);
+            if (value != null) {
+                return CompletableFuture.completedFuture((T) value);
+            }
+            return valueLoader.get().thenApply(loaded -> {
+                putRemote(key, loaded);
+                return loaded;
+            });
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        local.put(key, value);
+        putRemote(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = local.putIfAbsent(key, value);
+        if (existing == null) {
+            putRemote(key, value);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictIfPresent(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = local.evictIfPresent(key);
+        runRemote("evict", () -> {
+            remote.evict(key.toString());
+            remote.publishInvalidation(nodeId + SEPARATOR + key);
+        });
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        invalidate();
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean notEmpty = local.invalidate();
+        runRemote("clear", () -> {
+            remote.clear();
+            remote.publishInvalidation(nodeId + SEPARATOR + ALL_KEYS);
+        });
+        return notEmpty;
+    }
+
+    /**
+     * Xử lý thông điệp invalidation từ node khác: chỉ xóa L1, L2 đã được node gửi xóa.
+     */
+    public void onInvalidation(String message) {
+        int separator = message.indexOf(SEPARATOR);
+        if (separator < 0 || message.startsWith(nodeId + SEPARATOR)) {
+            return;
+        }
+        String key = message.substring(separator + 1);
+        if (ALL_KEYS.equals(key)) {
+            local.invalidate();
+        } else {
+            local.evict(key);
+        }
+    }
+
+    public boolean isRemoteAvailable() {
+        return System.currentTimeMillis() >= remoteDisabledUntil;
+    }
+
+    public long getRemoteHits() {
+        return remoteHits.sum();
+    }
+
+    public long getRemoteMisses() {
+        return remoteMisses.sum();
+    }
+
+    public long getRemoteErrors() {
+        return remoteErrors.sum();
+    }
+
+    private DocumentSentiment getRemote(Object key) {
+        if (!isRemoteAvailable()) {
+            return null;
+        }
+        try {
+            DocumentSentiment value = SentimentCodec.decode(remote.get(key.toString()));
+            (value != null ? remoteHits : remoteMisses).increment();
+            return value;
+        } catch (RuntimeException e) {
+            onRemoteFailure("get", e);
+            return null;
+        }
+    }
+
+    private void putRemote(Object key, Object value) {
+        if (value instanceof DocumentSentiment sentiment) {
+            runRemote("put", () -> remote.put(key.toString(), SentimentCodec.encode(sentiment), timeToLive));
+        }
+    }
+
+    private void runRemote(String operation, Runnable call) {
+        if (!isRemoteAvailable()) {
+            return;
+        }
+        try {
+            call.run();
+        } catch (RuntimeException e) {
+            onRemoteFailure(operation, e);
+        }
+    }
+
+    private void onRemoteFailure(String operation, RuntimeException e) {
+        remoteErrors.increment();
+        remoteDisabledUntil = System.currentTimeMillis() + remoteRetryIntervalMillis;
+        log.warn("L2 sentiment cache '{}' failed ({}), serving from L1 only for the next {} ms",
+                operation, e.getMessage(), remoteRetryIntervalMillis);
+    }
+}
@@ -0,0 +1,40 @@
+package com.journaly.api.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+
+/**
+ * Metrics cho {@link TwoTierCache}: các meter chuẩn của Caffeine cho L1 cộng với bộ đếm cho L2.
+ */
+public class TwoTierCacheMeterBinderProvider implements CacheMeterBinderProvider<TwoTierCache> {
+
+    @Override
+    public MeterBinder getMeterBinder(TwoTierCache cache, Iterable<Tag> tags) {
+        return registry -> {
+            new CaffeineCacheMetrics<>(cache.getNativeCache(), cache.getName(), tags).bindTo(registry);
+
+            Tags cacheTags = Tags.of(tags).and("cache", cache.getName());
+            FunctionCounter.builder("cache.l2.gets", cache, TwoTierCache::getRemoteHits)
+                    .tags(cacheTags).tag("result", "hit")
+                    .description("Number of L1 misses served by the shared L2 cache")
+                    .register(registry);
+            FunctionCounter.builder("cache.l2.gets", cache, TwoTierCache::getRemoteMisses)
+                    .tags(cacheTags).tag("result", "miss")
+                    .description("Number of lookups missing both L1 and L2")
+                    .register(registry);
+            FunctionCounter.builder("cache.l2.errors", cache, TwoTierCache::getRemoteErrors)
+                    .tags(cacheTags)
+                    .description("Number of failed L2 operations")
+                    .register(registry);
+            Gauge.builder("cache.l2.available", cache, c -> c.isRemoteAvailable() ? 1 : 0)
+                    .tags(cacheTags)
+                    .description("Whether the shared L2 cache is currently in use")
+                    .register(registry);
+        };
+    }
+}
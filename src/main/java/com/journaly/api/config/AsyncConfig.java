@@ -1,37 +1,92 @@
 package com.journaly.api.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
 
+/**
+ * Executor cho {@code @Async} và các tác vụ AI.
+ * <p>
+ * Khi {@code spring.threads.virtual.enabled=true} (Spring Boot cũng chuyển Tomcat sang virtual thread),
+ * mỗi tác vụ chạy trên một virtual thread riêng và số tác vụ đồng thời được giới hạn bằng
+ * concurrency limit (semaphore) thay vì kích thước pool.
+ * Ở cả hai chế độ, hàng đợi, số tác vụ đang chạy và số tác vụ bị từ chối được xuất qua {@link ExecutorMetrics}.
+ */
 @Configuration
 @EnableAsync
-@EnableRetry
-public class AsyncConfig {
+@EnableScheduling
+public class AsyncConfig implements AsyncConfigurer {
+
+    @Value(ThreadFactories.VIRTUAL_THREADS_PROPERTY)
+    private boolean virtualThreads;
+
+    @Value("${execution.virtual.ai-concurrency:20}")
+    private int aiConcurrency;
+
+    @Value("${execution.virtual.general-concurrency:50}")
+    private int generalConcurrency;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     @Bean(name = "aiTaskExecutor")
     public Executor aiTaskExecutor() {
+        ExecutorMetrics metrics = new ExecutorMetrics("aiTaskExecutor", meterRegistry);
+        if (virtualThreads) {
+            return virtualExecutor("AI-", aiConcurrency, metrics);
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(5);
         executor.setMaxPoolSize(20);
         executor.setQueueCapacity(100);
         executor.setThreadNamePrefix("AI-");
+        executor.setTaskDecorator(metrics.decorator());
+        executor.setRejectedExecutionHandler(metrics.rejectionHandler());
         executor.initialize();
         return executor;
     }
 
     @Bean(name = "generalTaskExecutor")
     public Executor generalTaskExecutor() {
+        ExecutorMetrics metrics = new ExecutorMetrics("generalTaskExecutor", meterRegistry);
+        if (virtualThreads) {
+            return virtualExecutor("General-", generalConcurrency, metrics);
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(10);
         executor.setMaxPoolSize(50);
         executor.setQueueCapacity(200);
         executor.setThreadNamePrefix("General-");
+        executor.setTaskDecorator(metrics.decorator());
+        executor.setRejectedExecutionHandler(metrics.rejectionHandler());
         executor.initialize();
         return executor;
     }
+
+    /**
+     * {@code @Async} không chỉ định executor sẽ chạy trên generalTaskExecutor.
+     */
+    @Override
+    public Executor getAsyncExecutor() {
+        return generalTaskExecutor();
+    }
+
+    private static SimpleAsyncTaskExecutor virtualExecutor(String prefix, int concurrencyLimit, ExecutorMetrics metrics) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(prefix);
+        executor.setVirtualThreads(true);
+        executor.setTaskDecorator(metrics.decorator());
+        // Khi đủ giới hạn, thread gửi tác vụ sẽ chờ (virtual thread chờ gần như không tốn chi phí)
+        executor.setConcurrencyLimit(concurrencyLimit);
+        executor.setTaskTerminationTimeout(10_000);
+        return executor;
+    }
 }
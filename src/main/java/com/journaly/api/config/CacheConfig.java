@@ -1,22 +1,78 @@
 package com.journaly.api.config;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.journaly.api.cache.RemoteSentimentStore;
+import com.journaly.api.cache.SentimentWeigher;
+import com.journaly.api.cache.TwoTierCache;
+import com.journaly.api.cache.TwoTierCacheMeterBinderProvider;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
 @Slf4j
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
+    public static final String SENTIMENTS = "sentiments";
+
+    /**
+     * Cache Caffeine (W-TinyLFU) có giới hạn cả số entry lẫn dung lượng, hết hạn sau khi ghi.
+     * Thống kê hit/miss/eviction được Actuator tự động đăng ký vào Micrometer (cache.gets, cache.evictions...).
+     * <p>
+     * Khi có {@link RemoteSentimentStore} (cache.sentiments.mode=near), Caffeine trở thành L1 của {@link TwoTierCache}.
+     */
     @Bean
     @Primary
-    public CacheManager cacheManager() {
-        log.info("Using simple in-memory cache manager");
-        return new ConcurrentMapCacheManager("sentiments");
+    public CacheManager cacheManager(@Value("${cache.sentiments.maximum-size:10000}") long maximumSize,
+                                     @Value("${cache.sentiments.maximum-weight-bytes:16777216}") long maximumWeightBytes,
+                                     @Value("${cache.sentiments.expire-after-write:6h}") Duration expireAfterWrite,
+                                     @Value("${cache.sentiments.remote-retry-interval:30s}") Duration remoteRetryInterval,
+                                     Optional<RemoteSentimentStore> remoteStore) {
+        int minimumEntryWeight = (int) Math.max(1, maximumWeightBytes / Math.max(1, maximumSize));
+        AsyncCache<Object, Object> l1 = Caffeine.newBuilder()
+                .maximumWeight(maximumWeightBytes)
+                .weigher(new SentimentWeigher(minimumEntryWeight))
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+
+        if (remoteStore.isPresent()) {
+            TwoTierCache cache = new TwoTierCache(new CaffeineCache(SENTIMENTS, l1, true),
+                    remoteStore.get(), expireAfterWrite, remoteRetryInterval);
+            remoteStore.get().subscribeInvalidations(cache::onInvalidation);
+
+            SimpleCacheManager cacheManager = new SimpleCacheManager();
+            cacheManager.setCaches(List.of(cache));
+            log.info("Using two-tier cache manager (Caffeine L1 + Redis L2): maxEntries={}, maxWeightBytes={}, expireAfterWrite={}",
+                    maximumSize, maximumWeightBytes, expireAfterWrite);
+            return cacheManager;
+        }
+
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Async mode để @Cacheable trên analyzeSentimentOrThrowAsync (trả về CompletableFuture) vẫn hoạt động
+        cacheManager.setAsyncCacheMode(true);
+        cacheManager.registerCustomCache(SENTIMENTS, l1);
+
+        log.info("Using Caffeine cache manager: maxEntries={}, maxWeightBytes={}, expireAfterWrite={}",
+                maximumSize, maximumWeightBytes, expireAfterWrite);
+        return cacheManager;
+    }
+
+    @Bean
+    public TwoTierCacheMeterBinderProvider twoTierCacheMeterBinderProvider() {
+        return new TwoTierCacheMeterBinderProvider();
     }
 }
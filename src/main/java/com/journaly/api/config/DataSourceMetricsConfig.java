@@ -0,0 +1,30 @@
+package com.journaly.api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Gắn {@link EndpointPoolMetricsTrackerFactory} vào mọi pool Hikari trước khi pool khởi động.
+ * Spring Boot chỉ tự gắn tracker Micrometer khi pool chưa có tracker nào, nên hai cách không chồng nhau.
+ */
+@Configuration(proxyBeanMethods = false)
+public class DataSourceMetricsConfig {
+
+    @Bean
+    static BeanPostProcessor endpointPoolMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari
+                        && hikari.getMetricsTrackerFactory() == null && hikari.getMetricRegistry() == null) {
+                    hikari.setMetricsTrackerFactory(new EndpointPoolMetricsTrackerFactory(meterRegistry));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,121 @@
+package com.journaly.api.config;
+
+import com.journaly.api.trace.RequestTrace;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics tracker của Hikari ghi thêm thời gian chờ connection theo endpoint.
+ * <p>
+ * Hikari gọi {@code recordConnectionAcquiredNanos} trên chính thread vừa lấy được connection, nên có thể
+ * đọc request hiện tại từ {@link RequestContextHolder}. Tag {@code uri} là route pattern (ví dụ
+ * {@code /api/entries/{entryId}}) giống {@code http.server.requests}, nên số chuỗi tag chỉ bằng số route;
+ * connection lấy ngoài request (worker, job) có {@code uri=none}. Các meter {@code hikaricp.*} chuẩn vẫn
+ * được ghi qua {@link MicrometerMetricsTrackerFactory}; thời gian chờ cũng vào {@link RequestTrace} (bước
+ * {@code db_wait}).
+ */
+class EndpointPoolMetricsTrackerFactory implements MetricsTrackerFactory {
+
+    private static final String NONE = "none";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    EndpointPoolMetricsTrackerFactory(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        // Pool chỉ được tạo ở lần lấy connection đầu tiên, lúc đó registry đã sẵn sàng
+        MeterRegistry registry = meterRegistry.getObject();
+        return new Tracker(poolName, new MicrometerMetricsTrackerFactory(registry).create(poolName, poolStats), registry);
+    }
+
+    private static final class Tracker implements IMetricsTracker {
+
+        private final String poolName;
+        private final IMetricsTracker delegate;
+        private final MeterRegistry registry;
+        private final Map<String, Map<String, Timer>> acquireTimers = new ConcurrentHashMap<>();
+        private final Map<String, Map<String, Counter>> timeoutCounters = new ConcurrentHashMap<>();
+
+        Tracker(String poolName, IMetricsTracker delegate, MeterRegistry registry) {
+            this.poolName = poolName;
+            this.delegate = delegate;
+            this.registry = registry;
+        }
+
+        @Override
+        public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+            delegate.recordConnectionCreatedMillis(connectionCreatedMillis);
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            delegate.recordConnectionAcquiredNanos(elapsedAcquiredNanos);
+            RequestTrace.record("db_wait", elapsedAcquiredNanos);
+            HttpServletRequest request = currentRequest();
+            String method = request != null ? request.getMethod() : NONE;
+            String uri = uri(request);
+            acquireTimers.computeIfAbsent(uri, key -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(method, key -> Timer.builder("db.connection.acquire")
+                            .description("Time spent waiting for a pooled connection, by endpoint")
+                            .tags("pool", poolName, "method", method, "uri", uri)
+                            .register(registry))
+                    .record(elapsedAcquiredNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            delegate.recordConnectionUsageMillis(elapsedBorrowedMillis);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            delegate.recordConnectionTimeout();
+            HttpServletRequest request = currentRequest();
+            String method = request != null ? request.getMethod() : NONE;
+            String uri = uri(request);
+            timeoutCounters.computeIfAbsent(uri, key -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(method, key -> Counter.builder("db.connection.timeouts")
+                            .description("Connection requests that timed out waiting for the pool, by endpoint")
+                            .tags("pool", poolName, "method", method, "uri", uri)
+                            .register(registry))
+                    .increment();
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+
+        private static HttpServletRequest currentRequest() {
+            RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+            return attributes instanceof ServletRequestAttributes servlet ? servlet.getRequest() : null;
+        }
+
+        private static String uri(HttpServletRequest request) {
+            if (request == null) {
+                return NONE;
+            }
+            // Request chưa khớp route nào (filter, 404) không được dùng URI thật làm tag
+            return request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) instanceof String pattern
+                    ? pattern : "UNKNOWN";
+        }
+    }
+}
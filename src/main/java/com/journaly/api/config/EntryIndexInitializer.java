@@ -0,0 +1,62 @@
+package com.journaly.api.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Partial index trên journal_entries mà JPA không khai báo được (PostgreSQL):
+ * <ul>
+ *     <li>keyset theo user chỉ trên dòng chưa xóa, khớp điều kiện {@code deleted_at is null} mà
+ *     {@code @SQLRestriction} thêm vào mọi truy vấn, nên bài viết đã xóa không làm phình index đọc;</li>
+ *     <li>{@code deleted_at} chỉ trên dòng đã xóa, cho job purge tìm dòng hết hạn mà không quét bảng.</li>
+ * </ul>
+ * Index được tạo {@code concurrently} (không khóa ghi) nên phải chạy ở chế độ auto-commit, ngoài transaction.
+ * Trên database khác không làm gì; index thường {@code idx_journal_entries_user_created_id} vẫn được dùng.
+ */
+@Slf4j
+@Component
+public class EntryIndexInitializer {
+
+    private static final List<String> INDEXES = List.of(
+            "create index concurrently if not exists idx_journal_entries_live_user_created_id " +
+                    "on journal_entries (user_id, created_at, id) where deleted_at is null",
+            "create index concurrently if not exists idx_journal_entries_deleted_at " +
+                    "on journal_entries (deleted_at) where deleted_at is not null");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EntryIndexInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createPartialIndexes() {
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+                    return null;
+                }
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    for (String sql : INDEXES) {
+                        statement.execute(sql);
+                    }
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+                log.info("Partial indexes on journal_entries are ready");
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.error("Could not create partial indexes on journal_entries: {}", e.getMessage());
+        }
+    }
+}
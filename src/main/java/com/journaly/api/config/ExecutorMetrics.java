@@ -0,0 +1,79 @@
+package com.journaly.api.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Metrics chung cho executor ở cả hai chế độ thread, tag {@code executor} là tên bean.
+ * <p>
+ * Với pool platform, Spring Boot đã đăng ký {@code executor.*} từ ThreadPoolExecutor, nhưng không có gì cho
+ * {@link org.springframework.core.task.SimpleAsyncTaskExecutor} (virtual thread) và không đếm tác vụ bị
+ * từ chối. Ở đây tác vụ được đếm qua {@link TaskDecorator}: "queued" là đã gửi nhưng chưa chạy (nằm trong
+ * hàng đợi của pool, hoặc đang chờ concurrency limit với virtual thread), "active" là đang chạy.
+ */
+final class ExecutorMetrics {
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final Timer wait;
+    private final Counter rejected;
+
+    ExecutorMetrics(String executor, MeterRegistry meterRegistry) {
+        Gauge.builder("task.executor.queued", queued, AtomicInteger::get)
+                .description("Tasks submitted but not yet started")
+                .tag("executor", executor)
+                .register(meterRegistry);
+        Gauge.builder("task.executor.active", active, AtomicInteger::get)
+                .description("Tasks currently running")
+                .tag("executor", executor)
+                .register(meterRegistry);
+        this.wait = Timer.builder("task.executor.wait")
+                .description("Time between submission and start of a task")
+                .tag("executor", executor)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("task.executor.rejected")
+                .description("Tasks rejected because the pool and its queue were full")
+                .tag("executor", executor)
+                .register(meterRegistry);
+    }
+
+    TaskDecorator decorator() {
+        return task -> {
+            long submitted = System.nanoTime();
+            queued.incrementAndGet();
+            return new Runnable() {
+                @Override
+                public void run() {
+                    queued.decrementAndGet();
+                    wait.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                    active.incrementAndGet();
+                    try {
+                        task.run();
+                    } finally {
+                        active.decrementAndGet();
+                    }
+                }
+            };
+        };
+    }
+
+    /**
+     * Như {@link ThreadPoolExecutor.AbortPolicy} (mặc định của pool) nhưng đếm tác vụ bị từ chối.
+     */
+    RejectedExecutionHandler rejectionHandler() {
+        return (task, executor) -> {
+            queued.decrementAndGet();
+            rejected.increment();
+            throw new RejectedExecutionException("Task " + task + " rejected from " + executor);
+        };
+    }
+}
@@ -0,0 +1,105 @@
+package com.journaly.api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Tách đọc/ghi khi {@code datasource.replica.enabled=true}: transaction {@code readOnly} (danh sách, chi tiết,
+ * tìm kiếm, export...) dùng pool của replica, phần còn lại dùng primary ({@link ReadWriteRoutingDataSource}).
+ * <p>
+ * Khi bật, cấu hình này thay thế DataSource tự động của Spring Boot bằng hai pool Hikari:
+ * <ul>
+ *     <li>{@code primary}: {@code spring.datasource.*} và {@code spring.datasource.hikari.*} như trước;</li>
+ *     <li>{@code replica}: {@code datasource.replica.url/username/password}, các thiết lập pool mặc định lấy
+ *     theo primary (auto-commit phải giống nhau vì Hibernate được báo pool đã tắt auto-commit), ghi đè bằng
+ *     {@code datasource.replica.hikari.*}. Pool khởi động được cả khi replica chưa sẵn sàng.</li>
+ * </ul>
+ * Hai pool không phải ứng viên mặc định khi inject {@link DataSource}, nên JPA, JdbcTemplate và health check
+ * {@code db} chỉ thấy DataSource định tuyến (ngoài transaction là primary); trạng thái replica nằm ở health
+ * {@code replica}.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean(defaultCandidate = false)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(defaultCandidate = false)
+    @ConfigurationProperties("datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Qualifier("primaryDataSource") HikariDataSource primary,
+                                              @Value("${datasource.replica.url}") String url,
+                                              @Value("${datasource.replica.username:}") String username,
+                                              @Value("${datasource.replica.password:}") String password,
+                                              @Value("${datasource.replica.driver-class-name:}") String driver) {
+        DataSourceBuilder<HikariDataSource> builder = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url)
+                .username(username.isEmpty() ? primary.getUsername() : username)
+                .password(username.isEmpty() ? primary.getPassword() : password);
+        if (!driver.isEmpty()) {
+            builder.driverClassName(driver);
+        }
+        HikariDataSource dataSource = builder.build();
+        dataSource.setPoolName("replica");
+        dataSource.setAutoCommit(primary.isAutoCommit());
+        dataSource.setMaximumPoolSize(primary.getMaximumPoolSize());
+        dataSource.setMinimumIdle(primary.getMinimumIdle());
+        dataSource.setIdleTimeout(primary.getIdleTimeout());
+        dataSource.setMaxLifetime(primary.getMaxLifetime());
+        dataSource.setReadOnly(true);
+        // Không chặn khởi động khi replica hỏng; đọc sẽ về primary cho tới khi replica kết nối lại được
+        dataSource.setInitializationFailTimeout(-1);
+        log.info("Routing read-only transactions to the replica at {}", url);
+        return dataSource;
+    }
+
+    @Bean
+    ReplicaMonitor replicaMonitor(@Qualifier("replicaDataSource") HikariDataSource replica,
+                                  @Value("${datasource.replica.lag-query:}") String lagQuery,
+                                  @Value("${datasource.replica.max-lag:5s}") Duration maxLag,
+                                  MeterRegistry meterRegistry) {
+        return new ReplicaMonitor(replica, lagQuery, maxLag, meterRegistry);
+    }
+
+    @Bean
+    public HealthIndicator replicaHealthIndicator(ReplicaMonitor replicaMonitor) {
+        return replicaMonitor::health;
+    }
+
+    /**
+     * DataSource dùng chung của ứng dụng. {@link LazyConnectionDataSourceProxy} hoãn việc lấy connection thật tới
+     * câu lệnh đầu tiên, lúc transaction đã được đánh dấu read-only, để việc định tuyến thấy đúng cờ đó.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primary,
+                                 @Qualifier("replicaDataSource") HikariDataSource replica,
+                                 ReplicaMonitor replicaMonitor,
+                                 MeterRegistry meterRegistry) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primary, replica, replicaMonitor, meterRegistry));
+        dataSource.setDefaultAutoCommit(primary.isAutoCommit());
+        return dataSource;
+    }
+}
@@ -0,0 +1,111 @@
+package com.journaly.api.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Chọn primary hoặc replica cho mỗi connection:
+ * <ul>
+ *     <li>transaction {@code readOnly} đi replica, trừ khi request hiện tại đã ghi (đọc lại dữ liệu vừa ghi
+ *     phải thấy ngay), hoặc replica đang hỏng/trễ quá ngưỡng ({@link ReplicaMonitor});</li>
+ *     <li>mọi thứ khác (transaction ghi, truy cập ngoài transaction như DDL, health check) đi primary.</li>
+ * </ul>
+ * Phải được bọc trong {@code LazyConnectionDataSourceProxy}: connection thật chỉ được lấy ở câu lệnh đầu tiên,
+ * khi cờ read-only của transaction đã được đặt. Lấy connection replica thất bại thì chuyển sang primary ngay.
+ */
+class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    // Đánh dấu trong request attributes, nên tự hết khi request kết thúc
+    static final String PRIMARY_PIN_ATTRIBUTE = ReadWriteRoutingDataSource.class.getName() + ".PINNED";
+
+    enum Target { PRIMARY, REPLICA }
+
+    enum Reason { NO_TRANSACTION, WRITE, PINNED, REPLICA_DOWN, REPLICA_LAGGING, FAILOVER, READ }
+
+    private record Route(Target target, Reason reason) {
+    }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaMonitor monitor;
+    private final Map<Reason, Counter> routed = new EnumMap<>(Reason.class);
+
+    ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaMonitor monitor,
+                               MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.monitor = monitor;
+        for (Reason reason : Reason.values()) {
+            Target target = reason == Reason.READ ? Target.REPLICA : Target.PRIMARY;
+            routed.put(reason, Counter.builder("db.routing.connections")
+                    .description("Connections handed out by the read/write router")
+                    .tags("target", target.name().toLowerCase(), "reason", reason.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Route route = route();
+        routed.get(route.reason()).increment();
+        if (route.target() == Target.PRIMARY) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            monitor.markDown(e);
+            routed.get(Reason.FAILOVER).increment();
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Chỉ dùng khi cấu hình tài khoản riêng cho từng lần lấy; không định tuyến
+        return primary.getConnection(username, password);
+    }
+
+    private Route route() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return new Route(Target.PRIMARY, Reason.NO_TRANSACTION);
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            pinCurrentRequest();
+            return new Route(Target.PRIMARY, Reason.WRITE);
+        }
+        if (isCurrentRequestPinned()) {
+            return new Route(Target.PRIMARY, Reason.PINNED);
+        }
+        if (!monitor.isAvailable()) {
+            return new Route(Target.PRIMARY, Reason.REPLICA_DOWN);
+        }
+        if (monitor.isLagging()) {
+            return new Route(Target.PRIMARY, Reason.REPLICA_LAGGING);
+        }
+        return new Route(Target.REPLICA, Reason.READ);
+    }
+
+    private static void pinCurrentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(PRIMARY_PIN_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    private static boolean isCurrentRequestPinned() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null
+                && attributes.getAttribute(PRIMARY_PIN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+}
@@ -0,0 +1,78 @@
+package com.journaly.api.config;
+
+import com.journaly.api.cache.InvalidationBus;
+import com.journaly.api.cache.RedisInvalidationBus;
+import com.journaly.api.cache.RedisSentimentStore;
+import com.journaly.api.cache.RemoteSentimentStore;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.SocketOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+
+/**
+ * Redis làm L2 cho cache "sentiments" (cache.sentiments.mode=near).
+ * RedisAutoConfiguration bị loại trừ trong ApiApplication nên connection factory được khai báo tại đây.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "cache.sentiments.mode", havingValue = "near")
+public class RedisCacheConfig {
+
+    @Bean
+    public LettuceConnectionFactory redisConnectionFactory(@Value("${spring.data.redis.host:localhost}") String host,
+                                                           @Value("${spring.data.redis.port:6379}") int port,
+                                                           @Value("${spring.data.redis.password:}") String password,
+                                                           @Value("${spring.data.redis.timeout:2000ms}") Duration timeout) {
+        if (host.isBlank()) {
+            host = "localhost";
+        }
+        RedisStandaloneConfiguration server = new RedisStandaloneConfiguration(host, port);
+        if (!password.isEmpty()) {
+            server.setPassword(password);
+        }
+        // Timeout ngắn cho cả connect lẫn command: Redis chỉ là cache, không được làm chậm request
+        LettuceClientConfiguration client = LettuceClientConfiguration.builder()
+                .commandTimeout(timeout)
+                .clientOptions(ClientOptions.builder()
+                        .socketOptions(SocketOptions.builder().connectTimeout(timeout).build())
+                        .build())
+                .build();
+        log.info("Configuring Redis L2 sentiment cache at {}:{}", host, port);
+        return new LettuceConnectionFactory(server, client);
+    }
+
+    @Bean
+    public RedisTemplate<String, byte[]> sentimentRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        return template;
+    }
+
+    @Bean
+    public RemoteSentimentStore redisSentimentStore(RedisTemplate<String, byte[]> sentimentRedisTemplate,
+                                                    RedisConnectionFactory connectionFactory) {
+        return new RedisSentimentStore(sentimentRedisTemplate, connectionFactory);
+    }
+
+    /**
+     * Invalidation cho từ điển tag ({@link com.journaly.api.cache.TagDictionary}) giữa các instance.
+     */
+    @Bean
+    public InvalidationBus tagInvalidationBus(RedisTemplate<String, byte[]> sentimentRedisTemplate,
+                                              RedisConnectionFactory connectionFactory) {
+        return new RedisInvalidationBus(sentimentRedisTemplate, connectionFactory, "journaly:tags:invalidate");
+    }
+}
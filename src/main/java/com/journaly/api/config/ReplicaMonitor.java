@@ -0,0 +1,119 @@
+package com.journaly.api.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Theo dõi replica: còn kết nối được không và trễ bao nhiêu so với primary.
+ * <p>
+ * Mỗi {@code datasource.replica.check-interval} chạy câu lệnh đo độ trễ (giây) trên replica. Mặc định trên
+ * PostgreSQL là khoảng thời gian từ giao dịch cuối được replay (bằng 0 khi đã replay hết WAL nhận được, để
+ * primary rảnh không bị tính là trễ); database khác không đo được nên coi như không trễ, trừ khi cấu hình
+ * {@code datasource.replica.lag-query} (vd: đọc bảng heartbeat do primary ghi).
+ * <p>
+ * Replica chỉ được dùng khi lần kiểm tra gần nhất thành công và độ trễ không quá {@code max-lag}. Khi lấy
+ * connection từ replica thất bại, {@link ReadWriteRoutingDataSource} gọi {@link #markDown} để các request sau
+ * về primary ngay, không chờ lần kiểm tra kế tiếp.
+ */
+@Slf4j
+class ReplicaMonitor {
+
+    static final String POSTGRES_LAG_QUERY = "select case when not pg_is_in_recovery() " +
+            "or pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 " +
+            "else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0) end";
+    private static final String NO_LAG_QUERY = "select 0";
+    private static final int QUERY_TIMEOUT_SECONDS = 2;
+
+    private final DataSource replica;
+    private final String configuredLagQuery;
+    private final Duration maxLag;
+
+    private volatile boolean available;
+    private volatile double lagSeconds;
+    private volatile String lastError;
+
+    ReplicaMonitor(DataSource replica, String lagQuery, Duration maxLag, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.configuredLagQuery = lagQuery;
+        this.maxLag = maxLag;
+        Gauge.builder("db.replica.available", this, monitor -> monitor.available ? 1 : 0)
+                .description("Whether the read replica answered the last health check")
+                .register(meterRegistry);
+        Gauge.builder("db.replica.lag", this, monitor -> monitor.lagSeconds)
+                .description("Replication lag measured on the read replica")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.check-interval:5s}")
+    public void check() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+            double lag;
+            try (ResultSet resultSet = statement.executeQuery(lagQuery(connection))) {
+                lag = resultSet.next() ? resultSet.getDouble(1) : 0;
+            } finally {
+                // Pool tắt auto-commit: kết thúc transaction đọc trước khi trả connection
+                connection.rollback();
+            }
+            lagSeconds = lag;
+            lastError = null;
+            if (!available) {
+                log.info("Read replica is available (lag {}s)", lag);
+            }
+            available = true;
+        } catch (SQLException | RuntimeException e) {
+            markDown(e);
+        }
+    }
+
+    void markDown(Exception cause) {
+        lastError = cause.getMessage();
+        if (available) {
+            log.warn("Read replica is unavailable, routing reads to the primary: {}", cause.getMessage());
+        }
+        available = false;
+    }
+
+    boolean isAvailable() {
+        return available;
+    }
+
+    boolean isLagging() {
+        return lagSeconds * 1000 > maxLag.toMillis();
+    }
+
+    /**
+     * Trạng thái replica cho actuator. Luôn UP: khi replica hỏng hoặc trễ, việc đọc đã chuyển về primary.
+     */
+    Health health() {
+        Health.Builder health = Health.up()
+                .withDetail("available", available)
+                .withDetail("lagSeconds", lagSeconds)
+                .withDetail("maxLagSeconds", maxLag.toMillis() / 1000.0)
+                .withDetail("readsRoutedTo", available && !isLagging() ? "replica" : "primary");
+        if (lastError != null) {
+            health.withDetail("error", lastError);
+        }
+        return health.build();
+    }
+
+    private String lagQuery(Connection connection) throws SQLException {
+        if (!configuredLagQuery.isBlank()) {
+            return configuredLagQuery;
+        }
+        boolean postgres = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        return postgres ? POSTGRES_LAG_QUERY : NO_LAG_QUERY;
+    }
+}
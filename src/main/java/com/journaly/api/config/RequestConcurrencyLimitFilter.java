@@ -0,0 +1,85 @@
+package com.journaly.api.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import com.journaly.api.trace.RequestTrace;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Giới hạn số request xử lý đồng thời khi Tomcat chạy trên virtual thread.
+ * <p>
+ * Với virtual thread, {@code server.tomcat.max-threads} không còn giới hạn gì; semaphore này thay thế nó
+ * để một đợt tăng tải không dồn hết vào pool connection và Azure. Request chờ tối đa
+ * {@code execution.virtual.request-queue-timeout}, sau đó nhận 503. Thời gian chờ được ghi vào
+ * {@link RequestTrace} (bước {@code queue}).
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class RequestConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long queueTimeoutMillis;
+
+    public RequestConcurrencyLimitFilter(@Value("${execution.virtual.max-concurrent-requests:400}") int maxConcurrentRequests,
+                                         @Value("${execution.virtual.request-queue-timeout:2s}") Duration queueTimeout,
+                                         MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxConcurrentRequests);
+        this.queueTimeoutMillis = queueTimeout.toMillis();
+        Gauge.builder("http.server.requests.in.flight", permits, p -> maxConcurrentRequests - p.availablePermits())
+                .description("Requests currently holding a concurrency permit")
+                .register(meterRegistry);
+        Gauge.builder("http.server.requests.queued", permits, Semaphore::getQueueLength)
+                .description("Requests waiting for a concurrency permit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Health check không được bị từ chối khi hệ thống quá tải
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        long waitStarted = System.nanoTime();
+        try {
+            acquired = permits.tryAcquire(queueTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        RequestTrace.record("queue", System.nanoTime() - waitStarted);
+        if (!acquired) {
+            log.warn("Rejecting {} {}: concurrent request limit reached", request.getMethod(), request.getRequestURI());
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
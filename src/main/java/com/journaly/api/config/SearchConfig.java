@@ -0,0 +1,37 @@
+package com.journaly.api.config;
+
+import com.journaly.api.search.EntrySearchIndex;
+import com.journaly.api.search.InMemoryEntrySearchIndex;
+import com.journaly.api.search.PostgresEntrySearchIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/**
+ * Chọn engine tìm kiếm: {@code search.engine=postgres|memory}, hoặc {@code auto} (mặc định) để dùng
+ * PostgreSQL khi database là PostgreSQL và chỉ mục trong bộ nhớ cho H2/dev.
+ */
+@Slf4j
+@Configuration
+public class SearchConfig {
+
+    @Bean
+    public EntrySearchIndex entrySearchIndex(NamedParameterJdbcTemplate jdbcTemplate,
+                                             @Value("${search.engine:auto}") String engine) {
+        if ("auto".equals(engine)) {
+            String product = jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            engine = "PostgreSQL".equals(product) ? "postgres" : "memory";
+        }
+        EntrySearchIndex index = switch (engine) {
+            case "postgres" -> new PostgresEntrySearchIndex(jdbcTemplate);
+            case "memory" -> new InMemoryEntrySearchIndex(jdbcTemplate);
+            default -> throw new IllegalStateException("Unknown search.engine: " + engine);
+        };
+        log.info("Using {} full-text search", index.name());
+        return index;
+    }
+}
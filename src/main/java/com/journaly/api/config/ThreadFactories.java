@@ -0,0 +1,38 @@
+package com.journaly.api.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Tạo thread/executor cho các thành phần tự quản lý thread, theo chế độ thực thi
+ * ({@code spring.threads.virtual.enabled}).
+ */
+public final class ThreadFactories {
+
+    public static final String VIRTUAL_THREADS_PROPERTY = "${spring.threads.virtual.enabled:false}";
+
+    private ThreadFactories() {
+    }
+
+    /**
+     * Thread có tên {@code prefix + số thứ tự}; thread platform luôn là daemon.
+     */
+    public static ThreadFactory named(String prefix, boolean virtual) {
+        return virtual
+                ? Thread.ofVirtual().name(prefix, 1).factory()
+                : Thread.ofPlatform().name(prefix, 1).daemon(true).factory();
+    }
+
+    /**
+     * Executor cho tối đa {@code threads} tác vụ đồng thời.
+     * <p>
+     * Ở chế độ virtual thread, mỗi tác vụ chạy trên một virtual thread mới (không pool); caller phải
+     * tự giới hạn số tác vụ đồng thời bằng semaphore. Ở chế độ platform là pool cố định {@code threads} thread.
+     */
+    public static ExecutorService boundedExecutor(String prefix, int threads, boolean virtual) {
+        return virtual
+                ? Executors.newThreadPerTaskExecutor(named(prefix, true))
+                : Executors.newFixedThreadPool(threads, named(prefix, false));
+    }
+}
@@ -0,0 +1,79 @@
+package com.journaly.api.controller;
+
+import com.journaly.api.dto.VersionStamp;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * GET có điều kiện dựa trên {@link VersionStamp} đọc trước tài nguyên: khi {@code If-None-Match} hoặc
+ * {@code If-Modified-Since} khớp, controller trả 304 mà không nạp hay serialize tài nguyên.
+ * <p>
+ * Không dùng {@code WebRequest.checkNotModified}: hàm đó ghi ETag vào response ngay cả khi không khớp,
+ * rồi {@link ResponseEntity} của phản hồi 200 lại thêm một ETag thứ hai.
+ */
+final class ConditionalGet {
+
+    // Bài viết đổi bất cứ lúc nào (chấm điểm nền), nên client luôn phải hỏi lại thay vì tự đoán độ tươi
+    // từ Last-Modified; private vì dữ liệu là của riêng user
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ConditionalGet() {
+    }
+
+    static boolean isConditional(HttpHeaders request) {
+        return request.containsKey(HttpHeaders.IF_NONE_MATCH) || request.containsKey(HttpHeaders.IF_MODIFIED_SINCE);
+    }
+
+    /**
+     * Theo RFC 9110: có {@code If-None-Match} thì chỉ so ETag (so sánh yếu, chấp nhận {@code *}),
+     * không thì so {@code If-Modified-Since} theo giây.
+     */
+    static boolean notModified(HttpHeaders request, VersionStamp stamp) {
+        if (request.containsKey(HttpHeaders.IF_NONE_MATCH)) {
+            ETag current = ETag.create(etag(stamp));
+            for (String value : request.getOrEmpty(HttpHeaders.IF_NONE_MATCH)) {
+                for (ETag candidate : ETag.parse(value)) {
+                    if (candidate.isWildcard() || candidate.compare(current, false)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+        long since = ifModifiedSince(request);
+        return since >= 0 && stamp.lastModified() != null
+                && stamp.lastModified().toEpochSecond() * 1000 <= since;
+    }
+
+    static <T> ResponseEntity<T> notModifiedResponse(VersionStamp stamp) {
+        return validators(ResponseEntity.status(HttpStatus.NOT_MODIFIED), stamp).build();
+    }
+
+    static ResponseEntity.BodyBuilder ok(VersionStamp stamp) {
+        return validators(ResponseEntity.ok(), stamp);
+    }
+
+    private static ResponseEntity.BodyBuilder validators(ResponseEntity.BodyBuilder builder, VersionStamp stamp) {
+        builder.cacheControl(REVALIDATE).eTag(etag(stamp));
+        if (stamp.lastModified() != null) {
+            builder.lastModified(stamp.lastModified().toInstant());
+        }
+        return builder;
+    }
+
+    static String etag(VersionStamp stamp) {
+        return "\"" + stamp.version() + "\"";
+    }
+
+    // Ngày sai định dạng thì bỏ qua header, như thể request không có điều kiện
+    private static long ifModifiedSince(HttpHeaders request) {
+        try {
+            return request.getIfModifiedSince();
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+}
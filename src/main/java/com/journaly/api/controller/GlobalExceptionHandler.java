@@ -1,8 +1,10 @@
 package com.journaly.api.controller;
 
+import com.journaly.api.service.ConcurrentOperationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
@@ -28,6 +30,35 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
     }
 
+    // Hai request cùng sửa một bài viết (hoặc chấm điểm nền chen giữa): client đọc lại rồi gửi lại
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<?> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException ex,
+                                                            WebRequest request) {
+        log.warn("Concurrent update: {}", ex.getMessage());
+
+        Map<String, Object> errorDetails = new HashMap<>();
+        errorDetails.put("timestamp", new Date());
+        errorDetails.put("message", "The entry was modified concurrently, please retry");
+        errorDetails.put("status", HttpStatus.CONFLICT.value());
+        errorDetails.put("error", "Conflict");
+
+        return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+    }
+
+    // Cùng import id đang được request khác ghi, hoặc rebuild đang chạy: thử lại sau
+    @ExceptionHandler(ConcurrentOperationException.class)
+    public ResponseEntity<?> handleConcurrentOperation(ConcurrentOperationException ex, WebRequest request) {
+        log.warn("Concurrent operation: {}", ex.getMessage());
+
+        Map<String, Object> errorDetails = new HashMap<>();
+        errorDetails.put("timestamp", new Date());
+        errorDetails.put("message", ex.getMessage());
+        errorDetails.put("status", HttpStatus.CONFLICT.value());
+        errorDetails.put("error", "Conflict");
+
+        return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<?> handleRuntimeException(RuntimeException ex, WebRequest request) {
         log.error("RuntimeException: {}", ex.getMessage());
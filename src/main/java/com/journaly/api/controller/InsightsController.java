@@ -0,0 +1,40 @@
+package com.journaly.api.controller;
+
+import com.journaly.api.dto.MoodSeriesResponse;
+import com.journaly.api.service.MoodGranularity;
+import com.journaly.api.service.MoodInsightsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/insights")
+@RequiredArgsConstructor
+public class InsightsController {
+
+    private final MoodInsightsService moodInsightsService;
+
+    /**
+     * Chuỗi tâm trạng kèm trung bình trượt, vd: {@code GET /api/insights/mood?granularity=week&window=4}.
+     * @param granularity day, week hoặc month
+     * @param from ngày bắt đầu (yyyy-MM-dd), mặc định lùi một số kỳ tùy granularity
+     * @param to ngày kết thúc (yyyy-MM-dd), mặc định hôm nay
+     * @param window số kỳ của trung bình trượt
+     */
+    @GetMapping("/mood")
+    public ResponseEntity<MoodSeriesResponse> getMoodSeries(
+            @RequestParam(value = "granularity", defaultValue = "day") String granularity,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "window", defaultValue = "7") int window) {
+        return ResponseEntity.ok(moodInsightsService.series(MoodGranularity.from(granularity), from, to, window));
+    }
+}
@@ -2,19 +2,38 @@ package com.journaly.api.controller;
 
 import com.journaly.api.dto.CreateEntryRequest;
 import com.journaly.api.dto.CreateEntryResponse;
+import com.journaly.api.dto.EntryDetail;
+import com.journaly.api.dto.EntrySearchHit;
+import com.journaly.api.dto.EntrySliceResponse;
+import com.journaly.api.dto.EntrySummary;
+import com.journaly.api.dto.ImportResult;
 import com.journaly.api.dto.UpdateTagsRequest;
+import com.journaly.api.dto.VersionStamp;
 import com.journaly.api.entity.JournalEntry;
+import com.journaly.api.service.EntryExportService;
+import com.journaly.api.service.EntryImportService;
+import com.journaly.api.service.EntrySearchService;
+import com.journaly.api.service.ExportFormat;
 import com.journaly.api.service.JournalService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
 @Slf4j
 @RestController
@@ -23,6 +42,9 @@ import java.util.UUID;
 public class JournalController {
 
     private final JournalService journalService;
+    private final EntryExportService entryExportService;
+    private final EntryImportService entryImportService;
+    private final EntrySearchService entrySearchService;
 
     /**
      * API Endpoint để tạo một bài nhật ký mới.
@@ -51,21 +73,122 @@ public class JournalController {
     }
 
     /**
-     * Get all journal entries with pagination
+     * Get all journal entries with pagination.
+     * ETag là phiên bản gộp của mọi danh sách bài viết; {@code If-None-Match} khớp thì trả 304 không đọc trang.
      */
     @GetMapping
-    public ResponseEntity<Page<JournalEntry>> getAllEntries(Pageable pageable) {
-        Page<JournalEntry> entries = journalService.getAllEntries(pageable);
-        return ResponseEntity.ok(entries);
+    public ResponseEntity<Page<EntrySummary>> getAllEntries(Pageable pageable,
+                                                            @RequestHeader HttpHeaders headers) {
+        VersionStamp version = journalService.getAllEntriesVersion();
+        if (ConditionalGet.notModified(headers, version)) {
+            return ConditionalGet.notModifiedResponse(version);
+        }
+        Page<EntrySummary> entries = journalService.getAllEntries(pageable);
+        return ConditionalGet.ok(version).body(entries);
     }
 
     /**
-     * Get journal entry by ID
+     * Phân trang theo cursor (keyset) cho bài viết của user hiện tại, mới nhất trước.
+     * Không đếm tổng số bài viết; dùng {@code nextCursor} của phản hồi để lấy trang tiếp theo.
+     * Hỗ trợ {@code If-None-Match}/{@code If-Modified-Since} theo phiên bản danh sách của user.
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<EntrySliceResponse<EntrySummary>> scrollEntries(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size,
+            @RequestHeader HttpHeaders headers) {
+        Optional<VersionStamp> version = journalService.getEntriesSliceVersion();
+        if (version.isEmpty()) {
+            return ResponseEntity.ok(journalService.getEntriesSlice(cursor, size));
+        }
+        if (ConditionalGet.notModified(headers, version.get())) {
+            return ConditionalGet.notModifiedResponse(version.get());
+        }
+        return ConditionalGet.ok(version.get()).body(journalService.getEntriesSlice(cursor, size));
+    }
+
+    /**
+     * Tìm kiếm full-text trong bài viết của user hiện tại, xếp theo độ liên quan.
+     * @param q các từ cần tìm; gõ có dấu hay không dấu đều được.
+     * @param label lọc theo nhãn cảm xúc (tùy chọn).
+     * @param tag lọc theo tên tag (tùy chọn).
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<EntrySearchHit>> searchEntries(
+            @RequestParam(name = "q") String q,
+            @RequestParam(name = "label", required = false) String label,
+            @RequestParam(name = "tag", required = false) String tag,
+            @RequestParam(name = "limit", defaultValue = "20") int limit) {
+        return ResponseEntity.ok(entrySearchService.search(q, label, tag, limit));
+    }
+
+    /**
+     * Import nhiều bài viết từ NDJSON (mỗi dòng {@code {"content": ..., "createdAt": ..., "tags": [...]}}),
+     * đọc dần từ request body; body có thể nén gzip ({@code Content-Encoding: gzip}).
+     * @param importId id trả về từ lần gửi trước để chạy tiếp một lần import bị ngắt.
+     * @return số bài viết đã import và lỗi theo từng dòng.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<ImportResult> importEntries(
+            @RequestParam(name = "importId", required = false) UUID importId,
+            @RequestHeader(name = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            InputStream body) throws IOException {
+        InputStream in = "gzip".equalsIgnoreCase(contentEncoding) ? new GZIPInputStream(body) : body;
+        return ResponseEntity.ok(entryImportService.importEntries(importId, in));
+    }
+
+    /**
+     * Export toàn bộ bài viết của user hiện tại ra NDJSON hoặc CSV, ghi dần ra response trong lúc đọc database.
+     * @param format {@code ndjson} (mặc định) hoặc {@code csv}.
+     * @param gzip true để tải về file đã nén gzip.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportEntries(
+            @RequestParam(name = "format", defaultValue = "ndjson") String format,
+            @RequestParam(name = "gzip", defaultValue = "false") boolean gzip) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        String filename = "journal-export." + exportFormat.extension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> entryExportService.exportCurrentUser(exportFormat, gzip, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : exportFormat.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    /**
+     * Get journal entry by ID.
+     * ETag là {@code version} của bài viết. Request có điều kiện chỉ đọc version trước (một câu lệnh theo
+     * primary key) và trả 304 nếu khớp, không nạp nội dung hay tag.
      */
     @GetMapping("/{entryId}")
-    public ResponseEntity<JournalEntry> getEntryById(@PathVariable UUID entryId) {
-        JournalEntry entry = journalService.getEntryById(entryId);
-        return ResponseEntity.ok(entry);
+    public ResponseEntity<EntryDetail> getEntryById(@PathVariable UUID entryId,
+                                                    @RequestHeader HttpHeaders headers) {
+        if (ConditionalGet.isConditional(headers)) {
+            VersionStamp version = journalService.getEntryVersion(entryId);
+            if (ConditionalGet.notModified(headers, version)) {
+                return ConditionalGet.notModifiedResponse(version);
+            }
+        }
+        EntryDetail entry = journalService.getEntryById(entryId);
+        return ConditionalGet.ok(new VersionStamp(entry.version(), entry.lastModified())).body(entry);
+    }
+
+    /**
+     * Xóa mềm một bài viết; có thể khôi phục trong thời gian journal.deletion.retention
+     */
+    @DeleteMapping("/{entryId}")
+    public ResponseEntity<Void> deleteEntry(@PathVariable UUID entryId) {
+        journalService.deleteEntry(entryId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Khôi phục một bài viết đã xóa mềm
+     */
+    @PostMapping("/{entryId}/restore")
+    public ResponseEntity<EntryDetail> restoreEntry(@PathVariable UUID entryId) {
+        return ResponseEntity.ok(journalService.restoreEntry(entryId));
     }
 
     /**
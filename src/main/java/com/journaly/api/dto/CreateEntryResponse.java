@@ -1,5 +1,6 @@
 package com.journaly.api.dto;
 
+import com.journaly.api.entity.SentimentStatus;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -16,4 +17,6 @@ public class CreateEntryResponse {
     private List<String> suggestedTags;
 
     private boolean triggerInsightNudge;
+
+    private SentimentStatus sentimentStatus;
 }
\ No newline at end of file
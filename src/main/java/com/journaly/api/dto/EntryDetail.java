@@ -0,0 +1,41 @@
+package com.journaly.api.dto;
+
+import com.journaly.api.entity.SentimentStatus;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Chi tiết một bài viết, kèm tên các tag. Phần bài viết được đọc bằng constructor expression,
+ * tên tag bằng một query riêng, nên không có entity nào được nạp hay theo dõi thay đổi.
+ * {@code version} và {@code lastModified} là ETag và Last-Modified của bài viết.
+ */
+public record EntryDetail(UUID id,
+                          String content,
+                          String sentimentLabel,
+                          SentimentStatus sentimentStatus,
+                          BigDecimal positiveScore,
+                          BigDecimal negativeScore,
+                          BigDecimal neutralScore,
+                          OffsetDateTime createdAt,
+                          long version,
+                          OffsetDateTime lastModified,
+                          List<String> tags) {
+
+    /**
+     * Constructor dùng trong query; tag được gắn sau bằng {@link #withTags}.
+     */
+    public EntryDetail(UUID id, String content, String sentimentLabel, SentimentStatus sentimentStatus,
+                       BigDecimal positiveScore, BigDecimal negativeScore, BigDecimal neutralScore,
+                       OffsetDateTime createdAt, long version, OffsetDateTime lastModified) {
+        this(id, content, sentimentLabel, sentimentStatus, positiveScore, negativeScore, neutralScore, createdAt,
+                version, lastModified, List.of());
+    }
+
+    public EntryDetail withTags(List<String> tagNames) {
+        return new EntryDetail(id, content, sentimentLabel, sentimentStatus, positiveScore, negativeScore,
+                neutralScore, createdAt, version, lastModified, List.copyOf(tagNames));
+    }
+}
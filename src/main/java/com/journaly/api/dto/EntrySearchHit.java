@@ -0,0 +1,15 @@
+package com.journaly.api.dto;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Một kết quả tìm kiếm. {@code snippet} là đoạn nội dung quanh các từ khớp, đã escape HTML,
+ * từ khớp được bọc trong {@code <mark>}.
+ */
+public record EntrySearchHit(UUID id,
+                             OffsetDateTime createdAt,
+                             String sentimentLabel,
+                             String snippet,
+                             double score) {
+}
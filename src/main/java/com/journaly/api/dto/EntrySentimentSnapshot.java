@@ -0,0 +1,16 @@
+package com.journaly.api.dto;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Các cột của bài viết cần cho bảng tổng hợp tâm trạng (mood_daily_rollups).
+ */
+public record EntrySentimentSnapshot(UUID userId,
+                                     OffsetDateTime createdAt,
+                                     String sentimentLabel,
+                                     BigDecimal positiveScore,
+                                     BigDecimal negativeScore,
+                                     BigDecimal neutralScore) {
+}
@@ -0,0 +1,20 @@
+package com.journaly.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Một trang theo cursor: không có tổng số phần tử/tổng số trang, chỉ có cursor cho trang tiếp theo.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntrySliceResponse<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+}
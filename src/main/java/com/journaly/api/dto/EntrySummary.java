@@ -0,0 +1,34 @@
+package com.journaly.api.dto;
+
+import com.journaly.api.entity.SentimentStatus;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Một dòng trong danh sách bài viết: chỉ có đoạn đầu nội dung, không có điểm cảm xúc hay tag.
+ * Được tạo trực tiếp bằng constructor expression trong JPQL nên không đi qua persistence context.
+ */
+public record EntrySummary(UUID id,
+                           String preview,
+                           boolean truncated,
+                           String sentimentLabel,
+                           SentimentStatus sentimentStatus,
+                           OffsetDateTime createdAt) {
+
+    public static final int PREVIEW_LENGTH = 200;
+
+    /**
+     * Số ký tự đầu nội dung mà query đọc về: thừa một ký tự để biết nội dung có bị cắt hay không.
+     */
+    public static final int PREVIEW_FETCH_LENGTH = PREVIEW_LENGTH + 1;
+
+    /**
+     * Constructor dùng trong query; {@code head} là tối đa {@link #PREVIEW_FETCH_LENGTH} ký tự đầu của nội dung.
+     */
+    public EntrySummary(UUID id, String head, String sentimentLabel, SentimentStatus sentimentStatus,
+                        OffsetDateTime createdAt) {
+        this(id, head.length() > PREVIEW_LENGTH ? head.substring(0, PREVIEW_LENGTH) : head,
+                head.length() > PREVIEW_LENGTH, sentimentLabel, sentimentStatus, createdAt);
+    }
+}
@@ -0,0 +1,17 @@
+package com.journaly.api.dto;
+
+import lombok.Data;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Một dòng của file import NDJSON. Các trường khác (từ ứng dụng nhật ký cũ) được bỏ qua.
+ */
+@Data
+public class ImportRecord {
+    private String content;
+    // Giữ nguyên thời điểm viết gốc; để trống thì lấy thời điểm import
+    private OffsetDateTime createdAt;
+    private List<String> tags;
+}
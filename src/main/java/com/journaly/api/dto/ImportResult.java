@@ -0,0 +1,30 @@
+package com.journaly.api.dto;
+
+import com.journaly.api.entity.EntryImportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Kết quả của một request import. Các số đếm chỉ tính phần được xử lý trong request này;
+ * {@code skipped} là số dòng đã import ở các lần gửi trước với cùng {@code importId}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResult {
+    private UUID importId;
+    private EntryImportStatus status;
+    private long imported;
+    private long skipped;
+    private long failed;
+    private long sentimentPending;
+    private List<LineError> errors;
+    private boolean errorsTruncated;
+
+    public record LineError(long line, String message) {
+    }
+}
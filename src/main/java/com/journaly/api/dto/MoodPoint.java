@@ -0,0 +1,24 @@
+package com.journaly.api.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Một kỳ (ngày/tuần/tháng) trong chuỗi tâm trạng.
+ * <p>
+ * Các giá trị trung bình chỉ tính trên bài viết đã được chấm điểm và là null khi kỳ không có bài nào.
+ * {@code moodScore} = trung bình (positive - negative), nằm trong [-1, 1]; {@code movingAverage} là
+ * {@code moodScore} của cửa sổ {@code window} kỳ gần nhất tính đến kỳ này, có trọng số theo số bài viết.
+ */
+public record MoodPoint(LocalDate periodStart,
+                        long entries,
+                        long scored,
+                        long positive,
+                        long negative,
+                        long neutral,
+                        long mixed,
+                        Double averagePositive,
+                        Double averageNegative,
+                        Double averageNeutral,
+                        Double moodScore,
+                        Double movingAverage) {
+}
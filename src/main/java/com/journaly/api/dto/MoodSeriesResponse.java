@@ -0,0 +1,15 @@
+package com.journaly.api.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Chuỗi tâm trạng của user từ kỳ chứa {@code from} đến kỳ chứa {@code to}, mỗi kỳ một điểm (kể cả kỳ trống).
+ */
+public record MoodSeriesResponse(String granularity,
+                                 String zone,
+                                 LocalDate from,
+                                 LocalDate to,
+                                 int window,
+                                 List<MoodPoint> points) {
+}
@@ -0,0 +1,12 @@
+package com.journaly.api.dto;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Phiên bản và thời điểm đổi gần nhất của một tài nguyên, đủ để trả lời GET có điều kiện
+ * ({@code If-None-Match}, {@code If-Modified-Since}) mà không nạp chính tài nguyên đó.
+ *
+ * @param lastModified null nếu chưa biết (chưa có thay đổi nào được ghi nhận)
+ */
+public record VersionStamp(long version, OffsetDateTime lastModified) {
+}
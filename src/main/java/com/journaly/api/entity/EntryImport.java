@@ -0,0 +1,117 @@
+package com.journaly.api.entity;
+
+import jakarta.persistence.*;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Tiến độ của một lần import NDJSON. {@code committedLines} là số dòng đầu file đã được xử lý và commit
+ * (kể cả dòng lỗi); gửi lại cùng file với cùng import id sẽ bỏ qua các dòng này.
+ */
+@Entity
+@Table(name = "entry_imports")
+public class EntryImport {
+
+    @Id
+    @Column(name = "id", nullable = false)
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private EntryImportStatus status;
+
+    @Column(name = "committed_lines", nullable = false)
+    private long committedLines;
+
+    @Column(name = "imported_count", nullable = false)
+    private long importedCount;
+
+    @Column(name = "failed_count", nullable = false)
+    private long failedCount;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    public static EntryImport start(UUID id, UUID userId) {
+        EntryImport entryImport = new EntryImport();
+        entryImport.setId(id);
+        entryImport.setUserId(userId);
+        entryImport.setStatus(EntryImportStatus.RUNNING);
+        entryImport.setCreatedAt(OffsetDateTime.now());
+        entryImport.setUpdatedAt(entryImport.getCreatedAt());
+        return entryImport;
+    }
+
+    // --- GETTERS AND SETTERS ---
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public EntryImportStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(EntryImportStatus status) {
+        this.status = status;
+    }
+
+    public long getCommittedLines() {
+        return committedLines;
+    }
+
+    public void setCommittedLines(long committedLines) {
+        this.committedLines = committedLines;
+    }
+
+    public long getImportedCount() {
+        return importedCount;
+    }
+
+    public void setImportedCount(long importedCount) {
+        this.importedCount = importedCount;
+    }
+
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    public void setFailedCount(long failedCount) {
+        this.failedCount = failedCount;
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(OffsetDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(OffsetDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
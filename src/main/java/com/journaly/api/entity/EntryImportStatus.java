@@ -0,0 +1,11 @@
+package com.journaly.api.entity;
+
+/**
+ * Trạng thái của một lần import bài viết (bảng entry_imports).
+ */
+public enum EntryImportStatus {
+    /** Đang chạy, hoặc bị ngắt giữa chừng và có thể gửi lại để chạy tiếp. */
+    RUNNING,
+    /** Đã đọc hết file. */
+    COMPLETED
+}
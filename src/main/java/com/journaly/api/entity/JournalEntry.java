@@ -2,15 +2,30 @@ package com.journaly.api.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SQLRestriction;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
 
+/**
+ * Bài viết bị xóa mềm ({@code deleted_at} khác null) bị ẩn khỏi mọi truy vấn qua entity (HQL, findById,
+ * derived query) nhờ {@link SQLRestriction}; các câu SQL native phải tự thêm điều kiện này. Dòng bị xóa
+ * quá {@code journal.deletion.retention} được {@code EntryPurgeJob} xóa hẳn.
+ * <p>
+ * {@code version} tăng mỗi khi bài viết đổi (tag, điểm cảm xúc) và là ETag của {@code GET /api/entries/{id}};
+ * các câu UPDATE hàng loạt phải tự tăng nó cùng {@code updated_at}.
+ */
 @Entity
-@Table(name = "journal_entries")
+@SQLRestriction("deleted_at is null")
+@Table(name = "journal_entries", indexes = {
+        // Phục vụ phân trang keyset: where user_id = ? and (created_at, id) < (?, ?) order by created_at desc, id desc.
+        // Trên PostgreSQL còn có bản partial index chỉ gồm dòng chưa xóa (EntryIndexInitializer)
+        @Index(name = "idx_journal_entries_user_created_id", columnList = "user_id, created_at, id")
+})
 public class JournalEntry {
 
     @JsonIgnore
@@ -27,8 +42,9 @@ public class JournalEntry {
         this.user = user;
     }
 
+    // UUID v7: thứ tự id trùng thứ tự tạo, INSERT luôn ghi vào cuối primary key
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private UUID id;
 
     @Column(name = "content", nullable = false, columnDefinition = "TEXT")
@@ -50,9 +66,21 @@ public class JournalEntry {
     @Column(name = "neutral_score", precision = 5, scale = 4)
     private BigDecimal neutralScore;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "sentiment_status", length = 20)
+    private SentimentStatus sentimentStatus;
+
     @Column(name = "deleted_at")
     private OffsetDateTime deletedAt;
 
+    @Column(name = "updated_at")
+    private OffsetDateTime updatedAt;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private long version;
+
     @JsonIgnore
     @ManyToMany(fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     @JoinTable(
@@ -121,6 +149,14 @@ public class JournalEntry {
         this.neutralScore = neutralScore;
     }
 
+    public SentimentStatus getSentimentStatus() {
+        return sentimentStatus;
+    }
+
+    public void setSentimentStatus(SentimentStatus sentimentStatus) {
+        this.sentimentStatus = sentimentStatus;
+    }
+
     public OffsetDateTime getDeletedAt() {
         return deletedAt;
     }
@@ -129,6 +165,18 @@ public class JournalEntry {
         this.deletedAt = deletedAt;
     }
 
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(OffsetDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
     public Set<Tag> getTags() {
         return tags;
     }
@@ -0,0 +1,185 @@
+package com.journaly.api.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Tổng hợp cảm xúc theo ngày của mỗi user (bảng mood_daily_rollups), được cộng dồn cùng transaction
+ * với câu INSERT/UPDATE bài viết để biểu đồ tâm trạng không phải quét toàn bộ journal_entries.
+ * <p>
+ * Ngày được tính theo múi giờ {@code insights.zone}. Các cột {@code *_sum} là tổng điểm của các bài viết
+ * đã chấm ({@code scored_count}), nên điểm trung bình = sum / scored_count.
+ */
+@Entity
+@Table(name = "mood_daily_rollups")
+@IdClass(MoodDailyRollup.Key.class)
+public class MoodDailyRollup {
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Id
+    @Column(name = "entry_date", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "entry_count", nullable = false)
+    private long entryCount;
+
+    @Column(name = "scored_count", nullable = false)
+    private long scoredCount;
+
+    @Column(name = "positive_count", nullable = false)
+    private long positiveCount;
+
+    @Column(name = "negative_count", nullable = false)
+    private long negativeCount;
+
+    @Column(name = "neutral_count", nullable = false)
+    private long neutralCount;
+
+    @Column(name = "mixed_count", nullable = false)
+    private long mixedCount;
+
+    @Column(name = "positive_sum", nullable = false)
+    private double positiveSum;
+
+    @Column(name = "negative_sum", nullable = false)
+    private double negativeSum;
+
+    @Column(name = "neutral_sum", nullable = false)
+    private double neutralSum;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    public static MoodDailyRollup empty(UUID userId, LocalDate day, OffsetDateTime now) {
+        MoodDailyRollup rollup = new MoodDailyRollup();
+        rollup.userId = userId;
+        rollup.day = day;
+        rollup.updatedAt = now;
+        return rollup;
+    }
+
+    // --- GETTERS AND SETTERS ---
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    public void setEntryCount(long entryCount) {
+        this.entryCount = entryCount;
+    }
+
+    public long getScoredCount() {
+        return scoredCount;
+    }
+
+    public void setScoredCount(long scoredCount) {
+        this.scoredCount = scoredCount;
+    }
+
+    public long getPositiveCount() {
+        return positiveCount;
+    }
+
+    public void setPositiveCount(long positiveCount) {
+        this.positiveCount = positiveCount;
+    }
+
+    public long getNegativeCount() {
+        return negativeCount;
+    }
+
+    public void setNegativeCount(long negativeCount) {
+        this.negativeCount = negativeCount;
+    }
+
+    public long getNeutralCount() {
+        return neutralCount;
+    }
+
+    public void setNeutralCount(long neutralCount) {
+        this.neutralCount = neutralCount;
+    }
+
+    public long getMixedCount() {
+        return mixedCount;
+    }
+
+    public void setMixedCount(long mixedCount) {
+        this.mixedCount = mixedCount;
+    }
+
+    public double getPositiveSum() {
+        return positiveSum;
+    }
+
+    public void setPositiveSum(double positiveSum) {
+        this.positiveSum = positiveSum;
+    }
+
+    public double getNegativeSum() {
+        return negativeSum;
+    }
+
+    public void setNegativeSum(double negativeSum) {
+        this.negativeSum = negativeSum;
+    }
+
+    public double getNeutralSum() {
+        return neutralSum;
+    }
+
+    public void setNeutralSum(double neutralSum) {
+        this.neutralSum = neutralSum;
+    }
+
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(OffsetDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * Khóa chính ghép (user_id, entry_date).
+     */
+    public static class Key implements Serializable {
+
+        private UUID userId;
+        private LocalDate day;
+
+        public Key() {
+        }
+
+        public Key(UUID userId, LocalDate day) {
+            this.userId = userId;
+            this.day = day;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && Objects.equals(userId, other.userId) && Objects.equals(day, other.day);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, day);
+        }
+    }
+}
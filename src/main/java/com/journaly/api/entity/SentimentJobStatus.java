@@ -0,0 +1,14 @@
+package com.journaly.api.entity;
+
+/**
+ * Trạng thái của một job phân tích cảm xúc trong bảng outbox sentiment_jobs.
+ * Job thành công bị xóa khỏi bảng nên không có trạng thái "done".
+ */
+public enum SentimentJobStatus {
+    /** Chờ được worker nhận (có thể đang chờ tới lượt retry). */
+    PENDING,
+    /** Đã được một worker nhận; nếu worker chết, job được nhận lại khi hết hạn khóa. */
+    IN_PROGRESS,
+    /** Đã hết số lần thử, giữ lại để kiểm tra thủ công (dead-letter). */
+    DEAD
+}
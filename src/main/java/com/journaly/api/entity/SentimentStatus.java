@@ -0,0 +1,13 @@
+package com.journaly.api.entity;
+
+/**
+ * Trạng thái phân tích cảm xúc của một bài viết.
+ */
+public enum SentimentStatus {
+    /** Đã lưu bài viết, đang chờ phân tích cảm xúc bất đồng bộ. */
+    PENDING,
+    /** Đã có điểm và nhãn cảm xúc. */
+    COMPLETED,
+    /** Phân tích thất bại, bài viết không có điểm. */
+    FAILED
+}
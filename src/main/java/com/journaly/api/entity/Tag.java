@@ -6,7 +6,9 @@ import java.util.Set;
 import java.util.UUID;
 
 @Entity
-@Table(name = "tags")
+@Table(name = "tags", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_tags_user_name", columnNames = {"user_id", "name"})
+})
 public class Tag {
 
     @Id
@@ -18,7 +18,7 @@ public class User {
     }
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private UUID id;
 
     @Column(unique = true, nullable = false)
@@ -0,0 +1,67 @@
+package com.journaly.api.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Số bài viết của mỗi user, được cập nhật cùng transaction với câu INSERT bài viết
+ * để không phải COUNT(*) trên journal_entries mỗi lần tạo.
+ * <p>
+ * {@code change_version} tăng mỗi khi danh sách bài viết của user đổi (tạo, xóa, khôi phục, đổi tag hay điểm
+ * cảm xúc), dùng làm ETag cho các trang danh sách.
+ */
+@Entity
+@Table(name = "user_entry_stats")
+public class UserEntryStats {
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "entry_count", nullable = false)
+    private long entryCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    @ColumnDefault("0")
+    @Column(name = "change_version", nullable = false)
+    private long changeVersion;
+
+    // --- GETTERS AND SETTERS ---
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    public void setEntryCount(long entryCount) {
+        this.entryCount = entryCount;
+    }
+
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(OffsetDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public long getChangeVersion() {
+        return changeVersion;
+    }
+
+    public void setChangeVersion(long changeVersion) {
+        this.changeVersion = changeVersion;
+    }
+}
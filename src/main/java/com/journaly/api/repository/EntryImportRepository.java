@@ -0,0 +1,35 @@
+package com.journaly.api.repository;
+
+import com.journaly.api.entity.EntryImport;
+import com.journaly.api.entity.EntryImportStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Repository
+public interface EntryImportRepository extends JpaRepository<EntryImport, UUID> {
+
+    /**
+     * Ghi nhận một chunk đã xử lý, chỉ khi tiến độ vẫn là {@code expectedLines}: hai request cùng import id
+     * chạy song song không thể cùng ghi một đoạn file.
+     *
+     * @return 0 nếu tiến độ đã bị request khác thay đổi
+     */
+    @Modifying
+    @Query("update EntryImport i set i.committedLines = :committedLines, " +
+            "i.importedCount = i.importedCount + :imported, i.failedCount = i.failedCount + :failed, " +
+            "i.status = :status, i.updatedAt = :now " +
+            "where i.id = :id and i.committedLines = :expectedLines")
+    int advance(@Param("id") UUID id,
+                @Param("expectedLines") long expectedLines,
+                @Param("committedLines") long committedLines,
+                @Param("imported") long imported,
+                @Param("failed") long failed,
+                @Param("status") EntryImportStatus status,
+                @Param("now") OffsetDateTime now);
+}
@@ -1,13 +1,168 @@
 package com.journaly.api.repository;
 
+import com.journaly.api.dto.EntryDetail;
+import com.journaly.api.dto.EntrySentimentSnapshot;
+import com.journaly.api.dto.EntrySummary;
+import com.journaly.api.dto.VersionStamp;
 import com.journaly.api.entity.JournalEntry;
-import com.journaly.api.entity.User;
+import com.journaly.api.entity.SentimentStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface JournalEntryRepository extends JpaRepository<JournalEntry, UUID> {
-    long countByUser(User user);
+
+    String SUMMARY = "new com.journaly.api.dto.EntrySummary(e.id, substring(e.content, 1, " +
+            EntrySummary.PREVIEW_FETCH_LENGTH + "), e.sentimentLabel, e.sentimentStatus, e.createdAt)";
+
+    /**
+     * Đếm trực tiếp trên journal_entries; chỉ dùng để đối soát, số bài viết thường ngày lấy từ
+     * {@code EntryStatsService#countByUser}.
+     */
+    long countByUserId(UUID userId);
+
+    /**
+     * Danh sách bài viết dạng rút gọn cho phân trang offset; chỉ đọc đoạn đầu của cột content.
+     */
+    @Query(value = "select " + SUMMARY + " from JournalEntry e",
+            countQuery = "select count(e) from JournalEntry e")
+    Page<EntrySummary> findAllSummaries(Pageable pageable);
+
+    /**
+     * Trang đầu của phân trang keyset theo (createdAt, id) giảm dần: không OFFSET, không COUNT.
+     */
+    @Query("select " + SUMMARY + " from JournalEntry e where e.user.id = :userId order by e.createdAt desc, e.id desc")
+    List<EntrySummary> findLatestByUser(@Param("userId") UUID userId, Limit limit);
+
+    /**
+     * Các trang tiếp theo: chỉ đọc các dòng đứng sau (createdAt, id) của trang trước trên index
+     * (user_id, created_at, id), nên chi phí không phụ thuộc độ sâu.
+     */
+    @Query("select " + SUMMARY + " from JournalEntry e where e.user.id = :userId " +
+            "and (e.createdAt < :createdAt or (e.createdAt = :createdAt and e.id < :id)) " +
+            "order by e.createdAt desc, e.id desc")
+    List<EntrySummary> findByUserBefore(@Param("userId") UUID userId,
+                                        @Param("createdAt") OffsetDateTime createdAt,
+                                        @Param("id") UUID id,
+                                        Limit limit);
+
+    @Query("select new com.journaly.api.dto.EntryDetail(e.id, e.content, e.sentimentLabel, e.sentimentStatus, " +
+            "e.positiveScore, e.negativeScore, e.neutralScore, e.createdAt, e.version, " +
+            "coalesce(e.updatedAt, e.createdAt)) from JournalEntry e where e.id = :id")
+    Optional<EntryDetail> findDetailById(@Param("id") UUID id);
+
+    /**
+     * Chỉ phiên bản của bài viết, để trả 304 cho GET có điều kiện mà không đọc nội dung và tag.
+     */
+    @Query("select new com.journaly.api.dto.VersionStamp(e.version, coalesce(e.updatedAt, e.createdAt)) " +
+            "from JournalEntry e where e.id = :id")
+    Optional<VersionStamp> findVersionStampById(@Param("id") UUID id);
+
+    @Query("select e.user.id from JournalEntry e where e.id = :id")
+    Optional<UUID> findOwnerId(@Param("id") UUID id);
+
+    /**
+     * Tên tag của một bài viết trong một câu lệnh (join entry_tags → tags), thay vì khởi tạo collection lazy.
+     */
+    @Query("select t.name from JournalEntry e join e.tags t where e.id = :entryId order by t.name")
+    List<String> findTagNamesByEntryId(@Param("entryId") UUID entryId);
+
+    String SENTIMENT_SNAPSHOT = "new com.journaly.api.dto.EntrySentimentSnapshot(e.user.id, e.createdAt, " +
+            "e.sentimentLabel, e.positiveScore, e.negativeScore, e.neutralScore)";
+
+    /**
+     * Nhãn và điểm hiện tại của bài viết, khóa dòng đến hết transaction để phần chênh lệch cộng vào
+     * mood_daily_rollups khi chấm lại không bị tính hai lần.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select " + SENTIMENT_SNAPSHOT + " from JournalEntry e where e.id = :id")
+    Optional<EntrySentimentSnapshot> findSentimentSnapshotForUpdate(@Param("id") UUID id);
+
+    /**
+     * Toàn bộ bài viết của user ở dạng tối thiểu cho job dựng lại mood_daily_rollups; phải đóng stream
+     * trong transaction.
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select " + SENTIMENT_SNAPSHOT + " from JournalEntry e where e.user.id = :userId")
+    Stream<EntrySentimentSnapshot> streamSentimentSnapshotsByUser(@Param("userId") UUID userId);
+
+    @Query("select e.content from JournalEntry e where e.id = :id")
+    Optional<String> findContentById(@Param("id") UUID id);
+
+    /**
+     * Ghi kết quả phân tích cảm xúc bằng một câu UPDATE trong transaction ngắn riêng, không cần nạp entity.
+     */
+    @Transactional
+    @Modifying
+    @Query("update JournalEntry e set e.sentimentLabel = :label, e.positiveScore = :positive, " +
+            "e.negativeScore = :negative, e.neutralScore = :neutral, e.sentimentStatus = :status, " +
+            "e.version = e.version + 1, e.updatedAt = :now where e.id = :id")
+    int updateSentiment(@Param("id") UUID id,
+                        @Param("label") String label,
+                        @Param("positive") BigDecimal positive,
+                        @Param("negative") BigDecimal negative,
+                        @Param("neutral") BigDecimal neutral,
+                        @Param("status") SentimentStatus status,
+                        @Param("now") OffsetDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update JournalEntry e set e.sentimentStatus = :status, e.version = e.version + 1, e.updatedAt = :now " +
+            "where e.id = :id")
+    int updateSentimentStatus(@Param("id") UUID id, @Param("status") SentimentStatus status,
+                              @Param("now") OffsetDateTime now);
+
+    // Các câu dưới đây làm việc với dòng đã xóa mềm, vốn bị @SQLRestriction của entity ẩn đi, nên viết bằng SQL native.
+    // Cột uuid được trả về dạng chuỗi: driver H2 báo kiểu BINARY cho cột uuid nên Hibernate đọc ra byte[]
+
+    @Modifying
+    @Query(value = "update journal_entries set deleted_at = :deletedAt where id = :id and deleted_at is null",
+            nativeQuery = true)
+    int markDeleted(@Param("id") UUID id, @Param("deletedAt") OffsetDateTime deletedAt);
+
+    /**
+     * Khóa một bài viết đã xóa mềm (để khôi phục) và trả về user sở hữu.
+     */
+    @Query(value = "select cast(user_id as varchar(36)) from journal_entries " +
+            "where id = :id and deleted_at is not null for update", nativeQuery = true)
+    Optional<String> lockDeletedEntryOwner(@Param("id") UUID id);
+
+    @Modifying
+    @Query(value = "update journal_entries set deleted_at = null where id = :id and deleted_at is not null",
+            nativeQuery = true)
+    int restore(@Param("id") UUID id);
+
+    /**
+     * Lô bài viết đã xóa trước {@code cutoff}, cũ nhất trước, kèm khóa dòng để một lần khôi phục chạy song song
+     * không bị xóa mất tag. Trên PostgreSQL đọc bằng partial index trên {@code deleted_at}.
+     */
+    @Query(value = "select cast(id as varchar(36)) from journal_entries " +
+            "where deleted_at < :cutoff order by deleted_at limit :limit for update", nativeQuery = true)
+    List<String> lockPurgeable(@Param("cutoff") OffsetDateTime cutoff, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "delete from entry_tags where entry_id in (:ids)", nativeQuery = true)
+    int deleteTagLinks(@Param("ids") List<UUID> ids);
+
+    @Modifying
+    @Query(value = "delete from journal_entries where id in (:ids) and deleted_at is not null", nativeQuery = true)
+    int purge(@Param("ids") List<UUID> ids);
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.journaly.api.repository;
+
+import com.journaly.api.entity.MoodDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface MoodDailyRollupRepository extends JpaRepository<MoodDailyRollup, MoodDailyRollup.Key> {
+
+    /**
+     * Cộng một delta vào dòng tổng hợp của ngày bằng một câu UPDATE nguyên tử; khóa dòng đến khi commit.
+     *
+     * @return 0 nếu user chưa có dòng cho ngày này
+     */
+    @Modifying
+    @Query("update MoodDailyRollup r set r.entryCount = r.entryCount + :entries, " +
+            "r.scoredCount = r.scoredCount + :scored, " +
+            "r.positiveCount = r.positiveCount + :positive, r.negativeCount = r.negativeCount + :negative, " +
+            "r.neutralCount = r.neutralCount + :neutral, r.mixedCount = r.mixedCount + :mixed, " +
+            "r.positiveSum = r.positiveSum + :positiveSum, r.negativeSum = r.negativeSum + :negativeSum, " +
+            "r.neutralSum = r.neutralSum + :neutralSum, r.updatedAt = :now " +
+            "where r.userId = :userId and r.day = :day")
+    int add(@Param("userId") UUID userId, @Param("day") LocalDate day,
+            @Param("entries") long entries, @Param("scored") long scored,
+            @Param("positive") long positive, @Param("negative") long negative,
+            @Param("neutral") long neutral, @Param("mixed") long mixed,
+            @Param("positiveSum") double positiveSum, @Param("negativeSum") double negativeSum,
+            @Param("neutralSum") double neutralSum, @Param("now") OffsetDateTime now);
+
+    boolean existsByUserIdAndDay(UUID userId, LocalDate day);
+
+    List<MoodDailyRollup> findByUserIdAndDayBetweenOrderByDayAsc(UUID userId, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query("delete from MoodDailyRollup r where r.userId = :userId")
+    int deleteByUser(@Param("userId") UUID userId);
+}
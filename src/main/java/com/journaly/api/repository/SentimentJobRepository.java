@@ -0,0 +1,46 @@
+package com.journaly.api.repository;
+
+import com.journaly.api.entity.SentimentJob;
+import com.journaly.api.entity.SentimentJobStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface SentimentJobRepository extends JpaRepository<SentimentJob, Long> {
+
+    /**
+     * Khóa các job đến hạn: PENDING đã tới giờ retry, hoặc IN_PROGRESS mà worker giữ khóa đã quá hạn.
+     * <p>
+     * Lock timeout -2 là SKIP LOCKED của Hibernate: trên PostgreSQL sinh {@code FOR UPDATE SKIP LOCKED}
+     * để nhiều instance nhận các job khác nhau; với dialect không hỗ trợ (H2) sẽ lùi về {@code FOR UPDATE}.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select j from SentimentJob j " +
+            "where (j.status = :pending and j.nextAttemptAt <= :now) " +
+            "or (j.status = :inProgress and j.lockedUntil < :now) " +
+            "order by j.nextAttemptAt")
+    List<SentimentJob> findClaimable(@Param("now") OffsetDateTime now,
+                                     @Param("pending") SentimentJobStatus pending,
+                                     @Param("inProgress") SentimentJobStatus inProgress,
+                                     Limit limit);
+
+    @Query("select j.status, count(j) from SentimentJob j group by j.status")
+    List<Object[]> countByStatus();
+
+    @Modifying
+    @Query("delete from SentimentJob j where j.entryId in :entryIds")
+    int deleteByEntryIds(@Param("entryIds") List<UUID> entryIds);
+}
@@ -3,11 +3,16 @@ package com.journaly.api.repository;
 import com.journaly.api.entity.Tag;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
-import java.util.Optional; // Đảm bảo có import này
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
 
 @Repository
-public interface TagRepository extends JpaRepository<Tag, Long> {
+public interface TagRepository extends JpaRepository<Tag, Long>, TagRepositoryCustom {
 
-    // THÊM PHƯƠNG THỨC NÀY VÀO
-    Optional<Tag> findByName(String name);
-}
\ No newline at end of file
+    /**
+     * Lấy tất cả tag của user theo danh sách tên bằng một câu {@code IN}.
+     */
+    List<Tag> findByUserIdAndNameIn(UUID userId, Collection<String> names);
+}
@@ -0,0 +1,13 @@
+package com.journaly.api.repository;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public interface TagRepositoryCustom {
+
+    /**
+     * Tạo các tag chưa có của user trong một JDBC batch; tag đã tồn tại (kể cả do request khác
+     * vừa tạo) được bỏ qua nhờ ràng buộc unique (user_id, name).
+     */
+    void insertMissing(UUID userId, Collection<String> names);
+}
@@ -0,0 +1,60 @@
+package com.journaly.api.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Phần JDBC của {@link TagRepository}: tag dùng khóa IDENTITY nên Hibernate không batch được câu INSERT,
+ * và JPA không có insert-on-conflict.
+ */
+@RequiredArgsConstructor
+class TagRepositoryImpl implements TagRepositoryCustom {
+
+    private static final String POSTGRES_INSERT =
+            "insert into tags (user_id, name) values (?, ?) on conflict (user_id, name) do nothing";
+    // H2 không có ON CONFLICT; MERGE ... KEY chỉ chèn khi chưa có dòng trùng khóa
+    private static final String H2_INSERT =
+            "merge into tags (user_id, name) key (user_id, name) values (?, ?)";
+    private static final String GENERIC_INSERT =
+            "insert into tags (user_id, name) select ?, ? where not exists " +
+                    "(select 1 from tags t where t.user_id = ? and t.name = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile String insertSql;
+
+    @Override
+    public void insertMissing(UUID userId, Collection<String> names) {
+        if (names.isEmpty()) {
+            return;
+        }
+        String sql = insertSql();
+        List<Object[]> batch = new ArrayList<>(names.size());
+        for (String name : names) {
+            batch.add(sql == GENERIC_INSERT
+                    ? new Object[]{userId, name, userId, name}
+                    : new Object[]{userId, name});
+        }
+        jdbcTemplate.batchUpdate(sql, batch);
+    }
+
+    private String insertSql() {
+        String sql = insertSql;
+        if (sql == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            sql = switch (product == null ? "" : product) {
+                case "PostgreSQL" -> POSTGRES_INSERT;
+                case "H2" -> H2_INSERT;
+                default -> GENERIC_INSERT;
+            };
+            insertSql = sql;
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,79 @@
+package com.journaly.api.repository;
+
+import com.journaly.api.dto.VersionStamp;
+import com.journaly.api.entity.UserEntryStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface UserEntryStatsRepository extends JpaRepository<UserEntryStats, UUID> {
+
+    /**
+     * Tăng bộ đếm (và {@code changeVersion}) bằng một câu UPDATE nguyên tử; khóa dòng đến khi transaction commit.
+     *
+     * @return 0 nếu user chưa có dòng thống kê
+     */
+    @Modifying
+    @Query("update UserEntryStats s set s.entryCount = s.entryCount + 1, s.changeVersion = s.changeVersion + 1, " +
+            "s.updatedAt = :now where s.userId = :userId")
+    int increment(@Param("userId") UUID userId, @Param("now") OffsetDateTime now);
+
+    /**
+     * Như {@link #increment} nhưng cộng nhiều bài viết một lúc (import); {@code delta} = 0 chỉ đánh dấu
+     * danh sách bài viết đã đổi.
+     */
+    @Modifying
+    @Query("update UserEntryStats s set s.entryCount = s.entryCount + :delta, " +
+            "s.changeVersion = s.changeVersion + 1, s.updatedAt = :now where s.userId = :userId")
+    int incrementBy(@Param("userId") UUID userId, @Param("delta") long delta, @Param("now") OffsetDateTime now);
+
+    /**
+     * Tạo dòng thống kê nếu chưa có. {@code on conflict do nothing} để hai request đầu tiên
+     * của cùng một user không làm hỏng transaction của nhau.
+     */
+    @Modifying
+    @Query("insert into UserEntryStats (userId, entryCount, updatedAt) values (:userId, :entryCount, :now) " +
+            "on conflict(userId) do nothing")
+    int insertIfAbsent(@Param("userId") UUID userId, @Param("entryCount") long entryCount,
+                       @Param("now") OffsetDateTime now);
+
+    @Query("select s.entryCount from UserEntryStats s where s.userId = :userId")
+    Optional<Long> findEntryCount(@Param("userId") UUID userId);
+
+    @Query("select new com.journaly.api.dto.VersionStamp(s.changeVersion, s.updatedAt) from UserEntryStats s " +
+            "where s.userId = :userId")
+    Optional<VersionStamp> findVersionStamp(@Param("userId") UUID userId);
+
+    /**
+     * Phiên bản gộp của mọi user cho danh sách toàn bộ bài viết: tổng các {@code changeVersion} chỉ tăng,
+     * nên đổi ở bất kỳ user nào cũng đổi kết quả. Quét một dòng mỗi user.
+     */
+    @Query("select new com.journaly.api.dto.VersionStamp(coalesce(sum(s.changeVersion), 0), max(s.updatedAt)) " +
+            "from UserEntryStats s")
+    VersionStamp findTotalVersionStamp();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from UserEntryStats s where s.userId = :userId")
+    Optional<UserEntryStats> findForUpdate(@Param("userId") UUID userId);
+
+    /**
+     * User có bộ đếm lệch so với journal_entries (kể cả thiếu dòng thống kê hoặc còn dòng khi đã hết bài viết).
+     * Truy vấn quét toàn bảng nên chỉ dùng cho job đối soát.
+     */
+    @Query("select u.id from User u " +
+            "where coalesce((select s.entryCount from UserEntryStats s where s.userId = u.id), 0) " +
+            "<> (select count(e) from JournalEntry e where e.user = u) " +
+            "order by u.id")
+    List<UUID> findDrifted(Limit limit);
+}
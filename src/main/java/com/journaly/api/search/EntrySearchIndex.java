@@ -0,0 +1,18 @@
+package com.journaly.api.search;
+
+import com.journaly.api.dto.EntrySearchHit;
+
+import java.util.List;
+
+/**
+ * Chỉ mục full-text trên nội dung bài viết. Kết quả xếp theo độ liên quan giảm dần, rồi bài mới trước.
+ */
+public interface EntrySearchIndex {
+
+    List<EntrySearchHit> search(EntrySearchQuery query);
+
+    /**
+     * Tên engine, hiển thị trong log và health.
+     */
+    String name();
+}
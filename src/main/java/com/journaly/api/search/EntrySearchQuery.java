@@ -0,0 +1,9 @@
+package com.journaly.api.search;
+
+import java.util.UUID;
+
+/**
+ * Truy vấn tìm kiếm đã được kiểm tra: {@code label} và {@code tag} là bộ lọc tùy chọn (null = không lọc).
+ */
+public record EntrySearchQuery(UUID userId, String text, String label, String tag, int limit) {
+}
@@ -0,0 +1,285 @@
+package com.journaly.api.search;
+
+import com.journaly.api.dto.EntrySearchHit;
+import com.journaly.api.service.EntriesDeletedEvent;
+import com.journaly.api.service.EntriesWrittenEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chỉ mục đảo ngược trong bộ nhớ cho H2/dev, nơi không có tsvector.
+ * <p>
+ * Mỗi user có một chỉ mục riêng (từ đã bỏ dấu → bài viết → số lần xuất hiện), xếp hạng bằng BM25.
+ * Chỉ mục chỉ giữ id và tần suất từ; nội dung, nhãn cảm xúc và tag được đọc từ database cho các bài viết
+ * đứng đầu, nên database vẫn là nguồn dữ liệu chính (bài viết đã bị xóa đơn giản là không còn trả về, kể cả
+ * khi sự kiện xóa chưa kịp được xử lý).
+ * <p>
+ * Được nạp toàn bộ khi ứng dụng khởi động, sau đó cập nhật dần trên một thread riêng sau khi transaction
+ * tạo bài viết commit, nên không làm chậm request ghi.
+ */
+@Slf4j
+public class InMemoryEntrySearchIndex implements EntrySearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int SNIPPET_WORDS = 30;
+    private static final int SNIPPET_LEAD_WORDS = 8;
+    private static final int FETCH_CHUNK = 200;
+
+    private static final String FETCH_SQL = "select e.id, e.content, e.created_at, e.sentiment_label " +
+            "from journal_entries e where e.user_id = :userId and e.id in (:ids) and e.deleted_at is null";
+    private static final String LABEL_FILTER = " and e.sentiment_label = :label";
+    private static final String TAG_FILTER = " and exists (select 1 from entry_tags et join tags t on t.id = et.tag_id " +
+            "where et.entry_id = e.id and t.name = :tag)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Map<UUID, UserIndex> users = new ConcurrentHashMap<>();
+    private final ExecutorService indexer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "search-indexer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public InMemoryEntrySearchIndex(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public String name() {
+        return "in-memory";
+    }
+
+    /**
+     * Nạp chỉ mục từ toàn bộ bài viết, đọc bằng cursor để không giữ cả bảng trong bộ nhớ.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        long[] indexed = {0};
+        users.clear();
+        jdbcTemplate.getJdbcTemplate().query(connection -> {
+            var statement = connection.prepareStatement(
+                    "select id, user_id, content, created_at from journal_entries where deleted_at is null");
+            statement.setFetchSize(1_000);
+            return statement;
+        }, resultSet -> {
+            index(resultSet.getObject("user_id", UUID.class), resultSet.getObject("id", UUID.class),
+                    resultSet.getString("content"), resultSet.getObject("created_at", OffsetDateTime.class));
+            indexed[0]++;
+        });
+        log.info("In-memory search index built with {} entries in {} ms", indexed[0],
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntriesWritten(EntriesWrittenEvent event) {
+        indexer.execute(() -> event.entries().forEach(entry ->
+                index(event.userId(), entry.id(), entry.content(), entry.createdAt())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntriesDeleted(EntriesDeletedEvent event) {
+        indexer.execute(() -> {
+            UserIndex index = users.get(event.userId());
+            if (index != null) {
+                event.entryIds().forEach(index::remove);
+            }
+        });
+    }
+
+    /**
+     * Thêm hoặc thay thế một bài viết trong chỉ mục.
+     */
+    public void index(UUID userId, UUID entryId, String content, OffsetDateTime createdAt) {
+        List<SearchText.Token> tokens = SearchText.tokenize(content);
+        Map<String, Integer> frequencies = new HashMap<>();
+        tokens.forEach(token -> frequencies.merge(token.term(), 1, Integer::sum));
+        long created = createdAt != null ? createdAt.toInstant().toEpochMilli() : System.currentTimeMillis();
+        users.computeIfAbsent(userId, id -> new UserIndex()).put(entryId, frequencies, tokens.size(), created);
+    }
+
+    /**
+     * Chờ các bài viết đang xếp hàng được đưa vào chỉ mục (dùng trong test).
+     */
+    public void awaitIndexing() throws InterruptedException, ExecutionException {
+        indexer.submit(() -> { }).get();
+    }
+
+    @Override
+    public List<EntrySearchHit> search(EntrySearchQuery query) {
+        Set<String> terms = new LinkedHashSet<>();
+        SearchText.tokenize(query.text()).forEach(token -> terms.add(token.term()));
+        UserIndex index = users.get(query.userId());
+        if (terms.isEmpty() || index == null) {
+            return List.of();
+        }
+        List<Ranked> ranked = index.rank(terms);
+
+        // Đọc nội dung theo thứ tự hạng, lọc nhãn/tag bằng SQL, cho tới khi đủ số kết quả
+        StringBuilder sql = new StringBuilder(FETCH_SQL);
+        MapSqlParameterSource params = new MapSqlParameterSource("userId", query.userId());
+        if (query.label() != null) {
+            sql.append(LABEL_FILTER);
+            params.addValue("label", query.label());
+        }
+        if (query.tag() != null) {
+            sql.append(TAG_FILTER);
+            params.addValue("tag", query.tag());
+        }
+        List<EntrySearchHit> hits = new ArrayList<>(query.limit());
+        for (int from = 0; from < ranked.size() && hits.size() < query.limit(); from += FETCH_CHUNK) {
+            List<Ranked> page = ranked.subList(from, Math.min(ranked.size(), from + FETCH_CHUNK));
+            params.addValue("ids", page.stream().map(Ranked::entryId).toList());
+            Map<UUID, EntrySearchHit> rows = new HashMap<>();
+            Map<UUID, Double> scores = new HashMap<>();
+            page.forEach(r -> scores.put(r.entryId(), r.score()));
+            jdbcTemplate.query(sql.toString(), params, resultSet -> {
+                UUID id = resultSet.getObject("id", UUID.class);
+                rows.put(id, new EntrySearchHit(id, resultSet.getObject("created_at", OffsetDateTime.class),
+                        resultSet.getString("sentiment_label"),
+                        snippet(resultSet.getString("content"), terms), scores.get(id)));
+            });
+            for (Ranked r : page) {
+                EntrySearchHit hit = rows.get(r.entryId());
+                if (hit != null && hits.size() < query.limit()) {
+                    hits.add(hit);
+                }
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Đoạn khoảng {@value #SNIPPET_WORDS} từ bắt đầu ngay trước từ khớp đầu tiên, các từ khớp được đánh dấu.
+     */
+    static String snippet(String content, Set<String> terms) {
+        List<SearchText.Token> tokens = SearchText.tokenize(content);
+        if (tokens.isEmpty()) {
+            return SearchText.toHtml(content == null ? "" : content);
+        }
+        int first = 0;
+        while (first < tokens.size() && !terms.contains(tokens.get(first).term())) {
+            first++;
+        }
+        int from = first == tokens.size() ? 0 : Math.max(0, first - SNIPPET_LEAD_WORDS);
+        int to = Math.min(tokens.size(), from + SNIPPET_WORDS);
+
+        StringBuilder marked = new StringBuilder();
+        if (from > 0) {
+            marked.append("… ");
+        }
+        int position = tokens.get(from).start();
+        for (int i = from; i < to; i++) {
+            SearchText.Token token = tokens.get(i);
+            marked.append(content, position, token.start());
+            if (terms.contains(token.term())) {
+                marked.append(SearchText.MATCH_START).append(content, token.start(), token.end())
+                        .append(SearchText.MATCH_END);
+            } else {
+                marked.append(content, token.start(), token.end());
+            }
+            position = token.end();
+        }
+        if (to < tokens.size()) {
+            marked.append(" …");
+        }
+        return SearchText.toHtml(marked.toString());
+    }
+
+    public void shutdown() throws InterruptedException {
+        indexer.shutdown();
+        indexer.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private record Ranked(UUID entryId, double score, long createdAt) {
+    }
+
+    private record Document(Set<String> terms, int length, long createdAt) {
+    }
+
+    /**
+     * Chỉ mục của một user; khóa theo user nên các user không chặn nhau.
+     */
+    private static final class UserIndex {
+        private final Map<String, Map<UUID, Integer>> postings = new HashMap<>();
+        private final Map<UUID, Document> documents = new HashMap<>();
+        private long totalLength;
+
+        synchronized void put(UUID entryId, Map<String, Integer> frequencies, int length, long createdAt) {
+            remove(entryId);
+            frequencies.forEach((term, count) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(entryId, count));
+            documents.put(entryId, new Document(Set.copyOf(frequencies.keySet()), length, createdAt));
+            totalLength += length;
+        }
+
+        synchronized void remove(UUID entryId) {
+            Document previous = documents.remove(entryId);
+            if (previous != null) {
+                totalLength -= previous.length();
+                previous.terms().forEach(term -> {
+                    Map<UUID, Integer> entries = postings.get(term);
+                    entries.remove(entryId);
+                    if (entries.isEmpty()) {
+                        postings.remove(term);
+                    }
+                });
+            }
+        }
+
+        /**
+         * Bài viết chứa tất cả các từ, xếp theo BM25 giảm dần rồi mới trước.
+         */
+        synchronized List<Ranked> rank(Set<String> terms) {
+            List<Map<UUID, Integer>> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Map<UUID, Integer> entries = postings.get(term);
+                if (entries == null) {
+                    return List.of();
+                }
+                lists.add(entries);
+            }
+            lists.sort(Comparator.comparingInt(Map::size));
+
+            int documentCount = documents.size();
+            double averageLength = documentCount == 0 ? 1 : (double) totalLength / documentCount;
+            List<Ranked> ranked = new ArrayList<>();
+            candidates:
+            for (UUID entryId : lists.get(0).keySet()) {
+                double score = 0;
+                Document document = documents.get(entryId);
+                for (Map<UUID, Integer> entries : lists) {
+                    Integer frequency = entries.get(entryId);
+                    if (frequency == null) {
+                        continue candidates;
+                    }
+                    double idf = Math.log(1 + (documentCount - entries.size() + 0.5) / (entries.size() + 0.5));
+                    score += idf * frequency * (K1 + 1)
+                            / (frequency + K1 * (1 - B + B * document.length() / averageLength));
+                }
+                ranked.add(new Ranked(entryId, score, document.createdAt()));
+            }
+            ranked.sort(Comparator.comparingDouble(Ranked::score).reversed()
+                    .thenComparing(Comparator.comparingLong(Ranked::createdAt).reversed()));
+            return ranked;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.journaly.api.search;
+
+import com.journaly.api.dto.EntrySearchHit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Tìm kiếm bằng full-text search của PostgreSQL.
+ * <p>
+ * Cột {@code search_vector} là cột generated (STORED) tính từ {@code content} với cấu hình
+ * {@code journaly_search} (simple + unaccent), có GIN index. PostgreSQL tự cập nhật cột trong chính câu
+ * INSERT/UPDATE, nên đường ghi của ứng dụng không thay đổi; GIN mặc định dùng {@code fastupdate}
+ * nên chi phí cập nhật index được dồn lại.
+ * <p>
+ * Schema được tạo bằng các câu DDL idempotent khi khởi động (Hibernate không quản lý cột này, và
+ * {@code ddl-auto=validate} bỏ qua cột thừa). Lần đầu thêm cột sẽ ghi lại toàn bảng.
+ */
+@Slf4j
+public class PostgresEntrySearchIndex implements EntrySearchIndex {
+
+    static final String TEXT_SEARCH_CONFIG = "journaly_search";
+
+    private static final List<String> SCHEMA = List.of(
+            "create extension if not exists unaccent",
+            "do $$ begin " +
+                    "if not exists (select 1 from pg_ts_config where cfgname = '" + TEXT_SEARCH_CONFIG + "') then " +
+                    "create text search configuration " + TEXT_SEARCH_CONFIG + " (copy = simple); " +
+                    "alter text search configuration " + TEXT_SEARCH_CONFIG +
+                    " alter mapping for hword, hword_part, word with unaccent, simple; " +
+                    "end if; end $$",
+            "alter table journal_entries add column if not exists search_vector tsvector generated always as " +
+                    "(to_tsvector('" + TEXT_SEARCH_CONFIG + "'::regconfig, coalesce(content, ''))) stored",
+            "create index if not exists idx_journal_entries_search on journal_entries using gin (search_vector)");
+
+    // ts_headline đánh dấu từ khớp bằng ký tự điều khiển; SearchText.toHtml escape rồi đổi thành <mark>
+    private static final String HEADLINE_OPTIONS = "StartSel=" + SearchText.MATCH_START + ", StopSel=" +
+            SearchText.MATCH_END + ", MaxWords=30, MinWords=12, MaxFragments=2, FragmentDelimiter=\" … \"";
+
+    private static final String SEARCH_SQL = "select e.id, e.created_at, e.sentiment_label, " +
+            "ts_headline('" + TEXT_SEARCH_CONFIG + "', e.content, q, :headlineOptions) as snippet, " +
+            "ts_rank_cd(e.search_vector, q, 1) as score " +
+            "from journal_entries e, websearch_to_tsquery('" + TEXT_SEARCH_CONFIG + "', :text) q " +
+            "where e.user_id = :userId and e.deleted_at is null and e.search_vector @@ q";
+    private static final String LABEL_FILTER = " and e.sentiment_label = :label";
+    private static final String TAG_FILTER = " and exists (select 1 from entry_tags et join tags t on t.id = et.tag_id " +
+            "where et.entry_id = e.id and t.name = :tag)";
+    private static final String ORDER = " order by score desc, e.created_at desc limit :limit";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public PostgresEntrySearchIndex(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public String name() {
+        return "postgres";
+    }
+
+    /**
+     * Tạo cấu hình text search, cột tsvector và GIN index nếu chưa có. Lỗi (vd: không có quyền tạo extension)
+     * chỉ được log; tìm kiếm sẽ lỗi cho tới khi schema được tạo thủ công.
+     * <p>
+     * Pool tắt auto-commit, nên DDL chạy ngoài transaction sẽ bị Hikari rollback khi trả connection;
+     * các câu lệnh được chạy ở chế độ auto-commit để thực sự được áp dụng.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeSchema() {
+        try {
+            jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<Void>) connection -> {
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    for (String sql : SCHEMA) {
+                        statement.execute(sql);
+                    }
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+                return null;
+            });
+            log.info("PostgreSQL full-text search schema is ready");
+        } catch (RuntimeException e) {
+            log.error("Could not create the full-text search schema: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public List<EntrySearchHit> search(EntrySearchQuery query) {
+        StringBuilder sql = new StringBuilder(SEARCH_SQL);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", query.userId())
+                .addValue("text", query.text())
+                .addValue("headlineOptions", HEADLINE_OPTIONS)
+                .addValue("limit", query.limit());
+        if (query.label() != null) {
+            sql.append(LABEL_FILTER);
+            params.addValue("label", query.label());
+        }
+        if (query.tag() != null) {
+            sql.append(TAG_FILTER);
+            params.addValue("tag", query.tag());
+        }
+        sql.append(ORDER);
+        return jdbcTemplate.query(sql.toString(), params, (resultSet, rowNum) -> new EntrySearchHit(
+                resultSet.getObject("id", UUID.class),
+                resultSet.getObject("created_at", OffsetDateTime.class),
+                resultSet.getString("sentiment_label"),
+                SearchText.toHtml(resultSet.getString("snippet")),
+                resultSet.getDouble("score")));
+    }
+}
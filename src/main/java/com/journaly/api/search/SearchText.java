@@ -0,0 +1,75 @@
+package com.journaly.api.search;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Tách từ và chuẩn hóa văn bản cho tìm kiếm: chữ thường, bỏ dấu tiếng Việt ("Đà Lạt" → "da lat"),
+ * để người dùng gõ có dấu hay không dấu đều tìm được.
+ */
+public final class SearchText {
+
+    /** Ký tự đánh dấu đầu/cuối một từ khớp trong snippet, trước khi chuyển sang HTML. */
+    static final char MATCH_START = '\u0001';
+    static final char MATCH_END = '\u0002';
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Một từ trong văn bản gốc: {@code term} đã chuẩn hóa, {@code start}/{@code end} là vị trí trong văn bản gốc.
+     */
+    public record Token(String term, int start, int end) {
+    }
+
+    private SearchText() {
+    }
+
+    public static List<Token> tokenize(String text) {
+        List<Token> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.codePointAt(i))) {
+                i += Character.charCount(text.codePointAt(i));
+            }
+            int start = i;
+            while (i < length && isWordPart(text.codePointAt(i))) {
+                i += Character.charCount(text.codePointAt(i));
+            }
+            if (i > start) {
+                tokens.add(new Token(fold(text.substring(start, i)), start, i));
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Bỏ dấu và chuyển chữ thường; {@code đ} không phải dấu kết hợp nên được thay riêng.
+     */
+    public static String fold(String word) {
+        String decomposed = Normalizer.normalize(word, Normalizer.Form.NFD);
+        String stripped = COMBINING_MARKS.matcher(decomposed).replaceAll("");
+        return stripped.replace('đ', 'd').replace('Đ', 'D').toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Escape HTML rồi đổi các ký tự đánh dấu thành {@code <mark>}, để client hiển thị snippet an toàn.
+     */
+    public static String toHtml(String marked) {
+        return HtmlUtils.htmlEscape(marked, "UTF-8")
+                .replace(String.valueOf(MATCH_START), "<mark>")
+                .replace(String.valueOf(MATCH_END), "</mark>");
+    }
+
+    private static boolean isWordPart(int codePoint) {
+        return Character.isLetterOrDigit(codePoint) || Character.getType(codePoint) == Character.NON_SPACING_MARK;
+    }
+}
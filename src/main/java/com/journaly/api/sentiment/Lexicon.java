@@ -0,0 +1,224 @@
+package com.journaly.api.sentiment;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bảng tra từ điển cảm xúc dạng open addressing trên mảng nguyên thủy, khóa là hash 64-bit của token
+ * (hoặc cặp token). Tra cứu không cấp phát bộ nhớ.
+ * <p>
+ * File từ điển gồm các dòng {@code loại<TAB>cụm từ<TAB>trọng số}, với loại là {@code S} (từ cảm xúc,
+ * trọng số âm/dương), {@code N} (từ phủ định) hoặc {@code I} (từ nhấn mạnh, trọng số là hệ số nhân).
+ * Cụm từ tối đa hai token; dòng bắt đầu bằng {@code #} là chú thích. Một cụm từ chỉ được khai báo một lần,
+ * kể cả giữa các file.
+ */
+public final class Lexicon {
+
+    public static final byte NONE = 0;
+    public static final byte SENTIMENT = 1;
+    public static final byte NEGATOR = 2;
+    public static final byte INTENSIFIER = 3;
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final long[] keys;
+    private final float[] weights;
+    private final byte[] kinds;
+    private final int mask;
+    private final int size;
+
+    private Lexicon(List<Entry> entries) {
+        int capacity = Integer.highestOneBit(Math.max(16, entries.size() * 3)) << 1;
+        this.keys = new long[capacity];
+        this.weights = new float[capacity];
+        this.kinds = new byte[capacity];
+        this.mask = capacity - 1;
+        String[] locations = new String[capacity];
+        for (Entry entry : entries) {
+            int slot = slot(entry.key());
+            if (keys[slot] == entry.key()) {
+                throw new IllegalArgumentException("Duplicate lexicon entry at " + entry.location()
+                        + ", already defined at " + locations[slot]);
+            }
+            locations[slot] = entry.location();
+            keys[slot] = entry.key();
+            weights[slot] = entry.weight();
+            kinds[slot] = entry.kind();
+        }
+        this.size = entries.size();
+    }
+
+    public static Lexicon load(String... resources) {
+        List<Entry> entries = new ArrayList<>();
+        for (String resource : resources) {
+            InputStream stream = Lexicon.class.getClassLoader().getResourceAsStream(resource);
+            if (stream == null) {
+                throw new IllegalArgumentException("Lexicon resource not found: " + resource);
+            }
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+                read(reader, resource, entries);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read lexicon " + resource, e);
+            }
+        }
+        return new Lexicon(entries);
+    }
+
+    /**
+     * Nạp từ điển từ nội dung có sẵn; {@code source} chỉ dùng trong thông báo lỗi.
+     */
+    static Lexicon parse(String source, String content) {
+        List<Entry> entries = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new StringReader(content))) {
+            read(reader, source, entries);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read lexicon " + source, e);
+        }
+        return new Lexicon(entries);
+    }
+
+    /**
+     * @return vị trí của khóa trong bảng, hoặc -1 nếu không có.
+     */
+    public int find(long key) {
+        int index = mix(key) & mask;
+        while (true) {
+            long current = keys[index];
+            if (current == key) {
+                return index;
+            }
+            if (current == 0) {
+                return -1;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    public byte kindAt(int slot) {
+        return slot < 0 ? NONE : kinds[slot];
+    }
+
+    public float weightAt(int slot) {
+        return weights[slot];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // --- Hash của token, dùng chung cho lúc nạp từ điển và lúc chấm điểm ---
+
+    static long startToken() {
+        return FNV_OFFSET;
+    }
+
+    static long appendChar(long hash, char c) {
+        hash ^= c;
+        return hash * FNV_PRIME;
+    }
+
+    static long finishToken(long hash) {
+        return hash == 0 ? 1 : hash;
+    }
+
+    static long pair(long first, long second) {
+        long key = first * 0x9E3779B97F4A7C15L + second;
+        return key == 0 ? 1 : key;
+    }
+
+    /**
+     * Chuẩn hóa ký tự của token: chữ thường, dấu nháy cong thành nháy thẳng. Trả về 0 nếu ký tự kết thúc token.
+     */
+    static char normalize(char c) {
+        if (Character.isLetterOrDigit(c)) {
+            return Character.toLowerCase(c);
+        }
+        if (c == '\'' || c == '’') {
+            return '\'';
+        }
+        return 0;
+    }
+
+    private int slot(long key) {
+        int index = mix(key) & mask;
+        while (keys[index] != 0 && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private static int mix(long key) {
+        long h = key ^ (key >>> 33);
+        h *= 0xff51afd7ed558ccdL;
+        return (int) (h ^ (h >>> 29));
+    }
+
+    private static void read(BufferedReader reader, String source, List<Entry> entries) throws IOException {
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            entries.add(parseLine(line, source + ":" + lineNumber));
+        }
+    }
+
+    private static Entry parseLine(String line, String location) {
+        String[] columns = line.split("\t");
+        if (columns.length != 3) {
+            throw new IllegalArgumentException("Invalid lexicon line at " + location + ": " + line);
+        }
+        byte kind = switch (columns[0].trim()) {
+            case "S" -> SENTIMENT;
+            case "N" -> NEGATOR;
+            case "I" -> INTENSIFIER;
+            default -> throw new IllegalArgumentException("Unknown lexicon entry kind at " + location + ": " + columns[0]);
+        };
+        float weight;
+        try {
+            weight = Float.parseFloat(columns[2].trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid lexicon weight at " + location + ": " + columns[2]);
+        }
+
+        long[] tokens = new long[2];
+        int count = 0;
+        long hash = startToken();
+        boolean inToken = false;
+        String phrase = columns[1].trim();
+        for (int i = 0; i <= phrase.length(); i++) {
+            char c = i < phrase.length() ? normalize(phrase.charAt(i)) : 0;
+            if (c != 0) {
+                hash = appendChar(hash, c);
+                inToken = true;
+            } else if (inToken) {
+                if (count == 2) {
+                    throw new IllegalArgumentException("Lexicon phrases are limited to two tokens at " + location);
+                }
+                tokens[count++] = finishToken(hash);
+                hash = startToken();
+                inToken = false;
+            }
+        }
+        if (count == 0) {
+            throw new IllegalArgumentException("Empty lexicon phrase at " + location);
+        }
+        if (count == 2 && kind != SENTIMENT) {
+            throw new IllegalArgumentException("Only sentiment entries may have two tokens at " + location);
+        }
+        return new Entry(count == 1 ? tokens[0] : pair(tokens[0], tokens[1]), kind, weight, location);
+    }
+
+    private record Entry(long key, byte kind, float weight, String location) {
+    }
+}
@@ -0,0 +1,161 @@
+package com.journaly.api.sentiment;
+
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+
+/**
+ * Engine cảm xúc dựa trên từ điển tiếng Việt và tiếng Anh (từ đơn và cụm hai từ), có xử lý
+ * phủ định ("không vui", "not happy") và nhấn mạnh ("rất buồn", "vui quá").
+ * <p>
+ * Văn bản được duyệt một lần theo từng ký tự; mỗi token được băm trực tiếp (không tạo String),
+ * nên việc chấm điểm không cấp phát bộ nhớ ngoài đối tượng kết quả.
+ * <p>
+ * Độ tin cậy cao khi có nhiều bằng chứng cùng một chiều; thấp khi không có từ cảm xúc nào, khi cảm xúc
+ * lẫn lộn, hoặc khi văn bản dài mà chỉ có ít từ cảm xúc.
+ */
+@Component
+public class LexiconSentimentEngine implements SentimentEngine {
+
+    public static final String[] DEFAULT_LEXICONS = {"sentiment/lexicon-vi.tsv", "sentiment/lexicon-en.tsv"};
+
+    /** Số token sau từ phủ định còn bị đảo nghĩa. */
+    private static final int NEGATION_WINDOW = 3;
+    /** "không vui" tiêu cực nhưng yếu hơn "buồn". */
+    private static final float NEGATION_FACTOR = -0.7f;
+    /** Tổng trọng số để strength đạt 1 - 1/e. */
+    private static final double EVIDENCE_SCALE = 1.5;
+    /** Văn bản dài hơn số token này bị giảm độ tin cậy. */
+    private static final int LONG_TEXT_TOKENS = 40;
+
+    private final Lexicon lexicon;
+
+    public LexiconSentimentEngine() {
+        this(Lexicon.load(DEFAULT_LEXICONS));
+    }
+
+    public LexiconSentimentEngine(Lexicon lexicon) {
+        this.lexicon = lexicon;
+    }
+
+    @Override
+    public SentimentEstimate estimate(CharSequence text) {
+        if (hasCombiningMarks(text)) {
+            // Hiếm gặp (vd: văn bản dán từ macOS ở dạng NFD); chỉ nhánh này cấp phát
+            text = Normalizer.normalize(text, Normalizer.Form.NFC);
+        }
+
+        double positive = 0;
+        double negative = 0;
+        int tokens = 0;
+
+        long previous = 0;
+        float previousModifier = 1f;
+        float pending = 0f;
+        boolean pendingFromPrevious = false;
+        int negation = 0;
+        float intensity = 1f;
+
+        long hash = Lexicon.startToken();
+        boolean inToken = false;
+        int length = text.length();
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? Lexicon.normalize(text.charAt(i)) : 0;
+            if (c != 0) {
+                hash = Lexicon.appendChar(hash, c);
+                inToken = true;
+                continue;
+            }
+            if (!inToken) {
+                continue;
+            }
+
+            long token = Lexicon.finishToken(hash);
+            hash = Lexicon.startToken();
+            inToken = false;
+            tokens++;
+
+            float modifier = negation > 0 ? intensity * NEGATION_FACTOR : intensity;
+            boolean producedPending = false;
+
+            int bigram = previous != 0 ? lexicon.find(Lexicon.pair(previous, token)) : -1;
+            if (lexicon.kindAt(bigram) == Lexicon.SENTIMENT) {
+                // Cụm hai từ ("hạnh phúc", "not bad") thay cho điểm của từ đứng trước nếu có
+                if (!pendingFromPrevious && pending != 0f) {
+                    if (pending > 0) positive += pending; else negative -= pending;
+                }
+                pending = lexicon.weightAt(bigram) * previousModifier;
+                producedPending = true;
+                intensity = 1f;
+            } else {
+                int slot = lexicon.find(token);
+                switch (lexicon.kindAt(slot)) {
+                    case Lexicon.SENTIMENT -> {
+                        if (pending > 0) positive += pending; else negative -= pending;
+                        pending = lexicon.weightAt(slot) * modifier;
+                        producedPending = true;
+                        intensity = 1f;
+                    }
+                    case Lexicon.INTENSIFIER -> {
+                        if (pendingFromPrevious) {
+                            // Tiếng Việt hay nhấn mạnh phía sau: "vui quá", "buồn lắm"
+                            pending *= lexicon.weightAt(slot);
+                        } else {
+                            intensity *= lexicon.weightAt(slot);
+                        }
+                    }
+                    case Lexicon.NEGATOR -> {
+                        if (pending > 0) positive += pending; else negative -= pending;
+                        pending = 0f;
+                        negation = NEGATION_WINDOW + 1;
+                    }
+                    default -> {
+                        // Token không có trong từ điển
+                    }
+                }
+            }
+
+            if (negation > 0) {
+                negation--;
+            }
+            previous = token;
+            previousModifier = modifier;
+            pendingFromPrevious = producedPending;
+        }
+        if (pending > 0) positive += pending; else negative -= pending;
+
+        return toEstimate(positive, negative, tokens);
+    }
+
+    /**
+     * Văn bản NFC tiếng Việt/tiếng Anh không chứa dấu kết hợp rời (U+0300–U+036F).
+     * Kiểm tra thủ công thay cho {@link Normalizer#isNormalized}, vốn cấp phát bộ nhớ.
+     */
+    private static boolean hasCombiningMarks(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '\u0300' && c <= '\u036F') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static SentimentEstimate toEstimate(double positive, double negative, int tokens) {
+        double evidence = positive + negative;
+        if (evidence <= 0) {
+            // Không có tín hiệu: có thể trung tính, nhưng engine không đủ cơ sở để khẳng định
+            return new SentimentEstimate(0.1, 0.1, 0.8, 0.0);
+        }
+        double strength = 1 - Math.exp(-evidence / EVIDENCE_SCALE);
+        double polarity = Math.abs(positive - negative) / evidence;
+        double lengthPenalty = tokens > LONG_TEXT_TOKENS ? LONG_TEXT_TOKENS / (double) tokens : 1.0;
+        double confidence = strength * polarity * Math.sqrt(lengthPenalty);
+
+        return new SentimentEstimate(
+                strength * positive / evidence,
+                strength * negative / evidence,
+                1 - strength,
+                confidence);
+    }
+}
@@ -0,0 +1,13 @@
+package com.journaly.api.sentiment;
+
+/**
+ * Bộ chấm điểm cảm xúc chạy trong JVM, dùng làm đường nhanh trước khi gọi Azure.
+ */
+public interface SentimentEngine {
+
+    /**
+     * Ước lượng cảm xúc của {@code text}. Không bao giờ trả về null; văn bản không có tín hiệu
+     * cảm xúc nào cho kết quả trung tính với confidence 0.
+     */
+    SentimentEstimate estimate(CharSequence text);
+}
@@ -0,0 +1,12 @@
+package com.journaly.api.sentiment;
+
+/**
+ * Kết quả của {@link SentimentEngine}: ba điểm có tổng bằng 1 (cùng ý nghĩa với
+ * {@code SentimentConfidenceScores} của Azure) và độ tin cậy của chính engine trong [0, 1].
+ */
+public record SentimentEstimate(double positive, double negative, double neutral, double confidence) {
+
+    public boolean isConfident(double threshold) {
+        return confidence >= threshold;
+    }
+}
@@ -7,25 +7,90 @@ import com.azure.ai.textanalytics.models.SentimentConfidenceScores;
 import com.azure.ai.textanalytics.models.TextSentiment;
 import com.azure.core.credential.AzureKeyCredential;
 import com.azure.core.util.IterableStream;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.journaly.api.cache.ContentDigestKeyGenerator;
+import com.journaly.api.config.CacheConfig;
+import com.journaly.api.config.ThreadFactories;
+import com.journaly.api.sentiment.SentimentEngine;
+import com.journaly.api.sentiment.SentimentEstimate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
 public class AIService {
 
+    /**
+     * Kết quả trung tính dùng khi Azure không khả dụng. Không được cache (xem {@link #isLocalResult}).
+     */
+    private static final DocumentSentiment FALLBACK_SENTIMENT = new DocumentSentiment(
+            TextSentiment.NEUTRAL,
+            new SentimentConfidenceScores(0.33, 0.33, 0.34),
+            new IterableStream<>(Collections.emptyList()),
+            new IterableStream<>(Collections.emptyList()));
+
+    /**
+     * Các kết quả do engine cục bộ tạo ra, nhận diện theo identity; weak key nên tự được dọn khi không còn dùng.
+     */
+    private static final com.github.benmanes.caffeine.cache.Cache<DocumentSentiment, Boolean> LOCAL_RESULTS =
+            Caffeine.newBuilder().weakKeys().build();
+
     private final TextAnalyticsClient client;
     private final boolean isConfigured;
+    private final SentimentBatcher batcher;
+    private final ExecutorService directExecutor;
+    private final ResilientSentimentClient resilientClient;
+    private final Duration requestDeadline;
+    private final CacheManager cacheManager;
+    private final SentimentEngine localEngine;
+    private final double localConfidenceThreshold;
+    private final Counter localAccepted;
+    private final Counter localEscalated;
 
     public AIService(@Value("${ai.service.key:}") String apiKey,
-                     @Value("${ai.service.endpoint:}") String endpoint) {
+                     @Value("${ai.service.endpoint:}") String endpoint,
+                     @Value("${ai.batch.enabled:true}") boolean batchEnabled,
+                     @Value("${ai.batch.max-size:10}") int batchMaxSize,
+                     @Value("${ai.batch.linger:20ms}") Duration batchLinger,
+                     @Value("${ai.batch.max-in-flight:4}") int batchMaxInFlight,
+                     @Value("${ai.resilience.timeout:3s}") Duration timeout,
+                     @Value("${ai.resilience.request-deadline:5s}") Duration requestDeadline,
+                     @Value("${ai.resilience.max-concurrent-calls:20}") int maxConcurrentCalls,
+                     @Value("${ai.resilience.retry.max-attempts:3}") int retryMaxAttempts,
+                     @Value("${ai.resilience.retry.initial-backoff:200ms}") Duration retryInitialBackoff,
+                     @Value("${ai.resilience.retry.max-backoff:2s}") Duration retryMaxBackoff,
+                     @Value("${ai.resilience.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+                     @Value("${ai.resilience.circuit-breaker.slow-call-threshold:2s}") Duration slowCallThreshold,
+                     @Value("${ai.resilience.circuit-breaker.sliding-window-size:20}") int slidingWindowSize,
+                     @Value("${ai.resilience.circuit-breaker.minimum-calls:10}") int minimumCalls,
+                     @Value("${ai.resilience.circuit-breaker.open-state-wait:30s}") Duration openStateWait,
+                     @Value(ThreadFactories.VIRTUAL_THREADS_PROPERTY) boolean virtualThreads,
+                     @Value("${ai.local.enabled:true}") boolean localEnabled,
+                     @Value("${ai.local.confidence-threshold:0.75}") double localConfidenceThreshold,
+                     CacheManager cacheManager,
+                     SentimentEngine localEngine,
+                     MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.localEngine = localEnabled ? localEngine : null;
+        this.localConfidenceThreshold = localConfidenceThreshold;
+        this.localAccepted = meterRegistry.counter("ai.sentiment.local", "decision", "accepted");
+        this.localEscalated = meterRegistry.counter("ai.sentiment.local", "decision", "escalated");
+        this.requestDeadline = requestDeadline;
         
         // Check if Azure AI service is properly configured
         if (apiKey != null && !apiKey.isEmpty() && !apiKey.equals("your-azure-key-here") &&
@@ -42,51 +107,198 @@ public class AIService {
             this.isConfigured = false;
             log.warn("Azure AI Text Analytics not configured. Using fallback sentiment analysis.");
         }
+
+        if (isConfigured && batchEnabled) {
+            this.batcher = new SentimentBatcher(client, batchMaxSize, batchLinger, batchMaxInFlight, virtualThreads);
+            this.directExecutor = null;
+            log.info("Azure sentiment batching enabled: maxSize={}, linger={}, maxInFlight={}",
+                    batchMaxSize, batchLinger, batchMaxInFlight);
+        } else if (isConfigured) {
+            // Bulkhead giới hạn số lời gọi đồng thời nên executor này không bao giờ cần hàng đợi
+            this.batcher = null;
+            this.directExecutor = ThreadFactories.boundedExecutor("AI-call-", maxConcurrentCalls, virtualThreads);
+        } else {
+            this.batcher = null;
+            this.directExecutor = null;
+        }
+
+        this.resilientClient = isConfigured
+                ? new ResilientSentimentClient(this::callAzure, new ResilientSentimentClient.Settings(
+                        timeout, maxConcurrentCalls, retryMaxAttempts, retryInitialBackoff, retryMaxBackoff,
+                        failureRateThreshold, slowCallThreshold, slidingWindowSize, minimumCalls, openStateWait),
+                        meterRegistry)
+                : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (resilientClient != null) {
+            resilientClient.close();
+        }
+        if (batcher != null) {
+            batcher.close();
+        }
+        if (directExecutor != null) {
+            directExecutor.shutdownNow();
+        }
     }
 
-    @Cacheable(value = "sentiments", key = "#text.hashCode()")
-    @Retryable(value = Exception.class, maxAttempts = 3, backoff = @Backoff(delay = 1000))
+    /**
+     * Phân tích cảm xúc, không bao giờ ném lỗi.
+     * <p>
+     * Engine cục bộ chấm điểm trước; chỉ khi độ tin cậy dưới {@code ai.local.confidence-threshold} mới gọi Azure.
+     * Khi Azure lỗi, quá chậm hoặc circuit breaker đang mở thì dùng ước lượng cục bộ.
+     * Thread gọi chỉ chờ tối đa {@code ai.resilience.request-deadline}.
+     */
+    @Cacheable(value = CacheConfig.SENTIMENTS, keyGenerator = ContentDigestKeyGenerator.BEAN_NAME,
+            unless = "T(com.journaly.api.service.AIService).isLocalResult(#result)")
     public DocumentSentiment analyzeSentiment(String text) {
-        if (isConfigured && client != null) {
-            try {
-                log.debug("Calling Azure AI service for sentiment analysis");
-                return client.analyzeSentiment(text);
-            } catch (Exception e) {
-                log.error("Error calling Azure AI service: {}", e.getMessage());
-                return createFallbackSentiment();
-            }
-        } else {
+        SentimentEstimate estimate = estimateLocally(text);
+        if (isConfident(estimate)) {
+            SentimentSource.report(SentimentSource.LOCAL);
+            return toLocalResult(estimate);
+        }
+        SentimentSource.report(SentimentSource.FALLBACK);
+        if (resilientClient == null) {
             log.info("Using fallback sentiment analysis");
-            return createFallbackSentiment();
+            return degraded(estimate);
+        }
+        log.debug("Calling Azure AI service for sentiment analysis");
+        CompletableFuture<DocumentSentiment> result = resilientClient.analyzeOrFallback(text, () -> degraded(estimate));
+        try {
+            DocumentSentiment sentiment = result.get(requestDeadline.toMillis(), TimeUnit.MILLISECONDS);
+            if (!isLocalResult(sentiment)) {
+                SentimentSource.report(SentimentSource.REMOTE);
+            }
+            return sentiment;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            resilientClient.recordFallback("interrupted");
+            return degraded(estimate);
+        } catch (Exception e) {
+            // Pipeline vẫn tiếp tục (retry) ở nền; request không chờ thêm
+            resilientClient.recordFallback("deadline");
+            return degraded(estimate);
         }
     }
 
-    @Async
-    @Cacheable(value = "sentiments", key = "#text.hashCode()")
-    public CompletableFuture<DocumentSentiment> analyzeSentimentAsync(String text) {
-        if (isConfigured && client != null) {
-            try {
-                log.debug("Calling Azure AI service asynchronously for sentiment analysis");
-                DocumentSentiment result = client.analyzeSentiment(text);
-                return CompletableFuture.completedFuture(result);
-            } catch (Exception e) {
-                log.error("Error calling Azure AI service async: {}", e.getMessage());
-                return CompletableFuture.completedFuture(createFallbackSentiment());
-            }
-        } else {
-            log.info("Using fallback sentiment analysis async");
-            return CompletableFuture.completedFuture(createFallbackSentiment());
+    /**
+     * Phân tích cảm xúc cho worker nền: lỗi của Azure được ném ra (thay vì dùng kết quả dự phòng)
+     * để job được retry sau.
+     */
+    @Cacheable(value = CacheConfig.SENTIMENTS, keyGenerator = ContentDigestKeyGenerator.BEAN_NAME,
+            unless = "T(com.journaly.api.service.AIService).isLocalResult(#result)")
+    public DocumentSentiment analyzeSentimentOrThrow(String text) {
+        SentimentEstimate estimate = estimateLocally(text);
+        if (isConfident(estimate)) {
+            return toLocalResult(estimate);
+        }
+        if (resilientClient == null) {
+            return degraded(estimate);
+        }
+        try {
+            return resilientClient.analyze(text).join();
+        } catch (CompletionException e) {
+            Throwable cause = ResilientSentimentClient.unwrap(e);
+            throw cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause);
         }
     }
 
-    private DocumentSentiment createFallbackSentiment() {
-        // Create a neutral sentiment as fallback
-        SentimentConfidenceScores scores = new SentimentConfidenceScores(0.33, 0.33, 0.34);
-        return new DocumentSentiment(
-            TextSentiment.NEUTRAL, 
-            scores, 
-            new IterableStream<>(java.util.Collections.emptyList()), 
-            new IterableStream<>(java.util.Collections.emptyList())
-        );
+    /**
+     * Như {@link #analyzeSentimentOrThrow(String)} nhưng không chặn thread gọi. Future thất bại khi Azure lỗi,
+     * circuit breaker đang mở hoặc Azure chưa được cấu hình, để bên gọi giao văn bản cho worker nền
+     * thay vì lưu ước lượng cục bộ như một kết quả hoàn chỉnh.
+     */
+    @Cacheable(value = CacheConfig.SENTIMENTS, keyGenerator = ContentDigestKeyGenerator.BEAN_NAME,
+            unless = "T(com.journaly.api.service.AIService).isLocalResult(#result)")
+    public CompletableFuture<DocumentSentiment> analyzeSentimentOrThrowAsync(String text) {
+        SentimentEstimate estimate = estimateLocally(text);
+        if (isConfident(estimate)) {
+            return CompletableFuture.completedFuture(toLocalResult(estimate));
+        }
+        if (resilientClient == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Azure AI Text Analytics is not configured"));
+        }
+        log.debug("Calling Azure AI service asynchronously for sentiment analysis");
+        return resilientClient.analyze(text);
+    }
+
+    /**
+     * Kết quả có sẵn ngay mà không gọi Azure: trong cache, hoặc engine cục bộ đủ tin cậy.
+     */
+    public Optional<DocumentSentiment> findImmediateSentiment(String text) {
+        Optional<DocumentSentiment> cached = findCachedSentiment(text);
+        if (cached.isPresent()) {
+            SentimentSource.report(SentimentSource.CACHED);
+            return cached;
+        }
+        SentimentEstimate estimate = estimateLocally(text);
+        if (!isConfident(estimate)) {
+            return Optional.empty();
+        }
+        SentimentSource.report(SentimentSource.LOCAL);
+        return Optional.of(toLocalResult(estimate));
+    }
+
+    /**
+     * Kết quả không đến từ Azure (ước lượng cục bộ hoặc fallback) thì không được cache: tính lại gần như
+     * miễn phí, và lần sau Azure có thể cho kết quả tốt hơn.
+     */
+    public static boolean isLocalResult(DocumentSentiment sentiment) {
+        return sentiment == FALLBACK_SENTIMENT || LOCAL_RESULTS.getIfPresent(sentiment) != null;
+    }
+
+    /**
+     * Tra kết quả đã có trong cache "sentiments" mà không gọi Azure.
+     */
+    public Optional<DocumentSentiment> findCachedSentiment(String text) {
+        Cache cache = cacheManager.getCache(CacheConfig.SENTIMENTS);
+        if (cache == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(cache.get(ContentDigestKeyGenerator.digest(text), DocumentSentiment.class));
+    }
+
+    private SentimentEstimate estimateLocally(String text) {
+        return localEngine != null ? localEngine.estimate(text) : null;
+    }
+
+    private boolean isConfident(SentimentEstimate estimate) {
+        if (estimate == null) {
+            return false;
+        }
+        boolean confident = estimate.isConfident(localConfidenceThreshold);
+        (confident ? localAccepted : localEscalated).increment();
+        return confident;
+    }
+
+    /**
+     * Dùng khi không có kết quả từ Azure: ước lượng cục bộ (kể cả khi độ tin cậy thấp), hoặc kết quả trung tính
+     * nếu engine cục bộ bị tắt.
+     */
+    private DocumentSentiment degraded(SentimentEstimate estimate) {
+        return estimate != null ? toLocalResult(estimate) : FALLBACK_SENTIMENT;
+    }
+
+    private static DocumentSentiment toLocalResult(SentimentEstimate estimate) {
+        SentimentConfidenceScores scores = new SentimentConfidenceScores(
+                estimate.negative(), estimate.neutral(), estimate.positive());
+        DocumentSentiment sentiment = new DocumentSentiment(
+                JournalService.interpretSentimentFromScores(scores),
+                scores,
+                new IterableStream<>(Collections.emptyList()),
+                new IterableStream<>(Collections.emptyList()));
+        LOCAL_RESULTS.put(sentiment, Boolean.TRUE);
+        return sentiment;
+    }
+
+    /**
+     * Gọi Azure qua batcher (nếu bật) để các yêu cầu đồng thời dùng chung một request, hoặc gọi trực tiếp.
+     */
+    private CompletableFuture<DocumentSentiment> callAzure(String text) {
+        if (batcher != null) {
+            return batcher.submit(text);
+        }
+        return CompletableFuture.supplyAsync(() -> client.analyzeSentiment(text), directExecutor);
     }
-}
\ No newline at end of file
+}
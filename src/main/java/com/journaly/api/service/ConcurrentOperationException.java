@@ -0,0 +1,12 @@
+package com.journaly.api.service;
+
+/**
+ * Thao tác đang được một request hoặc job khác thực hiện (cùng import id, rebuild đang chạy).
+ * {@code GlobalExceptionHandler} trả 409 để client thử lại sau, thay vì 404 của RuntimeException.
+ */
+public class ConcurrentOperationException extends RuntimeException {
+
+    public ConcurrentOperationException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.journaly.api.service;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Phát ra khi bài viết bị xóa mềm, để các chỉ mục trong bộ nhớ bỏ chúng ra sau khi transaction commit.
+ */
+public record EntriesDeletedEvent(UUID userId, List<UUID> entryIds) {
+}
@@ -0,0 +1,19 @@
+package com.journaly.api.service;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Phát ra khi bài viết được tạo (một bài, hoặc một chunk khi import), để các chỉ mục trong bộ nhớ cập nhật
+ * sau khi transaction commit.
+ */
+public record EntriesWrittenEvent(UUID userId, List<WrittenEntry> entries) {
+
+    public record WrittenEntry(UUID id, String content, OffsetDateTime createdAt) {
+    }
+
+    public static EntriesWrittenEvent single(UUID userId, UUID entryId, String content, OffsetDateTime createdAt) {
+        return new EntriesWrittenEvent(userId, List.of(new WrittenEntry(entryId, content, createdAt)));
+    }
+}
@@ -0,0 +1,252 @@
+package com.journaly.api.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.journaly.api.entity.User;
+import com.journaly.api.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Export toàn bộ bài viết của user ra NDJSON hoặc CSV, ghi thẳng từ JDBC cursor ra output stream.
+ * <p>
+ * Mỗi dòng của ResultSet được ghi ra ngay rồi bỏ đi, nên bộ nhớ không phụ thuộc số bài viết:
+ * <ul>
+ *     <li>ResultSet chỉ đọc tới (TYPE_FORWARD_ONLY, CONCUR_READ_ONLY) với fetch size, không qua JPA;</li>
+ *     <li>PostgreSQL chỉ dùng cursor phía server khi connection không auto-commit, vì vậy query chạy trong
+ *     transaction read-only (pool đã tắt auto-commit);</li>
+ *     <li>output được đệm theo khối nhỏ và có thể nén gzip khi ghi.</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class EntryExportService {
+
+    private static final String EXPORT_SQL = "select id, created_at, sentiment_label, sentiment_status, " +
+            "positive_score, negative_score, neutral_score, content from journal_entries " +
+            "where user_id = ? and deleted_at is null order by created_at, id";
+
+    static final String CSV_HEADER =
+            "id,created_at,sentiment_label,sentiment_status,positive_score,negative_score,neutral_score,content";
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public EntryExportService(JdbcTemplate jdbcTemplate,
+                              UserRepository userRepository,
+                              ObjectMapper objectMapper,
+                              @Value("${journal.export.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Export bài viết của user hiện tại; không có user thì file rỗng (CSV vẫn có dòng tiêu đề).
+     * @return số bài viết đã ghi.
+     */
+    @Transactional(readOnly = true)
+    public long exportCurrentUser(ExportFormat format, boolean gzip, OutputStream out) throws IOException {
+        Optional<User> currentUser = userRepository.findFirstByOrderByCreatedAtAsc();
+        return export(currentUser.map(User::getId).orElse(null), format, gzip, out);
+    }
+
+    /**
+     * Ghi bài viết của {@code userId} (cũ nhất trước) ra {@code out}. Không đóng {@code out}.
+     * @return số bài viết đã ghi.
+     */
+    @Transactional(readOnly = true)
+    public long export(UUID userId, ExportFormat format, boolean gzip, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        // Đóng writer sẽ flush và kết thúc gzip, nhưng không đóng response stream
+        OutputStream target = gzip
+                ? new GZIPOutputStream(new NonClosingOutputStream(out), BUFFER_SIZE)
+                : new NonClosingOutputStream(out);
+
+        long written;
+        try (RowWriter writer = format == ExportFormat.CSV ? new CsvRowWriter(target) : new NdjsonRowWriter(target)) {
+            written = userId == null ? 0 : streamRows(userId, writer);
+        } catch (UncheckedIOException e) {
+            // Client ngắt kết nối giữa chừng: dừng đọc cursor, transaction read-only kết thúc bình thường
+            throw e.getCause();
+        }
+        out.flush();
+
+        log.info("Exported {} entries for user {} as {}{} in {} ms", written, userId, format,
+                gzip ? " (gzip)" : "", (System.nanoTime() - started) / 1_000_000);
+        return written;
+    }
+
+    private long streamRows(UUID userId, RowWriter writer) {
+        long[] count = {0};
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(EXPORT_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setObject(1, userId);
+            return statement;
+        }, resultSet -> {
+            try {
+                writer.write(resultSet);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            count[0]++;
+        });
+        return count[0];
+    }
+
+    private interface RowWriter extends AutoCloseable {
+        void write(ResultSet row) throws SQLException, IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    /**
+     * Mỗi bài viết một object JSON trên một dòng, ghi bằng streaming API của Jackson.
+     */
+    private final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(ResultSet row) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeStringField("id", row.getObject("id", UUID.class).toString());
+            generator.writeStringField("createdAt", row.getObject("created_at", OffsetDateTime.class).toString());
+            generator.writeStringField("sentimentLabel", row.getString("sentiment_label"));
+            generator.writeStringField("sentimentStatus", row.getString("sentiment_status"));
+            writeScore("positiveScore", row.getBigDecimal("positive_score"));
+            writeScore("negativeScore", row.getBigDecimal("negative_score"));
+            writeScore("neutralScore", row.getBigDecimal("neutral_score"));
+            generator.writeStringField("content", row.getString("content"));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        private void writeScore(String field, BigDecimal score) throws IOException {
+            if (score == null) {
+                generator.writeNullField(field);
+            } else {
+                generator.writeNumberField(field, score);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    /**
+     * CSV theo RFC 4180: trường chứa dấu phẩy, nháy kép hoặc xuống dòng được đặt trong nháy kép.
+     */
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            this.writer.write(CSV_HEADER);
+            this.writer.write("\r\n");
+        }
+
+        @Override
+        public void write(ResultSet row) throws SQLException, IOException {
+            writer.write(row.getObject("id", UUID.class).toString());
+            writer.write(',');
+            writer.write(row.getObject("created_at", OffsetDateTime.class).toString());
+            writer.write(',');
+            writeField(row.getString("sentiment_label"));
+            writer.write(',');
+            writeField(row.getString("sentiment_status"));
+            writer.write(',');
+            writeScore(row.getBigDecimal("positive_score"));
+            writer.write(',');
+            writeScore(row.getBigDecimal("negative_score"));
+            writer.write(',');
+            writeScore(row.getBigDecimal("neutral_score"));
+            writer.write(',');
+            writeField(row.getString("content"));
+            writer.write("\r\n");
+        }
+
+        private void writeScore(BigDecimal score) throws IOException {
+            if (score != null) {
+                writer.write(score.toPlainString());
+            }
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    writer.write('"');
+                }
+                writer.write(c);
+            }
+            writer.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    /**
+     * Response stream do container đóng khi xong request.
+     */
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
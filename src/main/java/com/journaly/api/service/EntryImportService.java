@@ -0,0 +1,382 @@
+package com.journaly.api.service;
+
+import com.azure.ai.textanalytics.models.DocumentSentiment;
+import com.azure.ai.textanalytics.models.SentimentConfidenceScores;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.journaly.api.dto.EntrySentimentSnapshot;
+import com.journaly.api.dto.ImportRecord;
+import com.journaly.api.dto.ImportResult;
+import com.journaly.api.entity.EntryImport;
+import com.journaly.api.entity.EntryImportStatus;
+import com.journaly.api.entity.SentimentStatus;
+import com.journaly.api.entity.Tag;
+import com.journaly.api.entity.User;
+import com.journaly.api.entity.UuidV7;
+import com.journaly.api.repository.EntryImportRepository;
+import com.journaly.api.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Import hàng loạt bài viết từ NDJSON (mỗi dòng một {@link ImportRecord}), dùng khi chuyển từ ứng dụng khác.
+ * <p>
+ * File được đọc từng dòng và xử lý theo chunk {@code journal.import.chunk-size} dòng:
+ * <ol>
+ *     <li>chấm điểm cảm xúc cả chunk cùng lúc trước khi mở transaction: engine cục bộ trả lời ngay,
+ *     phần còn lại được {@link SentimentBatcher} gom thành các request Azure nhiều văn bản; bài viết mà Azure
+ *     chấm lỗi (hoặc chưa chấm xong khi hết {@code journal.import.sentiment-timeout}) được lưu PENDING
+ *     và đưa vào outbox;</li>
+ *     <li>một transaction ngắn cho mỗi chunk: INSERT bài viết và entry_tags bằng JDBC batch
+ *     (kích thước {@code hibernate.jdbc.batch_size}), tag được tìm/tạo một lần cho cả chunk,
+ *     bộ đếm bài viết tăng một lần, và tiến độ import được ghi cùng commit.</li>
+ * </ol>
+ * Dòng lỗi không làm hỏng chunk: chúng được báo kèm số dòng và tính là đã xử lý. Nếu request bị ngắt,
+ * gửi lại cùng file với cùng {@code importId} sẽ bỏ qua các dòng đã commit.
+ * <p>
+ * Bài viết được INSERT bằng JDBC thay vì JPA vì {@code @CreationTimestamp} của {@code JournalEntry}
+ * sẽ ghi đè thời điểm viết gốc.
+ */
+@Slf4j
+@Service
+public class EntryImportService {
+
+    // Cùng giới hạn với CreateEntryRequest
+    static final int MAX_CONTENT_LENGTH = 10_000;
+
+    private static final String INSERT_ENTRY = "insert into journal_entries (id, user_id, content, created_at, " +
+            "sentiment_label, positive_score, negative_score, neutral_score, sentiment_status) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ENTRY_TAG = "insert into entry_tags (entry_id, tag_id) values (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final EntryImportRepository entryImportRepository;
+    private final EntryStatsService entryStatsService;
+    private final MoodRollupService moodRollupService;
+    private final TagService tagService;
+    private final AIService aiService;
+    private final SentimentJobService sentimentJobService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectReader recordReader;
+    private final int chunkSize;
+    private final int jdbcBatchSize;
+    private final Duration sentimentTimeout;
+    private final int maxReportedErrors;
+
+    public EntryImportService(JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              UserRepository userRepository,
+                              EntryImportRepository entryImportRepository,
+                              EntryStatsService entryStatsService,
+                              MoodRollupService moodRollupService,
+                              TagService tagService,
+                              AIService aiService,
+                              SentimentJobService sentimentJobService,
+                              ApplicationEventPublisher eventPublisher,
+                              ObjectMapper objectMapper,
+                              @Value("${journal.import.chunk-size:500}") int chunkSize,
+                              @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:25}") int jdbcBatchSize,
+                              @Value("${journal.import.sentiment-timeout:30s}") Duration sentimentTimeout,
+                              @Value("${journal.import.max-reported-errors:100}") int maxReportedErrors) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.userRepository = userRepository;
+        this.entryImportRepository = entryImportRepository;
+        this.entryStatsService = entryStatsService;
+        this.moodRollupService = moodRollupService;
+        this.tagService = tagService;
+        this.aiService = aiService;
+        this.sentimentJobService = sentimentJobService;
+        this.eventPublisher = eventPublisher;
+        this.recordReader = objectMapper.readerFor(ImportRecord.class);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.jdbcBatchSize = Math.max(1, jdbcBatchSize);
+        this.sentimentTimeout = sentimentTimeout;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /**
+     * Import các bài viết trong {@code in} cho user hiện tại.
+     * @param importId id của lần import để chạy tiếp sau khi bị ngắt, hoặc null để bắt đầu lần mới.
+     */
+    public ImportResult importEntries(UUID importId, InputStream in) throws IOException {
+        User user = userRepository.findFirstByOrderByCreatedAtAsc()
+                .orElseThrow(() -> new RuntimeException("No user to import entries for"));
+        EntryImport progress = startOrResume(importId == null ? UUID.randomUUID() : importId, user.getId());
+        log.info("Import {} for user {} starting after line {}", progress.getId(), user.getId(),
+                progress.getCommittedLines());
+
+        Run run = new Run(progress);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (lineNumber <= progress.getCommittedLines()) {
+                run.skipped++;
+                continue;
+            }
+            if (!line.isBlank()) {
+                parse(line, lineNumber, run);
+            }
+            if (run.chunk.size() >= chunkSize) {
+                commitChunk(run, lineNumber, EntryImportStatus.RUNNING);
+            }
+        }
+        // File gửi lại có thể ngắn hơn phần đã commit; tiến độ không bao giờ lùi
+        commitChunk(run, Math.max(lineNumber, run.committedLines), EntryImportStatus.COMPLETED);
+
+        log.info("Import {} completed: {} imported, {} skipped, {} failed, {} awaiting sentiment",
+                progress.getId(), run.imported, run.skipped, run.failed, run.sentimentPending);
+        return new ImportResult(progress.getId(), EntryImportStatus.COMPLETED, run.imported, run.skipped,
+                run.failed, run.sentimentPending, run.errors, run.errorsTruncated);
+    }
+
+    private EntryImport startOrResume(UUID importId, UUID userId) {
+        return transactionTemplate.execute(status -> entryImportRepository.findById(importId)
+                .map(existing -> {
+                    if (!existing.getUserId().equals(userId)) {
+                        throw new IllegalArgumentException("Import " + importId + " belongs to another user");
+                    }
+                    return existing;
+                })
+                .orElseGet(() -> entryImportRepository.save(EntryImport.start(importId, userId))));
+    }
+
+    private void parse(String line, long lineNumber, Run run) {
+        ImportRecord record;
+        try {
+            record = recordReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            run.reject(lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+            return;
+        }
+        if (record == null || record.getContent() == null || record.getContent().isBlank()) {
+            run.reject(lineNumber, "Content cannot be empty");
+        } else if (record.getContent().length() > MAX_CONTENT_LENGTH) {
+            run.reject(lineNumber, "Content must be at most " + MAX_CONTENT_LENGTH + " characters");
+        } else {
+            run.chunk.add(new PendingEntry(UuidV7.generate(), record));
+        }
+    }
+
+    /**
+     * Chấm điểm rồi ghi chunk hiện tại cùng tiến độ tới {@code lastLine} trong một transaction.
+     */
+    private void commitChunk(Run run, long lastLine, EntryImportStatus status) {
+        List<PendingEntry> chunk = run.chunk;
+        score(chunk);
+        OffsetDateTime now = OffsetDateTime.now();
+        List<UUID> unscored = chunk.stream().filter(entry -> entry.sentiment == null).map(PendingEntry::id).toList();
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            // Ghi tiến độ trước: request khác cùng import id đang chạy sẽ làm câu này trả về 0
+            if (entryImportRepository.advance(run.progress.getId(), run.committedLines, lastLine, chunk.size(),
+                    run.failedInChunk, status, now) == 0) {
+                throw new ConcurrentOperationException("Import " + run.progress.getId()
+                        + " is being processed by another request");
+            }
+            if (chunk.isEmpty()) {
+                return;
+            }
+            entryStatsService.recordImportedEntries(run.progress.getUserId(), chunk.size());
+            insertEntries(run.progress.getUserId(), chunk, now);
+            moodRollupService.recordImportedEntries(run.progress.getUserId(), chunk.stream()
+                    .map(entry -> snapshot(run.progress.getUserId(), entry, now))
+                    .toList());
+            insertTags(run.progress.getUserId(), chunk);
+            eventPublisher.publishEvent(new EntriesWrittenEvent(run.progress.getUserId(), chunk.stream()
+                    .map(entry -> new EntriesWrittenEvent.WrittenEntry(entry.id(), entry.record().getContent(),
+                            entry.record().getCreatedAt() != null ? entry.record().getCreatedAt() : now))
+                    .toList()));
+            if (!unscored.isEmpty()) {
+                sentimentJobService.enqueueAll(unscored);
+                unscored.forEach(id -> eventPublisher.publishEvent(new JournalEntryCreatedEvent(id)));
+            }
+        });
+
+        run.committedLines = lastLine;
+        run.imported += chunk.size();
+        run.sentimentPending += unscored.size();
+        run.failedInChunk = 0;
+        chunk.clear();
+    }
+
+    /**
+     * Gửi cả chunk cho AIService cùng lúc để các văn bản cần Azure được gom lô, rồi chờ tối đa
+     * {@code sentimentTimeout} cho cả chunk. Không dùng kết quả dự phòng: bài viết chấm lỗi để {@code sentiment}
+     * null và được worker nền chấm lại.
+     */
+    private void score(List<PendingEntry> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<CompletableFuture<DocumentSentiment>> futures = new ArrayList<>(chunk.size());
+        chunk.forEach(entry -> futures.add(aiService.analyzeSentimentOrThrowAsync(entry.record().getContent())));
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                    .get(sentimentTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (TimeoutException e) {
+            log.warn("Sentiment scoring for an import chunk did not finish within {}", sentimentTimeout);
+        } catch (ExecutionException e) {
+            log.warn("Sentiment scoring failed for part of an import chunk: {}", e.getCause().toString());
+        }
+        for (int i = 0; i < chunk.size(); i++) {
+            CompletableFuture<DocumentSentiment> future = futures.get(i);
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                chunk.get(i).sentiment = future.join();
+            }
+        }
+    }
+
+    private static EntrySentimentSnapshot snapshot(UUID userId, PendingEntry entry, OffsetDateTime now) {
+        OffsetDateTime createdAt = entry.record().getCreatedAt() != null ? entry.record().getCreatedAt() : now;
+        if (entry.sentiment == null) {
+            return new EntrySentimentSnapshot(userId, createdAt, null, null, null, null);
+        }
+        SentimentConfidenceScores scores = entry.sentiment.getConfidenceScores();
+        return new EntrySentimentSnapshot(userId, createdAt,
+                JournalService.interpretSentimentFromScores(scores).toString(),
+                BigDecimal.valueOf(scores.getPositive()),
+                BigDecimal.valueOf(scores.getNegative()),
+                BigDecimal.valueOf(scores.getNeutral()));
+    }
+
+    private void insertEntries(UUID userId, List<PendingEntry> chunk, OffsetDateTime now) {
+        jdbcTemplate.batchUpdate(INSERT_ENTRY, chunk, jdbcBatchSize, (statement, entry) -> {
+            OffsetDateTime createdAt = entry.record().getCreatedAt() != null ? entry.record().getCreatedAt() : now;
+            statement.setObject(1, entry.id());
+            statement.setObject(2, userId);
+            statement.setString(3, entry.record().getContent());
+            statement.setObject(4, createdAt);
+            if (entry.sentiment == null) {
+                statement.setNull(5, Types.VARCHAR);
+                statement.setNull(6, Types.NUMERIC);
+                statement.setNull(7, Types.NUMERIC);
+                statement.setNull(8, Types.NUMERIC);
+                statement.setString(9, SentimentStatus.PENDING.name());
+            } else {
+                SentimentConfidenceScores scores = entry.sentiment.getConfidenceScores();
+                statement.setString(5, JournalService.interpretSentimentFromScores(scores).toString());
+                statement.setBigDecimal(6, BigDecimal.valueOf(scores.getPositive()));
+                statement.setBigDecimal(7, BigDecimal.valueOf(scores.getNegative()));
+                statement.setBigDecimal(8, BigDecimal.valueOf(scores.getNeutral()));
+                statement.setString(9, SentimentStatus.COMPLETED.name());
+            }
+        });
+    }
+
+    private void insertTags(UUID userId, List<PendingEntry> chunk) {
+        Set<String> names = new LinkedHashSet<>();
+        chunk.forEach(entry -> {
+            if (entry.record().getTags() != null) {
+                names.addAll(TagService.normalize(entry.record().getTags()));
+            }
+        });
+        if (names.isEmpty()) {
+            return;
+        }
+        // resolve trả tag theo đúng thứ tự tên; tag có sẵn trong TagDictionary chỉ là reference,
+        // nên chỉ dùng id để không phải nạp tên
+        List<Tag> tags = tagService.resolve(userId, names);
+        Map<String, Long> tagIds = new HashMap<>();
+        int index = 0;
+        for (String name : names) {
+            tagIds.put(name, tags.get(index++).getId());
+        }
+
+        List<Object[]> rows = new ArrayList<>();
+        for (PendingEntry entry : chunk) {
+            if (entry.record().getTags() != null) {
+                TagService.normalize(entry.record().getTags())
+                        .forEach(name -> rows.add(new Object[]{entry.id(), tagIds.get(name)}));
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_ENTRY_TAG, rows, jdbcBatchSize,
+                (statement, row) -> {
+                    statement.setObject(1, row[0]);
+                    statement.setLong(2, (Long) row[1]);
+                });
+    }
+
+    private static final class PendingEntry {
+        private final UUID id;
+        private final ImportRecord record;
+        private DocumentSentiment sentiment;
+
+        PendingEntry(UUID id, ImportRecord record) {
+            this.id = id;
+            this.record = record;
+        }
+
+        UUID id() {
+            return id;
+        }
+
+        ImportRecord record() {
+            return record;
+        }
+    }
+
+    /**
+     * Trạng thái của một request import.
+     */
+    private final class Run {
+        private final EntryImport progress;
+        private final List<PendingEntry> chunk = new ArrayList<>();
+        private final List<ImportResult.LineError> errors = new ArrayList<>();
+        private long committedLines;
+        private long imported;
+        private long skipped;
+        private long failed;
+        private long failedInChunk;
+        private long sentimentPending;
+        private boolean errorsTruncated;
+
+        Run(EntryImport progress) {
+            this.progress = progress;
+            this.committedLines = progress.getCommittedLines();
+        }
+
+        void reject(long lineNumber, String message) {
+            failed++;
+            failedInChunk++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportResult.LineError(lineNumber, message));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.journaly.api.service;
+
+import com.journaly.api.trace.RequestTrace;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timer cho từng bước của {@link JournalService#createJournalEntry}.
+ * <p>
+ * Mọi timer được đăng ký sẵn với tập tag cố định nên trên hot path chỉ còn {@code System.nanoTime()} và một
+ * lần ghi lock-free, không tra registry hay cấp phát tag. Histogram bật/tắt qua
+ * {@code management.metrics.distribution.percentiles-histogram.journal.create}. Cùng số đo được ghi vào
+ * {@link RequestTrace} của request hiện tại (header Server-Timing, {@code /actuator/slowrequests}).
+ */
+@Component
+class EntryPipelineMetrics {
+
+    enum Stage {
+        USER_LOOKUP("user_lookup"), COUNT("count"), INTERPRET("interpret"), SAVE("save"),
+        SIDE_EFFECTS("side_effects"), TRANSACTION("transaction");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final Map<Stage, Timer> stages = new EnumMap<>(Stage.class);
+    private final Map<SentimentSource, Timer> sentiment = new EnumMap<>(SentimentSource.class);
+
+    EntryPipelineMetrics(MeterRegistry meterRegistry) {
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, Timer.builder("journal.create.stage")
+                    .description("Time spent in each step of entry creation; transaction includes the commit")
+                    .tag("stage", stage.tag)
+                    .register(meterRegistry));
+        }
+        for (SentimentSource source : SentimentSource.values()) {
+            sentiment.put(source, Timer.builder("journal.create.sentiment")
+                    .description("Time to obtain the sentiment of a new entry, by where the result came from")
+                    .tag("source", source.tag())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Ghi thời gian từ {@code startNanos} đến hiện tại và trả về thời điểm hiện tại, để nối tiếp các bước.
+     */
+    long record(Stage stage, long startNanos) {
+        long now = System.nanoTime();
+        stages.get(stage).record(now - startNanos, TimeUnit.NANOSECONDS);
+        RequestTrace.record(stage.tag, now - startNanos);
+        return now;
+    }
+
+    void recordSentiment(SentimentSource source, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        sentiment.get(source).record(elapsed, TimeUnit.NANOSECONDS);
+        RequestTrace.record("sentiment", source.tag(), elapsed);
+    }
+}
@@ -0,0 +1,121 @@
+package com.journaly.api.service;
+
+import com.journaly.api.repository.JournalEntryRepository;
+import com.journaly.api.repository.SentimentJobRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Định kỳ xóa hẳn các bài viết đã xóa mềm quá {@code journal.deletion.retention}, cùng liên kết tag
+ * (entry_tags) và job chấm cảm xúc của chúng.
+ * <p>
+ * Mỗi lô tối đa {@code batch-size} bài viết là một transaction ngắn riêng, giữa các lô nghỉ {@code pause},
+ * và mỗi lần chạy dừng sau {@code max-batches} lô: khóa dòng chỉ giữ trong một lô, WAL được ghi rải đều
+ * thay vì một câu DELETE khổng lồ, và phần còn lại được xử lý ở lần chạy sau. Các bài viết trong lô bị khóa
+ * khi chọn, nên một lần khôi phục chạy song song hoặc chờ lô xong (rồi báo không tìm thấy), hoặc khôi phục
+ * trước và bài viết không còn thỏa điều kiện xóa.
+ */
+@Slf4j
+@Component
+public class EntryPurgeJob {
+
+    private final JournalEntryRepository journalEntryRepository;
+    private final SentimentJobRepository sentimentJobRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration retention;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Duration pause;
+    private final Counter purged;
+
+    public EntryPurgeJob(JournalEntryRepository journalEntryRepository,
+                         SentimentJobRepository sentimentJobRepository,
+                         TransactionTemplate transactionTemplate,
+                         MeterRegistry meterRegistry,
+                         @Value("${journal.deletion.purge.enabled:true}") boolean enabled,
+                         @Value("${journal.deletion.retention:30d}") Duration retention,
+                         @Value("${journal.deletion.purge.batch-size:500}") int batchSize,
+                         @Value("${journal.deletion.purge.max-batches:100}") int maxBatches,
+                         @Value("${journal.deletion.purge.pause:50ms}") Duration pause) {
+        if (batchSize <= 0 || maxBatches <= 0) {
+            throw new IllegalArgumentException("journal.deletion.purge.batch-size and max-batches must be positive");
+        }
+        this.journalEntryRepository = journalEntryRepository;
+        this.sentimentJobRepository = sentimentJobRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.pause = pause;
+        this.purged = Counter.builder("journal.entries.purged")
+                .description("Number of soft-deleted entries permanently removed")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${journal.deletion.purge.initial-delay:10m}",
+            fixedDelayString = "${journal.deletion.purge.interval:1h}")
+    public void scheduledRun() {
+        if (enabled) {
+            runOnce();
+        }
+    }
+
+    /**
+     * Xóa hẳn tối đa {@code max-batches} lô bài viết đã hết hạn giữ.
+     *
+     * @return số bài viết đã xóa hẳn
+     */
+    public int runOnce() {
+        OffsetDateTime cutoff = OffsetDateTime.now().minus(retention);
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            int deleted = transactionTemplate.execute(status -> purgeBatch(cutoff));
+            total += deleted;
+            if (deleted < batchSize) {
+                break;
+            }
+            if (!pause.isZero() && !sleep()) {
+                break;
+            }
+        }
+        if (total > 0) {
+            purged.increment(total);
+            log.info("Purged {} entries deleted before {}", total, cutoff);
+        }
+        return total;
+    }
+
+    private int purgeBatch(OffsetDateTime cutoff) {
+        List<UUID> ids = journalEntryRepository.lockPurgeable(cutoff, batchSize).stream()
+                .map(UUID::fromString)
+                .toList();
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        journalEntryRepository.deleteTagLinks(ids);
+        sentimentJobRepository.deleteByEntryIds(ids);
+        return journalEntryRepository.purge(ids);
+    }
+
+    private boolean sleep() {
+        try {
+            Thread.sleep(pause);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.journaly.api.service;
+
+import com.journaly.api.dto.EntrySearchHit;
+import com.journaly.api.entity.User;
+import com.journaly.api.repository.UserRepository;
+import com.journaly.api.search.EntrySearchIndex;
+import com.journaly.api.search.EntrySearchQuery;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Tìm kiếm bài viết của user hiện tại qua {@link EntrySearchIndex} đang được cấu hình.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EntrySearchService {
+
+    static final int MAX_RESULTS = 100;
+    static final int MAX_QUERY_LENGTH = 200;
+
+    private final EntrySearchIndex entrySearchIndex;
+    private final UserRepository userRepository;
+
+    /**
+     * @param text  các từ cần tìm (không phân biệt hoa thường và dấu tiếng Việt); bài viết phải chứa tất cả các từ.
+     * @param label lọc theo nhãn cảm xúc (POSITIVE, NEGATIVE, ...), hoặc null.
+     * @param tag   lọc theo tên tag, hoặc null.
+     */
+    public List<EntrySearchHit> search(String text, String label, String tag, int limit) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("Search query cannot be empty");
+        }
+        if (text.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search query must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        Optional<User> currentUser = userRepository.findFirstByOrderByCreatedAtAsc();
+        if (currentUser.isEmpty()) {
+            return List.of();
+        }
+
+        EntrySearchQuery query = new EntrySearchQuery(currentUser.get().getId(), text.trim(),
+                label == null || label.isBlank() ? null : label.trim().toUpperCase(Locale.ROOT),
+                tag == null || tag.isBlank() ? null : tag.trim(),
+                Math.clamp(limit, 1, MAX_RESULTS));
+        long started = System.nanoTime();
+        List<EntrySearchHit> hits = entrySearchIndex.search(query);
+        log.debug("Search '{}' returned {} hits in {} us using {}", query.text(), hits.size(),
+                (System.nanoTime() - started) / 1_000, entrySearchIndex.name());
+        return hits;
+    }
+}
@@ -0,0 +1,76 @@
+package com.journaly.api.service;
+
+import com.journaly.api.repository.UserEntryStatsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Định kỳ sửa các bộ đếm user_entry_stats bị lệch so với journal_entries
+ * (xóa thủ công, import trực tiếp vào database, dữ liệu có trước bộ đếm...).
+ * <p>
+ * Mỗi user được sửa trong một transaction ngắn riêng nên job không giữ khóa lâu, và nhiều instance
+ * chạy cùng lúc vẫn an toàn vì {@link EntryStatsService#reconcile(UUID)} khóa dòng thống kê trước khi đếm.
+ */
+@Slf4j
+@Component
+public class EntryStatsReconciliationJob {
+
+    private final UserEntryStatsRepository userEntryStatsRepository;
+    private final EntryStatsService entryStatsService;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Counter repaired;
+
+    public EntryStatsReconciliationJob(UserEntryStatsRepository userEntryStatsRepository,
+                                       EntryStatsService entryStatsService,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${journal.stats.reconcile.enabled:true}") boolean enabled,
+                                       @Value("${journal.stats.reconcile.batch-size:500}") int batchSize) {
+        this.userEntryStatsRepository = userEntryStatsRepository;
+        this.entryStatsService = entryStatsService;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.repaired = Counter.builder("journal.stats.reconciled")
+                .description("Number of per-user entry counters repaired by reconciliation")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${journal.stats.reconcile.initial-delay:5m}",
+            fixedDelayString = "${journal.stats.reconcile.interval:6h}")
+    public void scheduledRun() {
+        if (enabled) {
+            runOnce();
+        }
+    }
+
+    /**
+     * Đối soát tối đa một lô user bị lệch.
+     *
+     * @return số bộ đếm đã được sửa
+     */
+    public int runOnce() {
+        List<UUID> drifted = userEntryStatsRepository.findDrifted(Limit.of(batchSize));
+        int fixed = 0;
+        for (UUID userId : drifted) {
+            try {
+                entryStatsService.reconcile(userId);
+                fixed++;
+            } catch (RuntimeException e) {
+                log.error("Failed to reconcile entry counter for user {}", userId, e);
+            }
+        }
+        if (fixed > 0) {
+            repaired.increment(fixed);
+            log.info("Reconciled entry counters for {} users", fixed);
+        }
+        return fixed;
+    }
+}
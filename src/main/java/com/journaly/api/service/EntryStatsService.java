@@ -0,0 +1,157 @@
+package com.journaly.api.service;
+
+import com.journaly.api.dto.VersionStamp;
+import com.journaly.api.entity.UserEntryStats;
+import com.journaly.api.repository.JournalEntryRepository;
+import com.journaly.api.repository.UserEntryStatsRepository;
+import com.journaly.api.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Bộ đếm bài viết theo user (bảng user_entry_stats), thay cho COUNT(*) trên journal_entries.
+ * Cùng dòng đó giữ {@code change_version}, phiên bản danh sách bài viết của user dùng cho ETag.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EntryStatsService {
+
+    private final UserEntryStatsRepository userEntryStatsRepository;
+    private final JournalEntryRepository journalEntryRepository;
+    private final UserRepository userRepository;
+
+    /**
+     * Ghi nhận một bài viết mới; phải chạy trong transaction tạo bài viết, trước khi lưu bài viết,
+     * để bộ đếm và bài viết cùng commit hoặc cùng rollback.
+     *
+     * @return số bài viết của user trước bài viết này
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long recordNewEntry(UUID userId) {
+        OffsetDateTime now = OffsetDateTime.now();
+        if (userEntryStatsRepository.increment(userId, now) == 0) {
+            // Lần đầu (hoặc dữ liệu cũ chưa có bộ đếm): khởi tạo từ số bài viết hiện có rồi tăng
+            createCounter(userId, now);
+            userEntryStatsRepository.increment(userId, now);
+        }
+        return userEntryStatsRepository.findEntryCount(userId).orElse(1L) - 1;
+    }
+
+    /**
+     * Ghi nhận {@code count} bài viết được import; như {@link #recordNewEntry}, phải chạy trong transaction
+     * ghi các bài viết và trước các câu INSERT.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordImportedEntries(UUID userId, long count) {
+        if (count > 0) {
+            adjust(userId, count);
+        }
+    }
+
+    /**
+     * Ghi nhận một bài viết bị xóa mềm; chạy trong transaction xóa, trước câu UPDATE {@code deleted_at}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeletedEntry(UUID userId) {
+        adjust(userId, -1);
+    }
+
+    /**
+     * Ghi nhận một bài viết được khôi phục; chạy trong transaction khôi phục, trước câu UPDATE {@code deleted_at}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRestoredEntry(UUID userId) {
+        adjust(userId, 1);
+    }
+
+    /**
+     * Ghi nhận một bài viết đã có bị sửa (tag, điểm cảm xúc) để ETag của danh sách đổi theo;
+     * chạy trong transaction sửa bài viết.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChangedEntry(UUID userId) {
+        adjust(userId, 0);
+    }
+
+    /**
+     * Cộng {@code delta} vào bộ đếm (và tăng {@code change_version}). Nếu bộ đếm chưa có, nó được khởi tạo
+     * từ số bài viết hiện có; vì vậy mọi lời gọi phải đi trước thay đổi trên journal_entries để thay đổi đó không bị đếm hai lần.
+     */
+    private void adjust(UUID userId, long delta) {
+        OffsetDateTime now = OffsetDateTime.now();
+        if (userEntryStatsRepository.incrementBy(userId, delta, now) == 0) {
+            createCounter(userId, now);
+            userEntryStatsRepository.incrementBy(userId, delta, now);
+        }
+    }
+
+    /**
+     * Khởi tạo bộ đếm từ số bài viết hiện có. Khóa dòng user để các request đầu tiên chạy song song
+     * không cùng INSERT (H2 không có {@code ON CONFLICT} thật, Hibernate chỉ giả lập cho câu đơn lẻ).
+     */
+    private void createCounter(UUID userId, OffsetDateTime now) {
+        userRepository.lockById(userId);
+        if (userEntryStatsRepository.findEntryCount(userId).isEmpty()) {
+            userEntryStatsRepository.insertIfAbsent(userId, journalEntryRepository.countByUserId(userId), now);
+        }
+    }
+
+    /**
+     * Số bài viết của user, đọc từ bộ đếm (O(1)).
+     */
+    @Transactional(readOnly = true)
+    public long countByUser(UUID userId) {
+        return userEntryStatsRepository.findEntryCount(userId).orElse(0L);
+    }
+
+    /**
+     * Phiên bản danh sách bài viết của user; rỗng nếu user chưa có dòng thống kê.
+     */
+    @Transactional(readOnly = true)
+    public Optional<VersionStamp> versionOf(UUID userId) {
+        return userEntryStatsRepository.findVersionStamp(userId);
+    }
+
+    /**
+     * Phiên bản gộp của danh sách toàn bộ bài viết.
+     */
+    @Transactional(readOnly = true)
+    public VersionStamp versionOfAll() {
+        return userEntryStatsRepository.findTotalVersionStamp();
+    }
+
+    /**
+     * Đặt lại bộ đếm của một user theo số bài viết thực tế.
+     * <p>
+     * Dòng thống kê được khóa trước khi đếm: mọi transaction tạo bài viết đang giữ khóa đã commit xong,
+     * các transaction mới phải chờ, nên kết quả đếm không bị lệch bởi request chạy song song.
+     *
+     * @return độ lệch đã sửa (thực tế - bộ đếm cũ)
+     */
+    @Transactional
+    public long reconcile(UUID userId) {
+        OffsetDateTime now = OffsetDateTime.now();
+        UserEntryStats stats = userEntryStatsRepository.findForUpdate(userId).orElse(null);
+        if (stats == null) {
+            createCounter(userId, now);
+            stats = userEntryStatsRepository.findForUpdate(userId).orElseThrow();
+        }
+        long actual = journalEntryRepository.countByUserId(userId);
+        long drift = actual - stats.getEntryCount();
+        if (drift != 0) {
+            log.warn("Entry counter for user {} drifted by {} (counter={}, actual={})",
+                    userId, drift, stats.getEntryCount(), actual);
+            stats.setEntryCount(actual);
+            stats.setUpdatedAt(now);
+        }
+        return drift;
+    }
+}
@@ -0,0 +1,9 @@
+package com.journaly.api.service;
+
+import java.util.UUID;
+
+/**
+ * Phát ra khi một bài viết được lưu mà chưa có kết quả phân tích cảm xúc.
+ */
+public record JournalEntryCreatedEvent(UUID entryId) {
+}
@@ -4,24 +4,40 @@ import com.azure.ai.textanalytics.models.DocumentSentiment;
 import com.azure.ai.textanalytics.models.SentimentConfidenceScores;
 import com.azure.ai.textanalytics.models.TextSentiment;
 import com.journaly.api.dto.CreateEntryResponse;
+import com.journaly.api.dto.EntryCursor;
+import com.journaly.api.dto.EntryDetail;
+import com.journaly.api.dto.EntrySentimentSnapshot;
+import com.journaly.api.dto.EntrySliceResponse;
+import com.journaly.api.dto.EntrySummary;
+import com.journaly.api.dto.VersionStamp;
 import com.journaly.api.entity.JournalEntry;
+import com.journaly.api.entity.SentimentStatus;
 import com.journaly.api.entity.Tag;
 import com.journaly.api.entity.User;
 import com.journaly.api.repository.JournalEntryRepository;
-import com.journaly.api.repository.TagRepository;
 import com.journaly.api.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 import static com.azure.ai.textanalytics.models.TextSentiment.*;
 
@@ -32,29 +48,43 @@ public class JournalService {
 
     // Dependencies được inject tự động
     private final JournalEntryRepository journalEntryRepository;
-    private final TagRepository tagRepository;
+    private final TagService tagService;
     private final AIService aiService;
     private final UserRepository userRepository;
-
-    // Dùng Map để lưu trữ các câu phỏng đoán, khai báo một lần duy nhất
-    private static final Map<TextSentiment, List<String>> GUESS_PHRASES = Map.of(
+    private final SentimentJobService sentimentJobService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final EntryStatsService entryStatsService;
+    private final MoodRollupService moodRollupService;
+    private final EntryPipelineMetrics metrics;
+
+    // true: lưu bài viết ngay với trạng thái PENDING, phân tích cảm xúc sau khi commit (SentimentEnrichmentService)
+    @Value("${journal.sentiment.async-enrichment:false}")
+    private boolean asyncEnrichment;
+
+    // Dùng Map để lưu trữ các câu phỏng đoán, khai báo một lần duy nhất.
+    // Tra theo identity: TextSentiment.hashCode() cấp phát mảng varargs mỗi lần gọi, còn các hằng
+    // POSITIVE/NEGATIVE/... là instance duy nhất (ExpandableStringEnum cache theo tên)
+    private static final Map<TextSentiment, List<String>> GUESS_PHRASES = byIdentity(Map.of(
             POSITIVE, List.of("Có vẻ như đây là một khoảnh khắc đáng nhớ.", "Dường như có một niềm vui nho nhỏ ở đây."),
             NEGATIVE, List.of("Dường như đây là một cảm xúc khá nặng nề.", "Cảm nhận được rằng bạn đang không được vui."),
             MIXED, List.of("Cảm nhận được có nhiều cảm xúc lẫn lộn trong đây.", "Dường như đây là một cảm xúc khá phức tạp."),
             NEUTRAL, List.of("Có vẻ như bạn đang suy tư về một điều gì đó.", "Một khoảnh khắc thật bình yên.")
-    );
+    ));
 
     // Dùng Map để lưu trữ các tag gợi ý
-    private static final Map<TextSentiment, List<String>> SUGGESTED_TAGS = Map.of(
+    private static final Map<TextSentiment, List<String>> SUGGESTED_TAGS = byIdentity(Map.of(
             POSITIVE, List.of("#vui_vẻ", "#biết_ơn", "#hạnh_phúc"),
             NEGATIVE, List.of("#buồn", "#mệt_mỏi", "#tức_giận"),
             MIXED, List.of("#khó_tả", "#vừa_vui_vừa_buồn", "#bối_rối"),
             NEUTRAL, List.of("#suy_tư", "#bình_yên", "#trống_rỗng")
-    );
+    ));
 
-    private static final Random random = new Random();
+    private static final String DEFAULT_GUESS_PHRASE = "Chúng tôi đã ghi nhận cảm xúc của bạn.";
+    private static final List<String> DEFAULT_GUESS_PHRASES = List.of(DEFAULT_GUESS_PHRASE);
+
+    static final int MAX_SLICE_SIZE = 100;
 
-    @Transactional
     public CreateEntryResponse createJournalEntry(String content) {
         log.info("Received request to create new journal entry.");
 
@@ -63,6 +93,28 @@ public class JournalService {
             throw new IllegalArgumentException("Content cannot be null or empty");
         }
 
+        // Gọi Azure trước khi mở transaction để không giữ connection trong lúc chờ.
+        // Ở chế độ bất đồng bộ chỉ dùng kết quả có sẵn (cache hoặc engine cục bộ đủ tin cậy).
+        DocumentSentiment sentimentAnalysisResult;
+        long started = System.nanoTime();
+        SentimentSource.reset();
+        if (asyncEnrichment) {
+            sentimentAnalysisResult = aiService.findImmediateSentiment(content).orElse(null);
+            metrics.recordSentiment(SentimentSource.take(SentimentSource.DEFERRED), started);
+        } else {
+            log.info("Starting sentiment analysis...");
+            sentimentAnalysisResult = aiService.analyzeSentiment(content);
+            metrics.recordSentiment(SentimentSource.take(SentimentSource.CACHED), started);
+        }
+
+        long transactionStarted = System.nanoTime();
+        CreateEntryResponse response = transactionTemplate.execute(status -> saveNewEntry(content, sentimentAnalysisResult));
+        metrics.record(EntryPipelineMetrics.Stage.TRANSACTION, transactionStarted);
+        return response;
+    }
+
+    private CreateEntryResponse saveNewEntry(String content, DocumentSentiment sentimentAnalysisResult) {
+        long stageStarted = System.nanoTime();
         User currentUser = userRepository.findFirstByOrderByCreatedAtAsc()
                 .orElseGet(() -> {
                     log.warn("No users found. Creating a dummy user for development.");
@@ -71,36 +123,64 @@ public class JournalService {
                     dummyUser.setPasswordHash("temporary_password");
                     return userRepository.save(dummyUser);
                 });
+        stageStarted = metrics.record(EntryPipelineMetrics.Stage.USER_LOOKUP, stageStarted);
 
-        long entryCountBeforeSaving = journalEntryRepository.count();
-        log.info("Total entries before save: {}", entryCountBeforeSaving);
+        // Bộ đếm theo user được tăng cùng transaction, thay cho COUNT(*) toàn bảng
+        long entryCountBeforeSaving = entryStatsService.recordNewEntry(currentUser.getId());
+        stageStarted = metrics.record(EntryPipelineMetrics.Stage.COUNT, stageStarted);
+        log.info("User entries before save: {}", entryCountBeforeSaving);
         boolean triggerInsightNudge = (entryCountBeforeSaving == 2);
 
-        log.info("Starting sentiment analysis...");
-        DocumentSentiment sentimentAnalysisResult = aiService.analyzeSentiment(content);
-        SentimentConfidenceScores scores = sentimentAnalysisResult.getConfidenceScores();
-        log.info("AI analysis complete. Scores: Positive={}, Negative={}, Neutral={}",
-                scores.getPositive(), scores.getNegative(), scores.getNeutral());
-
-        TextSentiment interpretedSentiment = interpretSentimentFromScores(scores);
-        log.info("Interpreted sentiment based on custom logic: {}", interpretedSentiment);
-
         JournalEntry newEntry = new JournalEntry();
         newEntry.setContent(content);
         newEntry.setUser(currentUser);
-        newEntry.setSentimentLabel(interpretedSentiment.toString());
-        newEntry.setPositiveScore(BigDecimal.valueOf(scores.getPositive()));
-        newEntry.setNegativeScore(BigDecimal.valueOf(scores.getNegative()));
-        newEntry.setNeutralScore(BigDecimal.valueOf(scores.getNeutral()));
+
+        TextSentiment interpretedSentiment = null;
+        if (sentimentAnalysisResult != null) {
+            SentimentConfidenceScores scores = sentimentAnalysisResult.getConfidenceScores();
+            log.info("AI analysis complete. Scores: Positive={}, Negative={}, Neutral={}",
+                    scores.getPositive(), scores.getNegative(), scores.getNeutral());
+
+            interpretedSentiment = interpretSentimentFromScores(scores);
+            log.info("Interpreted sentiment based on custom logic: {}", interpretedSentiment);
+
+            newEntry.setSentimentLabel(interpretedSentiment.toString());
+            newEntry.setPositiveScore(BigDecimal.valueOf(scores.getPositive()));
+            newEntry.setNegativeScore(BigDecimal.valueOf(scores.getNegative()));
+            newEntry.setNeutralScore(BigDecimal.valueOf(scores.getNeutral()));
+            newEntry.setSentimentStatus(SentimentStatus.COMPLETED);
+        } else {
+            newEntry.setSentimentStatus(SentimentStatus.PENDING);
+        }
+        stageStarted = metrics.record(EntryPipelineMetrics.Stage.INTERPRET, stageStarted);
 
         log.debug("Attempting to save new entry to database: {}", newEntry);
         JournalEntry savedEntry = journalEntryRepository.save(newEntry);
-        log.info("Successfully created new journal entry with ID: {}. Total entries now: {}", savedEntry.getId(), journalEntryRepository.count());
+        stageStarted = metrics.record(EntryPipelineMetrics.Stage.SAVE, stageStarted);
+        log.info("Successfully created new journal entry with ID: {}. User entries now: {}", savedEntry.getId(), entryCountBeforeSaving + 1);
+        moodRollupService.recordNewEntry(currentUser.getId(),
+                savedEntry.getCreatedAt() != null ? savedEntry.getCreatedAt() : OffsetDateTime.now(),
+                newEntry.getSentimentLabel(), newEntry.getPositiveScore(), newEntry.getNegativeScore(),
+                newEntry.getNeutralScore());
+        eventPublisher.publishEvent(EntriesWrittenEvent.single(currentUser.getId(), savedEntry.getId(), content,
+                savedEntry.getCreatedAt()));
+
+        if (interpretedSentiment == null) {
+            // Job được ghi cùng transaction (outbox); event chỉ đánh thức worker sau khi commit
+            sentimentJobService.enqueue(savedEntry.getId());
+            eventPublisher.publishEvent(new JournalEntryCreatedEvent(savedEntry.getId()));
+            metrics.record(EntryPipelineMetrics.Stage.SIDE_EFFECTS, stageStarted);
+            return new CreateEntryResponse(savedEntry.getId(), DEFAULT_GUESS_PHRASE, List.of(),
+                    triggerInsightNudge, SentimentStatus.PENDING);
+        }
+
+        metrics.record(EntryPipelineMetrics.Stage.SIDE_EFFECTS, stageStarted);
 
         String guessPhrase = selectGuessPhrase(interpretedSentiment);
         List<String> suggestedTags = selectSuggestedTags(interpretedSentiment);
 
-        return new CreateEntryResponse(savedEntry.getId(), guessPhrase, suggestedTags, triggerInsightNudge);
+        return new CreateEntryResponse(savedEntry.getId(), guessPhrase, suggestedTags, triggerInsightNudge,
+                SentimentStatus.COMPLETED);
     }
 
 
@@ -126,21 +206,25 @@ public class JournalService {
         JournalEntry entry = journalEntryRepository.findById(entryId)
                 .orElseThrow(() -> new RuntimeException("Entry not found with id: " + entryId));
 
-        entry.getTags().clear(); // Xóa các tag cũ để cập nhật mới
-
-        for (String tagName : tagNames) {
-            if (tagName != null && !tagName.trim().isEmpty()) {
-                // Tìm xem tag đã tồn tại chưa, nếu chưa thì tạo tag mới
-                Tag tag = tagRepository.findByName(tagName)
-                        .orElseGet(() -> {
-                            log.info("Tag '{}' not found. Creating new one.", tagName);
-                            Tag newTag = new Tag();
-                            newTag.setName(tagName);
-                            return tagRepository.save(newTag);
-                        });
+        // Tìm/tạo tất cả tag trong vài câu lệnh, rồi chỉ xóa/thêm các dòng entry_tags thực sự thay đổi
+        List<Tag> tags = tagService.resolve(entry.getUser().getId(), tagNames);
+        Set<Long> wantedIds = new HashSet<>();
+        tags.forEach(tag -> wantedIds.add(tag.getId()));
+
+        boolean changed = entry.getTags().removeIf(tag -> !wantedIds.contains(tag.getId()));
+        Set<Long> currentIds = new HashSet<>();
+        entry.getTags().forEach(tag -> currentIds.add(tag.getId()));
+        for (Tag tag : tags) {
+            if (currentIds.add(tag.getId())) {
                 entry.getTags().add(tag);
+                changed = true;
             }
         }
+        if (changed) {
+            // Hibernate tăng version khi collection đổi; updated_at và phiên bản danh sách phải tự ghi
+            entry.setUpdatedAt(OffsetDateTime.now());
+            entryStatsService.recordChangedEntry(entry.getUser().getId());
+        }
 
         log.info("Saving entry with updated tags. Entry ID: {}", entryId);
         return journalEntryRepository.save(entry);
@@ -148,7 +232,7 @@ public class JournalService {
 
 
      // --- PHƯƠNG THỨC DIỄN GIẢI ĐÃ SỬA LỖI ---
-     private TextSentiment interpretSentimentFromScores(SentimentConfidenceScores scores) {
+     public static TextSentiment interpretSentimentFromScores(SentimentConfidenceScores scores) {
         double positive = scores.getPositive();
         double negative = scores.getNegative();
         double neutral = scores.getNeutral(); // Lấy cả điểm neutral
@@ -171,29 +255,141 @@ public class JournalService {
     }
 
 
-    private String selectGuessPhrase(TextSentiment sentiment) {
-        List<String> phrases = GUESS_PHRASES.getOrDefault(sentiment, List.of("Chúng tôi đã ghi nhận cảm xúc của bạn."));
-        return phrases.get(random.nextInt(phrases.size()));
+    // ThreadLocalRandom thay cho một Random dùng chung: các request tạo bài viết không tranh nhau seed (CAS)
+    static String selectGuessPhrase(TextSentiment sentiment) {
+        List<String> phrases = GUESS_PHRASES.getOrDefault(sentiment, DEFAULT_GUESS_PHRASES);
+        return phrases.get(ThreadLocalRandom.current().nextInt(phrases.size()));
     }
 
-    private List<String> selectSuggestedTags(TextSentiment sentiment) {
+    static List<String> selectSuggestedTags(TextSentiment sentiment) {
         return SUGGESTED_TAGS.getOrDefault(sentiment, List.of());
     }
 
+    private static Map<TextSentiment, List<String>> byIdentity(Map<TextSentiment, List<String>> values) {
+        return Collections.unmodifiableMap(new IdentityHashMap<>(values));
+    }
+
     /**
      * Get all journal entries with pagination
      */
     @Transactional(readOnly = true)
-    public Page<JournalEntry> getAllEntries(Pageable pageable) {
-        return journalEntryRepository.findAll(pageable);
+    public Page<EntrySummary> getAllEntries(Pageable pageable) {
+        return journalEntryRepository.findAllSummaries(pageable);
     }
 
     /**
-     * Get journal entry by ID
+     * Phiên bản của danh sách toàn bộ bài viết ({@link #getAllEntries}), đọc trước khi đọc trang.
      */
     @Transactional(readOnly = true)
-    public JournalEntry getEntryById(UUID entryId) {
-        return journalEntryRepository.findById(entryId)
+    public VersionStamp getAllEntriesVersion() {
+        return entryStatsService.versionOfAll();
+    }
+
+    /**
+     * Lấy một trang bài viết của user hiện tại theo cursor (mới nhất trước).
+     * @param cursor cursor từ trang trước, hoặc null cho trang đầu tiên.
+     * @param size số bài viết mỗi trang, giới hạn trong [1, MAX_SLICE_SIZE].
+     */
+    @Transactional(readOnly = true)
+    public EntrySliceResponse<EntrySummary> getEntriesSlice(String cursor, int size) {
+        int limit = Math.clamp(size, 1, MAX_SLICE_SIZE);
+        EntryCursor after = cursor == null || cursor.isBlank() ? null : EntryCursor.decode(cursor);
+
+        Optional<User> currentUser = userRepository.findFirstByOrderByCreatedAtAsc();
+        if (currentUser.isEmpty()) {
+            return new EntrySliceResponse<>(List.of(), limit, false, null);
+        }
+
+        // Lấy thừa một dòng để biết còn trang sau hay không mà không cần COUNT
+        UUID userId = currentUser.get().getId();
+        List<EntrySummary> rows = after == null
+                ? journalEntryRepository.findLatestByUser(userId, Limit.of(limit + 1))
+                : journalEntryRepository.findByUserBefore(userId, after.createdAt(), after.id(), Limit.of(limit + 1));
+
+        boolean hasNext = rows.size() > limit;
+        List<EntrySummary> content = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            EntrySummary last = content.get(content.size() - 1);
+            nextCursor = new EntryCursor(last.createdAt(), last.id()).encode();
+        }
+        return new EntrySliceResponse<>(content, limit, hasNext, nextCursor);
+    }
+
+    /**
+     * Phiên bản danh sách bài viết của user hiện tại ({@link #getEntriesSlice}); rỗng nếu chưa có user
+     * hoặc user chưa có bài viết nào.
+     * <p>
+     * Phải đọc trước trang bài viết: nếu có thay đổi xen giữa, phản hồi mang phiên bản cũ và lần hỏi sau
+     * chỉ nhận thêm một 200 thừa, thay vì 304 cho dữ liệu đã cũ.
+     */
+    @Transactional(readOnly = true)
+    public Optional<VersionStamp> getEntriesSliceVersion() {
+        return userRepository.findFirstByOrderByCreatedAtAsc()
+                .flatMap(user -> entryStatsService.versionOf(user.getId()));
+    }
+
+    /**
+     * Phiên bản của một bài viết, một câu lệnh theo primary key, cho GET có điều kiện.
+     */
+    @Transactional(readOnly = true)
+    public VersionStamp getEntryVersion(UUID entryId) {
+        return journalEntryRepository.findVersionStampById(entryId)
                 .orElseThrow(() -> new RuntimeException("Entry not found with id: " + entryId));
     }
-}
\ No newline at end of file
+
+    /**
+     * Chi tiết một bài viết kèm tên tag: hai câu lệnh cố định, không nạp entity.
+     */
+    @Transactional(readOnly = true)
+    public EntryDetail getEntryById(UUID entryId) {
+        EntryDetail detail = journalEntryRepository.findDetailById(entryId)
+                .orElseThrow(() -> new RuntimeException("Entry not found with id: " + entryId));
+        return detail.withTags(journalEntryRepository.findTagNamesByEntryId(entryId));
+    }
+
+    /**
+     * Xóa mềm một bài viết: đặt {@code deleted_at}, trừ khỏi bộ đếm và dòng tổng hợp cảm xúc. Bài viết
+     * biến mất khỏi mọi truy vấn ngay, có thể khôi phục cho tới khi {@link EntryPurgeJob} xóa hẳn.
+     */
+    @Transactional
+    public void deleteEntry(UUID entryId) {
+        // Khóa dòng trước: hai request xóa song song không trừ bộ đếm hai lần, và lần chấm điểm nền
+        // (SentimentEnrichmentService) không cộng vào dòng tổng hợp của một bài viết đã bị trừ
+        EntrySentimentSnapshot entry = journalEntryRepository.findSentimentSnapshotForUpdate(entryId)
+                .orElseThrow(() -> new RuntimeException("Entry not found with id: " + entryId));
+        entryStatsService.recordDeletedEntry(entry.userId());
+        journalEntryRepository.markDeleted(entryId, OffsetDateTime.now());
+        moodRollupService.recordDeletedEntry(entry);
+        eventPublisher.publishEvent(new EntriesDeletedEvent(entry.userId(), List.of(entryId)));
+        log.info("Soft-deleted entry {}", entryId);
+    }
+
+    /**
+     * Khôi phục một bài viết đã xóa mềm và chưa bị purge. Bài viết chưa có điểm cảm xúc được đưa lại vào outbox.
+     */
+    @Transactional
+    public EntryDetail restoreEntry(UUID entryId) {
+        UUID userId = journalEntryRepository.lockDeletedEntryOwner(entryId).map(UUID::fromString)
+                .orElseThrow(() -> new RuntimeException("Deleted entry not found with id: " + entryId));
+        entryStatsService.recordRestoredEntry(userId);
+        journalEntryRepository.restore(entryId);
+        EntrySentimentSnapshot entry = journalEntryRepository.findSentimentSnapshotForUpdate(entryId).orElseThrow();
+        moodRollupService.recordRestoredEntry(entry);
+
+        EntryDetail detail = getEntryById(entryId);
+        if (detail.sentimentStatus() == SentimentStatus.PENDING || detail.sentimentStatus() == SentimentStatus.FAILED) {
+            // Worker bỏ qua và xóa job của bài viết đang bị ẩn, nên bài viết chưa có điểm cần job mới;
+            // bài viết FAILED được chấm lại từ đầu
+            if (detail.sentimentStatus() == SentimentStatus.FAILED) {
+                journalEntryRepository.updateSentimentStatus(entryId, SentimentStatus.PENDING, OffsetDateTime.now());
+                detail = getEntryById(entryId);
+            }
+            sentimentJobService.enqueue(entryId);
+            eventPublisher.publishEvent(new JournalEntryCreatedEvent(entryId));
+        }
+        eventPublisher.publishEvent(EntriesWrittenEvent.single(userId, entryId, detail.content(), detail.createdAt()));
+        log.info("Restored entry {}", entryId);
+        return detail;
+    }
+}
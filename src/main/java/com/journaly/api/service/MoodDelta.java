@@ -0,0 +1,65 @@
+package com.journaly.api.service;
+
+import com.journaly.api.entity.MoodDailyRollup;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+/**
+ * Lượng thay đổi của một dòng mood_daily_rollups: số bài viết, số bài theo nhãn và tổng điểm.
+ */
+record MoodDelta(long entries, long scored,
+                 long positive, long negative, long neutral, long mixed,
+                 double positiveSum, double negativeSum, double neutralSum) {
+
+    static final MoodDelta ZERO = new MoodDelta(0, 0, 0, 0, 0, 0, 0, 0, 0);
+
+    /**
+     * Một bài viết mới; chưa có nhãn (PENDING) thì chỉ tính vào {@code entries}.
+     */
+    static MoodDelta ofEntry(String label, BigDecimal positive, BigDecimal negative, BigDecimal neutral) {
+        return new MoodDelta(1, 0, 0, 0, 0, 0, 0, 0, 0).plus(ofSentiment(label, positive, negative, neutral));
+    }
+
+    /**
+     * Phần đóng góp của nhãn và điểm cảm xúc, không kèm bài viết; dùng để tính chênh lệch khi chấm lại.
+     */
+    static MoodDelta ofSentiment(String label, BigDecimal positive, BigDecimal negative, BigDecimal neutral) {
+        if (label == null) {
+            return ZERO;
+        }
+        String normalized = label.toUpperCase(Locale.ROOT);
+        return new MoodDelta(0, 1,
+                "POSITIVE".equals(normalized) ? 1 : 0,
+                "NEGATIVE".equals(normalized) ? 1 : 0,
+                "NEUTRAL".equals(normalized) ? 1 : 0,
+                "MIXED".equals(normalized) ? 1 : 0,
+                value(positive), value(negative), value(neutral));
+    }
+
+    static MoodDelta of(MoodDailyRollup rollup) {
+        return new MoodDelta(rollup.getEntryCount(), rollup.getScoredCount(),
+                rollup.getPositiveCount(), rollup.getNegativeCount(), rollup.getNeutralCount(), rollup.getMixedCount(),
+                rollup.getPositiveSum(), rollup.getNegativeSum(), rollup.getNeutralSum());
+    }
+
+    MoodDelta plus(MoodDelta other) {
+        return new MoodDelta(entries + other.entries, scored + other.scored,
+                positive + other.positive, negative + other.negative, neutral + other.neutral, mixed + other.mixed,
+                positiveSum + other.positiveSum, negativeSum + other.negativeSum, neutralSum + other.neutralSum);
+    }
+
+    MoodDelta minus(MoodDelta other) {
+        return new MoodDelta(entries - other.entries, scored - other.scored,
+                positive - other.positive, negative - other.negative, neutral - other.neutral, mixed - other.mixed,
+                positiveSum - other.positiveSum, negativeSum - other.negativeSum, neutralSum - other.neutralSum);
+    }
+
+    boolean isZero() {
+        return equals(ZERO);
+    }
+
+    private static double value(BigDecimal score) {
+        return score == null ? 0 : score.doubleValue();
+    }
+}
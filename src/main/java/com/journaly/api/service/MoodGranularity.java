@@ -0,0 +1,55 @@
+package com.journaly.api.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+/**
+ * Độ chi tiết của chuỗi tâm trạng; tuần bắt đầu từ thứ Hai (ISO-8601).
+ */
+public enum MoodGranularity {
+    DAY(90),
+    WEEK(26),
+    MONTH(12);
+
+    private final int defaultPeriods;
+
+    MoodGranularity(int defaultPeriods) {
+        this.defaultPeriods = defaultPeriods;
+    }
+
+    /**
+     * Số kỳ trả về khi request không chỉ định {@code from}.
+     */
+    public int defaultPeriods() {
+        return defaultPeriods;
+    }
+
+    /**
+     * Ngày đầu tiên của kỳ chứa {@code day}.
+     */
+    public LocalDate start(LocalDate day) {
+        return switch (this) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    public LocalDate plus(LocalDate periodStart, long periods) {
+        return switch (this) {
+            case DAY -> periodStart.plusDays(periods);
+            case WEEK -> periodStart.plusWeeks(periods);
+            case MONTH -> periodStart.plusMonths(periods);
+        };
+    }
+
+    public static MoodGranularity from(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Unsupported granularity: " + value);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.journaly.api.service;
+
+import com.journaly.api.dto.MoodPoint;
+import com.journaly.api.dto.MoodSeriesResponse;
+import com.journaly.api.entity.MoodDailyRollup;
+import com.journaly.api.entity.User;
+import com.journaly.api.repository.MoodDailyRollupRepository;
+import com.journaly.api.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Chuỗi tâm trạng theo ngày/tuần/tháng, đọc từ mood_daily_rollups thay vì quét journal_entries.
+ * <p>
+ * Một năm theo ngày chỉ là tối đa 366 dòng tổng hợp của user (đọc theo khóa chính), nên việc gộp theo tuần,
+ * tháng và tính trung bình trượt được làm trong bộ nhớ, không phụ thuộc SQL riêng của từng database.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MoodInsightsService {
+
+    static final int MAX_PERIODS = 1_000;
+    static final int MAX_WINDOW = 90;
+
+    private final MoodDailyRollupRepository rollupRepository;
+    private final MoodRollupService moodRollupService;
+    private final UserRepository userRepository;
+
+    /**
+     * @param from   ngày bắt đầu (theo múi giờ {@code insights.zone}); null để lấy
+     *               {@link MoodGranularity#defaultPeriods()} kỳ tính đến {@code to}
+     * @param to     ngày kết thúc; null là hôm nay
+     * @param window số kỳ của trung bình trượt
+     */
+    @Transactional(readOnly = true)
+    public MoodSeriesResponse series(MoodGranularity granularity, LocalDate from, LocalDate to, int window) {
+        if (window < 1 || window > MAX_WINDOW) {
+            throw new IllegalArgumentException("Window must be between 1 and " + MAX_WINDOW);
+        }
+        LocalDate last = granularity.start(to != null ? to : LocalDate.now(moodRollupService.zone()));
+        LocalDate first = from != null
+                ? granularity.start(from)
+                : granularity.plus(last, -(granularity.defaultPeriods() - 1));
+        if (first.isAfter(last)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        long periods = periodsBetween(granularity, first, last) + 1;
+        if (periods > MAX_PERIODS) {
+            throw new IllegalArgumentException("Range covers " + periods + " periods, at most " + MAX_PERIODS
+                    + " are allowed");
+        }
+
+        // Gộp các dòng theo ngày vào kỳ tương ứng; kỳ không có dòng nào vẫn có mặt với giá trị 0
+        MoodDelta[] buckets = new MoodDelta[(int) periods];
+        Arrays.fill(buckets, MoodDelta.ZERO);
+        Optional<User> currentUser = userRepository.findFirstByOrderByCreatedAtAsc();
+        if (currentUser.isPresent()) {
+            LocalDate end = granularity.plus(last, 1).minusDays(1);
+            for (MoodDailyRollup rollup : rollupRepository.findByUserIdAndDayBetweenOrderByDayAsc(
+                    currentUser.get().getId(), first, end)) {
+                int index = (int) periodsBetween(granularity, first, granularity.start(rollup.getDay()));
+                buckets[index] = buckets[index].plus(MoodDelta.of(rollup));
+            }
+        }
+
+        List<MoodPoint> points = new ArrayList<>(buckets.length);
+        long windowScored = 0;
+        double windowBalance = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            MoodDelta bucket = buckets[i];
+            windowScored += bucket.scored();
+            windowBalance += bucket.positiveSum() - bucket.negativeSum();
+            if (i >= window) {
+                MoodDelta leaving = buckets[i - window];
+                windowScored -= leaving.scored();
+                windowBalance -= leaving.positiveSum() - leaving.negativeSum();
+            }
+            points.add(new MoodPoint(granularity.plus(first, i),
+                    bucket.entries(), bucket.scored(),
+                    bucket.positive(), bucket.negative(), bucket.neutral(), bucket.mixed(),
+                    average(bucket.positiveSum(), bucket.scored()),
+                    average(bucket.negativeSum(), bucket.scored()),
+                    average(bucket.neutralSum(), bucket.scored()),
+                    average(bucket.positiveSum() - bucket.negativeSum(), bucket.scored()),
+                    average(windowBalance, windowScored)));
+        }
+        return new MoodSeriesResponse(granularity.name(), moodRollupService.zone().getId(), first,
+                granularity.plus(last, 1).minusDays(1), window, points);
+    }
+
+    private static long periodsBetween(MoodGranularity granularity, LocalDate first, LocalDate periodStart) {
+        return switch (granularity) {
+            case DAY -> ChronoUnit.DAYS.between(first, periodStart);
+            case WEEK -> ChronoUnit.WEEKS.between(first, periodStart);
+            case MONTH -> ChronoUnit.MONTHS.between(first, periodStart);
+        };
+    }
+
+    private static Double average(double sum, long count) {
+        if (count <= 0) {
+            return null;
+        }
+        // Làm tròn 4 chữ số như cột điểm của journal_entries, tránh lộ sai số cộng dồn của double
+        return Math.round(sum / count * 10_000) / 10_000.0;
+    }
+}
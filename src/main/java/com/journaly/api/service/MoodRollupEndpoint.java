@@ -0,0 +1,31 @@
+package com.journaly.api.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Endpoint quản trị cho bảng tổng hợp tâm trạng:
+ * GET /actuator/moodrollups để xem lần dựng lại gần nhất, POST để dựng lại cho mọi user.
+ */
+@Component
+@Endpoint(id = "moodrollups")
+@RequiredArgsConstructor
+public class MoodRollupEndpoint {
+
+    private final MoodRollupRebuildJob rebuildJob;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return rebuildJob.lastRun();
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebuild() {
+        return rebuildJob.rebuildAll();
+    }
+}
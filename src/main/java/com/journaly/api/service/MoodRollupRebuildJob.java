@@ -0,0 +1,146 @@
+package com.journaly.api.service;
+
+import com.journaly.api.config.ThreadFactories;
+import com.journaly.api.repository.MoodDailyRollupRepository;
+import com.journaly.api.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dựng lại mood_daily_rollups từ journal_entries: lần đầu triển khai (dữ liệu có trước bảng tổng hợp),
+ * sau khi sửa dữ liệu trực tiếp trong database, hoặc khi đổi {@code insights.zone}.
+ * <p>
+ * Danh sách user được chia thành các chunk chạy song song trên {@code insights.rollups.rebuild.parallelism}
+ * thread; mỗi user là một transaction ngắn riêng ({@link MoodRollupService#rebuildUser}), nên ghi song song
+ * với request tạo bài viết vẫn cho kết quả đúng và lỗi của một user không làm hỏng cả lần chạy.
+ */
+@Slf4j
+@Component
+public class MoodRollupRebuildJob {
+
+    private final MoodRollupService moodRollupService;
+    private final MoodDailyRollupRepository rollupRepository;
+    private final UserRepository userRepository;
+    private final int parallelism;
+    private final int chunkSize;
+    private final boolean backfillOnStartup;
+    private final boolean virtualThreads;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Map<String, Object> lastRun = Map.of("status", "never");
+
+    public MoodRollupRebuildJob(MoodRollupService moodRollupService,
+                                MoodDailyRollupRepository rollupRepository,
+                                UserRepository userRepository,
+                                @Value("${insights.rollups.rebuild.parallelism:4}") int parallelism,
+                                @Value("${insights.rollups.rebuild.chunk-size:100}") int chunkSize,
+                                @Value("${insights.rollups.backfill-on-startup:true}") boolean backfillOnStartup,
+                                @Value(ThreadFactories.VIRTUAL_THREADS_PROPERTY) boolean virtualThreads) {
+        this.moodRollupService = moodRollupService;
+        this.rollupRepository = rollupRepository;
+        this.userRepository = userRepository;
+        this.parallelism = Math.max(1, parallelism);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.backfillOnStartup = backfillOnStartup;
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Lần khởi động đầu tiên sau khi có bảng tổng hợp: bảng còn trống nhưng đã có user thì backfill ở nền.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (!backfillOnStartup || rollupRepository.count() > 0 || userRepository.count() == 0) {
+            return;
+        }
+        Thread.ofPlatform().name("mood-rollup-backfill").daemon(true).start(() -> {
+            try {
+                rebuildAll();
+            } catch (RuntimeException e) {
+                log.error("Mood rollup backfill failed", e);
+            }
+        });
+    }
+
+    /**
+     * Dựng lại cho mọi user; chỉ một lần chạy tại một thời điểm trên mỗi instance.
+     *
+     * @return tóm tắt lần chạy (cũng được trả về bởi {@link #lastRun()})
+     */
+    public Map<String, Object> rebuildAll() {
+        if (!running.compareAndSet(false, true)) {
+            throw new ConcurrentOperationException("Mood rollup rebuild is already running");
+        }
+        long started = System.nanoTime();
+        try {
+            List<UUID> userIds = userRepository.findAllIds();
+            AtomicLong days = new AtomicLong();
+            AtomicInteger failed = new AtomicInteger();
+            List<Future<?>> chunks = new ArrayList<>();
+            ExecutorService executor = ThreadFactories.boundedExecutor("mood-rollup-", parallelism, virtualThreads);
+            try {
+                for (int from = 0; from < userIds.size(); from += chunkSize) {
+                    List<UUID> chunk = userIds.subList(from, Math.min(userIds.size(), from + chunkSize));
+                    chunks.add(executor.submit(() -> chunk.forEach(userId -> {
+                        try {
+                            days.addAndGet(moodRollupService.rebuildUser(userId));
+                        } catch (RuntimeException e) {
+                            failed.incrementAndGet();
+                            log.error("Failed to rebuild mood rollups for user {}", userId, e);
+                        }
+                    })));
+                    // Ở chế độ virtual thread executor không giới hạn, nên chờ bớt để chỉ có parallelism chunk chạy
+                    if (chunks.size() >= parallelism) {
+                        await(chunks.remove(0));
+                    }
+                }
+                chunks.forEach(MoodRollupRebuildJob::await);
+            } finally {
+                executor.shutdown();
+            }
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("status", failed.get() == 0 ? "completed" : "completed_with_errors");
+            summary.put("users", userIds.size());
+            summary.put("failedUsers", failed.get());
+            summary.put("days", days.get());
+            summary.put("durationMs", (System.nanoTime() - started) / 1_000_000);
+            lastRun = summary;
+            log.info("Rebuilt mood rollups: {}", summary);
+            return summary;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public Map<String, Object> lastRun() {
+        Map<String, Object> status = new LinkedHashMap<>(lastRun);
+        status.put("running", running.get());
+        return status;
+    }
+
+    private static void await(Future<?> chunk) {
+        try {
+            chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Mood rollup rebuild interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Mood rollup rebuild chunk failed", e.getCause());
+        }
+    }
+}
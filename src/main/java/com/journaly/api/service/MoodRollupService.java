@@ -0,0 +1,184 @@
+package com.journaly.api.service;
+
+import com.journaly.api.dto.EntrySentimentSnapshot;
+import com.journaly.api.entity.MoodDailyRollup;
+import com.journaly.api.repository.JournalEntryRepository;
+import com.journaly.api.repository.MoodDailyRollupRepository;
+import com.journaly.api.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Bảng tổng hợp tâm trạng theo ngày (mood_daily_rollups), cộng dồn cùng transaction với bài viết.
+ * <p>
+ * Mỗi thay đổi là một câu UPDATE cộng delta. Dòng của một ngày mới được tạo dưới khóa dòng user, giống
+ * bộ đếm trong {@link EntryStatsService}, nên hai request đầu tiên trong ngày không cùng INSERT.
+ * Nhiều ngày trong một transaction được cập nhật theo thứ tự ngày tăng dần để tránh deadlock.
+ */
+@Slf4j
+@Service
+public class MoodRollupService {
+
+    private final MoodDailyRollupRepository rollupRepository;
+    private final JournalEntryRepository journalEntryRepository;
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final ZoneId zone;
+
+    public MoodRollupService(MoodDailyRollupRepository rollupRepository,
+                             JournalEntryRepository journalEntryRepository,
+                             UserRepository userRepository,
+                             EntityManager entityManager,
+                             @Value("${insights.zone:Asia/Ho_Chi_Minh}") ZoneId zone) {
+        this.rollupRepository = rollupRepository;
+        this.journalEntryRepository = journalEntryRepository;
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.zone = zone;
+    }
+
+    public ZoneId zone() {
+        return zone;
+    }
+
+    public LocalDate dayOf(OffsetDateTime createdAt) {
+        return createdAt.atZoneSameInstant(zone).toLocalDate();
+    }
+
+    /**
+     * Ghi nhận một bài viết mới; phải chạy trong transaction tạo bài viết.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordNewEntry(UUID userId, OffsetDateTime createdAt, String label,
+                               BigDecimal positive, BigDecimal negative, BigDecimal neutral) {
+        apply(userId, dayOf(createdAt), MoodDelta.ofEntry(label, positive, negative, neutral));
+    }
+
+    /**
+     * Ghi nhận các bài viết được import trong một chunk, mỗi ngày một câu UPDATE.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordImportedEntries(UUID userId, Iterable<EntrySentimentSnapshot> entries) {
+        SortedMap<LocalDate, MoodDelta> byDay = new TreeMap<>();
+        for (EntrySentimentSnapshot entry : entries) {
+            byDay.merge(dayOf(entry.createdAt()), MoodDelta.ofEntry(entry.sentimentLabel(), entry.positiveScore(),
+                    entry.negativeScore(), entry.neutralScore()), MoodDelta::plus);
+        }
+        byDay.forEach((day, delta) -> apply(userId, day, delta));
+    }
+
+    /**
+     * Trừ một bài viết bị xóa mềm khỏi dòng tổng hợp của ngày nó được tạo. {@code entry} phải được đọc
+     * kèm khóa dòng trong cùng transaction với câu UPDATE {@code deleted_at}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeletedEntry(EntrySentimentSnapshot entry) {
+        apply(entry.userId(), dayOf(entry.createdAt()), MoodDelta.ZERO.minus(MoodDelta.ofEntry(entry.sentimentLabel(),
+                entry.positiveScore(), entry.negativeScore(), entry.neutralScore())));
+    }
+
+    /**
+     * Cộng lại một bài viết vừa được khôi phục.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRestoredEntry(EntrySentimentSnapshot entry) {
+        apply(entry.userId(), dayOf(entry.createdAt()), MoodDelta.ofEntry(entry.sentimentLabel(),
+                entry.positiveScore(), entry.negativeScore(), entry.neutralScore()));
+    }
+
+    /**
+     * Ghi nhận việc chấm lại một bài viết: cộng phần chênh lệch giữa kết quả mới và cũ.
+     * {@code previous} phải được đọc kèm khóa dòng trong cùng transaction với câu UPDATE bài viết.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRescore(EntrySentimentSnapshot previous, String label,
+                              BigDecimal positive, BigDecimal negative, BigDecimal neutral) {
+        MoodDelta delta = MoodDelta.ofSentiment(label, positive, negative, neutral)
+                .minus(MoodDelta.ofSentiment(previous.sentimentLabel(), previous.positiveScore(),
+                        previous.negativeScore(), previous.neutralScore()));
+        apply(previous.userId(), dayOf(previous.createdAt()), delta);
+    }
+
+    /**
+     * Tính lại toàn bộ dòng tổng hợp của một user từ journal_entries.
+     * <p>
+     * Dòng user bị khóa trước khi xóa: transaction tạo bài viết cho một ngày chưa có dòng phải chờ, còn
+     * transaction cộng vào một dòng đã có sẽ chờ câu DELETE rồi đi lại nhánh tạo dòng. Bài viết nào commit
+     * trước khi đọc thì đã nằm trong kết quả, commit sau thì cộng vào dòng vừa dựng lại.
+     *
+     * @return số ngày có bài viết
+     */
+    @Transactional
+    public int rebuildUser(UUID userId) {
+        if (userRepository.lockById(userId).isEmpty()) {
+            return 0;
+        }
+        rollupRepository.deleteByUser(userId);
+
+        SortedMap<LocalDate, MoodDelta> byDay = new TreeMap<>();
+        try (Stream<EntrySentimentSnapshot> entries = journalEntryRepository.streamSentimentSnapshotsByUser(userId)) {
+            entries.forEach(entry -> byDay.merge(dayOf(entry.createdAt()), MoodDelta.ofEntry(entry.sentimentLabel(),
+                    entry.positiveScore(), entry.negativeScore(), entry.neutralScore()), MoodDelta::plus));
+        }
+
+        OffsetDateTime now = OffsetDateTime.now();
+        for (Map.Entry<LocalDate, MoodDelta> day : byDay.entrySet()) {
+            MoodDailyRollup rollup = MoodDailyRollup.empty(userId, day.getKey(), now);
+            copy(day.getValue(), rollup);
+            entityManager.persist(rollup);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return byDay.size();
+    }
+
+    void apply(UUID userId, LocalDate day, MoodDelta delta) {
+        if (delta.isZero()) {
+            return;
+        }
+        OffsetDateTime now = OffsetDateTime.now();
+        if (add(userId, day, delta, now) == 0) {
+            userRepository.lockById(userId);
+            if (!rollupRepository.existsByUserIdAndDay(userId, day)) {
+                MoodDailyRollup rollup = MoodDailyRollup.empty(userId, day, now);
+                entityManager.persist(rollup);
+                entityManager.flush();
+                // Các lần cộng sau đều là UPDATE trực tiếp, không để bản trong persistence context bị cũ
+                entityManager.detach(rollup);
+            }
+            add(userId, day, delta, now);
+        }
+    }
+
+    private int add(UUID userId, LocalDate day, MoodDelta delta, OffsetDateTime now) {
+        return rollupRepository.add(userId, day, delta.entries(), delta.scored(),
+                delta.positive(), delta.negative(), delta.neutral(), delta.mixed(),
+                delta.positiveSum(), delta.negativeSum(), delta.neutralSum(), now);
+    }
+
+    private static void copy(MoodDelta delta, MoodDailyRollup rollup) {
+        rollup.setEntryCount(delta.entries());
+        rollup.setScoredCount(delta.scored());
+        rollup.setPositiveCount(delta.positive());
+        rollup.setNegativeCount(delta.negative());
+        rollup.setNeutralCount(delta.neutral());
+        rollup.setMixedCount(delta.mixed());
+        rollup.setPositiveSum(delta.positiveSum());
+        rollup.setNegativeSum(delta.negativeSum());
+        rollup.setNeutralSum(delta.neutralSum());
+    }
+}
@@ -0,0 +1,197 @@
+package com.journaly.api.service;
+
+import com.azure.ai.textanalytics.models.DocumentSentiment;
+import com.journaly.api.config.ThreadFactories;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedRetryMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedTimeLimiterMetrics;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bọc lời gọi Azure bằng retry, circuit breaker, time limiter và bulkhead (theo thứ tự từ ngoài vào trong).
+ * <p>
+ * Mọi bước đều không chặn: timeout và khoảng chờ giữa các lần retry được lập lịch trên một scheduler riêng,
+ * nên không thread nào của request phải sleep. Khi circuit breaker mở hoặc bulkhead đầy, lời gọi thất bại
+ * ngay lập tức để caller dùng kết quả dự phòng.
+ */
+@Slf4j
+public class ResilientSentimentClient implements AutoCloseable {
+
+    static final String NAME = "azureSentiment";
+    private static final int HALF_OPEN_PROBES = 3;
+
+    /**
+     * Cấu hình cho pipeline; xem các thuộc tính {@code ai.resilience.*}.
+     */
+    public record Settings(Duration timeout,
+                           int maxConcurrentCalls,
+                           int maxAttempts,
+                           Duration retryInitialBackoff,
+                           Duration retryMaxBackoff,
+                           float failureRateThreshold,
+                           Duration slowCallThreshold,
+                           int slidingWindowSize,
+                           int minimumNumberOfCalls,
+                           Duration openStateWait) {
+    }
+
+    private final Function<String, CompletableFuture<DocumentSentiment>> call;
+    private final ScheduledExecutorService scheduler;
+    private final Retry retry;
+    private final CircuitBreaker circuitBreaker;
+    private final TimeLimiter timeLimiter;
+    private final Bulkhead bulkhead;
+    private final MeterRegistry meterRegistry;
+
+    public ResilientSentimentClient(Function<String, CompletableFuture<DocumentSentiment>> call,
+                                    Settings settings,
+                                    MeterRegistry meterRegistry) {
+        this.call = call;
+        this.meterRegistry = meterRegistry;
+
+        // Scheduler chỉ lập lịch timeout/retry, không chạy lời gọi Azure, nên luôn là một thread platform
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(ThreadFactories.named("AI-resilience-", false));
+
+        CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(settings.failureRateThreshold())
+                .slowCallRateThreshold(settings.failureRateThreshold())
+                .slowCallDurationThreshold(settings.slowCallThreshold())
+                .slidingWindowSize(settings.slidingWindowSize())
+                .minimumNumberOfCalls(settings.minimumNumberOfCalls())
+                .waitDurationInOpenState(settings.openStateWait())
+                .permittedNumberOfCallsInHalfOpenState(HALF_OPEN_PROBES)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .ignoreExceptions(BulkheadFullException.class)
+                .build());
+        BulkheadRegistry bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(settings.maxConcurrentCalls())
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        TimeLimiterRegistry timeLimiters = TimeLimiterRegistry.of(TimeLimiterConfig.custom()
+                .timeoutDuration(settings.timeout())
+                .cancelRunningFuture(true)
+                .build());
+        RetryRegistry retries = RetryRegistry.of(RetryConfig.custom()
+                .maxAttempts(settings.maxAttempts())
+                .intervalFunction(IntervalFunction.ofExponentialRandomBackoff(
+                        settings.retryInitialBackoff(), 2.0, 0.5, settings.retryMaxBackoff()))
+                .ignoreExceptions(CallNotPermittedException.class, BulkheadFullException.class)
+                .failAfterMaxAttempts(true)
+                .build());
+
+        this.circuitBreaker = circuitBreakers.circuitBreaker(NAME);
+        this.bulkhead = bulkheads.bulkhead(NAME);
+        this.timeLimiter = timeLimiters.timeLimiter(NAME);
+        this.retry = retries.retry(NAME);
+
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(meterRegistry);
+        TaggedTimeLimiterMetrics.ofTimeLimiterRegistry(timeLimiters).bindTo(meterRegistry);
+        TaggedRetryMetrics.ofRetryRegistry(retries).bindTo(meterRegistry);
+
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            CircuitBreaker.StateTransition transition = event.getStateTransition();
+            log.warn("Azure sentiment circuit breaker: {} -> {}", transition.getFromState(), transition.getToState());
+            Counter.builder("ai.circuitbreaker.transitions")
+                    .tag("name", NAME)
+                    .tag("from", transition.getFromState().name())
+                    .tag("to", transition.getToState().name())
+                    .register(meterRegistry)
+                    .increment();
+        });
+    }
+
+    /**
+     * Gọi Azure qua toàn bộ pipeline. Future thất bại với {@link CallNotPermittedException} (circuit mở),
+     * {@link BulkheadFullException}, {@link TimeoutException} hoặc lỗi cuối cùng của Azure sau khi hết retry.
+     */
+    public CompletableFuture<DocumentSentiment> analyze(String text) {
+        return retry.executeCompletionStage(scheduler, () -> attempt(text)).toCompletableFuture();
+    }
+
+    /**
+     * Như {@link #analyze(String)} nhưng không bao giờ thất bại: lỗi được thay bằng kết quả của {@code fallback}
+     * và được đếm trong {@code ai.sentiment.fallback{reason}}.
+     */
+    public CompletableFuture<DocumentSentiment> analyzeOrFallback(String text, Supplier<DocumentSentiment> fallback) {
+        return analyze(text).exceptionally(error -> {
+            String reason = fallbackReason(error);
+            log.warn("Azure sentiment unavailable ({}), using fallback: {}", reason, unwrap(error).getMessage());
+            recordFallback(reason);
+            return fallback.get();
+        });
+    }
+
+    void recordFallback(String reason) {
+        meterRegistry.counter("ai.sentiment.fallback", "reason", reason).increment();
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private CompletionStage<DocumentSentiment> attempt(String text) {
+        return circuitBreaker.executeCompletionStage(() ->
+                timeLimiter.executeCompletionStage(scheduler, () ->
+                        bulkhead.executeCompletionStage(() -> call.apply(text))));
+    }
+
+    static String fallbackReason(Throwable error) {
+        Throwable cause = unwrap(error);
+        if (cause instanceof CallNotPermittedException) {
+            return "circuit_open";
+        }
+        if (cause instanceof BulkheadFullException) {
+            return "bulkhead_full";
+        }
+        if (cause instanceof TimeoutException) {
+            return "timeout";
+        }
+        return "error";
+    }
+
+    static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
@@ -0,0 +1,195 @@
+package com.journaly.api.service;
+
+import com.azure.ai.textanalytics.TextAnalyticsClient;
+import com.azure.ai.textanalytics.models.AnalyzeSentimentResult;
+import com.azure.ai.textanalytics.models.DocumentSentiment;
+import com.azure.ai.textanalytics.models.TextAnalyticsError;
+import com.journaly.api.config.ThreadFactories;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gom các yêu cầu phân tích cảm xúc đồng thời thành một lời gọi {@code analyzeSentimentBatch}.
+ * <p>
+ * Một batch được gửi khi đủ {@code maxBatchSize} văn bản khác nhau hoặc khi hết {@code linger} kể từ
+ * yêu cầu đầu tiên. Tối đa {@code maxInFlightBatches} batch được gửi song song; khi đạt giới hạn,
+ * yêu cầu mới tiếp tục dồn vào batch kế tiếp. Các văn bản trùng nhau trong một batch chỉ được gửi một lần.
+ */
+@Slf4j
+public class SentimentBatcher implements AutoCloseable {
+
+    private final TextAnalyticsClient client;
+    private final int maxBatchSize;
+    private final long lingerNanos;
+    private final Semaphore inFlight;
+    private final ExecutorService sender;
+    private final Thread dispatcher;
+    private final BlockingQueue<PendingRequest> queue = new LinkedBlockingQueue<>();
+    private volatile boolean running = true;
+
+    private final LongAdder batchesSent = new LongAdder();
+    private final LongAdder documentsSent = new LongAdder();
+    private final LongAdder requestsReceived = new LongAdder();
+
+    public SentimentBatcher(TextAnalyticsClient client, int maxBatchSize, Duration linger, int maxInFlightBatches) {
+        this(client, maxBatchSize, linger, maxInFlightBatches, false);
+    }
+
+    /**
+     * @param virtualThreads gửi mỗi batch trên một virtual thread; số batch song song vẫn do semaphore giới hạn.
+     */
+    public SentimentBatcher(TextAnalyticsClient client, int maxBatchSize, Duration linger, int maxInFlightBatches,
+                            boolean virtualThreads) {
+        if (maxBatchSize < 1 || maxInFlightBatches < 1) {
+            throw new IllegalArgumentException("Batch size and in-flight batches must be positive");
+        }
+        this.client = client;
+        this.maxBatchSize = maxBatchSize;
+        this.lingerNanos = linger.toNanos();
+        this.inFlight = new Semaphore(maxInFlightBatches);
+
+        this.sender = ThreadFactories.boundedExecutor("AI-batch-", maxInFlightBatches, virtualThreads);
+        this.dispatcher = ThreadFactories.named("AI-batcher-", virtualThreads).newThread(this::dispatchLoop);
+        this.dispatcher.start();
+    }
+
+    public CompletableFuture<DocumentSentiment> submit(String text) {
+        CompletableFuture<DocumentSentiment> future = new CompletableFuture<>();
+        if (!running) {
+            future.completeExceptionally(new IllegalStateException("Sentiment batcher is shut down"));
+            return future;
+        }
+        requestsReceived.increment();
+        queue.add(new PendingRequest(text, future));
+        return future;
+    }
+
+    public long getBatchesSent() {
+        return batchesSent.sum();
+    }
+
+    public long getDocumentsSent() {
+        return documentsSent.sum();
+    }
+
+    public long getRequestsReceived() {
+        return requestsReceived.sum();
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            Map<String, List<CompletableFuture<DocumentSentiment>>> batch = new LinkedHashMap<>();
+            try {
+                collectBatch(batch);
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                failAll(batch, new IllegalStateException("Sentiment batcher is shut down"));
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                sender.execute(() -> {
+                    try {
+                        send(batch);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                inFlight.release();
+                failAll(batch, e);
+            }
+        }
+    }
+
+    private void collectBatch(Map<String, List<CompletableFuture<DocumentSentiment>>> batch) throws InterruptedException {
+        add(batch, queue.take());
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            PendingRequest next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+            if (next == null) {
+                break;
+            }
+            add(batch, next);
+        }
+    }
+
+    private static void add(Map<String, List<CompletableFuture<DocumentSentiment>>> batch, PendingRequest request) {
+        batch.computeIfAbsent(request.text(), text -> new ArrayList<>(1)).add(request.future());
+    }
+
+    private void send(Map<String, List<CompletableFuture<DocumentSentiment>>> batch) {
+        List<String> documents = new ArrayList<>(batch.keySet());
+        batchesSent.increment();
+        documentsSent.add(documents.size());
+        log.debug("Sending sentiment batch with {} documents", documents.size());
+
+        DocumentSentiment[] sentiments = new DocumentSentiment[documents.size()];
+        RuntimeException[] errors = new RuntimeException[documents.size()];
+        try {
+            // Văn bản dạng String được SDK gán id theo thứ tự "0", "1", ...
+            for (AnalyzeSentimentResult result : client.analyzeSentimentBatch(documents, client.getDefaultLanguage(), null)) {
+                int index = Integer.parseInt(result.getId());
+                if (result.isError()) {
+                    TextAnalyticsError error = result.getError();
+                    errors[index] = new IllegalStateException(
+                            "Azure rejected document: " + error.getErrorCode() + " - " + error.getMessage());
+                } else {
+                    sentiments[index] = result.getDocumentSentiment();
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Sentiment batch of {} documents failed: {}", documents.size(), e.getMessage());
+            failAll(batch, e);
+            return;
+        }
+
+        for (int i = 0; i < documents.size(); i++) {
+            for (CompletableFuture<DocumentSentiment> future : batch.get(documents.get(i))) {
+                if (sentiments[i] != null) {
+                    future.complete(sentiments[i]);
+                } else {
+                    future.completeExceptionally(errors[i] != null ? errors[i]
+                            : new IllegalStateException("No sentiment result returned for document " + i));
+                }
+            }
+        }
+    }
+
+    private static void failAll(Map<String, List<CompletableFuture<DocumentSentiment>>> batch, Throwable error) {
+        batch.values().forEach(futures -> futures.forEach(future -> future.completeExceptionally(error)));
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        dispatcher.interrupt();
+        sender.shutdown();
+        IllegalStateException shutdown = new IllegalStateException("Sentiment batcher is shut down");
+        PendingRequest pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future().completeExceptionally(shutdown);
+        }
+    }
+
+    private record PendingRequest(String text, CompletableFuture<DocumentSentiment> future) {
+    }
+}
@@ -0,0 +1,66 @@
+package com.journaly.api.service;
+
+import com.azure.ai.textanalytics.models.DocumentSentiment;
+import com.azure.ai.textanalytics.models.SentimentConfidenceScores;
+import com.azure.ai.textanalytics.models.TextSentiment;
+import com.journaly.api.dto.EntrySentimentSnapshot;
+import com.journaly.api.entity.SentimentStatus;
+import com.journaly.api.repository.JournalEntryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Phân tích cảm xúc cho các bài viết ở trạng thái PENDING, ngoài transaction tạo bài viết.
+ * <p>
+ * Được {@link SentimentJobWorker} gọi cho từng job trong outbox. Lời gọi Azure không giữ connection nào;
+ * kết quả được ghi bằng một câu UPDATE trong transaction ngắn riêng, cùng với phần chênh lệch cộng vào
+ * mood_daily_rollups. Lỗi được ném ra để worker retry.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SentimentEnrichmentService {
+
+    private final AIService aiService;
+    private final JournalEntryRepository journalEntryRepository;
+    private final MoodRollupService moodRollupService;
+    private final EntryStatsService entryStatsService;
+    private final TransactionTemplate transactionTemplate;
+
+    public void enrich(UUID entryId) {
+        Optional<String> content = journalEntryRepository.findContentById(entryId);
+        if (content.isEmpty()) {
+            log.warn("Entry {} disappeared before sentiment enrichment", entryId);
+            return;
+        }
+
+        DocumentSentiment sentiment = aiService.analyzeSentimentOrThrow(content.get());
+        SentimentConfidenceScores scores = sentiment.getConfidenceScores();
+        TextSentiment label = JournalService.interpretSentimentFromScores(scores);
+
+        BigDecimal positive = BigDecimal.valueOf(scores.getPositive());
+        BigDecimal negative = BigDecimal.valueOf(scores.getNegative());
+        BigDecimal neutral = BigDecimal.valueOf(scores.getNeutral());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // Đọc kết quả cũ kèm khóa dòng để phần chênh lệch trong bảng tổng hợp khớp với câu UPDATE
+            Optional<EntrySentimentSnapshot> previous = journalEntryRepository.findSentimentSnapshotForUpdate(entryId);
+            if (previous.isEmpty()) {
+                log.warn("Entry {} disappeared during sentiment enrichment", entryId);
+                return;
+            }
+            journalEntryRepository.updateSentiment(entryId, label.toString(), positive, negative, neutral,
+                    SentimentStatus.COMPLETED, OffsetDateTime.now());
+            entryStatsService.recordChangedEntry(previous.get().userId());
+            moodRollupService.recordRescore(previous.get(), label.toString(), positive, negative, neutral);
+        });
+        log.debug("Enriched entry {} with sentiment {}", entryId, label);
+    }
+}
@@ -0,0 +1,150 @@
+package com.journaly.api.service;
+
+import com.journaly.api.entity.SentimentJob;
+import com.journaly.api.entity.SentimentJobStatus;
+import com.journaly.api.entity.SentimentStatus;
+import com.journaly.api.repository.JournalEntryRepository;
+import com.journaly.api.repository.SentimentJobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Các thao tác trên outbox sentiment_jobs, mỗi thao tác là một transaction ngắn.
+ */
+@Slf4j
+@Service
+public class SentimentJobService {
+
+    /** Kết quả khi một job thất bại. */
+    public enum FailureOutcome { RETRY, DEAD }
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final SentimentJobRepository sentimentJobRepository;
+    private final JournalEntryRepository journalEntryRepository;
+    private final EntryStatsService entryStatsService;
+    private final int maxAttempts;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+
+    public SentimentJobService(SentimentJobRepository sentimentJobRepository,
+                               JournalEntryRepository journalEntryRepository,
+                               EntryStatsService entryStatsService,
+                               @Value("${sentiment.jobs.max-attempts:5}") int maxAttempts,
+                               @Value("${sentiment.jobs.base-backoff:2s}") Duration baseBackoff,
+                               @Value("${sentiment.jobs.max-backoff:5m}") Duration maxBackoff,
+                               @Value("${sentiment.jobs.lease:2m}") Duration lease) {
+        this.sentimentJobRepository = sentimentJobRepository;
+        this.journalEntryRepository = journalEntryRepository;
+        this.entryStatsService = entryStatsService;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoff = baseBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+    }
+
+    /**
+     * Ghi job vào outbox; phải được gọi bên trong transaction tạo bài viết.
+     */
+    @Transactional
+    public SentimentJob enqueue(UUID entryId) {
+        return sentimentJobRepository.save(SentimentJob.forEntry(entryId));
+    }
+
+    /**
+     * Ghi job cho nhiều bài viết một lúc (import); phải được gọi bên trong transaction ghi các bài viết.
+     */
+    @Transactional
+    public void enqueueAll(Collection<UUID> entryIds) {
+        sentimentJobRepository.saveAll(entryIds.stream().map(SentimentJob::forEntry).toList());
+    }
+
+    /**
+     * Nhận tối đa {@code limit} job đến hạn và giữ khóa (lease) cho worker trong một khoảng thời gian.
+     */
+    @Transactional
+    public List<SentimentJob> claim(int limit, String workerId) {
+        OffsetDateTime now = OffsetDateTime.now();
+        List<SentimentJob> jobs = sentimentJobRepository.findClaimable(now,
+                SentimentJobStatus.PENDING, SentimentJobStatus.IN_PROGRESS, Limit.of(limit));
+        for (SentimentJob job : jobs) {
+            job.setStatus(SentimentJobStatus.IN_PROGRESS);
+            job.setAttempts(job.getAttempts() + 1);
+            job.setLockedBy(workerId);
+            job.setLockedUntil(now.plus(lease));
+        }
+        return jobs;
+    }
+
+    @Transactional
+    public void complete(Long jobId) {
+        sentimentJobRepository.deleteById(jobId);
+    }
+
+    /**
+     * Lên lịch retry với exponential backoff (có jitter), hoặc chuyển sang DEAD khi đã hết số lần thử.
+     */
+    @Transactional
+    public FailureOutcome fail(Long jobId, Throwable error) {
+        SentimentJob job = sentimentJobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalStateException("Sentiment job not found: " + jobId));
+        job.setLockedBy(null);
+        job.setLockedUntil(null);
+        job.setLastError(truncate(error.getClass().getSimpleName() + ": " + error.getMessage()));
+
+        if (job.getAttempts() >= maxAttempts) {
+            job.setStatus(SentimentJobStatus.DEAD);
+            journalEntryRepository.updateSentimentStatus(job.getEntryId(), SentimentStatus.FAILED,
+                    OffsetDateTime.now());
+            journalEntryRepository.findOwnerId(job.getEntryId()).ifPresent(entryStatsService::recordChangedEntry);
+            log.error("Sentiment job {} for entry {} moved to dead-letter after {} attempts: {}",
+                    jobId, job.getEntryId(), job.getAttempts(), job.getLastError());
+            return FailureOutcome.DEAD;
+        }
+
+        Duration delay = backoff(job.getAttempts());
+        job.setStatus(SentimentJobStatus.PENDING);
+        job.setNextAttemptAt(OffsetDateTime.now().plus(delay));
+        log.warn("Sentiment job {} for entry {} failed (attempt {}), retrying in {}",
+                jobId, job.getEntryId(), job.getAttempts(), delay);
+        return FailureOutcome.RETRY;
+    }
+
+    @Transactional(readOnly = true)
+    public Map<SentimentJobStatus, Long> countByStatus() {
+        Map<SentimentJobStatus, Long> counts = new EnumMap<>(SentimentJobStatus.class);
+        for (SentimentJobStatus status : SentimentJobStatus.values()) {
+            counts.put(status, 0L);
+        }
+        for (Object[] row : sentimentJobRepository.countByStatus()) {
+            counts.put((SentimentJobStatus) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    /**
+     * base * 2^(attempts-1), tối đa maxBackoff, nhân hệ số ngẫu nhiên [0.5, 1) để các job không retry cùng lúc.
+     */
+    Duration backoff(int attempts) {
+        long exponential = baseBackoff.toMillis() << Math.min(Math.max(attempts - 1, 0), 20);
+        long capped = Math.min(exponential, maxBackoff.toMillis());
+        return Duration.ofMillis((long) (capped * (0.5 + ThreadLocalRandom.current().nextDouble() * 0.5)));
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,214 @@
+package com.journaly.api.service;
+
+import com.journaly.api.config.ThreadFactories;
+import com.journaly.api.entity.SentimentJob;
+import com.journaly.api.entity.SentimentJobStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Nhóm worker lấy job từ outbox sentiment_jobs theo lô và phân tích cảm xúc.
+ * <p>
+ * Mỗi worker lặp: nhận lô job ({@code FOR UPDATE SKIP LOCKED}), xử lý từng job, rồi chờ tới
+ * {@code poll-interval} hoặc tới khi có bài viết mới được commit. Vì trạng thái nằm trong database,
+ * nhiều instance có thể cùng chạy worker mà không cần message broker, và job của một pod chết
+ * sẽ được nhận lại khi hết lease.
+ * <p>
+ * Worker chạy cả khi {@code journal.sentiment.async-enrichment} tắt, vì import vẫn đưa các bài viết chưa chấm
+ * được vào outbox. Chỉ tắt ({@code sentiment.jobs.enabled=false}) trên instance không nên xử lý job.
+ */
+@Slf4j
+@Component
+public class SentimentJobWorker implements SmartLifecycle {
+
+    private static final long BACKLOG_REFRESH_MILLIS = 5_000;
+
+    private final SentimentJobService jobService;
+    private final SentimentEnrichmentService enrichmentService;
+    private final boolean enabled;
+    private final int workers;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final boolean virtualThreads;
+    private final String instanceId;
+
+    private final Semaphore wakeUps = new Semaphore(0);
+    private final Map<SentimentJobStatus, AtomicLong> backlog = new EnumMap<>(SentimentJobStatus.class);
+    private final AtomicLong lastBacklogRefresh = new AtomicLong();
+    private final Counter succeeded;
+    private final Counter retried;
+    private final Counter dead;
+    private final Timer latency;
+
+    private volatile boolean running;
+    private ExecutorService pool;
+
+    public SentimentJobWorker(SentimentJobService jobService,
+                              SentimentEnrichmentService enrichmentService,
+                              MeterRegistry meterRegistry,
+                              @Value("${sentiment.jobs.enabled:true}") boolean enabled,
+                              @Value("${sentiment.jobs.workers:4}") int workers,
+                              @Value("${sentiment.jobs.batch-size:10}") int batchSize,
+                              @Value("${sentiment.jobs.poll-interval:1s}") Duration pollInterval,
+                              @Value(ThreadFactories.VIRTUAL_THREADS_PROPERTY) boolean virtualThreads) {
+        this.jobService = jobService;
+        this.enrichmentService = enrichmentService;
+        this.enabled = enabled;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.virtualThreads = virtualThreads;
+        this.instanceId = resolveInstanceId();
+
+        this.succeeded = processedCounter(meterRegistry, "success");
+        this.retried = processedCounter(meterRegistry, "retry");
+        this.dead = processedCounter(meterRegistry, "dead");
+        this.latency = Timer.builder("sentiment.jobs.latency")
+                .description("Time from job creation to successful enrichment")
+                .register(meterRegistry);
+        for (SentimentJobStatus status : SentimentJobStatus.values()) {
+            AtomicLong value = new AtomicLong();
+            backlog.put(status, value);
+            Gauge.builder("sentiment.jobs.backlog", value, AtomicLong::get)
+                    .tag("status", status.name())
+                    .description("Number of sentiment jobs in the outbox")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            log.info("Sentiment job workers disabled (sentiment.jobs.enabled=false)");
+            return;
+        }
+        pool = ThreadFactories.boundedExecutor("sentiment-worker-", workers, virtualThreads);
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            pool.execute(this::pollLoop);
+        }
+        log.info("Started {} sentiment job workers (batchSize={}, pollInterval={})", workers, batchSize, pollInterval);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (pool != null) {
+            pool.shutdownNow();
+            try {
+                pool.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Đánh thức một worker ngay khi transaction tạo bài viết commit, thay vì chờ tới lượt poll.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onEntryCreated(JournalEntryCreatedEvent event) {
+        if (running && wakeUps.availablePermits() < workers) {
+            wakeUps.release();
+        }
+    }
+
+    /**
+     * Nhận và xử lý một lô job.
+     * @return số job đã nhận.
+     */
+    public int runOnce() {
+        List<SentimentJob> jobs = jobService.claim(batchSize, instanceId + "/" + Thread.currentThread().getName());
+        for (SentimentJob job : jobs) {
+            process(job);
+        }
+        return jobs.size();
+    }
+
+    private void pollLoop() {
+        while (running) {
+            try {
+                int claimed = runOnce();
+                if (claimed < batchSize) {
+                    refreshBacklog();
+                    wakeUps.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // Thường là database tạm thời không truy cập được; chờ một chu kỳ rồi thử lại
+                log.error("Sentiment job worker iteration failed: {}", e.getMessage());
+                try {
+                    Thread.sleep(pollInterval.toMillis());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void process(SentimentJob job) {
+        try {
+            enrichmentService.enrich(job.getEntryId());
+            jobService.complete(job.getId());
+            succeeded.increment();
+            if (job.getCreatedAt() != null) {
+                latency.record(Duration.between(job.getCreatedAt(), OffsetDateTime.now()));
+            }
+        } catch (RuntimeException e) {
+            SentimentJobService.FailureOutcome outcome = jobService.fail(job.getId(), e);
+            (outcome == SentimentJobService.FailureOutcome.DEAD ? dead : retried).increment();
+        }
+    }
+
+    private void refreshBacklog() {
+        long now = System.currentTimeMillis();
+        long last = lastBacklogRefresh.get();
+        if (now - last < BACKLOG_REFRESH_MILLIS || !lastBacklogRefresh.compareAndSet(last, now)) {
+            return;
+        }
+        jobService.countByStatus().forEach((status, count) -> backlog.get(status).set(count));
+    }
+
+    private static Counter processedCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("sentiment.jobs.processed")
+                .tag("outcome", outcome)
+                .description("Number of sentiment jobs processed by outcome")
+                .register(meterRegistry);
+    }
+
+    private static String resolveInstanceId() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return UUID.randomUUID().toString();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.journaly.api.service;
+
+import java.util.Locale;
+
+/**
+ * Nguồn của kết quả cảm xúc dùng khi tạo bài viết, làm tag {@code source} của metric
+ * {@code journal.create.sentiment}.
+ * <p>
+ * {@link AIService} ghi nguồn vào thread hiện tại khi thân phương thức thực sự chạy; nếu {@code @Cacheable}
+ * trả kết quả từ cache thì không có gì được ghi, nên "không ghi nhận" nghĩa là {@link #CACHED}.
+ */
+enum SentimentSource {
+
+    CACHED, LOCAL, REMOTE, FALLBACK, DEFERRED;
+
+    private static final ThreadLocal<SentimentSource> CURRENT = new ThreadLocal<>();
+
+    private final String tag = name().toLowerCase(Locale.ROOT);
+
+    String tag() {
+        return tag;
+    }
+
+    static void reset() {
+        CURRENT.remove();
+    }
+
+    static void report(SentimentSource source) {
+        CURRENT.set(source);
+    }
+
+    static SentimentSource take(SentimentSource unreported) {
+        SentimentSource source = CURRENT.get();
+        CURRENT.remove();
+        return source != null ? source : unreported;
+    }
+}
@@ -0,0 +1,95 @@
+package com.journaly.api.service;
+
+import com.journaly.api.cache.TagDictionary;
+import com.journaly.api.entity.Tag;
+import com.journaly.api.repository.TagRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Chuyển danh sách tên tag thành entity Tag của user, tạo các tag còn thiếu.
+ * <p>
+ * Tag đã có trong {@link TagDictionary} được trả về dưới dạng reference theo id, không cần truy vấn.
+ * Với các tên còn lại, số câu lệnh không phụ thuộc số tag: một câu {@code IN}, một JDBC batch cho các tag mới,
+ * và một câu {@code IN} nữa để lấy id của các tag vừa tạo.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TagService {
+
+    private final TagRepository tagRepository;
+    private final TagDictionary tagDictionary;
+    private final EntityManager entityManager;
+
+    /**
+     * @param tagNames tên tag; tên rỗng bị bỏ qua, khoảng trắng hai đầu bị cắt, tên trùng chỉ tính một lần
+     * @return các tag theo thứ tự xuất hiện đầu tiên trong {@code tagNames}
+     */
+    @Transactional
+    public List<Tag> resolve(UUID userId, Collection<String> tagNames) {
+        Set<String> names = normalize(tagNames);
+        if (names.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Tag> byName = new HashMap<>();
+        List<String> unknown = new ArrayList<>();
+        for (String name : names) {
+            Long id = tagDictionary.find(userId, name);
+            if (id != null) {
+                byName.put(name, entityManager.getReference(Tag.class, id));
+            } else {
+                unknown.add(name);
+            }
+        }
+
+        if (!unknown.isEmpty()) {
+            tagRepository.findByUserIdAndNameIn(userId, unknown).forEach(tag -> remember(userId, tag, byName));
+
+            List<String> missing = unknown.stream().filter(name -> !byName.containsKey(name)).toList();
+            if (!missing.isEmpty()) {
+                log.info("Creating {} new tags for user {}", missing.size(), userId);
+                tagRepository.insertMissing(userId, missing);
+                tagRepository.findByUserIdAndNameIn(userId, missing).forEach(tag -> remember(userId, tag, byName));
+            }
+        }
+
+        List<Tag> tags = new ArrayList<>(names.size());
+        for (String name : names) {
+            Tag tag = byName.get(name);
+            if (tag == null) {
+                throw new IllegalStateException("Tag could not be created: " + name);
+            }
+            tags.add(tag);
+        }
+        return tags;
+    }
+
+    private void remember(UUID userId, Tag tag, Map<String, Tag> byName) {
+        byName.put(tag.getName(), tag);
+        tagDictionary.put(userId, tag.getName(), tag.getId());
+    }
+
+    static Set<String> normalize(Collection<String> tagNames) {
+        Set<String> names = new LinkedHashSet<>();
+        for (String tagName : tagNames) {
+            if (tagName != null && !tagName.trim().isEmpty()) {
+                names.add(tagName.trim());
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,125 @@
+package com.journaly.api.trace;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thời gian theo từng bước của request hiện tại, gắn vào thread xử lý request bởi {@link RequestTraceFilter}.
+ * <p>
+ * Mảng có kích thước cố định được cấp phát một lần khi request bắt đầu; ghi một bước chỉ là vài phép gán,
+ * không khóa (chỉ thread của request ghi và đọc). Bước được ghi nhiều lần (ví dụ chờ connection) được cộng dồn.
+ * Ngoài request (worker, job) {@link #record} không làm gì.
+ */
+public final class RequestTrace {
+
+    public record Stage(String name, String description, int count, double millis) {
+    }
+
+    static final int MAX_STAGES = 16;
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos;
+    private final String[] names = new String[MAX_STAGES];
+    private final String[] descriptions = new String[MAX_STAGES];
+    private final long[] nanos = new long[MAX_STAGES];
+    private final int[] counts = new int[MAX_STAGES];
+    private int size;
+
+    RequestTrace(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * Ghi thời gian của một bước vào request đang chạy trên thread này (nếu có).
+     *
+     * @param stage tên bước, là token hợp lệ của header Server-Timing (chữ, số, {@code _}, {@code -})
+     */
+    public static void record(String stage, long elapsedNanos) {
+        record(stage, null, elapsedNanos);
+    }
+
+    /**
+     * @param description giá trị ít biến thiên mô tả bước (ví dụ nguồn kết quả cảm xúc), hoặc null
+     */
+    public static void record(String stage, String description, long elapsedNanos) {
+        RequestTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.add(stage, description, elapsedNanos);
+        }
+    }
+
+    static RequestTrace start() {
+        RequestTrace trace = new RequestTrace(System.nanoTime());
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    private void add(String stage, String description, long elapsedNanos) {
+        for (int i = 0; i < size; i++) {
+            // Tên bước là hằng chuỗi nên so sánh identity là đủ trong gần như mọi trường hợp
+            if (names[i] == stage || names[i].equals(stage)) {
+                nanos[i] += elapsedNanos;
+                counts[i]++;
+                if (description != null) {
+                    descriptions[i] = description;
+                }
+                return;
+            }
+        }
+        if (size < MAX_STAGES) {
+            names[size] = stage;
+            descriptions[size] = description;
+            nanos[size] = elapsedNanos;
+            counts[size] = 1;
+            size++;
+        }
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Giá trị header Server-Timing, ví dụ {@code user_lookup;dur=0.41, sentiment;desc="cached";dur=0.12, total;dur=9.8}.
+     */
+    String serverTiming(long totalNanos) {
+        StringBuilder header = new StringBuilder(32 * (size + 1));
+        for (int i = 0; i < size; i++) {
+            header.append(names[i]);
+            if (descriptions[i] != null) {
+                header.append(";desc=\"").append(descriptions[i]).append('"');
+            }
+            appendDuration(header.append(";dur="), nanos[i]).append(", ");
+        }
+        return appendDuration(header.append("total;dur="), totalNanos).toString();
+    }
+
+    /**
+     * Bản sao các bước (mili giây) để lưu lại sau khi request kết thúc.
+     */
+    List<Stage> stages() {
+        List<Stage> stages = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            stages.add(new Stage(names[i], descriptions[i], counts[i], toMillis(nanos[i])));
+        }
+        return stages;
+    }
+
+    static double toMillis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    private static StringBuilder appendDuration(StringBuilder header, long nanos) {
+        // Hai chữ số thập phân, không qua String.format
+        long hundredths = TimeUnit.NANOSECONDS.toMicros(nanos) / 10;
+        header.append(hundredths / 100).append('.');
+        long fraction = hundredths % 100;
+        return header.append(fraction < 10 ? "0" : "").append(fraction);
+    }
+}
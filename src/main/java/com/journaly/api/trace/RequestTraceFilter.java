@@ -0,0 +1,89 @@
+package com.journaly.api.trace;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Mở một {@link RequestTrace} cho mỗi request, trả các bước đã ghi trong header {@code Server-Timing}
+ * và đưa request chậm vào {@link SlowRequestLog}.
+ * <p>
+ * Header phải được thêm trước khi response commit, nên response được bọc để bắt thời điểm commit; bước nào
+ * kết thúc sau đó (ví dụ phần còn lại của một export dạng stream) chỉ có trong {@link SlowRequestLog}.
+ * Filter chạy trước giới hạn đồng thời để thời gian chờ permit cũng được tính.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestTraceFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "Server-Timing";
+
+    private final SlowRequestLog slowRequestLog;
+    private final boolean serverTimingEnabled;
+
+    public RequestTraceFilter(SlowRequestLog slowRequestLog,
+                              @Value("${tracing.server-timing.enabled:true}") boolean serverTimingEnabled) {
+        this.slowRequestLog = slowRequestLog;
+        this.serverTimingEnabled = serverTimingEnabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTrace trace = RequestTrace.start();
+        ServerTimingResponse tracedResponse = serverTimingEnabled ? new ServerTimingResponse(response, trace) : null;
+        try {
+            filterChain.doFilter(request, tracedResponse != null ? tracedResponse : response);
+        } finally {
+            long totalNanos = trace.elapsedNanos();
+            RequestTrace.end();
+            if (tracedResponse != null && !response.isCommitted()) {
+                tracedResponse.addServerTiming(totalNanos);
+            }
+            slowRequestLog.offer(trace, totalNanos, request.getMethod(), route(request), response.getStatus());
+        }
+    }
+
+    private static String route(HttpServletRequest request) {
+        return request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) instanceof String pattern
+                ? pattern : request.getRequestURI();
+    }
+
+    private static final class ServerTimingResponse extends OnCommittedResponseWrapper {
+
+        private final RequestTrace trace;
+        private boolean written;
+
+        ServerTimingResponse(HttpServletResponse response, RequestTrace trace) {
+            super(response);
+            this.trace = trace;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            addServerTiming(trace.elapsedNanos());
+        }
+
+        void addServerTiming(long totalNanos) {
+            if (!written) {
+                written = true;
+                ((HttpServletResponse) getResponse()).addHeader(HEADER, trace.serverTiming(totalNanos));
+            }
+        }
+    }
+}
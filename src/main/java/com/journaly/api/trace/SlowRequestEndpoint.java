@@ -0,0 +1,34 @@
+package com.journaly.api.trace;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Endpoint quản trị cho các request chậm:
+ * GET /actuator/slowrequests để xem các request chậm nhất gần đây kèm thời gian từng bước, DELETE để xóa.
+ */
+@Component
+@Endpoint(id = "slowrequests")
+@RequiredArgsConstructor
+public class SlowRequestEndpoint {
+
+    private final SlowRequestLog slowRequestLog;
+
+    @ReadOperation
+    public Map<String, Object> slowRequests() {
+        Map<String, Object> result = new LinkedHashMap<>(slowRequestLog.summary());
+        result.put("requests", slowRequestLog.slowest());
+        return result;
+    }
+
+    @DeleteOperation
+    public void clear() {
+        slowRequestLog.clear();
+    }
+}
@@ -0,0 +1,92 @@
+package com.journaly.api.trace;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Vòng đệm các request chậm gần đây kèm thời gian từng bước, đọc qua {@code GET /actuator/slowrequests}.
+ * <p>
+ * Chỉ request vượt {@code tracing.slow-requests.threshold} mới được chụp lại, và chỉ một tỉ lệ
+ * {@code tracing.slow-requests.sample-rate} trong số đó, để lúc hệ thống quá tải (mọi request đều chậm)
+ * việc ghi không thành thêm gánh nặng. Ghi là một lần tăng chỉ số và một lần gán vào mảng, không khóa;
+ * khi đầy, bản ghi cũ nhất bị ghi đè.
+ */
+@Component
+public class SlowRequestLog {
+
+    public record SlowRequest(Instant at, String method, String uri, int status, double totalMillis,
+                              List<RequestTrace.Stage> stages) {
+    }
+
+    private final long thresholdNanos;
+    private final double sampleRate;
+    private final AtomicReferenceArray<SlowRequest> buffer;
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong slow = new AtomicLong();
+
+    public SlowRequestLog(@Value("${tracing.slow-requests.threshold:500ms}") Duration threshold,
+                          @Value("${tracing.slow-requests.capacity:128}") int capacity,
+                          @Value("${tracing.slow-requests.sample-rate:1.0}") double sampleRate) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("tracing.slow-requests.capacity must be positive");
+        }
+        this.thresholdNanos = threshold.toNanos();
+        this.sampleRate = sampleRate;
+        this.buffer = new AtomicReferenceArray<>(capacity);
+    }
+
+    void offer(RequestTrace trace, long totalNanos, String method, String uri, int status) {
+        if (totalNanos < thresholdNanos) {
+            return;
+        }
+        slow.incrementAndGet();
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        long index = recorded.getAndIncrement();
+        buffer.set((int) (index % buffer.length()), new SlowRequest(Instant.now(), method, uri, status,
+                RequestTrace.toMillis(totalNanos), trace.stages()));
+    }
+
+    /**
+     * Các request đang có trong vòng đệm, chậm nhất trước.
+     */
+    public List<SlowRequest> slowest() {
+        List<SlowRequest> requests = new ArrayList<>(buffer.length());
+        for (int i = 0; i < buffer.length(); i++) {
+            SlowRequest request = buffer.get(i);
+            if (request != null) {
+                requests.add(request);
+            }
+        }
+        requests.sort(Comparator.comparingDouble(SlowRequest::totalMillis).reversed());
+        return requests;
+    }
+
+    public Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("thresholdMillis", RequestTrace.toMillis(thresholdNanos));
+        summary.put("capacity", buffer.length());
+        summary.put("sampleRate", sampleRate);
+        summary.put("slowRequests", slow.get());
+        summary.put("recorded", recorded.get());
+        return summary;
+    }
+
+    public void clear() {
+        for (int i = 0; i < buffer.length(); i++) {
+            buffer.set(i, null);
+        }
+    }
+}
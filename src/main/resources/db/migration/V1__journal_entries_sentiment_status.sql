@@ -0,0 +1,9 @@
+-- user-004: sentiment status for entries scored after the create transaction.
+-- Entries written before this change were always scored synchronously, so they are COMPLETED.
+alter table journal_entries add column if not exists sentiment_status varchar(20);
+
+update journal_entries set sentiment_status = 'COMPLETED' where sentiment_status is null;
+
+alter table journal_entries drop constraint if exists journal_entries_sentiment_status_check;
+alter table journal_entries add constraint journal_entries_sentiment_status_check
+    check (sentiment_status in ('PENDING', 'COMPLETED', 'FAILED'));
@@ -0,0 +1,15 @@
+-- user-005: durable outbox for background sentiment enrichment.
+create table if not exists sentiment_jobs (
+    id bigint generated by default as identity,
+    entry_id uuid not null,
+    status varchar(20) not null check (status in ('PENDING', 'IN_PROGRESS', 'DEAD')),
+    attempts integer not null,
+    next_attempt_at timestamp(6) with time zone not null,
+    locked_by varchar(100),
+    locked_until timestamp(6) with time zone,
+    last_error varchar(500),
+    created_at timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+create index if not exists idx_sentiment_jobs_status_next_attempt on sentiment_jobs (status, next_attempt_at);
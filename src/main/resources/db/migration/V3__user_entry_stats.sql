@@ -0,0 +1,9 @@
+-- user-009: per-user entry counters.
+-- No backfill needed: a missing row is initialised from count(*) on the user's first write,
+-- and EntryStatsReconciliationJob repairs any drift.
+create table if not exists user_entry_stats (
+    user_id uuid not null,
+    entry_count bigint not null,
+    updated_at timestamp(6) with time zone not null,
+    primary key (user_id)
+);
@@ -0,0 +1,27 @@
+-- user-010: tags become per user, unique on (user_id, name).
+-- Tags created before this change have user_id null and may be linked to entries of several users.
+-- Give every user its own copy of each such tag, move the entry_tags links to it, then drop the
+-- shared rows. Shared tags that were never linked to an entry have no owner and are dropped too.
+-- Run in a single transaction, before deploying the per-user tag lookup.
+
+insert into tags (user_id, name)
+select distinct e.user_id, t.name
+from entry_tags et
+join tags t on t.id = et.tag_id
+join journal_entries e on e.id = et.entry_id
+where t.user_id is null
+  and not exists (select 1 from tags o where o.user_id = e.user_id and o.name = t.name);
+
+insert into entry_tags (entry_id, tag_id)
+select distinct et.entry_id, owned.id
+from entry_tags et
+join tags shared on shared.id = et.tag_id and shared.user_id is null
+join journal_entries e on e.id = et.entry_id
+join (select user_id, name, min(id) as id from tags where user_id is not null group by user_id, name) owned
+    on owned.user_id = e.user_id and owned.name = shared.name
+where not exists (select 1 from entry_tags x where x.entry_id = et.entry_id and x.tag_id = owned.id);
+
+delete from entry_tags where tag_id in (select id from tags where user_id is null);
+delete from tags where user_id is null;
+
+alter table tags add constraint uk_tags_user_name unique (user_id, name);
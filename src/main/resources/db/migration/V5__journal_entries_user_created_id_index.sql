@@ -0,0 +1,5 @@
+-- user-012: index for keyset pagination (where user_id = ? and (created_at, id) < (?, ?)).
+-- CONCURRENTLY does not block writes but cannot run inside a transaction: run this script on its own,
+-- in autocommit mode (psql -f).
+create index concurrently if not exists idx_journal_entries_user_created_id
+    on journal_entries (user_id, created_at, id);
@@ -0,0 +1,12 @@
+-- user-015: progress of resumable bulk imports.
+create table if not exists entry_imports (
+    id uuid not null,
+    user_id uuid not null,
+    status varchar(20) not null check (status in ('RUNNING', 'COMPLETED')),
+    committed_lines bigint not null,
+    imported_count bigint not null,
+    failed_count bigint not null,
+    created_at timestamp(6) with time zone not null,
+    updated_at timestamp(6) with time zone not null,
+    primary key (id)
+);
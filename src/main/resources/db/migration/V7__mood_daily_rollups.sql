@@ -0,0 +1,18 @@
+-- user-017: daily mood rollups per user.
+-- The table starts empty; MoodRollupRebuildJob backfills it in the background on the first start
+-- (insights.rollups.backfill-on-startup) or on demand through the moodrollups actuator endpoint.
+create table if not exists mood_daily_rollups (
+    user_id uuid not null,
+    entry_date date not null,
+    entry_count bigint not null,
+    scored_count bigint not null,
+    positive_count bigint not null,
+    negative_count bigint not null,
+    neutral_count bigint not null,
+    mixed_count bigint not null,
+    positive_sum float(53) not null,
+    negative_sum float(53) not null,
+    neutral_sum float(53) not null,
+    updated_at timestamp(6) with time zone not null,
+    primary key (entry_date, user_id)
+);
@@ -0,0 +1,5 @@
+-- user-025: versions behind ETags on entry reads.
+-- Adding a column with a constant default does not rewrite the table on PostgreSQL 11+.
+alter table journal_entries add column if not exists updated_at timestamp(6) with time zone;
+alter table journal_entries add column if not exists version bigint default 0 not null;
+alter table user_entry_stats add column if not exists change_version bigint default 0 not null;
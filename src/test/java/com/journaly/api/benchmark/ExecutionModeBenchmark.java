@@ -0,0 +1,208 @@
+package com.journaly.api.benchmark;
+
+import com.azure.ai.textanalytics.models.DocumentSentiment;
+import com.azure.ai.textanalytics.models.SentimentConfidenceScores;
+import com.azure.ai.textanalytics.models.TextSentiment;
+import com.azure.core.util.IterableStream;
+import com.journaly.api.ApiApplication;
+import com.journaly.api.service.AIService;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * So sánh throughput và độ trễ p99 của POST /api/entries/create giữa thread platform và virtual thread,
+ * với Azure được thay bằng stub chậm.
+ * <p>
+ * Chạy bằng {@code mvn test -Pbenchmark -Dtest=ExecutionModeBenchmark}. Có thể chỉnh
+ * {@code -Dbench.clients}, {@code -Dbench.duration}, {@code -Dbench.ai-latency}; kết quả in ra console
+ * và ghi vào {@code target/benchmarks/execution-modes.csv}.
+ */
+@Tag("benchmark")
+class ExecutionModeBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("bench.clients", 400);
+    private static final Duration DURATION = Duration.parse(System.getProperty("bench.duration", "PT15S"));
+    private static final Duration WARMUP = Duration.ofSeconds(3);
+    private static final long AI_LATENCY_MILLIS = Long.getLong("bench.ai-latency", 200);
+
+    @Test
+    void compareExecutionModes() throws Exception {
+        List<Result> results = new ArrayList<>();
+        results.add(run(false));
+        results.add(run(true));
+
+        StringBuilder report = new StringBuilder("mode,clients,ai_latency_ms,requests,errors,throughput_rps,p50_ms,p99_ms,max_ms,pinned_events\n");
+        results.forEach(result -> report.append(result.toCsv()).append('\n'));
+        System.out.println();
+        System.out.println("=== Execution mode benchmark (" + CLIENTS + " clients, AI latency " + AI_LATENCY_MILLIS + "ms) ===");
+        System.out.print(report);
+
+        Path output = Path.of("target", "benchmarks", "execution-modes.csv");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, report);
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ApiApplication.class, SlowAiConfiguration.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + mode + ";DB_CLOSE_DELAY=-1",
+                        "spring.datasource.hikari.maximum-pool-size=20",
+                        "server.tomcat.threads.max=200",
+                        "execution.virtual.max-concurrent-requests=" + CLIENTS,
+                        "logging.level.root=WARN")
+                .run();
+             RecordingStream pinning = new RecordingStream()) {
+
+            LongAdder pinnedEvents = new LongAdder();
+            pinning.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(20));
+            pinning.onEvent("jdk.VirtualThreadPinned", event -> pinnedEvents.increment());
+            pinning.startAsync();
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + port + "/api/entries/create");
+            HttpClient http = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+
+            // Request đầu tiên tạo user mặc định; tránh để nhiều client cùng tạo
+            send(http, uri, 0);
+            load(http, uri, WARMUP, null);
+
+            Recorder recorder = new Recorder();
+            long started = System.nanoTime();
+            load(http, uri, DURATION, recorder);
+            double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+            return recorder.summarize(mode, elapsedSeconds, pinnedEvents.sum());
+        }
+    }
+
+    private void load(HttpClient http, URI uri, Duration duration, Recorder recorder) {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong sequence = new AtomicLong();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        int status;
+                        try {
+                            status = send(http, uri, sequence.incrementAndGet());
+                        } catch (IOException e) {
+                            status = -1;
+                        }
+                        if (recorder != null) {
+                            recorder.record(System.nanoTime() - start, status == 201);
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+    }
+
+    private static int send(HttpClient http, URI uri, long sequence) throws IOException {
+        String body = "{\"content\":\"Benchmark entry " + sequence + " - hôm nay khá ổn\"}";
+        try {
+            return http.send(HttpRequest.newBuilder(uri)
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(30))
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+    }
+
+    private static final class Recorder {
+        private final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        private final LongAdder errors = new LongAdder();
+
+        void record(long nanos, boolean success) {
+            if (success) {
+                latencies.add(nanos);
+            } else {
+                errors.increment();
+            }
+        }
+
+        Result summarize(String mode, double elapsedSeconds, long pinnedEvents) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            return new Result(mode, sorted.length, errors.sum(), sorted.length / elapsedSeconds,
+                    percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.99),
+                    sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6, pinnedEvents);
+        }
+
+        private static double percentileMillis(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1e6;
+        }
+    }
+
+    private record Result(String mode, long requests, long errors, double throughput,
+                          double p50Millis, double p99Millis, double maxMillis, long pinnedEvents) {
+
+        String toCsv() {
+            return String.format(java.util.Locale.ROOT, "%s,%d,%d,%d,%d,%.1f,%.1f,%.1f,%.1f,%d",
+                    mode, CLIENTS, AI_LATENCY_MILLIS, requests, errors, throughput, p50Millis, p99Millis,
+                    maxMillis, pinnedEvents);
+        }
+    }
+
+    /**
+     * Thay AIService bằng stub chỉ chờ {@code bench.ai-latency} rồi trả kết quả cố định.
+     */
+    @Configuration(proxyBeanMethods = false)
+    static class SlowAiConfiguration {
+
+        @Bean
+        @Primary
+        AIService slowAiService() throws Exception {
+            DocumentSentiment sentiment = new DocumentSentiment(TextSentiment.POSITIVE,
+                    new SentimentConfidenceScores(0.1, 0.1, 0.8),
+                    new IterableStream<>(Collections.emptyList()),
+                    new IterableStream<>(Collections.emptyList()));
+            AIService aiService = mock(AIService.class);
+            when(aiService.analyzeSentiment(anyString())).thenAnswer(invocation -> {
+                Thread.sleep(AI_LATENCY_MILLIS);
+                return sentiment;
+            });
+            return aiService;
+        }
+    }
+}
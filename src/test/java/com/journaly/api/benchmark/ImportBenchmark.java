@@ -0,0 +1,85 @@
+package com.journaly.api.benchmark;
+
+import com.journaly.api.dto.ImportResult;
+import com.journaly.api.service.EntryImportService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Đo thời gian import {@code bench.entries} bài viết (mặc định 100k) qua {@link EntryImportService},
+ * với engine cảm xúc cục bộ và không có Azure.
+ * <p>
+ * Chạy bằng {@code mvn test -Pbenchmark -Dtest=ImportBenchmark}; kết quả in ra console và ghi vào
+ * {@code target/benchmarks/import.csv}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "logging.level.com.journaly.api=WARN")
+@ActiveProfiles("test")
+class ImportBenchmark {
+
+    private static final int ENTRIES = Integer.getInteger("bench.entries", 100_000);
+
+    private static final List<String> SENTENCES = List.of(
+            "Hôm nay mình rất vui vì được gặp lại bạn cũ.",
+            "Công việc quá mệt mỏi, mình chỉ muốn ngủ.",
+            "Một ngày bình thường, không có gì đặc biệt.",
+            "Today was wonderful, I finally finished the project.",
+            "I feel anxious and tired about tomorrow.");
+
+    @Autowired
+    private EntryImportService entryImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void importLargeJournal() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> {
+            List.of("entry_tags", "sentiment_jobs", "user_entry_stats", "journal_entries", "tags", "entry_imports",
+                    "users").forEach(table -> jdbcTemplate.update("delete from " + table));
+            jdbcTemplate.update("insert into users (id, email, password_hash, created_at) values (?, ?, 'hash', ?)",
+                    UUID.randomUUID(), "bench@journaly.com", Timestamp.from(Instant.parse("2020-01-01T00:00:00Z")));
+        });
+
+        StringBuilder file = new StringBuilder(ENTRIES * 120);
+        Instant base = Instant.parse("2018-01-01T00:00:00Z");
+        for (int i = 0; i < ENTRIES; i++) {
+            file.append("{\"content\": \"").append(SENTENCES.get(i % SENTENCES.size())).append(" (").append(i)
+                    .append(")\", \"createdAt\": \"").append(base.plusSeconds(i * 3_600L))
+                    .append("\", \"tags\": [\"#tag-").append(i % 50).append("\"]}\n");
+        }
+        byte[] bytes = file.toString().getBytes(StandardCharsets.UTF_8);
+
+        long started = System.nanoTime();
+        ImportResult result = entryImportService.importEntries(null, new ByteArrayInputStream(bytes));
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        String report = "entries,imported,seconds,entries_per_second\n" + String.format(Locale.ROOT,
+                "%d,%d,%.1f,%.0f%n", ENTRIES, result.getImported(), seconds, result.getImported() / seconds);
+        System.out.println();
+        System.out.println("=== Import benchmark ===");
+        System.out.print(report);
+
+        Path output = Path.of("target", "benchmarks", "import.csv");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, report);
+    }
+}
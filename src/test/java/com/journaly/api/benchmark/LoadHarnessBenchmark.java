@@ -0,0 +1,241 @@
+package com.journaly.api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.journaly.api.ApiApplication;
+import com.journaly.api.benchmark.load.OpenLoadGenerator;
+import com.journaly.api.benchmark.load.OpenLoadGenerator.Scenario;
+import com.journaly.api.benchmark.load.OpenLoadGenerator.ScenarioResult;
+import com.journaly.api.benchmark.load.TextAnalyticsStub;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Harness tải đầu-cuối: khởi động ứng dụng thật trên H2 (hoặc Postgres qua Testcontainers), trỏ client Azure
+ * vào {@link TextAnalyticsStub} và bắn tải mô hình mở vào POST /api/entries/create cùng các endpoint đọc.
+ * <p>
+ * Chạy bằng {@code mvn test -Pbenchmark -Dtest=LoadHarnessBenchmark}. Tham số chính:
+ * <ul>
+ *     <li>{@code -Dbench.db=h2|postgres}, {@code -Dbench.duration}, {@code -Dbench.warmup} (ISO-8601),
+ *     {@code -Dbench.create-rps}, {@code -Dbench.read-rps}, {@code -Dbench.seed-entries},
+ *     {@code -Dbench.repeat-ratio} (tỉ lệ nội dung lặp lại, để có cache hit);</li>
+ *     <li>{@code -Dbench.local-engine=true} bật lại bộ chấm cục bộ (mặc định tắt để mọi bài đều đi qua stub);</li>
+ *     <li>{@code -Dbench.stub.latency}, {@code -Dbench.stub.latency-per-document}, {@code -Dbench.stub.jitter},
+ *     {@code -Dbench.stub.error-rate}, {@code -Dbench.stub.throttle-rate}, {@code -Dbench.stub.max-batch-size}.</li>
+ * </ul>
+ * Báo cáo được ghi vào {@code target/benchmarks/load-report.json} (khóa theo thứ tự cố định để diff giữa các
+ * lần chạy) và bản tóm tắt {@code target/benchmarks/load-report.csv}.
+ */
+@Tag("benchmark")
+class LoadHarnessBenchmark {
+
+    private static final String DB = System.getProperty("bench.db", "h2");
+    private static final Duration DURATION = Duration.parse(System.getProperty("bench.duration", "PT30S"));
+    private static final Duration WARMUP = Duration.parse(System.getProperty("bench.warmup", "PT5S"));
+    private static final double CREATE_RPS = Double.parseDouble(System.getProperty("bench.create-rps", "40"));
+    private static final double READ_RPS = Double.parseDouble(System.getProperty("bench.read-rps", "160"));
+    private static final int SEED_ENTRIES = Integer.getInteger("bench.seed-entries", 200);
+    private static final double REPEAT_RATIO = Double.parseDouble(System.getProperty("bench.repeat-ratio", "0.2"));
+    private static final boolean LOCAL_ENGINE = Boolean.getBoolean("bench.local-engine");
+
+    private static final TextAnalyticsStub.Settings STUB = new TextAnalyticsStub.Settings(
+            Duration.parse(System.getProperty("bench.stub.latency", "PT0.08S")),
+            Duration.parse(System.getProperty("bench.stub.latency-per-document", "PT0.005S")),
+            Duration.parse(System.getProperty("bench.stub.jitter", "PT0.04S")),
+            Double.parseDouble(System.getProperty("bench.stub.error-rate", "0.01")),
+            Double.parseDouble(System.getProperty("bench.stub.throttle-rate", "0.0")),
+            Integer.getInteger("bench.stub.max-batch-size", 10));
+
+    private static final Pattern ENTRY_ID = Pattern.compile("\"entryId\"\\s*:\\s*\"([0-9a-fA-F-]{36})\"");
+    private static final String[] MOODS = {
+            "hôm nay thật vui", "cảm thấy mệt mỏi", "một ngày bình thường", "buồn vì công việc",
+            "rất hạnh phúc bên gia đình", "lo lắng về kỳ thi", "great walk in the park", "stressful meeting"};
+    private static final String[] TOPICS = {
+            "công việc", "gia đình", "bạn bè", "du lịch", "sức khỏe", "học tập", "coffee", "weekend"};
+
+    @Test
+    void runLoad() throws Exception {
+        PostgreSQLContainer<?> postgres = "postgres".equals(DB) ? new PostgreSQLContainer<>("postgres:15") : null;
+        try (TextAnalyticsStub stub = TextAnalyticsStub.start(STUB, Path.of("target", "load-stub"))) {
+            if (postgres != null) {
+                postgres.start();
+            }
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ApiApplication.class)
+                    .profiles("test")
+                    .properties(applicationProperties(stub, postgres))
+                    .run()) {
+                Map<String, Object> report = run(context, stub);
+                write(report);
+            }
+        } finally {
+            if (postgres != null) {
+                postgres.stop();
+            }
+        }
+    }
+
+    private static String[] applicationProperties(TextAnalyticsStub stub, PostgreSQLContainer<?> postgres) {
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "ai.service.key=load-test-key",
+                "ai.service.endpoint=" + stub.endpoint(),
+                "ai.local.enabled=" + LOCAL_ENGINE,
+                "logging.level.root=WARN"));
+        if (postgres != null) {
+            properties.add("spring.datasource.url=" + postgres.getJdbcUrl());
+            properties.add("spring.datasource.username=" + postgres.getUsername());
+            properties.add("spring.datasource.password=" + postgres.getPassword());
+            properties.add("spring.datasource.driver-class-name=org.postgresql.Driver");
+        } else {
+            properties.add("spring.datasource.url=jdbc:h2:mem:bench-load;DB_CLOSE_DELAY=-1");
+        }
+        return properties.toArray(String[]::new);
+    }
+
+    private Map<String, Object> run(ConfigurableApplicationContext context, TextAnalyticsStub stub) throws Exception {
+        String base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        HttpClient http = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        List<String> entryIds = new CopyOnWriteArrayList<>();
+
+        // Request đầu tiên tạo user mặc định; seed tuần tự để các scenario đọc có dữ liệu ngay từ đầu
+        for (int i = 0; i < SEED_ENTRIES; i++) {
+            HttpResponse<String> response = http.send(create(base, -1 - i), HttpResponse.BodyHandlers.ofString());
+            collectEntryId(response.body(), entryIds);
+        }
+
+        List<Scenario> scenarios = List.of(
+                new Scenario("create", CREATE_RPS, sequence -> create(base, sequence),
+                        (sequence, body) -> collectEntryId(body, entryIds)),
+                new Scenario("list", READ_RPS * 0.25, sequence -> get(base + "/api/entries?page=0&size=20")),
+                new Scenario("scroll", READ_RPS * 0.25, sequence -> get(base + "/api/entries/scroll?size=20")),
+                new Scenario("detail", READ_RPS * 0.35, sequence -> get(base + "/api/entries/"
+                        + entryIds.get((int) Math.floorMod(sequence * 31, entryIds.size())))),
+                new Scenario("search", READ_RPS * 0.15, sequence -> get(base + "/api/entries/search?q="
+                        + URLEncoder.encode(TOPICS[(int) (sequence % TOPICS.length)], StandardCharsets.UTF_8))));
+
+        List<ScenarioResult> results = new OpenLoadGenerator(http).run(scenarios, WARMUP, DURATION);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config());
+        report.put("scenarios", results);
+        report.put("stub", stub.stats());
+        report.put("sentimentLabels", sentimentLabels(context.getBean(JdbcTemplate.class)));
+        return report;
+    }
+
+    private static Map<String, Object> config() {
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("db", DB);
+        config.put("durationSeconds", DURATION.toMillis() / 1000.0);
+        config.put("warmupSeconds", WARMUP.toMillis() / 1000.0);
+        config.put("createRps", CREATE_RPS);
+        config.put("readRps", READ_RPS);
+        config.put("seedEntries", SEED_ENTRIES);
+        config.put("repeatRatio", REPEAT_RATIO);
+        config.put("localEngine", LOCAL_ENGINE);
+        config.put("stubLatencyMillis", STUB.latency().toMillis());
+        config.put("stubLatencyPerDocumentMillis", STUB.latencyPerDocument().toMillis());
+        config.put("stubJitterMillis", STUB.jitter().toMillis());
+        config.put("stubErrorRate", STUB.errorRate());
+        config.put("stubThrottleRate", STUB.throttleRate());
+        config.put("stubMaxBatchSize", STUB.maxBatchSize());
+        config.put("javaVersion", Runtime.version().toString());
+        config.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        return config;
+    }
+
+    /**
+     * Phân bố nhãn cảm xúc sau khi chạy: tỉ lệ PENDING cho thấy bao nhiêu bài rơi vào nhánh dự phòng.
+     */
+    private static Map<String, Long> sentimentLabels(JdbcTemplate jdbcTemplate) {
+        Map<String, Long> labels = new LinkedHashMap<>();
+        jdbcTemplate.query("select coalesce(sentiment_label, 'NONE') as label, count(*) as total from journal_entries "
+                        + "group by coalesce(sentiment_label, 'NONE') order by label",
+                row -> {
+                    labels.put(row.getString("label"), row.getLong("total"));
+                });
+        return labels;
+    }
+
+    private static HttpRequest create(String base, long sequence) {
+        return HttpRequest.newBuilder(URI.create(base + "/api/entries/create"))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString("{\"content\":\"" + content(sequence) + "\"}"))
+                .build();
+    }
+
+    private static HttpRequest get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    /**
+     * Nội dung tất định theo số thứ tự; khoảng {@code bench.repeat-ratio} bài lặp lại một trong vài chục câu cố
+     * định để đường cache có việc, phần còn lại là duy nhất.
+     */
+    private static String content(long sequence) {
+        SplittableRandom random = new SplittableRandom(sequence);
+        String mood = MOODS[random.nextInt(MOODS.length)];
+        String topic = TOPICS[random.nextInt(TOPICS.length)];
+        if (random.nextDouble() < REPEAT_RATIO) {
+            return mood + ", chuyện " + topic;
+        }
+        return mood + ", chuyện " + topic + " (#" + sequence + ")";
+    }
+
+    private static void collectEntryId(String body, List<String> entryIds) {
+        Matcher matcher = ENTRY_ID.matcher(body);
+        if (matcher.find()) {
+            entryIds.add(matcher.group(1));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void write(Map<String, Object> report) throws Exception {
+        Path output = Path.of("target", "benchmarks", "load-report.json");
+        Files.createDirectories(output.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), report);
+
+        StringBuilder csv = new StringBuilder(
+                "scenario,target_rps,sent,completed,errors,error_rate,throughput_rps,p50_ms,p90_ms,p99_ms,p999_ms,max_ms\n");
+        for (ScenarioResult result : (List<ScenarioResult>) report.get("scenarios")) {
+            csv.append(String.format(Locale.ROOT, "%s,%.1f,%d,%d,%d,%.4f,%.1f,%.1f,%.1f,%.1f,%.1f,%.1f%n",
+                    result.name(), result.targetRps(), result.sent(), result.completed(), result.errors(),
+                    result.errorRate(), result.throughputRps(), result.p50Millis(), result.p90Millis(),
+                    result.p99Millis(), result.p999Millis(), result.maxMillis()));
+        }
+        Files.writeString(output.resolveSibling("load-report.csv"), csv);
+
+        System.out.println();
+        System.out.println("=== Load harness (" + DB + ", " + DURATION.toSeconds() + "s, create " + CREATE_RPS
+                + " rps, read " + READ_RPS + " rps) ===");
+        System.out.print(csv);
+        System.out.println("stub: " + report.get("stub"));
+        System.out.println("sentiment labels: " + report.get("sentimentLabels"));
+    }
+}
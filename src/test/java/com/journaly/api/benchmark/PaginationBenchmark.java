@@ -0,0 +1,122 @@
+package com.journaly.api.benchmark;
+
+import com.journaly.api.dto.EntryCursor;
+import com.journaly.api.dto.EntrySummary;
+import com.journaly.api.service.JournalService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * So sánh độ trễ lấy trang thứ 1000 (20 bài/trang) giữa phân trang OFFSET + COUNT ({@code GET /api/entries})
+ * và phân trang keyset ({@code GET /api/entries/scroll}).
+ * <p>
+ * Chạy bằng {@code mvn test -Pbenchmark -Dtest=PaginationBenchmark}; có thể chỉnh {@code -Dbench.entries},
+ * {@code -Dbench.page}. Kết quả in ra console và ghi vào {@code target/benchmarks/pagination.csv}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "logging.level.com.journaly.api=WARN")
+@ActiveProfiles("test")
+class PaginationBenchmark {
+
+    private static final int ENTRIES = Integer.getInteger("bench.entries", 30_000);
+    private static final int PAGE = Integer.getInteger("bench.page", 1_000);
+    private static final int PAGE_SIZE = 20;
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 200;
+
+    @Autowired
+    private JournalService journalService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void compareOffsetAndKeysetPagination() throws Exception {
+        seed();
+        PageRequest offsetPage = PageRequest.of(PAGE, PAGE_SIZE,
+                Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")));
+        String cursor = cursorBeforePage(PAGE);
+
+        // Hai cách phải trả về cùng một trang
+        List<UUID> viaOffset = journalService.getAllEntries(offsetPage).map(EntrySummary::id).getContent();
+        List<UUID> viaKeyset = journalService.getEntriesSlice(cursor, PAGE_SIZE).getContent().stream()
+                .map(EntrySummary::id).toList();
+        if (!viaOffset.equals(viaKeyset)) {
+            throw new IllegalStateException("Offset and keyset pages differ");
+        }
+
+        StringBuilder report = new StringBuilder("strategy,entries,page,page_size,avg_ms,p50_ms,p99_ms\n");
+        report.append(measure("offset", () -> journalService.getAllEntries(offsetPage))).append('\n');
+        report.append(measure("keyset", () -> journalService.getEntriesSlice(cursor, PAGE_SIZE))).append('\n');
+
+        System.out.println();
+        System.out.println("=== Pagination benchmark (page " + PAGE + " of " + ENTRIES + " entries) ===");
+        System.out.print(report);
+
+        Path output = Path.of("target", "benchmarks", "pagination.csv");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, report);
+    }
+
+    private void seed() {
+        Instant base = Instant.parse("2024-01-01T00:00:00Z");
+        transactionTemplate.executeWithoutResult(status -> {
+            List.of("entry_tags", "sentiment_jobs", "user_entry_stats", "journal_entries", "tags", "users")
+                    .forEach(table -> jdbcTemplate.update("delete from " + table));
+            UUID userId = UUID.randomUUID();
+            jdbcTemplate.update("insert into users (id, email, password_hash, created_at) values (?, ?, 'hash', ?)",
+                    userId, "bench@journaly.com", Timestamp.from(base));
+            List<Object[]> rows = new ArrayList<>(ENTRIES);
+            for (int i = 0; i < ENTRIES; i++) {
+                rows.add(new Object[]{UUID.randomUUID(), userId, "Benchmark entry " + i,
+                        Timestamp.from(base.plusSeconds(i * 60L))});
+            }
+            jdbcTemplate.batchUpdate("insert into journal_entries (id, user_id, content, created_at, sentiment_status) " +
+                    "values (?, ?, ?, ?, 'COMPLETED')", rows);
+        });
+    }
+
+    private String cursorBeforePage(int page) {
+        Map<String, Object> row = jdbcTemplate.queryForMap("select created_at, id from journal_entries " +
+                "order by created_at desc, id desc offset ? rows fetch next 1 rows only", page * PAGE_SIZE - 1);
+        return new EntryCursor(((OffsetDateTime) row.get("CREATED_AT")), (UUID) row.get("ID")).encode();
+    }
+
+    private String measure(String strategy, Runnable query) {
+        for (int i = 0; i < WARMUP; i++) {
+            query.run();
+        }
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            query.run();
+            samples[i] = System.nanoTime() - start;
+        }
+        double avg = Arrays.stream(samples).average().orElse(0) / 1e6;
+        Arrays.sort(samples);
+        return String.format(Locale.ROOT, "%s,%d,%d,%d,%.3f,%.3f,%.3f", strategy, ENTRIES, PAGE, PAGE_SIZE, avg,
+                samples[ITERATIONS / 2] / 1e6, samples[(int) Math.ceil(ITERATIONS * 0.99) - 1] / 1e6);
+    }
+}
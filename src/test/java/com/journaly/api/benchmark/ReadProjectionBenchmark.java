@@ -0,0 +1,116 @@
+package com.journaly.api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.journaly.api.dto.EntrySummary;
+import com.journaly.api.entity.JournalEntry;
+import com.journaly.api.repository.JournalEntryRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * So sánh số byte cấp phát và thời gian cho mỗi bài viết được liệt kê (query + serialize JSON) giữa cách cũ
+ * (nạp entity {@link JournalEntry}) và projection {@link EntrySummary}.
+ * <p>
+ * Chạy bằng {@code mvn test -Pbenchmark -Dtest=ReadProjectionBenchmark}; kết quả in ra console và ghi vào
+ * {@code target/benchmarks/read-projection.csv}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "logging.level.com.journaly.api=WARN")
+@ActiveProfiles("test")
+class ReadProjectionBenchmark {
+
+    private static final int ENTRIES = 2_000;
+    private static final int CONTENT_LENGTH = 2_000;
+    private static final int PAGE_SIZE = 100;
+    private static final int WARMUP = 100;
+    private static final int ITERATIONS = 300;
+
+    @Autowired
+    private JournalEntryRepository journalEntryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void compareEntityAndProjectionListing() throws Exception {
+        seed();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Pageable page = PageRequest.of(3, PAGE_SIZE, Sort.by(Sort.Order.desc("createdAt")));
+
+        StringBuilder report = new StringBuilder("model,page_size,bytes_per_entry,us_per_entry\n");
+        report.append(measure("entity", () -> readOnly.execute(status -> journalEntryRepository.findAll(page))))
+                .append('\n');
+        report.append(measure("projection",
+                () -> readOnly.execute(status -> journalEntryRepository.findAllSummaries(page)))).append('\n');
+
+        System.out.println();
+        System.out.println("=== Read projection benchmark (" + CONTENT_LENGTH + "-char entries) ===");
+        System.out.print(report);
+
+        Path output = Path.of("target", "benchmarks", "read-projection.csv");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, report);
+    }
+
+    private void seed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List.of("entry_tags", "sentiment_jobs", "user_entry_stats", "journal_entries", "tags", "users")
+                    .forEach(table -> jdbcTemplate.update("delete from " + table));
+            UUID userId = UUID.randomUUID();
+            Instant base = Instant.parse("2024-01-01T00:00:00Z");
+            jdbcTemplate.update("insert into users (id, email, password_hash, created_at) values (?, ?, 'hash', ?)",
+                    userId, "bench@journaly.com", Timestamp.from(base));
+            String content = "Hôm nay là một ngày dài và khá mệt mỏi. ".repeat(CONTENT_LENGTH / 40);
+            List<Object[]> rows = new ArrayList<>(ENTRIES);
+            for (int i = 0; i < ENTRIES; i++) {
+                rows.add(new Object[]{UUID.randomUUID(), userId, content, Timestamp.from(base.plusSeconds(i))});
+            }
+            jdbcTemplate.batchUpdate("insert into journal_entries (id, user_id, content, created_at, sentiment_label, " +
+                    "positive_score, negative_score, neutral_score, sentiment_status) " +
+                    "values (?, ?, ?, ?, 'NEGATIVE', 0.1000, 0.7000, 0.2000, 'COMPLETED')", rows);
+        });
+    }
+
+    private String measure(String model, Supplier<Object> listing) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < WARMUP; i++) {
+            objectMapper.writeValueAsBytes(listing.get());
+        }
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long started = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            objectMapper.writeValueAsBytes(listing.get());
+        }
+        long elapsed = System.nanoTime() - started;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        long listed = (long) ITERATIONS * PAGE_SIZE;
+        return String.format(Locale.ROOT, "%s,%d,%d,%.2f", model, PAGE_SIZE, allocated / listed, elapsed / 1e3 / listed);
+    }
+}
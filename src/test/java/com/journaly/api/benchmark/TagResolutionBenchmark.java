@@ -0,0 +1,138 @@
+package com.journaly.api.benchmark;
+
+import com.journaly.api.entity.JournalEntry;
+import com.journaly.api.entity.SentimentStatus;
+import com.journaly.api.entity.User;
+import com.journaly.api.repository.JournalEntryRepository;
+import com.journaly.api.repository.TagRepository;
+import com.journaly.api.repository.UserRepository;
+import com.journaly.api.service.JournalService;
+import com.journaly.api.support.SqlStatementCounter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * So sánh cập nhật 20 tag bằng vòng lặp findByName/save cũ với đường bulk của {@link JournalService#updateTagsForEntry}.
+ * <p>
+ * Chạy bằng {@code mvn test -Pbenchmark -Dtest=TagResolutionBenchmark}; kết quả in ra console và ghi vào
+ * {@code target/benchmarks/tag-resolution.csv}. Trên H2 in-memory round trip gần như miễn phí, nên cột
+ * {@code statements_per_op} phản ánh chi phí thực tế với database qua mạng sát hơn cột thời gian.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "logging.level.com.journaly.api=WARN")
+@ActiveProfiles("test")
+@Import(SqlStatementCounter.Config.class)
+class TagResolutionBenchmark {
+
+    private static final int TAGS = 20;
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = Integer.getInteger("bench.iterations", 1_000);
+
+    @Autowired
+    private JournalService journalService;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private JournalEntryRepository journalEntryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void compareLoopAndBulkTagResolution() throws Exception {
+        StringBuilder report = new StringBuilder("strategy,tags,iterations,avg_us,statements_per_op\n");
+        report.append(run("loop", this::updateTagsWithLoop)).append('\n');
+        report.append(run("bulk", this::updateTagsWithBulkPath)).append('\n');
+
+        System.out.println();
+        System.out.println("=== Tag resolution benchmark (" + TAGS + " tags per update) ===");
+        System.out.print(report);
+
+        Path output = Path.of("target", "benchmarks", "tag-resolution.csv");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, report);
+    }
+
+    private String run(String strategy, Consumer<Args> update) {
+        User user = new User();
+        user.setEmail("bench-" + strategy + "-" + UUID.randomUUID() + "@journaly.com");
+        user.setPasswordHash("hash");
+        user = userRepository.save(user);
+        JournalEntry entry = new JournalEntry();
+        entry.setUser(user);
+        entry.setContent("Benchmark entry");
+        entry.setSentimentStatus(SentimentStatus.COMPLETED);
+        UUID entryId = journalEntryRepository.save(entry).getId();
+
+        for (int i = 0; i < WARMUP; i++) {
+            update.accept(new Args(user.getId(), entryId, names(i)));
+        }
+        long statements;
+        long started = System.nanoTime();
+        try (SqlStatementCounter.Recording sql = SqlStatementCounter.start()) {
+            for (int i = 0; i < ITERATIONS; i++) {
+                // Mỗi lần giữ lại một nửa tag cũ và thêm một nửa tag mới
+                update.accept(new Args(user.getId(), entryId, names(WARMUP + i)));
+            }
+            statements = sql.count();
+        }
+        double avgMicros = (System.nanoTime() - started) / 1e3 / ITERATIONS;
+        return String.format(Locale.ROOT, "%s,%d,%d,%.1f,%.1f",
+                strategy, TAGS, ITERATIONS, avgMicros, (double) statements / ITERATIONS);
+    }
+
+    private static List<String> names(int round) {
+        List<String> names = new ArrayList<>(TAGS);
+        IntStream.range(0, TAGS / 2).forEach(i -> names.add("#tag-" + (round * TAGS / 2 + i)));
+        IntStream.range(0, TAGS / 2).forEach(i -> names.add("#tag-" + ((round + 1) * TAGS / 2 + i)));
+        return names;
+    }
+
+    private void updateTagsWithBulkPath(Args args) {
+        journalService.updateTagsForEntry(args.entryId(), args.names());
+    }
+
+    /**
+     * Cách làm trước đây: mỗi tên một câu SELECT, mỗi tag mới một câu INSERT, xóa hết rồi thêm lại entry_tags.
+     */
+    private void updateTagsWithLoop(Args args) {
+        transactionTemplate.executeWithoutResult(status -> {
+            JournalEntry entry = journalEntryRepository.findById(args.entryId()).orElseThrow();
+            entry.getTags().clear();
+            for (String name : args.names()) {
+                com.journaly.api.entity.Tag tag = tagRepository.findByUserIdAndNameIn(args.userId(), List.of(name))
+                        .stream().findFirst()
+                        .orElseGet(() -> {
+                            com.journaly.api.entity.Tag newTag = new com.journaly.api.entity.Tag();
+                            newTag.setName(name);
+                            newTag.setUserId(args.userId());
+                            return tagRepository.save(newTag);
+                        });
+                entry.getTags().add(tag);
+            }
+            journalEntryRepository.save(entry);
+        });
+    }
+
+    private record Args(UUID userId, UUID entryId, List<String> names) {
+    }
+}
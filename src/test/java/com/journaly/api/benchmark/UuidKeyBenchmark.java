@@ -0,0 +1,229 @@
+package com.journaly.api.benchmark;
+
+import com.journaly.api.entity.UuidV7;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * So sánh khóa chính UUID v4 (ngẫu nhiên, {@code GenerationType.UUID} trước đây) với UUID v7 ({@link UuidV7})
+ * khi INSERT vào một bảng PostgreSQL lớn có cùng cấu trúc với journal_entries.
+ * <p>
+ * Mỗi kiểu khóa ghi {@code bench.rows} dòng vào một bảng mới theo lô {@code bench.batch-size}, mỗi lô một
+ * transaction như đường import. Thông lượng được đo theo từng phần mười của bảng: với v4, khi primary key
+ * vượt quá {@code shared_buffers}, mỗi INSERT phải đọc và làm bẩn một trang lá ngẫu nhiên nên thông lượng
+ * giảm dần; với v7 chỉ trang cuối được ghi. Sau khi ghi xong, báo cáo kích thước primary key và bảng, lượng WAL
+ * sinh ra, và mật độ trang lá (pgstattuple, nếu cài được).
+ * <p>
+ * Chạy bằng {@code mvn test -Pbenchmark -Dtest=UuidKeyBenchmark}; mặc định dùng PostgreSQL trong Testcontainers
+ * với {@code shared_buffers} = {@code bench.shared-buffers}, hoặc một database có sẵn qua {@code bench.jdbc-url},
+ * {@code bench.jdbc-user}, {@code bench.jdbc-password}. Có thể chỉnh {@code -Dbench.rows}, {@code -Dbench.batch-size}.
+ * Kết quả in ra console và ghi vào {@code target/benchmarks/uuid-keys.csv} và {@code uuid-keys-segments.csv}.
+ */
+@Tag("benchmark")
+class UuidKeyBenchmark {
+
+    private static final int ROWS = Integer.getInteger("bench.rows", 5_000_000);
+    private static final int BATCH_SIZE = Integer.getInteger("bench.batch-size", 1_000);
+    private static final int SEGMENTS = 10;
+    private static final String SHARED_BUFFERS = System.getProperty("bench.shared-buffers", "64MB");
+    private static final String JDBC_URL = System.getProperty("bench.jdbc-url");
+    private static final int GENERATION_SAMPLES = 2_000_000;
+
+    private static final String CONTENT = "Hôm nay trời đẹp, đi dạo công viên với bạn bè rồi ghé quán cà phê quen. " +
+            "Cảm thấy nhẹ nhõm sau một tuần làm việc căng thẳng.";
+
+    // Giữ kết quả sinh id để JIT không bỏ vòng lặp đo
+    private static volatile long sink;
+
+    private record Strategy(String name, Supplier<UUID> ids) {
+    }
+
+    @Test
+    void compareRandomAndTimeOrderedKeys() throws Exception {
+        List<Strategy> strategies = List.of(new Strategy("v4", UUID::randomUUID), new Strategy("v7", UuidV7::generate));
+
+        StringBuilder summary = new StringBuilder("key,rows,generate_ns_per_id,insert_seconds,rows_per_s," +
+                "last_segment_rows_per_s,pk_bytes,table_bytes,wal_bytes,pk_leaf_density\n");
+        StringBuilder segments = new StringBuilder("key,segment,rows_so_far,rows_per_s\n");
+
+        PostgreSQLContainer<?> postgres = JDBC_URL == null
+                ? new PostgreSQLContainer<>("postgres:15")
+                        .withCommand("postgres", "-c", "shared_buffers=" + SHARED_BUFFERS)
+                : null;
+        try {
+            if (postgres != null) {
+                postgres.start();
+            }
+            try (Connection connection = connect(postgres)) {
+                boolean pgstattuple = tryExecute(connection, "create extension if not exists pgstattuple");
+                for (Strategy strategy : strategies) {
+                    double generateNanos = generationCost(strategy.ids());
+                    summary.append(run(connection, strategy, generateNanos, pgstattuple, segments)).append('\n');
+                }
+            }
+        } finally {
+            if (postgres != null) {
+                postgres.stop();
+            }
+        }
+
+        System.out.println();
+        System.out.println("=== UUID key benchmark (" + ROWS + " rows, batches of " + BATCH_SIZE + ") ===");
+        System.out.print(summary);
+        System.out.print(segments);
+
+        Path output = Path.of("target", "benchmarks", "uuid-keys.csv");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, summary);
+        Files.writeString(output.resolveSibling("uuid-keys-segments.csv"), segments);
+    }
+
+    private static Connection connect(PostgreSQLContainer<?> postgres) throws SQLException {
+        String url = JDBC_URL;
+        Properties properties = new Properties();
+        properties.setProperty("user", System.getProperty("bench.jdbc-user", "postgres"));
+        properties.setProperty("password", System.getProperty("bench.jdbc-password", ""));
+        if (postgres != null) {
+            url = postgres.getJdbcUrl();
+            properties.setProperty("user", postgres.getUsername());
+            properties.setProperty("password", postgres.getPassword());
+        }
+        // Gộp lô thành INSERT nhiều dòng cho cả hai kiểu khóa, để chi phí còn lại chủ yếu là ghi index
+        properties.setProperty("reWriteBatchedInserts", "true");
+        Connection connection = DriverManager.getConnection(url, properties);
+        connection.setAutoCommit(false);
+        return connection;
+    }
+
+    private static String run(Connection connection, Strategy strategy, double generateNanos, boolean pgstattuple,
+                              StringBuilder segments) throws SQLException {
+        String table = "bench_keys_" + strategy.name();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists " + table);
+            statement.execute("create table " + table + " (id uuid primary key, user_id uuid not null, " +
+                    "content text not null, created_at timestamptz not null)");
+            connection.commit();
+        }
+        long walStart = walPosition(connection);
+
+        UUID userId = UUID.randomUUID();
+        Instant base = Instant.parse("2024-01-01T00:00:00Z");
+        int segmentRows = Math.max(BATCH_SIZE, ROWS / SEGMENTS);
+        long started = System.nanoTime();
+        long segmentStarted = started;
+        double lastSegmentRate = 0;
+        int segment = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into " + table + " (id, user_id, content, created_at) values (?, ?, ?, ?)")) {
+            for (int written = 0; written < ROWS; ) {
+                int batch = Math.min(BATCH_SIZE, ROWS - written);
+                for (int i = 0; i < batch; i++) {
+                    insert.setObject(1, strategy.ids().get());
+                    insert.setObject(2, userId);
+                    insert.setString(3, CONTENT);
+                    insert.setTimestamp(4, Timestamp.from(base.plusSeconds(written + i)));
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+                connection.commit();
+                written += batch;
+
+                if (written >= (segment + 1) * segmentRows || written == ROWS) {
+                    long now = System.nanoTime();
+                    int rowsInSegment = written - segment * segmentRows;
+                    lastSegmentRate = rowsInSegment / ((now - segmentStarted) / 1e9);
+                    segments.append(String.format(Locale.ROOT, "%s,%d,%d,%.0f%n", strategy.name(), ++segment,
+                            written, lastSegmentRate));
+                    segmentStarted = now;
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long walBytes = walPosition(connection) - walStart;
+
+        long pkBytes = queryLong(connection, "select pg_relation_size('" + table + "_pkey')");
+        long tableBytes = queryLong(connection, "select pg_relation_size('" + table + "')");
+        String leafDensity = pgstattuple
+                ? String.format(Locale.ROOT, "%.1f", queryDouble(connection,
+                        "select avg_leaf_density from pgstatindex('" + table + "_pkey')"))
+                : "";
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop table " + table);
+            connection.commit();
+        }
+        return String.format(Locale.ROOT, "%s,%d,%.1f,%.1f,%.0f,%.0f,%d,%d,%d,%s", strategy.name(), ROWS,
+                generateNanos, seconds, ROWS / seconds, lastSegmentRate, pkBytes, tableBytes, walBytes, leafDensity);
+    }
+
+    /**
+     * Chi phí sinh một id trên một thread, sau khi làm nóng.
+     */
+    private static double generationCost(Supplier<UUID> ids) {
+        long sum = 0;
+        for (int i = 0; i < GENERATION_SAMPLES; i++) {
+            sum += ids.get().getLeastSignificantBits();
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < GENERATION_SAMPLES; i++) {
+            sum += ids.get().getLeastSignificantBits();
+        }
+        double nanos = (System.nanoTime() - started) / (double) GENERATION_SAMPLES;
+        sink = sum;
+        return nanos;
+    }
+
+    private static long walPosition(Connection connection) throws SQLException {
+        return queryLong(connection, "select pg_wal_lsn_diff(pg_current_wal_lsn(), '0/0')::bigint");
+    }
+
+    private static long queryLong(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            long value = resultSet.getLong(1);
+            connection.commit();
+            return value;
+        }
+    }
+
+    private static double queryDouble(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            double value = resultSet.getDouble(1);
+            connection.commit();
+            return value;
+        }
+    }
+
+    private static boolean tryExecute(Connection connection, String sql) {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+            connection.commit();
+            return true;
+        } catch (SQLException e) {
+            try {
+                connection.rollback();
+            } catch (SQLException ignored) {
+                // Kết nối hỏng thì lần dùng sau sẽ báo lỗi
+            }
+            System.out.println("pgstattuple is not available, leaf density is not reported: " + e.getMessage());
+            return false;
+        }
+    }
+}
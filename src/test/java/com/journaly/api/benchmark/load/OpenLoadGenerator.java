@@ -0,0 +1,185 @@
+package com.journaly.api.benchmark.load;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.LongFunction;
+
+/**
+ * Bộ sinh tải mô hình mở: request đến theo nhịp cố định bất kể server trả lời nhanh hay chậm.
+ * <p>
+ * Khác với vòng lặp client đóng trong {@code ExecutionModeBenchmark}, server chậm đi không làm tải giảm theo,
+ * và độ trễ được đo từ thời điểm request <em>lẽ ra</em> được gửi (tránh coordinated omission), nên hàng đợi
+ * phình ra sẽ hiện rõ ở p99/p999 thay vì bị che đi.
+ */
+public final class OpenLoadGenerator {
+
+    /**
+     * Một luồng request: {@code requests} nhận số thứ tự, {@code onResponse} nhận các phản hồi 2xx
+     * (ví dụ để ghi lại id bài viết vừa tạo cho các scenario đọc).
+     */
+    public record Scenario(String name, double ratePerSecond, LongFunction<HttpRequest> requests,
+                           BiConsumer<Long, String> onResponse) {
+
+        public Scenario(String name, double ratePerSecond, LongFunction<HttpRequest> requests) {
+            this(name, ratePerSecond, requests, (sequence, body) -> {
+            });
+        }
+    }
+
+    public record ScenarioResult(String name, double targetRps, long sent, long completed, long errors,
+                                 double errorRate, double throughputRps, double p50Millis, double p90Millis,
+                                 double p99Millis, double p999Millis, double maxMillis,
+                                 Map<String, Long> statuses) {
+    }
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http;
+
+    public OpenLoadGenerator(HttpClient http) {
+        this.http = http;
+    }
+
+    /**
+     * Chạy tất cả scenario song song trong {@code warmup + duration}; chỉ các request có thời điểm dự kiến
+     * nằm trong {@code duration} được tính vào kết quả.
+     */
+    public List<ScenarioResult> run(List<Scenario> scenarios, Duration warmup, Duration duration)
+            throws InterruptedException {
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+        List<Recorder> recorders = new ArrayList<>();
+        List<Thread> dispatchers = new ArrayList<>();
+        ConcurrentLinkedQueue<CompletableFuture<?>> inFlight = new ConcurrentLinkedQueue<>();
+
+        for (Scenario scenario : scenarios) {
+            Recorder recorder = new Recorder(scenario);
+            recorders.add(recorder);
+            dispatchers.add(Thread.ofPlatform().name("load-" + scenario.name()).start(
+                    () -> dispatch(scenario, recorder, measureFrom, measureUntil, inFlight)));
+        }
+        for (Thread dispatcher : dispatchers) {
+            dispatcher.join();
+        }
+        try {
+            CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new))
+                    .get(DRAIN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            // Request chưa xong sau thời gian chờ được tính là lỗi "timeout" bên dưới
+        }
+
+        return recorders.stream().map(recorder -> recorder.summarize(measureFrom, duration)).toList();
+    }
+
+    private void dispatch(Scenario scenario, Recorder recorder, long measureFrom, long measureUntil,
+                          ConcurrentLinkedQueue<CompletableFuture<?>> inFlight) {
+        if (scenario.ratePerSecond() <= 0) {
+            return;
+        }
+        long intervalNanos = (long) (1e9 / scenario.ratePerSecond());
+        long start = System.nanoTime();
+        for (long sequence = 0; ; sequence++) {
+            long intended = start + sequence * intervalNanos;
+            if (intended >= measureUntil) {
+                return;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean measured = intended >= measureFrom;
+            if (measured) {
+                recorder.sent.increment();
+            }
+            long current = sequence;
+            CompletableFuture<?> response = http.sendAsync(scenario.requests().apply(sequence),
+                            HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((result, error) -> {
+                        long latency = System.nanoTime() - intended;
+                        if (result != null && result.statusCode() / 100 == 2) {
+                            scenario.onResponse().accept(current, result.body());
+                        }
+                        if (measured) {
+                            recorder.record(intended + latency, latency, result != null ? String.valueOf(result.statusCode())
+                                    : error.getClass().getSimpleName());
+                        }
+                    });
+            if (measured) {
+                inFlight.add(response);
+            }
+        }
+    }
+
+    private static final class Recorder {
+        private final Scenario scenario;
+        private final LongAdder sent = new LongAdder();
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        private final Map<String, LongAdder> statuses = new ConcurrentHashMap<>();
+        private final AtomicLong lastCompletion = new AtomicLong(Long.MIN_VALUE);
+
+        Recorder(Scenario scenario) {
+            this.scenario = scenario;
+        }
+
+        void record(long completedAt, long latencyNanos, String status) {
+            lastCompletion.accumulateAndGet(completedAt, Math::max);
+            latencies.add(latencyNanos);
+            statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+        }
+
+        /**
+         * Throughput tính trên khoảng từ đầu pha đo đến phản hồi cuối cùng, không phải trên {@code duration}:
+         * khi server không theo kịp, phần đuôi hàng đợi kéo dài khoảng này và throughput thấp hơn tải đặt.
+         */
+        ScenarioResult summarize(long measureFrom, Duration duration) {
+            double seconds = Math.max(duration.toNanos(), lastCompletion.get() - measureFrom) / 1e9;
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            long completed = sorted.length;
+            Map<String, Long> counts = new LinkedHashMap<>();
+            statuses.entrySet().stream().sorted(Map.Entry.comparingByKey())
+                    .forEach(entry -> counts.put(entry.getKey(), entry.getValue().sum()));
+            long successes = counts.entrySet().stream()
+                    .filter(entry -> entry.getKey().startsWith("2"))
+                    .mapToLong(Map.Entry::getValue).sum();
+            long timedOut = sent.sum() - completed;
+            if (timedOut > 0) {
+                counts.put("timeout", timedOut);
+            }
+            long errors = sent.sum() - successes;
+            return new ScenarioResult(scenario.name(), scenario.ratePerSecond(), sent.sum(), completed, errors,
+                    sent.sum() == 0 ? 0 : round((double) errors / sent.sum()),
+                    round(successes / seconds),
+                    percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.90),
+                    percentileMillis(sorted, 0.99), percentileMillis(sorted, 0.999),
+                    completed == 0 ? 0 : round(sorted[sorted.length - 1] / 1e6), counts);
+        }
+
+        private static double percentileMillis(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return round(sorted[Math.max(index, 0)] / 1e6);
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 1_000) / 1_000.0;
+        }
+    }
+}
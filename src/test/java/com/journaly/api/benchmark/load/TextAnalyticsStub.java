@@ -0,0 +1,254 @@
+package com.journaly.api.benchmark.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Máy chủ HTTPS cục bộ đóng vai endpoint sentiment của Azure Text Analytics, để chạy tải mà không tốn quota.
+ * <p>
+ * Trả lời cả API hợp nhất ({@code POST /language/:analyze-text}, kind {@code SentimentAnalysis}) mà SDK 5.x
+ * dùng mặc định, lẫn API cũ {@code POST /text/analytics/v3.1/sentiment}. Điểm của mỗi văn bản được suy ra từ
+ * hash nội dung nên cùng văn bản luôn cho cùng kết quả. Có thể cấu hình:
+ * <ul>
+ *     <li>độ trễ mỗi request ({@code latency}) + mỗi document ({@code latencyPerDocument}) + nhiễu đều
+ *     trong [0, {@code jitter}];</li>
+ *     <li>tỉ lệ request lỗi 500 ({@code errorRate}) và bị throttle 429 kèm {@code Retry-After}
+ *     ({@code throttleRate});</li>
+ *     <li>số document tối đa mỗi request ({@code maxBatchSize}); vượt quá trả 400 như Azure.</li>
+ * </ul>
+ * SDK chỉ gửi key qua HTTPS, nên stub tự sinh chứng chỉ self-signed bằng {@code keytool} và đặt nó làm
+ * trust store của JVM; phải gọi {@link #start} trước khi ứng dụng tạo client Azure.
+ */
+public final class TextAnalyticsStub implements AutoCloseable {
+
+    private static final String STORE_PASSWORD = "load-stub";
+
+    public record Settings(Duration latency, Duration latencyPerDocument, Duration jitter,
+                           double errorRate, double throttleRate, int maxBatchSize) {
+    }
+
+    private final Settings settings;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder documents = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final AtomicLong maxConcurrent = new AtomicLong();
+    private final AtomicLong concurrent = new AtomicLong();
+    private final Map<Integer, LongAdder> batchSizes = new ConcurrentSkipListMap<>();
+    private HttpsServer server;
+
+    private TextAnalyticsStub(Settings settings) {
+        this.settings = settings;
+    }
+
+    public static TextAnalyticsStub start(Settings settings, Path workDirectory) throws Exception {
+        TextAnalyticsStub stub = new TextAnalyticsStub(settings);
+        stub.listen(workDirectory);
+        return stub;
+    }
+
+    public String endpoint() {
+        return "https://localhost:" + server.getAddress().getPort() + "/";
+    }
+
+    private void listen(Path workDirectory) throws Exception {
+        Path keyStore = createKeyStore(workDirectory);
+        KeyStore store = KeyStore.getInstance("PKCS12");
+        try (InputStream in = Files.newInputStream(keyStore)) {
+            store.load(in, STORE_PASSWORD.toCharArray());
+        }
+        KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagers.init(store, STORE_PASSWORD.toCharArray());
+        SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(keyManagers.getKeyManagers(), null, null);
+
+        // Client Azure (Netty) dùng trust manager mặc định của JVM
+        System.setProperty("javax.net.ssl.trustStore", keyStore.toString());
+        System.setProperty("javax.net.ssl.trustStorePassword", STORE_PASSWORD);
+        System.setProperty("javax.net.ssl.trustStoreType", "PKCS12");
+
+        server = HttpsServer.create(new InetSocketAddress("localhost", 0), 1_024);
+        server.setHttpsConfigurator(new HttpsConfigurator(sslContext));
+        // Mỗi request một virtual thread: độ trễ giả lập là sleep, không chiếm thread platform
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    private static Path createKeyStore(Path workDirectory) throws IOException, InterruptedException {
+        Files.createDirectories(workDirectory);
+        Path keyStore = workDirectory.resolve("text-analytics-stub.p12");
+        Files.deleteIfExists(keyStore);
+        Process keytool = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "keytool").toString(),
+                "-genkeypair", "-alias", "stub", "-keyalg", "RSA", "-keysize", "2048", "-validity", "2",
+                "-dname", "CN=localhost", "-ext", "SAN=dns:localhost,ip:127.0.0.1",
+                "-storetype", "PKCS12", "-keystore", keyStore.toString(),
+                "-storepass", STORE_PASSWORD, "-keypass", STORE_PASSWORD)
+                .redirectErrorStream(true)
+                .start();
+        String output = new String(keytool.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        if (keytool.waitFor() != 0) {
+            throw new IllegalStateException("keytool failed: " + output);
+        }
+        return keyStore;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long inFlight = concurrent.incrementAndGet();
+        maxConcurrent.accumulateAndGet(inFlight, Math::max);
+        try (exchange) {
+            requests.increment();
+            String path = exchange.getRequestURI().getPath();
+            boolean unifiedApi = path.endsWith(":analyze-text");
+            if (!"POST".equals(exchange.getRequestMethod()) || !(unifiedApi || path.endsWith("/sentiment"))) {
+                respond(exchange, 404, error("NotFound", "Unsupported stub route: " + path));
+                return;
+            }
+
+            JsonNode body = objectMapper.readTree(exchange.getRequestBody());
+            JsonNode docs = unifiedApi ? body.path("analysisInput").path("documents") : body.path("documents");
+            int batchSize = docs.size();
+            documents.add(batchSize);
+            batchSizes.computeIfAbsent(batchSize, size -> new LongAdder()).increment();
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            sleep(settings.latency().plus(settings.latencyPerDocument().multipliedBy(batchSize))
+                    .plusNanos(settings.jitter().isZero() ? 0 : random.nextLong(settings.jitter().toNanos() + 1)));
+
+            double roll = random.nextDouble();
+            if (roll < settings.throttleRate()) {
+                throttled.increment();
+                exchange.getResponseHeaders().add("Retry-After", "1");
+                respond(exchange, 429, error("TooManyRequests", "Rate limit is exceeded (stub)"));
+            } else if (roll < settings.throttleRate() + settings.errorRate()) {
+                failed.increment();
+                respond(exchange, 500, error("InternalServerError", "Injected failure (stub)"));
+            } else if (batchSize == 0 || batchSize > settings.maxBatchSize()) {
+                rejected.increment();
+                respond(exchange, 400, error("InvalidDocumentBatch",
+                        "Batch request contains " + batchSize + " documents, limit is " + settings.maxBatchSize()));
+            } else {
+                ObjectNode results = objectMapper.createObjectNode();
+                ArrayNode documentResults = results.putArray("documents");
+                docs.forEach(doc -> documentResults.add(score(doc.path("id").asText(), doc.path("text").asText())));
+                results.putArray("errors");
+                results.put("modelVersion", "2022-11-01");
+                if (unifiedApi) {
+                    ObjectNode wrapper = objectMapper.createObjectNode();
+                    wrapper.put("kind", "SentimentAnalysisResults");
+                    wrapper.set("results", results);
+                    results = wrapper;
+                }
+                respond(exchange, 200, results);
+            }
+        } finally {
+            concurrent.decrementAndGet();
+        }
+    }
+
+    /**
+     * Điểm giả lập suy từ hash văn bản: khoảng 45% tích cực, 30% tiêu cực, còn lại trung tính.
+     */
+    private ObjectNode score(String id, String text) {
+        int hash = text.hashCode() & 0x7fffffff;
+        double strength = 0.55 + (hash % 40) / 100.0;
+        double rest = (1 - strength) / 2;
+        int bucket = hash % 100;
+        String label = bucket < 45 ? "positive" : bucket < 75 ? "negative" : "neutral";
+        ObjectNode scores = objectMapper.createObjectNode();
+        scores.put("positive", round("positive".equals(label) ? strength : rest));
+        scores.put("neutral", round("neutral".equals(label) ? strength : rest));
+        scores.put("negative", round("negative".equals(label) ? strength : rest));
+
+        ObjectNode document = objectMapper.createObjectNode();
+        document.put("id", id);
+        document.put("sentiment", label);
+        document.set("confidenceScores", scores);
+        ObjectNode sentence = document.putArray("sentences").addObject();
+        sentence.put("sentiment", label);
+        sentence.set("confidenceScores", scores.deepCopy());
+        sentence.put("offset", 0);
+        sentence.put("length", text.length());
+        sentence.put("text", text);
+        document.putArray("warnings");
+        return document;
+    }
+
+    private ObjectNode error(String code, String message) {
+        ObjectNode error = objectMapper.createObjectNode();
+        error.putObject("error").put("code", code).put("message", message);
+        return error;
+    }
+
+    private void respond(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(Duration delay) {
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10_000) / 10_000.0;
+    }
+
+    /**
+     * Thống kê phía stub cho báo cáo: số request, document, lỗi giả lập và phân bố kích thước batch.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requests", requests.sum());
+        stats.put("documents", documents.sum());
+        stats.put("injectedErrors", failed.sum());
+        stats.put("throttled", throttled.sum());
+        stats.put("rejectedBatches", rejected.sum());
+        stats.put("maxConcurrentRequests", maxConcurrent.get());
+        stats.put("averageBatchSize", requests.sum() == 0 ? 0.0 : round((double) documents.sum() / requests.sum()));
+        Map<String, Long> sizes = new LinkedHashMap<>();
+        batchSizes.forEach((size, count) -> sizes.put(String.valueOf(size), count.sum()));
+        stats.put("batchSizes", sizes);
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.journaly.api.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+class RedisSentimentStoreTest {
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private LettuceConnectionFactory connectionFactory;
+    private RedisSentimentStore store;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.afterPropertiesSet();
+
+        store = new RedisSentimentStore(template, connectionFactory);
+        store.clear();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        store.destroy();
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void shouldStoreEvictAndClearBinaryValues() {
+        byte[] value = {1, 0, 0x23, 0x28, 0, 0, 0, 0};
+        store.put("a", value, Duration.ofMinutes(5));
+        store.put("b", value, Duration.ofMinutes(5));
+
+        assertThat(store.get("a")).isEqualTo(value);
+
+        store.evict("a");
+        assertThat(store.get("a")).isNull();
+
+        store.clear();
+        assertThat(store.get("b")).isNull();
+    }
+
+    @Test
+    void shouldDeliverInvalidationMessages() throws InterruptedException {
+        BlockingQueue<String> received = new ArrayBlockingQueue<>(1);
+        store.subscribeInvalidations(received::offer);
+
+        store.publishInvalidation("node-1|abc");
+
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo("node-1|abc");
+    }
+}
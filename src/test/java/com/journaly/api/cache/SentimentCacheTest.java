@@ -0,0 +1,87 @@
+package com.journaly.api.cache;
+
+import com.azure.ai.textanalytics.models.DocumentSentiment;
+import com.azure.ai.textanalytics.models.SentimentConfidenceScores;
+import com.azure.ai.textanalytics.models.TextSentiment;
+import com.azure.core.util.IterableStream;
+import com.journaly.api.config.CacheConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SentimentCacheTest {
+
+    private static final int MAX_ENTRIES = 10;
+
+    private CacheManager cacheManager;
+    private Cache cache;
+    private final ContentDigestKeyGenerator keyGenerator = new ContentDigestKeyGenerator();
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new CacheConfig().cacheManager(MAX_ENTRIES, MAX_ENTRIES * 1024L, Duration.ofHours(1),
+                Duration.ofSeconds(30), Optional.empty());
+        cache = cacheManager.getCache(CacheConfig.SENTIMENTS);
+    }
+
+    @Test
+    void shouldNotCollideOnEqualHashCodes() {
+        assertThat("Aa".hashCode()).isEqualTo("BB".hashCode());
+
+        String first = ContentDigestKeyGenerator.digest("Aa");
+        String second = ContentDigestKeyGenerator.digest("BB");
+
+        assertThat(first).hasSize(64).isNotEqualTo(second);
+        assertThat(keyGenerator.generate(null, null, "Aa")).isEqualTo(first);
+    }
+
+    @Test
+    void shouldBoundNumberOfEntries() {
+        for (int i = 0; i < 50; i++) {
+            cache.put(ContentDigestKeyGenerator.digest("entry " + i), sentiment());
+        }
+        nativeCache().cleanUp();
+
+        assertThat(nativeCache().estimatedSize()).isLessThanOrEqualTo(MAX_ENTRIES);
+        assertThat(nativeCache().stats().evictionCount()).isGreaterThanOrEqualTo(40);
+    }
+
+    @Test
+    void shouldExposeStatsAndFlushThroughEndpoint() {
+        String key = ContentDigestKeyGenerator.digest("Hôm nay là một ngày tuyệt vời");
+        cache.put(key, sentiment());
+        assertThat(cache.get(key)).isNotNull();
+        assertThat(cache.get(ContentDigestKeyGenerator.digest("missing"))).isNull();
+
+        SentimentCacheEndpoint endpoint = new SentimentCacheEndpoint(cacheManager);
+        Map<String, Object> stats = endpoint.stats();
+        assertThat(stats).containsEntry("size", 1L)
+                .containsEntry("hitCount", 1L)
+                .containsEntry("missCount", 1L)
+                .containsKey("weightedSize");
+
+        assertThat(endpoint.flush()).containsEntry("flushed", 1L);
+        assertThat(cache.get(key)).isNull();
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache() {
+        return ((CaffeineCache) cache).getNativeCache();
+    }
+
+    private static DocumentSentiment sentiment() {
+        return new DocumentSentiment(
+                TextSentiment.POSITIVE,
+                new SentimentConfidenceScores(0.1, 0.1, 0.8),
+                new IterableStream<>(Collections.emptyList()),
+                new IterableStream<>(Collections.emptyList()));
+    }
+}
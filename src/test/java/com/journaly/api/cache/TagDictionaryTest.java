@@ -0,0 +1,109 @@
+package com.journaly.api.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class TagDictionaryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InMemoryBus bus = new InMemoryBus();
+    private final UUID userId = UUID.randomUUID();
+
+    private TagDictionary node1;
+    private TagDictionary node2;
+
+    @BeforeEach
+    void setUp() {
+        node1 = newDictionary();
+        node2 = newDictionary();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void idsAreScopedByUserAndName() {
+        node1.put(userId, "#vui", 1L);
+        node1.put(null, "#vui", 2L);
+
+        assertThat(node1.find(userId, "#vui")).isEqualTo(1L);
+        assertThat(node1.find(null, "#vui")).isEqualTo(2L);
+        assertThat(node1.find(UUID.randomUUID(), "#vui")).isNull();
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "tags").tag("result", "hit").functionCounter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void writesInsideATransactionBecomeVisibleOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        node1.put(userId, "#buồn", 7L);
+        assertThat(node1.find(userId, "#buồn")).isNull();
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertThat(node1.find(userId, "#buồn")).isEqualTo(7L);
+    }
+
+    @Test
+    void rolledBackWritesAreDropped() {
+        TransactionSynchronizationManager.initSynchronization();
+        node1.put(userId, "#buồn", 7L);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(node1.find(userId, "#buồn")).isNull();
+    }
+
+    @Test
+    void evictionsReachOtherInstances() {
+        node1.put(userId, "#vui", 1L);
+        node1.put(userId, "#buồn", 2L);
+        node2.put(userId, "#vui", 1L);
+        node2.put(userId, "#buồn", 2L);
+
+        node1.evict(userId, "#vui");
+        assertThat(node2.find(userId, "#vui")).isNull();
+        assertThat(node2.find(userId, "#buồn")).isEqualTo(2L);
+
+        node2.invalidateAll();
+        assertThat(node1.find(userId, "#buồn")).isNull();
+    }
+
+    private TagDictionary newDictionary() {
+        return new TagDictionary(mock(JdbcTemplate.class), Optional.of(bus), meterRegistry,
+                1_000, Duration.ofMinutes(5), 0);
+    }
+
+    private static final class InMemoryBus implements InvalidationBus {
+        private final List<Consumer<String>> listeners = new ArrayList<>();
+
+        @Override
+        public void publish(String message) {
+            listeners.forEach(listener -> listener.accept(message));
+        }
+
+        @Override
+        public void subscribe(Consumer<String> listener) {
+            listeners.add(listener);
+        }
+    }
+}
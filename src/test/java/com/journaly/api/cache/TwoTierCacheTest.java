@@ -0,0 +1,155 @@
+package com.journaly.api.cache;
+
+import com.azure.ai.textanalytics.models.DocumentSentiment;
+import com.azure.ai.textanalytics.models.SentimentConfidenceScores;
+import com.azure.ai.textanalytics.models.TextSentiment;
+import com.azure.core.util.IterableStream;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TwoTierCacheTest {
+
+    private InMemorySentimentStore redis;
+    private TwoTierCache nodeA;
+    private TwoTierCache nodeB;
+
+    @BeforeEach
+    void setUp() {
+        redis = new InMemorySentimentStore();
+        nodeA = node(redis);
+        nodeB = node(redis);
+    }
+
+    @Test
+    void shouldEncodeScoresInEightBytes() {
+        byte[] encoded = SentimentCodec.encode(sentiment(TextSentiment.MIXED, 0.4512, 0.3301, 0.2187));
+        DocumentSentiment decoded = SentimentCodec.decode(encoded);
+
+        assertThat(encoded).hasSize(8);
+        assertThat(decoded.getSentiment()).isEqualTo(TextSentiment.MIXED);
+        assertThat(decoded.getConfidenceScores().getPositive()).isCloseTo(0.4512, within(1e-4));
+        assertThat(decoded.getConfidenceScores().getNegative()).isCloseTo(0.3301, within(1e-4));
+        assertThat(decoded.getConfidenceScores().getNeutral()).isCloseTo(0.2187, within(1e-4));
+        assertThat(SentimentCodec.decode(new byte[]{9, 0})).isNull();
+    }
+
+    @Test
+    void shouldServeOtherNodesMissFromSharedTier() {
+        nodeA.put("k1", sentiment(TextSentiment.POSITIVE, 0.9, 0.05, 0.05));
+
+        assertThat(nodeB.getLocal().get("k1")).isNull();
+        DocumentSentiment fromB = nodeB.get("k1", DocumentSentiment.class);
+
+        assertThat(fromB.getSentiment()).isEqualTo(TextSentiment.POSITIVE);
+        assertThat(nodeB.getRemoteHits()).isEqualTo(1);
+        assertThat(nodeB.getLocal().get("k1")).as("L2 hit is promoted to L1").isNotNull();
+    }
+
+    @Test
+    void shouldInvalidateOtherNodesThroughPubSub() {
+        nodeA.put("k1", sentiment(TextSentiment.NEGATIVE, 0.1, 0.8, 0.1));
+        nodeB.get("k1");
+        assertThat(nodeB.getLocal().get("k1")).isNotNull();
+
+        nodeA.evict("k1");
+
+        assertThat(nodeB.getLocal().get("k1")).isNull();
+        assertThat(redis.values).doesNotContainKey("k1");
+
+        nodeA.put("k2", sentiment(TextSentiment.NEUTRAL, 0.1, 0.1, 0.8));
+        nodeB.get("k2");
+        nodeA.clear();
+        assertThat(nodeB.getLocal().get("k2")).isNull();
+    }
+
+    @Test
+    void shouldFallBackToLocalTierWhenRedisIsDown() {
+        redis.down = true;
+
+        nodeA.put("k1", sentiment(TextSentiment.POSITIVE, 0.9, 0.05, 0.05));
+        assertThat(nodeA.get("k1")).isNotNull();
+        assertThat(nodeA.get("missing")).isNull();
+
+        assertThat(nodeA.isRemoteAvailable()).isFalse();
+        assertThat(nodeA.getRemoteErrors()).as("later calls skip L2 until the retry interval elapses").isEqualTo(1);
+    }
+
+    private static TwoTierCache node(InMemorySentimentStore store) {
+        CaffeineCache local = new CaffeineCache("sentiments", Caffeine.newBuilder().maximumSize(100).buildAsync(), true);
+        TwoTierCache cache = new TwoTierCache(local, store, Duration.ofHours(1), Duration.ofMinutes(1));
+        store.subscribeInvalidations(cache::onInvalidation);
+        return cache;
+    }
+
+    private static DocumentSentiment sentiment(TextSentiment label, double positive, double negative, double neutral) {
+        return new DocumentSentiment(label,
+                new SentimentConfidenceScores(negative, neutral, positive),
+                new IterableStream<>(Collections.emptyList()),
+                new IterableStream<>(Collections.emptyList()));
+    }
+
+    /**
+     * Stand-in cho Redis: key/value trong bộ nhớ, pub/sub đồng bộ, có công tắc giả lập mất kết nối.
+     */
+    static class InMemorySentimentStore implements RemoteSentimentStore {
+
+        final Map<String, byte[]> values = new ConcurrentHashMap<>();
+        final List<Consumer<String>> subscribers = new CopyOnWriteArrayList<>();
+        volatile boolean down;
+
+        @Override
+        public byte[] get(String key) {
+            checkUp();
+            return values.get(key);
+        }
+
+        @Override
+        public void put(String key, byte[] value, Duration timeToLive) {
+            checkUp();
+            values.put(key, value);
+        }
+
+        @Override
+        public void evict(String key) {
+            checkUp();
+            values.remove(key);
+        }
+
+        @Override
+        public void clear() {
+            checkUp();
+            values.clear();
+        }
+
+        @Override
+        public void publishInvalidation(String message) {
+            checkUp();
+            subscribers.forEach(subscriber -> subscriber.accept(message));
+        }
+
+        @Override
+        public void subscribeInvalidations(Consumer<String> listener) {
+            subscribers.add(listener);
+        }
+
+        private void checkUp() {
+            if (down) {
+                throw new RedisConnectionFailureException("Connection refused");
+            }
+        }
+    }
+}
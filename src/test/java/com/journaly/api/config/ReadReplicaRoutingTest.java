@@ -0,0 +1,184 @@
+package com.journaly.api.config;
+
+import com.journaly.api.service.JournalService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hai database H2 độc lập đóng vai primary và replica; "replication" là chép snapshot bằng SCRIPT/RUNSCRIPT,
+ * sau đó nội dung trên replica được sửa riêng để biết mỗi lần đọc đi vào database nào.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rw-primary;DB_CLOSE_DELAY=-1",
+        "datasource.replica.enabled=true",
+        "datasource.replica.url=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "datasource.replica.username=sa",
+        "datasource.replica.check-interval=1h",
+        "datasource.replica.max-lag=5s",
+        "datasource.replica.lag-query=select coalesce(max(lag_seconds), 0) from replica_status"
+})
+@ActiveProfiles("test")
+@DirtiesContext
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ReadReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:rw-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private JournalService journalService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaPool;
+
+    @Autowired
+    private ReplicaMonitor replicaMonitor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private UUID entryId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> {
+            List.of("entry_tags", "sentiment_jobs", "user_entry_stats", "mood_daily_rollups", "journal_entries",
+                    "tags", "entry_imports", "users").forEach(table -> jdbcTemplate.update("delete from " + table));
+            UUID userId = UUID.randomUUID();
+            entryId = UUID.randomUUID();
+            Timestamp now = Timestamp.from(Instant.now());
+            jdbcTemplate.update("insert into users (id, email, password_hash, created_at) values (?, ?, 'hash', ?)",
+                    userId, "replica@journaly.com", now);
+            jdbcTemplate.update("insert into journal_entries (id, user_id, content, created_at, sentiment_status) " +
+                    "values (?, ?, 'written on primary', ?, 'COMPLETED')", entryId, userId, now);
+        });
+        replicate();
+        onReplica("update journal_entries set content = 'read from replica'");
+        replicaMonitor.check();
+        newRequest();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @Order(1)
+    void readOnlyTransactionsUseTheReplicaAndWritesThePrimary() {
+        double readsBefore = routed("read");
+
+        assertThat(journalService.getEntryById(entryId).content()).isEqualTo("read from replica");
+        assertThat(routed("read")).isEqualTo(readsBefore + 1);
+        String written = transactionTemplate.execute(status -> jdbcTemplate.queryForObject(
+                "select content from journal_entries where id = ?", String.class, entryId));
+        assertThat(written).isEqualTo("written on primary");
+        // Ngoài transaction (DDL khi khởi động, health check) luôn là primary
+        assertThat(jdbcTemplate.queryForObject("select content from journal_entries where id = ?",
+                String.class, entryId)).isEqualTo("written on primary");
+    }
+
+    @Test
+    @Order(2)
+    void readsAfterAWriteInTheSameRequestStayOnThePrimary() {
+        assertThat(journalService.getEntryById(entryId).content()).isEqualTo("read from replica");
+
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                "update journal_entries set content = 'just edited' where id = ?", entryId));
+        assertThat(journalService.getEntryById(entryId).content()).isEqualTo("just edited");
+        assertThat(routed("pinned")).isPositive();
+
+        newRequest();
+        assertThat(journalService.getEntryById(entryId).content()).isEqualTo("read from replica");
+    }
+
+    @Test
+    @Order(3)
+    void laggingReplicaIsBypassedUntilItCatchesUp() throws Exception {
+        onReplica("update replica_status set lag_seconds = 60");
+        replicaMonitor.check();
+        assertThat(replicaMonitor.isLagging()).isTrue();
+        assertThat(journalService.getEntryById(entryId).content()).isEqualTo("written on primary");
+        assertThat(replicaMonitor.health().getDetails()).containsEntry("readsRoutedTo", "primary");
+
+        onReplica("update replica_status set lag_seconds = 0.5");
+        replicaMonitor.check();
+        assertThat(journalService.getEntryById(entryId).content()).isEqualTo("read from replica");
+    }
+
+    @Test
+    @Order(4)
+    void unreachableReplicaFailsOverToThePrimary() {
+        double failoversBefore = routed("failover");
+        replicaPool.close();
+
+        assertThat(journalService.getEntryById(entryId).content()).isEqualTo("written on primary");
+        assertThat(routed("failover")).isEqualTo(failoversBefore + 1);
+        assertThat(replicaMonitor.isAvailable()).isFalse();
+        // Các lần đọc sau về primary ngay, không thử replica nữa
+        assertThat(journalService.getEntryById(entryId).content()).isEqualTo("written on primary");
+        assertThat(routed("failover")).isEqualTo(failoversBefore + 1);
+    }
+
+    private void replicate() throws SQLException {
+        String snapshot = Path.of("target", "replica-snapshot.sql").toAbsolutePath().toString().replace('\\', '/');
+        jdbcTemplate.execute("script to '" + snapshot + "'");
+        onReplica("drop all objects", "runscript from '" + snapshot + "'",
+                "create table replica_status (lag_seconds double precision)",
+                "insert into replica_status values (0)");
+    }
+
+    /**
+     * Câu lệnh chạy thẳng trên database replica, ngoài pool của ứng dụng.
+     */
+    private static void onReplica(String... statements) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    private static void newRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    private double routed(String reason) {
+        return meterRegistry.get("db.routing.connections").tag("reason", reason).counter().count();
+    }
+}
@@ -0,0 +1,181 @@
+package com.journaly.api.controller;
+
+import com.azure.ai.textanalytics.models.DocumentSentiment;
+import com.azure.ai.textanalytics.models.SentimentConfidenceScores;
+import com.azure.ai.textanalytics.models.TextSentiment;
+import com.azure.core.util.IterableStream;
+import com.journaly.api.service.AIService;
+import com.journaly.api.service.JournalService;
+import com.journaly.api.service.SentimentEnrichmentService;
+import com.journaly.api.support.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(SqlStatementCounter.Config.class)
+class ConditionalGetTest {
+
+    @MockitoBean
+    private AIService aiService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JournalService journalService;
+
+    @Autowired
+    private SentimentEnrichmentService sentimentEnrichmentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            List.of("entry_tags", "sentiment_jobs", "user_entry_stats", "mood_daily_rollups", "journal_entries",
+                    "tags", "entry_imports", "users").forEach(table -> jdbcTemplate.update("delete from " + table));
+            jdbcTemplate.update("insert into users (id, email, password_hash, created_at) values (?, ?, 'hash', ?)",
+                    UUID.randomUUID(), "etag@journaly.com", Timestamp.from(Instant.parse("2020-01-01T00:00:00Z")));
+        });
+        when(aiService.analyzeSentiment(anyString())).thenReturn(sentiment(0.8, 0.1, 0.1));
+    }
+
+    @Test
+    void detailRevalidationReturns304WithASingleStatement() throws Exception {
+        UUID entryId = journalService.createJournalEntry("Một ngày bình thường ở văn phòng").getEntryId();
+
+        MvcResult first = mockMvc.perform(get("/api/entries/{id}", entryId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).matches("\"\\d+\"");
+
+        try (SqlStatementCounter.Recording sql = SqlStatementCounter.start()) {
+            mockMvc.perform(get("/api/entries/{id}", entryId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, etag))
+                    .andExpect(content().string(""));
+            assertThat(sql.count()).as(sql.statements().toString()).isEqualTo(1);
+        }
+
+        // So sánh yếu: ETag từ proxy nén lại vẫn khớp
+        mockMvc.perform(get("/api/entries/{id}", entryId).header(HttpHeaders.IF_NONE_MATCH, "\"x\", W/" + etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/entries/{id}", UUID.randomUUID()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void etagChangesWhenTagsOrScoresChange() throws Exception {
+        UUID entryId = journalService.createJournalEntry("Tối nay đọc sách và nghe nhạc").getEntryId();
+        String etag = etag("/api/entries/" + entryId);
+        String listEtag = etag("/api/entries/scroll");
+
+        journalService.updateTagsForEntry(entryId, List.of("#sach"));
+        String tagged = mockMvc.perform(get("/api/entries/{id}", entryId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(tagged).isNotEqualTo(etag);
+        assertThat(etag("/api/entries/scroll")).isNotEqualTo(listEtag);
+
+        // Gửi lại đúng các tag cũ không phải là thay đổi
+        journalService.updateTagsForEntry(entryId, List.of("#sach"));
+        assertThat(etag("/api/entries/" + entryId)).isEqualTo(tagged);
+
+        when(aiService.analyzeSentimentOrThrow(anyString())).thenReturn(sentiment(0.1, 0.1, 0.8));
+        sentimentEnrichmentService.enrich(entryId);
+        assertThat(etag("/api/entries/" + entryId)).isNotEqualTo(tagged);
+    }
+
+    @Test
+    void listRevalidationSkipsThePageQuery() throws Exception {
+        journalService.createJournalEntry("Bài viết đầu tiên trong danh sách");
+        String pageEtag = etag("/api/entries?page=0&size=10");
+        String scrollEtag = etag("/api/entries/scroll?size=10");
+
+        try (SqlStatementCounter.Recording sql = SqlStatementCounter.start()) {
+            mockMvc.perform(get("/api/entries").param("page", "0").param("size", "10")
+                            .header(HttpHeaders.IF_NONE_MATCH, pageEtag))
+                    .andExpect(status().isNotModified());
+            assertThat(sql.count()).as(sql.statements().toString()).isEqualTo(1);
+
+            sql.reset();
+            mockMvc.perform(get("/api/entries/scroll").param("size", "10")
+                            .header(HttpHeaders.IF_NONE_MATCH, scrollEtag))
+                    .andExpect(status().isNotModified());
+            // Tìm user hiện tại, rồi đọc phiên bản danh sách của user đó
+            assertThat(sql.count()).as(sql.statements().toString()).isEqualTo(2);
+        }
+
+        journalService.createJournalEntry("Bài viết thứ hai làm danh sách đổi");
+        mockMvc.perform(get("/api/entries").param("page", "0").param("size", "10")
+                        .header(HttpHeaders.IF_NONE_MATCH, pageEtag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/entries/scroll").param("size", "10").header(HttpHeaders.IF_NONE_MATCH, scrollEtag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void ifModifiedSinceIsUsedOnlyWithoutIfNoneMatch() throws Exception {
+        UUID entryId = journalService.createJournalEntry("Đi bộ quanh hồ buổi sáng").getEntryId();
+        String lastModified = mockMvc.perform(get("/api/entries/{id}", entryId))
+                .andReturn().getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+        String earlier = DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                ZonedDateTime.now(ZoneOffset.UTC).minusDays(1));
+
+        mockMvc.perform(get("/api/entries/{id}", entryId).header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/entries/{id}", entryId).header(HttpHeaders.IF_MODIFIED_SINCE, earlier))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/entries/{id}", entryId).header(HttpHeaders.IF_MODIFIED_SINCE, lastModified)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk());
+    }
+
+    private String etag(String uri) throws Exception {
+        return mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private static DocumentSentiment sentiment(double positive, double neutral, double negative) {
+        return new DocumentSentiment(TextSentiment.POSITIVE, new SentimentConfidenceScores(negative, neutral, positive),
+                new IterableStream<>(Collections.emptyList()), new IterableStream<>(Collections.emptyList()));
+    }
+}
@@ -0,0 +1,77 @@
+package com.journaly.api.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UuidV7Test {
+
+    @Test
+    void encodesVersionVariantAndTimestamp() {
+        long now = System.currentTimeMillis();
+        UUID uuid = UuidV7.generate();
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(UuidV7.timestampMillis(uuid)).isBetween(now, System.currentTimeMillis() + 1);
+        assertThatThrownBy(() -> UuidV7.timestampMillis(UUID.randomUUID()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void staysStrictlyIncreasingWithinAMillisecondAndWhenTheClockGoesBack() {
+        UuidV7 generator = new UuidV7();
+        long millis = 1_700_000_000_000L;
+        List<UUID> ids = new ArrayList<>();
+        // Nhiều hơn 4096 giá trị trong cùng một mili giây: phần thời gian phải được mượn trước
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(generator.next(millis));
+        }
+        ids.add(generator.next(millis - 5_000));
+        ids.add(generator.next(millis + 60_000));
+
+        for (int i = 1; i < ids.size(); i++) {
+            assertThat(ids.get(i)).isGreaterThan(ids.get(i - 1));
+            // Thứ tự so sánh byte (như PostgreSQL) cũng phải tăng
+            assertThat(ids.get(i).toString()).isGreaterThan(ids.get(i - 1).toString());
+        }
+        assertThat(UuidV7.timestampMillis(ids.get(0))).isEqualTo(millis);
+        assertThat(UuidV7.timestampMillis(ids.get(ids.size() - 1))).isEqualTo(millis + 60_000);
+    }
+
+    @Test
+    void isUniqueAndMonotonicPerThreadUnderContention() throws Exception {
+        Set<UUID> all = ConcurrentHashMap.newKeySet();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(executor.submit(() -> {
+                    UUID previous = UuidV7.generate();
+                    all.add(previous);
+                    boolean increasing = true;
+                    for (int i = 0; i < 50_000; i++) {
+                        UUID next = UuidV7.generate();
+                        increasing &= next.compareTo(previous) > 0;
+                        all.add(next);
+                        previous = next;
+                    }
+                    return increasing;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertThat(result.get()).isTrue();
+            }
+        }
+        assertThat(all).hasSize(8 * 50_001);
+    }
+}
@@ -0,0 +1,49 @@
+package com.journaly.api.sentiment;
+
+import com.azure.ai.textanalytics.models.SentimentConfidenceScores;
+import com.azure.ai.textanalytics.models.TextSentiment;
+import com.journaly.api.service.JournalService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bộ mẫu có nhãn trong {@code sentiment/labelled-entries.tsv}, dùng chung cho test và báo cáo độ chính xác.
+ */
+record LabelledEntries(List<Entry> entries) {
+
+    record Entry(TextSentiment label, String language, String text) {
+    }
+
+    static LabelledEntries load() {
+        List<Entry> entries = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                LabelledEntries.class.getClassLoader().getResourceAsStream("sentiment/labelled-entries.tsv"),
+                StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = line.split("\t", 3);
+                entries.add(new Entry(TextSentiment.fromString(columns[0]), columns[1], columns[2]));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new LabelledEntries(entries);
+    }
+
+    /**
+     * Nhãn mà ứng dụng sẽ gán cho ước lượng này (cùng quy tắc với kết quả của Azure).
+     */
+    static TextSentiment labelOf(SentimentEstimate estimate) {
+        return JournalService.interpretSentimentFromScores(
+                new SentimentConfidenceScores(estimate.negative(), estimate.neutral(), estimate.positive()));
+    }
+}
@@ -0,0 +1,146 @@
+package com.journaly.api.sentiment;
+
+import com.azure.ai.textanalytics.models.TextSentiment;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.text.Normalizer;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class LexiconSentimentEngineTest {
+
+    private static final double THRESHOLD = 0.75;
+
+    private final LexiconSentimentEngine engine = new LexiconSentimentEngine();
+
+    @Test
+    void scoresObviousVietnameseAndEnglishEntriesConfidently() {
+        SentimentEstimate happy = engine.estimate("Hôm nay tôi rất vui vì được gặp lại bạn cũ.");
+        SentimentEstimate sad = engine.estimate("I feel sad and lonely tonight.");
+
+        assertThat(LabelledEntries.labelOf(happy)).isEqualTo(TextSentiment.POSITIVE);
+        assertThat(happy.isConfident(THRESHOLD)).isTrue();
+        assertThat(LabelledEntries.labelOf(sad)).isEqualTo(TextSentiment.NEGATIVE);
+        assertThat(sad.isConfident(THRESHOLD)).isTrue();
+        assertThat(happy.positive() + happy.negative() + happy.neutral()).isCloseTo(1.0, within(1e-9));
+    }
+
+    @Test
+    void handlesNegationIntensifiersAndTwoWordPhrases() {
+        assertThat(LabelledEntries.labelOf(engine.estimate("Mình không vui chút nào."))).isEqualTo(TextSentiment.NEGATIVE);
+        assertThat(LabelledEntries.labelOf(engine.estimate("I am not happy today"))).isEqualTo(TextSentiment.NEGATIVE);
+        SentimentEstimate notBad = engine.estimate("not bad at all");
+        assertThat(notBad.positive()).isGreaterThan(notBad.negative());
+        assertThat(LabelledEntries.labelOf(engine.estimate("một ngày hạnh phúc"))).isEqualTo(TextSentiment.POSITIVE);
+
+        assertThat(engine.estimate("vui quá").positive()).isGreaterThan(engine.estimate("vui").positive());
+        assertThat(engine.estimate("rất buồn").negative()).isGreaterThan(engine.estimate("buồn").negative());
+        assertThat(engine.estimate("hơi buồn").negative()).isLessThan(engine.estimate("buồn").negative());
+    }
+
+    @Test
+    void hasNoConfidenceWithoutSentimentWordsOrWithMixedFeelings() {
+        SentimentEstimate plain = engine.estimate("Hôm nay đi làm, buổi chiều họp nhóm rồi về nhà.");
+        assertThat(plain.confidence()).isZero();
+        assertThat(LabelledEntries.labelOf(plain)).isEqualTo(TextSentiment.NEUTRAL);
+
+        SentimentEstimate mixed = engine.estimate("Vui vì được thăng chức nhưng cũng lo lắng vì áp lực mới.");
+        assertThat(mixed.isConfident(THRESHOLD)).isFalse();
+    }
+
+    @Test
+    void ignoresCaseAndUnicodeNormalizationForm() {
+        SentimentEstimate composed = engine.estimate("HẠNH PHÚC quá");
+        SentimentEstimate decomposed = engine.estimate(Normalizer.normalize("hạnh phúc quá", Normalizer.Form.NFD));
+
+        assertThat(decomposed).isEqualTo(composed);
+    }
+
+    @Test
+    void rejectsMissingLexiconResource() {
+        assertThatThrownBy(() -> Lexicon.load("sentiment/missing.tsv"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("not found");
+    }
+
+    @Test
+    void rejectsMalformedLexiconLines() {
+        assertThatThrownBy(() -> Lexicon.parse("test.tsv", "# chú thích\nS\tvui\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid lexicon line at test.tsv:2");
+        assertThatThrownBy(() -> Lexicon.parse("test.tsv", "X\tvui\t1.0\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown lexicon entry kind at test.tsv:1");
+        assertThatThrownBy(() -> Lexicon.parse("test.tsv", "S\tvui\t1.0\nS\trất là vui\t1.0\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("limited to two tokens at test.tsv:2");
+        assertThatThrownBy(() -> Lexicon.parse("test.tsv", "N\tkhông hề\t1.0\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Only sentiment entries may have two tokens at test.tsv:1");
+        assertThatThrownBy(() -> Lexicon.parse("test.tsv", "I\trất quá\t1.5\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Only sentiment entries may have two tokens at test.tsv:1");
+        assertThatThrownBy(() -> Lexicon.parse("test.tsv", "S\tvui\tnhiều\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid lexicon weight at test.tsv:1");
+    }
+
+    @Test
+    void rejectsDuplicateLexiconEntries() {
+        // Trùng sau khi chuẩn hóa chữ hoa/thường, kể cả khi khác loại
+        assertThatThrownBy(() -> Lexicon.parse("test.tsv", "S\tvui\t1.0\nS\tbuồn\t-1.0\nN\tVui\t1.0\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Duplicate lexicon entry at test.tsv:3, already defined at test.tsv:1");
+        assertThatThrownBy(() -> Lexicon.parse("test.tsv", "S\tnot bad\t0.5\nS\tnot  bad\t0.6\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Duplicate lexicon entry at test.tsv:2");
+
+        Lexicon lexicon = Lexicon.parse("test.tsv", "S\tvui\t1.0\nS\tkhông vui\t-1.0\nN\tkhông\t1.0\n");
+        assertThat(lexicon.size()).isEqualTo(3);
+    }
+
+    @Test
+    void localAnswersAreAccurateOnLabelledEntries() {
+        List<LabelledEntries.Entry> entries = LabelledEntries.load().entries();
+        int correct = 0;
+        int confident = 0;
+        int confidentCorrect = 0;
+        for (LabelledEntries.Entry entry : entries) {
+            SentimentEstimate estimate = engine.estimate(entry.text());
+            boolean match = LabelledEntries.labelOf(estimate).equals(entry.label());
+            correct += match ? 1 : 0;
+            if (estimate.isConfident(THRESHOLD)) {
+                confident++;
+                confidentCorrect += match ? 1 : 0;
+            }
+        }
+
+        // Chỉ các câu trả lời đủ tin cậy mới không được chuyển lên Azure, nên độ chính xác của chúng quan trọng nhất
+        assertThat((double) confidentCorrect / confident).isGreaterThanOrEqualTo(0.95);
+        assertThat((double) confident / entries.size()).isGreaterThanOrEqualTo(0.4);
+        assertThat((double) correct / entries.size()).isGreaterThanOrEqualTo(0.8);
+    }
+
+    @Test
+    void scoringDoesNotAllocateBeyondTheResult() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        String text = "Cuối tuần đi leo núi với nhóm bạn, tuyệt vời! Mình thấy rất vui và biết ơn.";
+        for (int i = 0; i < 20_000; i++) {
+            engine.estimate(text);
+        }
+
+        int iterations = 10_000;
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            engine.estimate(text);
+        }
+        long perCall = (threads.getCurrentThreadAllocatedBytes() - before) / iterations;
+
+        // Chỉ đối tượng SentimentEstimate (≈ 48 byte) được cấp phát
+        assertThat(perCall).as("bytes allocated per call").isLessThanOrEqualTo(64);
+    }
+}
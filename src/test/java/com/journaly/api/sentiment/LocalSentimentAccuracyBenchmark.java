@@ -0,0 +1,108 @@
+package com.journaly.api.sentiment;
+
+import com.azure.ai.textanalytics.models.TextSentiment;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Báo cáo độ chính xác và độ trễ của {@link LexiconSentimentEngine} trên bộ mẫu có nhãn.
+ * <p>
+ * Chạy bằng {@code mvn test -Pbenchmark -Dtest=LocalSentimentAccuracyBenchmark}; kết quả in ra console
+ * và ghi vào {@code target/benchmarks/local-sentiment-report.txt}. Với mỗi ngưỡng confidence, báo cáo cho biết
+ * tỉ lệ entry được xử lý cục bộ (phần còn lại được chuyển lên Azure) và độ chính xác trên phần đó.
+ */
+@Tag("benchmark")
+class LocalSentimentAccuracyBenchmark {
+
+    private static final double[] THRESHOLDS = {0.5, 0.6, 0.7, 0.75, 0.8, 0.9};
+    private static final int LATENCY_ROUNDS = 2_000;
+
+    private final LexiconSentimentEngine engine = new LexiconSentimentEngine();
+
+    @Test
+    void writeReport() throws Exception {
+        List<LabelledEntries.Entry> entries = LabelledEntries.load().entries();
+        StringBuilder report = new StringBuilder();
+
+        report.append("== Accuracy theo ngôn ngữ (toàn bộ, không lọc confidence) ==\n");
+        Map<String, int[]> byLanguage = new LinkedHashMap<>();
+        Map<String, Integer> confusion = new LinkedHashMap<>();
+        for (LabelledEntries.Entry entry : entries) {
+            TextSentiment predicted = LabelledEntries.labelOf(engine.estimate(entry.text()));
+            int[] counts = byLanguage.computeIfAbsent(entry.language(), language -> new int[2]);
+            counts[1]++;
+            if (predicted.equals(entry.label())) {
+                counts[0]++;
+            }
+            confusion.merge(entry.label() + " -> " + predicted, 1, Integer::sum);
+        }
+        byLanguage.forEach((language, counts) -> report.append(String.format(Locale.ROOT,
+                "%s: %d/%d (%.1f%%)%n", language, counts[0], counts[1], 100.0 * counts[0] / counts[1])));
+
+        report.append("\n== Confusion (expected -> predicted) ==\n");
+        confusion.forEach((pair, count) -> report.append(pair).append(": ").append(count).append('\n'));
+
+        report.append("\n== Ngưỡng confidence ==\n");
+        report.append("threshold,local_share,local_precision,escalated_share\n");
+        for (double threshold : THRESHOLDS) {
+            int local = 0;
+            int correct = 0;
+            for (LabelledEntries.Entry entry : entries) {
+                SentimentEstimate estimate = engine.estimate(entry.text());
+                if (estimate.isConfident(threshold)) {
+                    local++;
+                    if (LabelledEntries.labelOf(estimate).equals(entry.label())) {
+                        correct++;
+                    }
+                }
+            }
+            report.append(String.format(Locale.ROOT, "%.2f,%.3f,%.3f,%.3f%n", threshold,
+                    (double) local / entries.size(), local == 0 ? 0 : (double) correct / local,
+                    1 - (double) local / entries.size()));
+        }
+
+        long[] latencies = measureLatencies(entries);
+        report.append(String.format(Locale.ROOT, "%n== Độ trễ mỗi entry (%d mẫu) ==%np50=%.2fus p99=%.2fus max=%.2fus%n",
+                latencies.length, percentileMicros(latencies, 0.50), percentileMicros(latencies, 0.99),
+                latencies[latencies.length - 1] / 1e3));
+
+        System.out.println();
+        System.out.println("=== Local sentiment report ===");
+        System.out.print(report);
+
+        Path output = Path.of("target", "benchmarks", "local-sentiment-report.txt");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, report);
+    }
+
+    private long[] measureLatencies(List<LabelledEntries.Entry> entries) {
+        // Warm-up để JIT biên dịch đường chấm điểm trước khi đo
+        for (int round = 0; round < LATENCY_ROUNDS; round++) {
+            for (LabelledEntries.Entry entry : entries) {
+                engine.estimate(entry.text());
+            }
+        }
+        long[] latencies = new long[entries.size() * 20];
+        for (int i = 0; i < latencies.length; i++) {
+            String text = entries.get(i % entries.size()).text();
+            long start = System.nanoTime();
+            engine.estimate(text);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static double percentileMicros(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e3;
+    }
+}
@@ -0,0 +1,186 @@
+package com.journaly.api.service;
+
+import com.azure.ai.textanalytics.models.DocumentSentiment;
+import com.azure.ai.textanalytics.models.SentimentConfidenceScores;
+import com.azure.ai.textanalytics.models.TextSentiment;
+import com.azure.core.util.IterableStream;
+import com.journaly.api.dto.EntryDetail;
+import com.journaly.api.dto.EntrySearchHit;
+import com.journaly.api.dto.EntrySummary;
+import com.journaly.api.entity.SentimentStatus;
+import com.journaly.api.search.EntrySearchIndex;
+import com.journaly.api.search.InMemoryEntrySearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+        "journal.deletion.purge.enabled=false",
+        "journal.deletion.purge.batch-size=2",
+        "journal.deletion.purge.pause=0ms"
+})
+@ActiveProfiles("test")
+class EntryDeletionTest {
+
+    @MockitoBean
+    private AIService aiService;
+
+    @Autowired
+    private JournalService journalService;
+
+    @Autowired
+    private EntryStatsService entryStatsService;
+
+    @Autowired
+    private EntrySearchService entrySearchService;
+
+    @Autowired
+    private EntrySearchIndex entrySearchIndex;
+
+    @Autowired
+    private EntryPurgeJob entryPurgeJob;
+
+    @Autowired
+    private SentimentJobWorker sentimentJobWorker;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            List.of("entry_tags", "sentiment_jobs", "user_entry_stats", "mood_daily_rollups", "journal_entries",
+                    "tags", "entry_imports", "users").forEach(table -> jdbcTemplate.update("delete from " + table));
+            jdbcTemplate.update("insert into users (id, email, password_hash, created_at) values (?, ?, 'hash', ?)",
+                    UUID.randomUUID(), "deletion@journaly.com", Timestamp.from(Instant.parse("2020-01-01T00:00:00Z")));
+        });
+        when(aiService.analyzeSentiment(anyString())).thenReturn(sentiment(0.8, 0.1, 0.1));
+    }
+
+    @Test
+    void deletedEntriesAreHiddenEverywhereUntilRestored() throws Exception {
+        UUID kept = create("Sáng nay uống cà phê với bạn");
+        UUID deleted = create("Chiều nay uống cà phê một mình");
+        journalService.updateTagsForEntry(deleted, List.of("#cafe"));
+
+        journalService.deleteEntry(deleted);
+        awaitIndexing();
+
+        assertThatThrownBy(() -> journalService.getEntryById(deleted)).isInstanceOf(RuntimeException.class);
+        assertThat(journalService.getEntriesSlice(null, 10).getContent())
+                .extracting(EntrySummary::id).containsExactly(kept);
+        assertThat(journalService.getAllEntries(PageRequest.of(0, 10)).getTotalElements()).isEqualTo(1);
+        assertThat(entrySearchService.search("ca phe", null, null, 10))
+                .extracting(EntrySearchHit::id).containsExactly(kept);
+        assertThat(entryStatsService.countByUser(userId())).isEqualTo(1);
+        assertThat(rolledUpEntries()).isEqualTo(1);
+        assertThatThrownBy(() -> journalService.deleteEntry(deleted)).isInstanceOf(RuntimeException.class);
+
+        EntryDetail restored = journalService.restoreEntry(deleted);
+        awaitIndexing();
+
+        assertThat(restored.tags()).containsExactly("#cafe");
+        assertThat(journalService.getEntryById(deleted).content()).isEqualTo("Chiều nay uống cà phê một mình");
+        assertThat(entrySearchService.search("ca phe", null, null, 10)).hasSize(2);
+        assertThat(entryStatsService.countByUser(userId())).isEqualTo(2);
+        assertThat(rolledUpEntries()).isEqualTo(2);
+        assertThatThrownBy(() -> journalService.restoreEntry(deleted)).isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    void restoringAnUnscoredEntryQueuesItsSentimentAgain() throws Exception {
+        when(aiService.analyzeSentiment(anyString())).thenReturn(null);
+        UUID pending = create("Chưa chấm được cảm xúc");
+        UUID failed = create("Azure lỗi mãi không chấm được");
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                "update journal_entries set sentiment_status = 'FAILED' where id = ?", failed));
+        journalService.deleteEntry(pending);
+        journalService.deleteEntry(failed);
+
+        // Worker không thấy bài viết đã ẩn: không chấm gì và xóa job như đã xong
+        assertThat(sentimentJobWorker.runOnce()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from sentiment_jobs", Long.class)).isZero();
+
+        assertThat(journalService.restoreEntry(pending).sentimentStatus()).isEqualTo(SentimentStatus.PENDING);
+        assertThat(journalService.restoreEntry(failed).sentimentStatus()).isEqualTo(SentimentStatus.PENDING);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from sentiment_jobs where status = 'PENDING'",
+                Long.class)).isEqualTo(2);
+
+        when(aiService.analyzeSentimentOrThrow(anyString())).thenReturn(sentiment(0.1, 0.8, 0.1));
+        assertThat(sentimentJobWorker.runOnce()).isEqualTo(2);
+        assertThat(journalService.getEntryById(pending).sentimentStatus()).isEqualTo(SentimentStatus.COMPLETED);
+        assertThat(journalService.getEntryById(failed).sentimentStatus()).isEqualTo(SentimentStatus.COMPLETED);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from sentiment_jobs", Long.class)).isZero();
+    }
+
+    @Test
+    void purgeRemovesOnlyExpiredEntriesWithTheirTagLinks() throws Exception {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            UUID id = create("Bài viết số " + i);
+            journalService.updateTagsForEntry(id, List.of("#purge"));
+            ids.add(id);
+        }
+        ids.subList(0, 4).forEach(journalService::deleteEntry);
+        // Ba bài đã xóa quá thời gian giữ, một bài vừa xóa, một bài còn sống
+        List<UUID> expired = ids.subList(0, 3);
+        transactionTemplate.executeWithoutResult(status -> expired.forEach(id -> jdbcTemplate.update(
+                "update journal_entries set deleted_at = ? where id = ?",
+                Timestamp.from(Instant.now().minus(40, ChronoUnit.DAYS)), id)));
+
+        // Lô 2 bài: hai lô, lô sau chưa đầy thì dừng
+        assertThat(entryPurgeJob.runOnce()).isEqualTo(3);
+
+        assertThat(jdbcTemplate.queryForList("select id from journal_entries", UUID.class))
+                .containsExactlyInAnyOrderElementsOf(ids.subList(3, 5));
+        assertThat(jdbcTemplate.queryForObject("select count(*) from entry_tags", Long.class)).isEqualTo(2);
+        assertThatThrownBy(() -> journalService.restoreEntry(expired.get(0))).isInstanceOf(RuntimeException.class);
+        assertThat(journalService.restoreEntry(ids.get(3)).tags()).containsExactly("#purge");
+        assertThat(entryPurgeJob.runOnce()).isZero();
+    }
+
+    private UUID create(String content) throws Exception {
+        UUID id = journalService.createJournalEntry(content).getEntryId();
+        awaitIndexing();
+        return id;
+    }
+
+    private void awaitIndexing() throws Exception {
+        ((InMemoryEntrySearchIndex) entrySearchIndex).awaitIndexing();
+    }
+
+    private UUID userId() {
+        return jdbcTemplate.queryForObject("select id from users", UUID.class);
+    }
+
+    private long rolledUpEntries() {
+        return jdbcTemplate.queryForObject("select coalesce(sum(entry_count), 0) from mood_daily_rollups", Long.class);
+    }
+
+    private static DocumentSentiment sentiment(double positive, double neutral, double negative) {
+        return new DocumentSentiment(TextSentiment.POSITIVE, new SentimentConfidenceScores(negative, neutral, positive),
+                new IterableStream<>(Collections.emptyList()), new IterableStream<>(Collections.emptyList()));
+    }
+}
@@ -0,0 +1,174 @@
+package com.journaly.api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EntryExportServiceTest {
+
+    private static final Instant BASE = Instant.parse("2026-03-01T00:00:00Z");
+
+    @Autowired
+    private EntryExportService entryExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            deleteAll();
+            userId = UUID.randomUUID();
+            jdbcTemplate.update("insert into users (id, email, password_hash, created_at) values (?, ?, 'hash', ?)",
+                    userId, "exporter@journaly.com", Timestamp.from(BASE));
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> deleteAll());
+    }
+
+    @Test
+    void writesNdjsonAndCsvInCreationOrder() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> {
+            insertEntry("Ngày đầu tiên", BASE.plusSeconds(1), "POSITIVE");
+            insertEntry("Có dấu phẩy, \"nháy kép\"\nvà xuống dòng", BASE.plusSeconds(2), null);
+        });
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        assertThat(entryExportService.export(userId, ExportFormat.NDJSON, false, ndjson)).isEqualTo(2);
+        List<String> lines = ndjson.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(2);
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertThat(first.get("content").asText()).isEqualTo("Ngày đầu tiên");
+        assertThat(first.get("sentimentLabel").asText()).isEqualTo("POSITIVE");
+        assertThat(first.get("positiveScore").decimalValue()).isEqualByComparingTo("0.5");
+        assertThat(objectMapper.readTree(lines.get(1)).get("content").asText())
+                .isEqualTo("Có dấu phẩy, \"nháy kép\"\nvà xuống dòng");
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        entryExportService.export(userId, ExportFormat.CSV, false, csv);
+        String text = csv.toString(StandardCharsets.UTF_8);
+        assertThat(text).startsWith(EntryExportService.CSV_HEADER + "\r\n");
+        assertThat(text).contains(",POSITIVE,COMPLETED,0.5000,0.2500,0.2500,Ngày đầu tiên\r\n");
+        assertThat(text).endsWith(",,COMPLETED,0.5000,0.2500,0.2500,\"Có dấu phẩy, \"\"nháy kép\"\"\nvà xuống dòng\"\r\n");
+    }
+
+    @Test
+    void gzipOutputRoundTrips() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> insertEntry("Nén lại", BASE.plusSeconds(1), "NEUTRAL"));
+
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        entryExportService.export(userId, ExportFormat.NDJSON, false, plain);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        entryExportService.export(userId, ExportFormat.NDJSON, true, compressed);
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+            assertThat(in.readAllBytes()).isEqualTo(plain.toByteArray());
+        }
+    }
+
+    @Test
+    void memoryStaysFlatWhileExportingALargeJournal() throws Exception {
+        int entries = 100_000;
+        int contentLength = 500;
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                "insert into journal_entries (id, user_id, content, created_at, sentiment_status) " +
+                        "select random_uuid(), cast(? as uuid), repeat('x', " + contentLength + "), " +
+                        "dateadd(second, x, cast(? as timestamp with time zone)), 'PENDING' " +
+                        "from system_range(1, " + entries + ")", userId, Timestamp.from(BASE)));
+
+        HeapSamplingOutputStream sink = new HeapSamplingOutputStream(4 * 1024 * 1024);
+        long written = entryExportService.export(userId, ExportFormat.NDJSON, false, sink);
+
+        assertThat(written).isEqualTo(entries);
+        assertThat(sink.bytes).isGreaterThan((long) entries * contentLength);
+        // Tải toàn bộ kết quả vào bộ nhớ cần ít nhất bằng tổng dung lượng content (~50 MB)
+        assertThat(sink.peakGrowth()).isLessThan(16L * 1024 * 1024);
+    }
+
+    private void insertEntry(String content, Instant createdAt, String label) {
+        jdbcTemplate.update("insert into journal_entries (id, user_id, content, created_at, sentiment_label, " +
+                        "positive_score, negative_score, neutral_score, sentiment_status) " +
+                        "values (?, ?, ?, ?, ?, 0.5000, 0.2500, 0.2500, 'COMPLETED')",
+                UUID.randomUUID(), userId, content, Timestamp.from(createdAt), label);
+    }
+
+    private void deleteAll() {
+        List.of("entry_tags", "sentiment_jobs", "user_entry_stats", "journal_entries", "tags", "users")
+                .forEach(table -> jdbcTemplate.update("delete from " + table));
+    }
+
+    /**
+     * Bỏ dữ liệu ghi vào, nhưng cứ mỗi {@code sampleEvery} byte lại GC và đo heap đang dùng.
+     */
+    private static final class HeapSamplingOutputStream extends OutputStream {
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final long sampleEvery;
+        private final long baseline;
+        private long peak;
+        private long bytes;
+        private long nextSample;
+
+        HeapSamplingOutputStream(long sampleEvery) {
+            this.sampleEvery = sampleEvery;
+            this.baseline = usedAfterGc();
+            this.nextSample = sampleEvery;
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            if (bytes >= nextSample) {
+                peak = Math.max(peak, usedAfterGc());
+                nextSample += sampleEvery;
+            }
+        }
+
+        long peakGrowth() {
+            return peak - baseline;
+        }
+
+        private long usedAfterGc() {
+            System.gc();
+            return memory.getHeapMemoryUsage().getUsed();
+        }
+    }
+}
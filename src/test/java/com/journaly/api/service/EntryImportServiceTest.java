@@ -0,0 +1,164 @@
+package com.journaly.api.service;
+
+import com.journaly.api.dto.ImportResult;
+import com.journaly.api.entity.EntryImportStatus;
+import com.journaly.api.support.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "journal.import.chunk-size=20",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=8"
+})
+@ActiveProfiles("test")
+@Import(SqlStatementCounter.Config.class)
+class EntryImportServiceTest {
+
+    @Autowired
+    private EntryImportService entryImportService;
+
+    @Autowired
+    private EntryStatsService entryStatsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            List.of("entry_tags", "sentiment_jobs", "user_entry_stats", "journal_entries", "tags", "entry_imports",
+                    "users").forEach(table -> jdbcTemplate.update("delete from " + table));
+            userId = UUID.randomUUID();
+            jdbcTemplate.update("insert into users (id, email, password_hash, created_at) values (?, ?, 'hash', ?)",
+                    userId, "importer@journaly.com", Timestamp.from(Instant.parse("2020-01-01T00:00:00Z")));
+        });
+    }
+
+    @Test
+    void importsInJdbcBatchesAndReportsErrorsPerLine() throws Exception {
+        StringBuilder file = new StringBuilder();
+        for (int line = 1; line <= 50; line++) {
+            switch (line) {
+                case 5 -> file.append("{\"content\": \"thiếu dấu đóng\"\n");
+                case 8 -> file.append("{\"content\": \"   \"}\n");
+                case 12 -> file.append("{\"content\": \"").append("x".repeat(10_001)).append("\"}\n");
+                case 15 -> file.append("\n");
+                case 20 -> file.append("{\"content\": \"ngày sai\", \"createdAt\": \"hôm qua\"}\n");
+                default -> file.append("{\"content\": \"Bài viết số ").append(line)
+                        .append(" hôm nay thật vui\", \"createdAt\": \"2021-05-")
+                        .append(String.format("%02d", line % 28 + 1))
+                        .append("T08:00:00+07:00\", \"tags\": [\"#cũ\", \"#dòng-").append(line % 3)
+                        .append("\"], \"mood\": 4}\n");
+            }
+        }
+
+        ImportResult result;
+        try (SqlStatementCounter.Recording sql = SqlStatementCounter.start()) {
+            result = entryImportService.importEntries(null, stream(file.toString()));
+
+            // 45 bài viết, chunk 20 dòng hợp lệ, JDBC batch 8: 3 + 3 + 1 lần executeBatch, không INSERT lẻ
+            assertThat(sql.count("[batch] insert into journal_entries")).isEqualTo(7);
+            assertThat(sql.count("insert into journal_entries")).isZero();
+        }
+
+        assertThat(result.getStatus()).isEqualTo(EntryImportStatus.COMPLETED);
+        assertThat(result.getImported()).isEqualTo(45);
+        assertThat(result.getFailed()).isEqualTo(4);
+        assertThat(result.getErrors()).extracting(ImportResult.LineError::line).containsExactly(5L, 8L, 12L, 20L);
+        assertThat(result.getSentimentPending()).isZero();
+
+        assertThat(entryStatsService.countByUser(userId)).isEqualTo(45);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from journal_entries where user_id = ? " +
+                "and sentiment_status = 'COMPLETED' and sentiment_label is not null", Long.class, userId)).isEqualTo(45);
+        assertThat(jdbcTemplate.queryForObject("select min(created_at) from journal_entries", OffsetDateTime.class)
+                .toInstant()).isEqualTo(Instant.parse("2021-05-01T01:00:00Z"));
+        assertThat(jdbcTemplate.queryForList("select name from tags order by name", String.class))
+                .containsExactly("#cũ", "#dòng-0", "#dòng-1", "#dòng-2");
+        assertThat(jdbcTemplate.queryForObject("select count(*) from entry_tags", Long.class)).isEqualTo(90);
+    }
+
+    @Test
+    void resumesAnInterruptedImportWithoutDuplicates() throws Exception {
+        StringBuilder file = new StringBuilder();
+        for (int line = 1; line <= 70; line++) {
+            file.append("{\"content\": \"Dòng số ").append(line).append(" của một ngày bình thường\"}\n");
+        }
+        byte[] bytes = file.toString().getBytes(StandardCharsets.UTF_8);
+        UUID importId = UUID.randomUUID();
+
+        // Kết nối bị ngắt khi đang đọc chunk thứ ba
+        InputStream interrupted = new FilterInputStream(new ByteArrayInputStream(bytes, 0, bytes.length / 2 + 100)) {
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int read = super.read(buffer, offset, length);
+                if (read < 0) {
+                    throw new IOException("Connection reset");
+                }
+                return read;
+            }
+        };
+        assertThatThrownBy(() -> entryImportService.importEntries(importId, interrupted)).isInstanceOf(IOException.class);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from journal_entries", Long.class)).isEqualTo(20);
+
+        ImportResult resumed = entryImportService.importEntries(importId, stream(file.toString()));
+        assertThat(resumed.getSkipped()).isEqualTo(20);
+        assertThat(resumed.getImported()).isEqualTo(50);
+        assertThat(jdbcTemplate.queryForObject("select count(distinct content) from journal_entries", Long.class))
+                .isEqualTo(70);
+        assertThat(entryStatsService.countByUser(userId)).isEqualTo(70);
+
+        ImportResult repeated = entryImportService.importEntries(importId, stream(file.toString()));
+        assertThat(repeated.getImported()).isZero();
+        assertThat(repeated.getSkipped()).isEqualTo(70);
+    }
+
+    @Test
+    void leavesEntriesPendingWhenAzureCannotScoreThem() throws Exception {
+        // Azure không được cấu hình trong test: chỉ câu engine cục bộ chấm chắc chắn mới có điểm ngay
+        String file = """
+                {"content": "Hôm nay tôi rất vui vì được gặp lại bạn cũ"}
+                {"content": "Buổi chiều họp nhóm rồi về nhà"}
+                {"content": "Sáng đi chợ, trưa nấu cơm"}
+                """;
+
+        ImportResult result = entryImportService.importEntries(null, stream(file));
+
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getSentimentPending()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForList("select sentiment_status from journal_entries " +
+                "where sentiment_label is null order by content", String.class)).containsExactly("PENDING", "PENDING");
+        assertThat(jdbcTemplate.queryForObject("select count(*) from journal_entries where sentiment_status = 'COMPLETED'",
+                Long.class)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from sentiment_jobs where status = 'PENDING'",
+                Long.class)).isEqualTo(2);
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
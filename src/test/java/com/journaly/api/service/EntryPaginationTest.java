@@ -0,0 +1,105 @@
+package com.journaly.api.service;
+
+import com.journaly.api.dto.EntrySliceResponse;
+import com.journaly.api.dto.EntrySummary;
+import com.journaly.api.support.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(SqlStatementCounter.Config.class)
+class EntryPaginationTest {
+
+    private static final Instant BASE = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Autowired
+    private JournalService journalService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private UUID userId;
+    private final List<UUID> expectedOrder = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            List.of("entry_tags", "sentiment_jobs", "user_entry_stats", "journal_entries", "tags", "users")
+                    .forEach(table -> jdbcTemplate.update("delete from " + table));
+
+            userId = insertUser("owner@journaly.com", BASE);
+            UUID otherUser = insertUser("other@journaly.com", BASE.plusSeconds(1));
+
+            // 45 bài viết, cứ 3 bài chung một created_at để kiểm tra id là khóa phụ
+            List<Object[]> rows = new ArrayList<>();
+            for (int i = 0; i < 45; i++) {
+                rows.add(new Object[]{UUID.randomUUID(), userId, "entry " + i, Timestamp.from(BASE.plusSeconds(i / 3))});
+            }
+            for (int i = 0; i < 10; i++) {
+                rows.add(new Object[]{UUID.randomUUID(), otherUser, "other " + i, Timestamp.from(BASE.plusSeconds(i))});
+            }
+            jdbcTemplate.batchUpdate("insert into journal_entries (id, user_id, content, created_at, sentiment_status) " +
+                    "values (?, ?, ?, ?, 'COMPLETED')", rows);
+        });
+        expectedOrder.addAll(jdbcTemplate.queryForList("select id from journal_entries where user_id = ? " +
+                "order by created_at desc, id desc", UUID.class, userId));
+    }
+
+    @Test
+    void cursorWalksAllEntriesOfTheUserInOrderWithoutCountOrOffset() {
+        List<UUID> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        try (SqlStatementCounter.Recording sql = SqlStatementCounter.start()) {
+            do {
+                EntrySliceResponse<EntrySummary> slice = journalService.getEntriesSlice(cursor, 20);
+                slice.getContent().forEach(entry -> seen.add(entry.id()));
+                cursor = slice.getNextCursor();
+                assertThat(slice.isHasNext()).isEqualTo(cursor != null);
+                pages++;
+            } while (cursor != null);
+
+            assertThat(sql.statements()).noneMatch(statement -> statement.toLowerCase().contains("count("));
+            assertThat(sql.statements()).noneMatch(statement -> statement.toLowerCase().contains("offset"));
+        }
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).containsExactlyElementsOf(expectedOrder);
+    }
+
+    @Test
+    void sizeIsClampedAndBadCursorsAreRejected() {
+        assertThat(journalService.getEntriesSlice(null, 1_000).getContent()).hasSize(45);
+        assertThat(journalService.getEntriesSlice(null, 1_000).getSize()).isEqualTo(JournalService.MAX_SLICE_SIZE);
+        assertThat(journalService.getEntriesSlice(null, 0).getContent()).hasSize(1);
+
+        assertThatThrownBy(() -> journalService.getEntriesSlice("not-a-cursor", 20))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private UUID insertUser(String email, Instant createdAt) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("insert into users (id, email, password_hash, created_at) values (?, ?, 'hash', ?)",
+                id, email, Timestamp.from(createdAt));
+        return id;
+    }
+}
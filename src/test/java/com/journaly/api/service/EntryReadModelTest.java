@@ -0,0 +1,103 @@
+package com.journaly.api.service;
+
+import com.journaly.api.dto.EntryDetail;
+import com.journaly.api.dto.EntrySummary;
+import com.journaly.api.support.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(SqlStatementCounter.Config.class)
+class EntryReadModelTest {
+
+    private static final Instant BASE = Instant.parse("2026-02-01T00:00:00Z");
+
+    @Autowired
+    private JournalService journalService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final UUID longEntry = UUID.randomUUID();
+    private final UUID shortEntry = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            List.of("entry_tags", "sentiment_jobs", "user_entry_stats", "journal_entries", "tags", "users")
+                    .forEach(table -> jdbcTemplate.update("delete from " + table));
+
+            UUID userId = UUID.randomUUID();
+            jdbcTemplate.update("insert into users (id, email, password_hash, created_at) values (?, ?, 'hash', ?)",
+                    userId, "reader@journaly.com", Timestamp.from(BASE));
+            jdbcTemplate.update("insert into journal_entries (id, user_id, content, created_at, sentiment_label, " +
+                            "positive_score, negative_score, neutral_score, sentiment_status) " +
+                            "values (?, ?, ?, ?, 'POSITIVE', 0.8000, 0.1000, 0.1000, 'COMPLETED')",
+                    longEntry, userId, "ơ".repeat(5_000), Timestamp.from(BASE.plusSeconds(2)));
+            jdbcTemplate.update("insert into journal_entries (id, user_id, content, created_at, sentiment_status) " +
+                    "values (?, ?, 'Ngắn thôi', ?, 'PENDING')", shortEntry, userId, Timestamp.from(BASE.plusSeconds(1)));
+
+            for (String name : List.of("#z", "#a", "#m")) {
+                jdbcTemplate.update("insert into tags (user_id, name) values (?, ?)", userId, name);
+                jdbcTemplate.update("insert into entry_tags (entry_id, tag_id) " +
+                        "select ?, id from tags where user_id = ? and name = ?", longEntry, userId, name);
+            }
+        });
+    }
+
+    @Test
+    void listReturnsTruncatedPreviewsWithoutScores() {
+        List<EntrySummary> page;
+        try (SqlStatementCounter.Recording sql = SqlStatementCounter.start()) {
+            page = journalService.getAllEntries(PageRequest.of(0, 10, Sort.by(Sort.Order.desc("createdAt"))))
+                    .getContent();
+
+            String select = sql.statements().get(0).toLowerCase();
+            assertThat(select).contains("substring(").doesNotContain("positive_score");
+        }
+
+        assertThat(page).extracting(EntrySummary::id).containsExactly(longEntry, shortEntry);
+        assertThat(page.get(0).preview()).hasSize(EntrySummary.PREVIEW_LENGTH);
+        assertThat(page.get(0).truncated()).isTrue();
+        assertThat(page.get(0).sentimentLabel()).isEqualTo("POSITIVE");
+        assertThat(page.get(1).preview()).isEqualTo("Ngắn thôi");
+        assertThat(page.get(1).truncated()).isFalse();
+    }
+
+    @Test
+    void detailLoadsTagNamesInOneExtraStatement() {
+        EntryDetail detail;
+        try (SqlStatementCounter.Recording sql = SqlStatementCounter.start()) {
+            detail = journalService.getEntryById(longEntry);
+            assertThat(sql.count()).isEqualTo(2);
+        }
+
+        assertThat(detail.content()).hasSize(5_000);
+        assertThat(detail.positiveScore()).isEqualByComparingTo(new BigDecimal("0.8"));
+        assertThat(detail.tags()).containsExactly("#a", "#m", "#z");
+        assertThat(journalService.getEntryById(shortEntry).tags()).isEmpty();
+        assertThatThrownBy(() -> journalService.getEntryById(UUID.randomUUID()))
+                .isInstanceOf(RuntimeException.class);
+    }
+}
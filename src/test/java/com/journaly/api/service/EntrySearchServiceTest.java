@@ -0,0 +1,100 @@
+package com.journaly.api.service;
+
+import com.journaly.api.dto.EntrySearchHit;
+import com.journaly.api.search.EntrySearchIndex;
+import com.journaly.api.search.InMemoryEntrySearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EntrySearchServiceTest {
+
+    @Autowired
+    private EntrySearchService entrySearchService;
+
+    @Autowired
+    private JournalService journalService;
+
+    @Autowired
+    private EntrySearchIndex entrySearchIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            List.of("entry_tags", "sentiment_jobs", "user_entry_stats", "journal_entries", "tags", "users")
+                    .forEach(table -> jdbcTemplate.update("delete from " + table));
+            jdbcTemplate.update("insert into users (id, email, password_hash, created_at) values (?, ?, 'hash', ?)",
+                    UUID.randomUUID(), "searcher@journaly.com", Timestamp.from(Instant.parse("2020-01-01T00:00:00Z")));
+        });
+    }
+
+    @Test
+    void newEntriesAreSearchableWithoutDiacriticsAndHighlighted() throws Exception {
+        UUID trip = create("Cuối tuần đi Đà Lạt với gia đình <3, trời se lạnh.");
+        create("Hôm nay ở nhà đọc sách cả ngày.");
+
+        List<EntrySearchHit> hits = entrySearchService.search("da lat", null, null, 10);
+
+        assertThat(hits).extracting(EntrySearchHit::id).containsExactly(trip);
+        assertThat(hits.get(0).snippet())
+                .contains("<mark>Đà</mark> <mark>Lạt</mark>")
+                .contains("&lt;3");
+        assertThat(entrySearchService.search("ĐÀ LẠT", null, null, 10)).hasSize(1);
+        assertThat(entrySearchService.search("đà lạt biển", null, null, 10)).isEmpty();
+    }
+
+    @Test
+    void ranksByRelevanceAndFiltersByLabelAndTag() throws Exception {
+        UUID often = create("Cà phê sáng, cà phê trưa, lại cà phê tối. Hơi nhiều cà phê.");
+        UUID once = create("Đi làm về, ghé quán uống cà phê với bạn rồi đi dạo một vòng quanh hồ.");
+        create("Trà sữa trân châu ngon tuyệt.");
+
+        assertThat(entrySearchService.search("ca phe", null, null, 10))
+                .extracting(EntrySearchHit::id).containsExactly(often, once);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("update journal_entries set sentiment_label = 'NEGATIVE' where id = ?", often);
+            jdbcTemplate.update("update journal_entries set sentiment_label = 'POSITIVE' where id = ?", once);
+        });
+        journalService.updateTagsForEntry(once, List.of("#bạn_bè"));
+
+        assertThat(entrySearchService.search("ca phe", "positive", null, 10))
+                .extracting(EntrySearchHit::id).containsExactly(once);
+        assertThat(entrySearchService.search("ca phe", null, "#bạn_bè", 10))
+                .extracting(EntrySearchHit::id).containsExactly(once);
+        assertThat(entrySearchService.search("ca phe", "NEGATIVE", "#bạn_bè", 10)).isEmpty();
+        assertThat(entrySearchService.search("ca phe", null, null, 1)).hasSize(1);
+    }
+
+    @Test
+    void rejectsBlankQueries() {
+        assertThatThrownBy(() -> entrySearchService.search("  ", null, null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private UUID create(String content) throws Exception {
+        UUID id = journalService.createJournalEntry(content).getEntryId();
+        ((InMemoryEntrySearchIndex) entrySearchIndex).awaitIndexing();
+        return id;
+    }
+}
@@ -0,0 +1,137 @@
+package com.journaly.api.service;
+
+import com.journaly.api.entity.JournalEntry;
+import com.journaly.api.entity.SentimentStatus;
+import com.journaly.api.entity.User;
+import com.journaly.api.repository.JournalEntryRepository;
+import com.journaly.api.repository.UserEntryStatsRepository;
+import com.journaly.api.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "journal.stats.reconcile.enabled=false")
+@ActiveProfiles("test")
+class EntryStatsServiceTest {
+
+    @Autowired
+    private EntryStatsService entryStatsService;
+
+    @Autowired
+    private EntryStatsReconciliationJob reconciliationJob;
+
+    @Autowired
+    private UserEntryStatsRepository statsRepository;
+
+    @Autowired
+    private JournalEntryRepository journalEntryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("stats-" + UUID.randomUUID() + "@journaly.com");
+        user.setPasswordHash("hash");
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        statsRepository.deleteAll();
+        journalEntryRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void counterIsIncrementedWithTheInsertAndReturnsThePreviousCount() {
+        assertEquals(0, createEntry());
+        assertEquals(1, createEntry());
+        assertEquals(2, createEntry());
+
+        assertEquals(3, entryStatsService.countByUser(user.getId()));
+        assertEquals(0, entryStatsService.countByUser(UUID.randomUUID()));
+    }
+
+    @Test
+    void counterRollsBackWithTheEntry() {
+        createEntry();
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            entryStatsService.recordNewEntry(user.getId());
+            throw new IllegalStateException("insert failed");
+        }));
+
+        assertEquals(1, entryStatsService.countByUser(user.getId()));
+    }
+
+    @Test
+    void recordingOutsideATransactionIsRejected() {
+        assertThrows(IllegalTransactionStateException.class, () -> entryStatsService.recordNewEntry(user.getId()));
+    }
+
+    @Test
+    void firstCounterIsSeededFromExistingEntries() {
+        // Bài viết có sẵn từ trước khi có bộ đếm
+        saveEntryWithoutCounter();
+        saveEntryWithoutCounter();
+
+        assertEquals(2, createEntry());
+        assertEquals(3, entryStatsService.countByUser(user.getId()));
+    }
+
+    @Test
+    void reconciliationRepairsDrift() {
+        createEntry();
+        createEntry();
+        saveEntryWithoutCounter();
+        journalEntryRepository.deleteAll(journalEntryRepository.findAll().subList(0, 2));
+
+        User other = new User();
+        other.setEmail("stats-other-" + UUID.randomUUID() + "@journaly.com");
+        other.setPasswordHash("hash");
+        UUID otherId = userRepository.save(other).getId();
+        JournalEntry otherEntry = newEntry(other);
+        journalEntryRepository.save(otherEntry);
+
+        assertEquals(2, reconciliationJob.runOnce());
+        assertEquals(1, entryStatsService.countByUser(user.getId()));
+        assertEquals(1, entryStatsService.countByUser(otherId));
+        assertEquals(0, reconciliationJob.runOnce());
+    }
+
+    private long createEntry() {
+        return transactionTemplate.execute(status -> {
+            long before = entryStatsService.recordNewEntry(user.getId());
+            journalEntryRepository.save(newEntry(user));
+            return before;
+        });
+    }
+
+    private void saveEntryWithoutCounter() {
+        journalEntryRepository.save(newEntry(user));
+    }
+
+    private static JournalEntry newEntry(User owner) {
+        JournalEntry entry = new JournalEntry();
+        entry.setUser(owner);
+        entry.setContent("Hôm nay trời đẹp");
+        entry.setSentimentStatus(SentimentStatus.PENDING);
+        return entry;
+    }
+}
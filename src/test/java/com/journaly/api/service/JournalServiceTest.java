@@ -5,16 +5,21 @@ import com.azure.ai.textanalytics.models.SentimentConfidenceScores;
 import com.azure.ai.textanalytics.models.TextSentiment;
 import com.journaly.api.dto.CreateEntryResponse;
 import com.journaly.api.entity.JournalEntry;
+import com.journaly.api.entity.SentimentStatus;
 import com.journaly.api.entity.User;
 import com.journaly.api.repository.JournalEntryRepository;
-import com.journaly.api.repository.TagRepository;
 import com.journaly.api.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -23,6 +28,10 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,7 +41,7 @@ class JournalServiceTest {
     private JournalEntryRepository journalEntryRepository;
 
     @Mock
-    private TagRepository tagRepository;
+    private TagService tagService;
 
     @Mock
     private UserRepository userRepository;
@@ -40,6 +49,24 @@ class JournalServiceTest {
     @Mock
     private AIService aiService;
 
+    @Mock
+    private SentimentJobService sentimentJobService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private EntryStatsService entryStatsService;
+
+    @Mock
+    private MoodRollupService moodRollupService;
+
+    @Mock
+    private EntryPipelineMetrics metrics;
+
     @InjectMocks
     private JournalService journalService;
 
@@ -48,6 +75,9 @@ class JournalServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
         testUser = new User();
         testUser.setId(UUID.randomUUID());
         testUser.setEmail("test@example.com");
@@ -70,7 +100,7 @@ class JournalServiceTest {
         savedEntry.setContent(content);
 
         when(userRepository.findFirstByOrderByCreatedAtAsc()).thenReturn(Optional.of(testUser));
-        when(journalEntryRepository.count()).thenReturn(1L);
+        when(entryStatsService.recordNewEntry(testUser.getId())).thenReturn(1L);
         when(aiService.analyzeSentiment(anyString())).thenReturn(testSentiment);
         when(journalEntryRepository.save(any(JournalEntry.class))).thenReturn(savedEntry);
 
@@ -110,7 +140,7 @@ class JournalServiceTest {
         savedEntry.setContent(content);
 
         when(userRepository.findFirstByOrderByCreatedAtAsc()).thenReturn(Optional.of(testUser));
-        when(journalEntryRepository.count()).thenReturn(2L); // This will trigger insight nudge
+        when(entryStatsService.recordNewEntry(testUser.getId())).thenReturn(2L); // This will trigger insight nudge
         when(aiService.analyzeSentiment(anyString())).thenReturn(testSentiment);
         when(journalEntryRepository.save(any(JournalEntry.class))).thenReturn(savedEntry);
 
@@ -120,4 +150,56 @@ class JournalServiceTest {
         // Then
         assertThat(response.isTriggerInsightNudge()).isTrue();
     }
+
+    @Test
+    void shouldPersistPendingEntryWithoutCallingAzureInAsyncMode() {
+        // Given
+        ReflectionTestUtils.setField(journalService, "asyncEnrichment", true);
+        String content = "Today was a wonderful day!";
+        JournalEntry savedEntry = new JournalEntry();
+        savedEntry.setId(UUID.randomUUID());
+
+        when(userRepository.findFirstByOrderByCreatedAtAsc()).thenReturn(Optional.of(testUser));
+        when(aiService.findImmediateSentiment(content)).thenReturn(Optional.empty());
+        when(journalEntryRepository.save(any(JournalEntry.class))).thenReturn(savedEntry);
+
+        // When
+        CreateEntryResponse response = journalService.createJournalEntry(content);
+
+        // Then
+        ArgumentCaptor<JournalEntry> saved = ArgumentCaptor.forClass(JournalEntry.class);
+        verify(journalEntryRepository).save(saved.capture());
+        assertThat(saved.getValue().getSentimentStatus()).isEqualTo(SentimentStatus.PENDING);
+        assertThat(saved.getValue().getSentimentLabel()).isNull();
+        verify(aiService, never()).analyzeSentiment(anyString());
+        verify(sentimentJobService).enqueue(savedEntry.getId());
+        verify(eventPublisher).publishEvent(new JournalEntryCreatedEvent(savedEntry.getId()));
+
+        assertThat(response.getSentimentStatus()).isEqualTo(SentimentStatus.PENDING);
+        assertThat(response.getGuessPhrase()).isNotNull();
+        assertThat(response.getSuggestedTags()).isEmpty();
+    }
+
+    @Test
+    void shouldUseCachedSentimentInAsyncMode() {
+        // Given
+        ReflectionTestUtils.setField(journalService, "asyncEnrichment", true);
+        String content = "Today was a wonderful day!";
+        JournalEntry savedEntry = new JournalEntry();
+        savedEntry.setId(UUID.randomUUID());
+
+        when(userRepository.findFirstByOrderByCreatedAtAsc()).thenReturn(Optional.of(testUser));
+        when(aiService.findImmediateSentiment(content)).thenReturn(Optional.of(testSentiment));
+        when(journalEntryRepository.save(any(JournalEntry.class))).thenReturn(savedEntry);
+
+        // When
+        CreateEntryResponse response = journalService.createJournalEntry(content);
+
+        // Then
+        assertThat(response.getSentimentStatus()).isEqualTo(SentimentStatus.COMPLETED);
+        assertThat(response.getSuggestedTags()).isNotEmpty();
+        verify(aiService, never()).analyzeSentiment(anyString());
+        verifyNoInteractions(sentimentJobService);
+        verify(eventPublisher, never()).publishEvent(any(JournalEntryCreatedEvent.class));
+    }
 }
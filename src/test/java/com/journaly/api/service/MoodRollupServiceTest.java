@@ -0,0 +1,200 @@
+package com.journaly.api.service;
+
+import com.azure.ai.textanalytics.models.DocumentSentiment;
+import com.azure.ai.textanalytics.models.SentimentConfidenceScores;
+import com.azure.ai.textanalytics.models.TextSentiment;
+import com.azure.core.util.IterableStream;
+import com.journaly.api.dto.MoodPoint;
+import com.journaly.api.dto.MoodSeriesResponse;
+import com.journaly.api.entity.MoodDailyRollup;
+import com.journaly.api.repository.MoodDailyRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class MoodRollupServiceTest {
+
+    @MockitoBean
+    private AIService aiService;
+
+    @Autowired
+    private JournalService journalService;
+
+    @Autowired
+    private EntryImportService entryImportService;
+
+    @Autowired
+    private SentimentEnrichmentService sentimentEnrichmentService;
+
+    @Autowired
+    private MoodRollupService moodRollupService;
+
+    @Autowired
+    private MoodRollupRebuildJob moodRollupRebuildJob;
+
+    @Autowired
+    private MoodInsightsService moodInsightsService;
+
+    @Autowired
+    private MoodDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            List.of("entry_tags", "sentiment_jobs", "user_entry_stats", "mood_daily_rollups", "journal_entries",
+                    "tags", "entry_imports", "users").forEach(table -> jdbcTemplate.update("delete from " + table));
+            userId = UUID.randomUUID();
+            jdbcTemplate.update("insert into users (id, email, password_hash, created_at) values (?, ?, 'hash', ?)",
+                    userId, "mood@journaly.com", Timestamp.from(Instant.parse("2020-01-01T00:00:00Z")));
+        });
+    }
+
+    @Test
+    void incrementalRollupsMatchARebuildFromEntries() throws Exception {
+        // Hai bài tích cực, một bài chưa chấm được (PENDING) rồi được chấm lại là trung tính
+        when(aiService.analyzeSentiment(anyString())).thenReturn(sentiment(0.8, 0.1, 0.1), sentiment(0.7, 0.2, 0.1), null);
+        journalService.createJournalEntry("Hôm nay thật vui");
+        journalService.createJournalEntry("Một ngày tốt lành");
+        UUID pending = journalService.createJournalEntry("Chưa rõ cảm xúc").getEntryId();
+        when(aiService.analyzeSentimentOrThrow(anyString())).thenReturn(sentiment(0.1, 0.8, 0.1));
+        sentimentEnrichmentService.enrich(pending);
+
+        // 23:30 UTC ngày 01/05 đã là ngày 02/05 ở Asia/Ho_Chi_Minh
+        when(aiService.analyzeSentimentOrThrowAsync(anyString()))
+                .thenReturn(CompletableFuture.completedFuture(sentiment(0.1, 0.1, 0.8)));
+        String file = """
+                {"content": "Buồn quá", "createdAt": "2021-05-01T08:00:00+07:00"}
+                {"content": "Mệt mỏi", "createdAt": "2021-05-01T23:30:00Z"}
+                {"content": "Vẫn mệt", "createdAt": "2021-05-02T09:00:00+07:00"}
+                """;
+        entryImportService.importEntries(null, new ByteArrayInputStream(file.getBytes(StandardCharsets.UTF_8)));
+
+        Map<LocalDate, MoodDailyRollup> incremental = rollups();
+        MoodDailyRollup today = incremental.get(LocalDate.now(moodRollupService.zone()));
+        assertThat(today.getEntryCount()).isEqualTo(3);
+        assertThat(today.getScoredCount()).isEqualTo(3);
+        assertThat(today.getPositiveCount()).isEqualTo(2);
+        assertThat(today.getNeutralCount()).isEqualTo(1);
+        assertThat(today.getPositiveSum()).isCloseTo(1.6, within(1e-9));
+        assertThat(incremental.get(LocalDate.of(2021, 5, 1)).getEntryCount()).isEqualTo(1);
+        assertThat(incremental.get(LocalDate.of(2021, 5, 2)).getNegativeCount()).isEqualTo(2);
+
+        Map<String, Object> summary = moodRollupRebuildJob.rebuildAll();
+        assertThat(summary).containsEntry("users", 1).containsEntry("failedUsers", 0).containsEntry("days", 3L);
+
+        Map<LocalDate, MoodDailyRollup> rebuilt = rollups();
+        assertThat(rebuilt.keySet()).isEqualTo(incremental.keySet());
+        incremental.forEach((day, expected) -> {
+            MoodDailyRollup actual = rebuilt.get(day);
+            assertThat(actual.getEntryCount()).isEqualTo(expected.getEntryCount());
+            assertThat(actual.getScoredCount()).isEqualTo(expected.getScoredCount());
+            assertThat(actual.getPositiveCount()).isEqualTo(expected.getPositiveCount());
+            assertThat(actual.getNegativeCount()).isEqualTo(expected.getNegativeCount());
+            assertThat(actual.getNeutralCount()).isEqualTo(expected.getNeutralCount());
+            assertThat(actual.getPositiveSum()).isCloseTo(expected.getPositiveSum(), within(1e-9));
+            assertThat(actual.getNegativeSum()).isCloseTo(expected.getNegativeSum(), within(1e-9));
+            assertThat(actual.getNeutralSum()).isCloseTo(expected.getNeutralSum(), within(1e-9));
+        });
+    }
+
+    @Test
+    void aggregatesWeeksAndComputesAWeightedMovingAverage() {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Tuần 02/03: một bài tích cực, một bài tiêu cực; tuần 09/03 trống; tuần 16/03: hai bài tích cực
+            moodRollupService.apply(userId, LocalDate.of(2026, 3, 2), entry("positive", 0.9, 0.1));
+            moodRollupService.apply(userId, LocalDate.of(2026, 3, 8), entry("negative", 0.1, 0.7));
+            moodRollupService.apply(userId, LocalDate.of(2026, 3, 16), entry("positive", 0.6, 0.2));
+            moodRollupService.apply(userId, LocalDate.of(2026, 3, 16), entry("positive", 0.8, 0.0));
+        });
+
+        MoodSeriesResponse series = moodInsightsService.series(MoodGranularity.WEEK,
+                LocalDate.of(2026, 3, 4), LocalDate.of(2026, 3, 18), 2);
+
+        assertThat(series.from()).isEqualTo(LocalDate.of(2026, 3, 2));
+        assertThat(series.to()).isEqualTo(LocalDate.of(2026, 3, 22));
+        List<MoodPoint> points = series.points();
+        assertThat(points).extracting(MoodPoint::periodStart)
+                .containsExactly(LocalDate.of(2026, 3, 2), LocalDate.of(2026, 3, 9), LocalDate.of(2026, 3, 16));
+        assertThat(points).extracting(MoodPoint::entries).containsExactly(2L, 0L, 2L);
+
+        assertThat(points.get(0).averagePositive()).isEqualTo(0.5);
+        assertThat(points.get(0).moodScore()).isEqualTo(0.1);
+        assertThat(points.get(1).moodScore()).isNull();
+        assertThat(points.get(1).movingAverage()).isEqualTo(0.1);
+        assertThat(points.get(2).moodScore()).isEqualTo(0.6);
+        // Cửa sổ 2 tuần chỉ còn tuần trống và tuần 16/03
+        assertThat(points.get(2).movingAverage()).isEqualTo(0.6);
+
+        MoodSeriesResponse monthly = moodInsightsService.series(MoodGranularity.MONTH,
+                LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31), 3);
+        assertThat(monthly.points()).singleElement().satisfies(point -> {
+            assertThat(point.entries()).isEqualTo(4);
+            assertThat(point.positive()).isEqualTo(3);
+            assertThat(point.moodScore()).isEqualTo(0.35);
+        });
+    }
+
+    @Test
+    void rejectsInvalidRanges() {
+        assertThatThrownBy(() -> moodInsightsService.series(MoodGranularity.DAY,
+                LocalDate.of(2026, 3, 2), LocalDate.of(2026, 3, 1), 7))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> moodInsightsService.series(MoodGranularity.DAY,
+                LocalDate.of(2000, 1, 1), LocalDate.of(2026, 3, 1), 7))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> moodInsightsService.series(MoodGranularity.DAY, null, null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> MoodGranularity.from("year"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Map<LocalDate, MoodDailyRollup> rollups() {
+        return rollupRepository.findByUserIdAndDayBetweenOrderByDayAsc(userId, LocalDate.of(2000, 1, 1), LocalDate.of(2100, 1, 1)).stream()
+                .collect(Collectors.toMap(MoodDailyRollup::getDay, Function.identity()));
+    }
+
+    private static MoodDelta entry(String label, double positive, double negative) {
+        return MoodDelta.ofEntry(label, BigDecimal.valueOf(positive), BigDecimal.valueOf(negative),
+                BigDecimal.valueOf(1 - positive - negative));
+    }
+
+    private static DocumentSentiment sentiment(double positive, double neutral, double negative) {
+        return new DocumentSentiment(TextSentiment.MIXED, new SentimentConfidenceScores(negative, neutral, positive),
+                new IterableStream<>(Collections.emptyList()), new IterableStream<>(Collections.emptyList()));
+    }
+}
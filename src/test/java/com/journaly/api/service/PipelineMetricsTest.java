@@ -0,0 +1,131 @@
+package com.journaly.api.service;
+
+import com.azure.ai.textanalytics.models.DocumentSentiment;
+import com.azure.ai.textanalytics.models.SentimentConfidenceScores;
+import com.azure.ai.textanalytics.models.TextSentiment;
+import com.azure.core.util.IterableStream;
+import com.journaly.api.cache.ContentDigestKeyGenerator;
+import com.journaly.api.config.CacheConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tạo bài viết qua HTTP với AIService thật (Azure chưa cấu hình, engine cục bộ tắt) và kiểm tra các meter
+ * của pipeline, pool connection theo endpoint và executor.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:pipeline-metrics;DB_CLOSE_DELAY=-1",
+        "ai.local.enabled=false"
+})
+@ActiveProfiles("test")
+class PipelineMetricsTest {
+
+    private static final Pattern ENTRY_ID = Pattern.compile("\"entryId\"\\s*:\\s*\"([0-9a-f-]{36})\"");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    @Qualifier("generalTaskExecutor")
+    private Executor generalTaskExecutor;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Test
+    void recordsStagesBySentimentSourceAndConnectionWaitsByEndpoint() throws Exception {
+        // Một văn bản đã có kết quả Azure trong cache, một văn bản phải dùng kết quả dự phòng
+        String cachedText = "Một ngày đã được chấm điểm";
+        cacheManager.getCache(CacheConfig.SENTIMENTS).put(ContentDigestKeyGenerator.digest(cachedText),
+                new DocumentSentiment(TextSentiment.POSITIVE, new SentimentConfidenceScores(0.1, 0.1, 0.8),
+                        new IterableStream<>(Collections.emptyList()), new IterableStream<>(Collections.emptyList())));
+
+        String entryId = create(cachedText);
+        create("Một ngày chưa ai chấm điểm");
+        HttpResponse<String> detail = http.send(HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + "/api/entries/" + entryId)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(detail.statusCode()).isEqualTo(200);
+
+        assertThat(meterRegistry.get("journal.create.sentiment").tag("source", "cached").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("journal.create.sentiment").tag("source", "fallback").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("journal.create.sentiment").tag("source", "remote").timer().count()).isZero();
+        for (String stage : new String[]{"user_lookup", "count", "interpret", "save", "side_effects", "transaction"}) {
+            assertThat(meterRegistry.get("journal.create.stage").tag("stage", stage).timer().count())
+                    .as(stage).isEqualTo(2);
+        }
+
+        assertThat(meterRegistry.get("db.connection.acquire")
+                .tags("method", "POST", "uri", "/api/entries/create").timer().count()).isGreaterThanOrEqualTo(2);
+        assertThat(meterRegistry.get("db.connection.acquire")
+                .tags("method", "GET", "uri", "/api/entries/{entryId}").timer().count()).isGreaterThanOrEqualTo(1);
+        assertThat(meterRegistry.get("hikaricp.connections.acquire").timer().count()).isPositive();
+
+        assertThat(meterRegistry.get("cache.gets").tags("cache", CacheConfig.SENTIMENTS, "result", "hit")
+                .functionCounter().count()).isGreaterThanOrEqualTo(1);
+        assertThat(meterRegistry.get("cache.size").tag("cache", CacheConfig.SENTIMENTS).gauge().value()).isPositive();
+    }
+
+    @Test
+    void countsExecutorQueueAndActiveTasks() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        long waitsBefore = meterRegistry.get("task.executor.wait").tag("executor", "generalTaskExecutor").timer().count();
+
+        generalTaskExecutor.execute(() -> {
+            running.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(meterRegistry.get("task.executor.active").tag("executor", "generalTaskExecutor").gauge().value())
+                .isGreaterThanOrEqualTo(1);
+        release.countDown();
+
+        assertThat(meterRegistry.get("task.executor.wait").tag("executor", "generalTaskExecutor").timer().count())
+                .isEqualTo(waitsBefore + 1);
+        assertThat(meterRegistry.get("task.executor.rejected").tag("executor", "aiTaskExecutor").counter().count())
+                .isZero();
+        assertThat(meterRegistry.get("task.executor.queued").tag("executor", "aiTaskExecutor").gauge().value())
+                .isZero();
+    }
+
+    private String create(String content) throws Exception {
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/api/entries/create"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"content\":\"" + content + "\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(201);
+        Matcher matcher = ENTRY_ID.matcher(response.body());
+        assertThat(matcher.find()).isTrue();
+        return matcher.group(1);
+    }
+}
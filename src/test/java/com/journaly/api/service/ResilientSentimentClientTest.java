@@ -0,0 +1,155 @@
+package com.journaly.api.service;
+
+import com.azure.ai.textanalytics.models.DocumentSentiment;
+import com.azure.ai.textanalytics.models.SentimentConfidenceScores;
+import com.azure.ai.textanalytics.models.TextSentiment;
+import com.azure.core.util.IterableStream;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResilientSentimentClientTest {
+
+    private static final DocumentSentiment POSITIVE = sentiment(TextSentiment.POSITIVE);
+    private static final DocumentSentiment FALLBACK = sentiment(TextSentiment.NEUTRAL);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ResilientSentimentClient client;
+
+    @AfterEach
+    void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+    }
+
+    @Test
+    void slowCallTimesOutAndFallsBack() throws Exception {
+        client = newClient(text -> new CompletableFuture<>(), settings(1, 10, 100));
+
+        long start = System.nanoTime();
+        DocumentSentiment result = client.analyzeOrFallback("slow", () -> FALLBACK).get(2, TimeUnit.SECONDS);
+
+        assertSame(FALLBACK, result);
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1000);
+        assertEquals(1.0, meterRegistry.counter("ai.sentiment.fallback", "reason", "timeout").count());
+    }
+
+    @Test
+    void transientErrorsAreRetriedOffTheCallingThread() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        List<String> threads = new CopyOnWriteArrayList<>();
+        client = newClient(text -> {
+            threads.add(Thread.currentThread().getName());
+            return calls.incrementAndGet() < 3
+                    ? CompletableFuture.failedFuture(new IllegalStateException("503 Service Unavailable"))
+                    : CompletableFuture.completedFuture(POSITIVE);
+        }, settings(3, 10, 100));
+
+        CompletableFuture<DocumentSentiment> future = client.analyze("hello");
+        assertFalse(future.isDone(), "retry backoff must not run on the calling thread");
+
+        assertSame(POSITIVE, future.get(2, TimeUnit.SECONDS));
+        assertEquals(3, calls.get());
+        assertEquals(Thread.currentThread().getName(), threads.get(0));
+        assertTrue(threads.get(2).startsWith("AI-resilience-"));
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondTheLimit() {
+        AtomicInteger calls = new AtomicInteger();
+        client = newClient(text -> {
+            calls.incrementAndGet();
+            return new CompletableFuture<>();
+        }, settings(1, 2, 5_000));
+
+        client.analyze("a");
+        client.analyze("b");
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> client.analyze("c").get(1, TimeUnit.SECONDS));
+
+        assertInstanceOf(BulkheadFullException.class, ResilientSentimentClient.unwrap(error.getCause()));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void circuitOpensOnFailuresAndRecoversThroughHalfOpen() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger failuresLeft = new AtomicInteger(4);
+        client = newClient(text -> {
+            calls.incrementAndGet();
+            return failuresLeft.getAndDecrement() > 0
+                    ? CompletableFuture.failedFuture(new IllegalStateException("500 Internal Server Error"))
+                    : CompletableFuture.completedFuture(POSITIVE);
+        }, settings(1, 10, 1_000));
+
+        for (int i = 0; i < 4; i++) {
+            assertSame(FALLBACK, client.analyzeOrFallback("x" + i, () -> FALLBACK).get(1, TimeUnit.SECONDS));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitState());
+
+        // Circuit mở: trả về fallback ngay mà không gọi Azure
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> client.analyze("y").get(1, TimeUnit.SECONDS));
+        assertInstanceOf(CallNotPermittedException.class, ResilientSentimentClient.unwrap(error.getCause()));
+        assertSame(FALLBACK, client.analyzeOrFallback("z", () -> FALLBACK).get(1, TimeUnit.SECONDS));
+        assertEquals(4, calls.get());
+        assertEquals(1.0, meterRegistry.counter("ai.sentiment.fallback", "reason", "circuit_open").count());
+
+        client.getCircuitBreaker().transitionToHalfOpenState();
+        for (int i = 0; i < 3; i++) {
+            assertSame(POSITIVE, client.analyze("recovered" + i).get(1, TimeUnit.SECONDS));
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState());
+
+        assertEquals(1.0, meterRegistry.counter("ai.circuitbreaker.transitions",
+                "name", "azureSentiment", "from", "CLOSED", "to", "OPEN").count());
+        assertEquals(1.0, meterRegistry.counter("ai.circuitbreaker.transitions",
+                "name", "azureSentiment", "from", "HALF_OPEN", "to", "CLOSED").count());
+        assertTrue(meterRegistry.find("resilience4j.circuitbreaker.state").gauges().size() > 0);
+    }
+
+    @Test
+    void fallbackReasonUnwrapsCompletionExceptions() {
+        assertEquals("timeout", ResilientSentimentClient.fallbackReason(
+                new java.util.concurrent.CompletionException(new TimeoutException())));
+        assertEquals("error", ResilientSentimentClient.fallbackReason(new IllegalStateException()));
+    }
+
+    private ResilientSentimentClient newClient(Function<String, CompletableFuture<DocumentSentiment>> call,
+                                               ResilientSentimentClient.Settings settings) {
+        return new ResilientSentimentClient(call, settings, meterRegistry);
+    }
+
+    private static ResilientSentimentClient.Settings settings(int maxAttempts, int maxConcurrentCalls, long timeoutMillis) {
+        return new ResilientSentimentClient.Settings(Duration.ofMillis(timeoutMillis), maxConcurrentCalls, maxAttempts,
+                Duration.ofMillis(50), Duration.ofMillis(200), 50, Duration.ofSeconds(10), 4, 4, Duration.ofMinutes(1));
+    }
+
+    private static DocumentSentiment sentiment(TextSentiment label) {
+        return new DocumentSentiment(label, new SentimentConfidenceScores(0.1, 0.2, 0.7),
+                new IterableStream<>(Collections.emptyList()),
+                new IterableStream<>(Collections.emptyList()));
+    }
+}
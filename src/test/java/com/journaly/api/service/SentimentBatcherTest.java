@@ -0,0 +1,146 @@
+package com.journaly.api.service;
+
+import com.azure.ai.textanalytics.TextAnalyticsClient;
+import com.azure.ai.textanalytics.models.AnalyzeSentimentResult;
+import com.azure.ai.textanalytics.models.DocumentSentiment;
+import com.azure.ai.textanalytics.models.SentimentConfidenceScores;
+import com.azure.ai.textanalytics.models.TextAnalyticsError;
+import com.azure.ai.textanalytics.models.TextAnalyticsErrorCode;
+import com.azure.ai.textanalytics.models.TextSentiment;
+import com.azure.ai.textanalytics.util.AnalyzeSentimentResultCollection;
+import com.azure.core.util.IterableStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SentimentBatcherTest {
+
+    @Mock
+    private TextAnalyticsClient client;
+
+    private final List<List<String>> sentBatches = new CopyOnWriteArrayList<>();
+    private SentimentBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(client.getDefaultLanguage()).thenReturn("en");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (batcher != null) {
+            batcher.close();
+        }
+    }
+
+    @Test
+    void shouldCoalesceConcurrentRequestsIntoBatches() throws Exception {
+        fakeAzure(Duration.ofMillis(50));
+        batcher = new SentimentBatcher(client, 10, Duration.ofMillis(100), 2);
+
+        List<CompletableFuture<DocumentSentiment>> futures = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            futures.add(batcher.submit("entry " + i));
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            DocumentSentiment sentiment = futures.get(i).get(5, TimeUnit.SECONDS);
+            assertThat(sentiment.getConfidenceScores().getPositive()).isEqualTo(positiveScoreFor("entry " + i));
+        }
+        assertThat(batcher.getBatchesSent()).isEqualTo(3);
+        assertThat(sentBatches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(10));
+    }
+
+    @Test
+    void shouldSendDuplicateTextsOnce() throws Exception {
+        fakeAzure(Duration.ZERO);
+        batcher = new SentimentBatcher(client, 10, Duration.ofMillis(100), 1);
+
+        CompletableFuture<DocumentSentiment> first = batcher.submit("same text");
+        CompletableFuture<DocumentSentiment> second = batcher.submit("same text");
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(second.get(5, TimeUnit.SECONDS));
+        assertThat(batcher.getDocumentsSent()).isEqualTo(1);
+        assertThat(batcher.getRequestsReceived()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldFailOnlyTheRejectedDocument() throws Exception {
+        fakeAzure(Duration.ZERO);
+        batcher = new SentimentBatcher(client, 10, Duration.ofMillis(100), 1);
+
+        CompletableFuture<DocumentSentiment> good = batcher.submit("a good entry");
+        CompletableFuture<DocumentSentiment> bad = batcher.submit("INVALID entry");
+
+        assertThat(good.get(5, TimeUnit.SECONDS)).isNotNull();
+        assertThatThrownBy(() -> bad.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasMessageContaining("InvalidDocument");
+    }
+
+    @Test
+    void shouldFailWholeBatchWhenRequestFails() {
+        when(client.analyzeSentimentBatch(any(), any(), any())).thenThrow(new RuntimeException("503 Service Unavailable"));
+        batcher = new SentimentBatcher(client, 10, Duration.ofMillis(20), 1);
+
+        CompletableFuture<DocumentSentiment> first = batcher.submit("first entry");
+        CompletableFuture<DocumentSentiment> second = batcher.submit("second entry");
+
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).hasMessageContaining("503");
+        assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS)).hasMessageContaining("503");
+    }
+
+    /**
+     * Giả lập Azure: điểm positive suy ra từ nội dung, văn bản bắt đầu bằng "INVALID" bị từ chối.
+     */
+    @SuppressWarnings("unchecked")
+    private void fakeAzure(Duration latency) {
+        when(client.analyzeSentimentBatch(any(), any(), any())).thenAnswer(invocation -> {
+            List<String> documents = new ArrayList<>();
+            ((Iterable<String>) invocation.getArgument(0)).forEach(documents::add);
+            sentBatches.add(documents);
+            Thread.sleep(latency.toMillis());
+
+            List<AnalyzeSentimentResult> results = new ArrayList<>();
+            for (int i = 0; i < documents.size(); i++) {
+                String text = documents.get(i);
+                if (text.startsWith("INVALID")) {
+                    results.add(new AnalyzeSentimentResult(String.valueOf(i), null,
+                            new TextAnalyticsError(TextAnalyticsErrorCode.INVALID_DOCUMENT, "Document text is invalid.", null),
+                            null));
+                } else {
+                    double positive = positiveScoreFor(text);
+                    results.add(new AnalyzeSentimentResult(String.valueOf(i), null, null, new DocumentSentiment(
+                            TextSentiment.POSITIVE,
+                            new SentimentConfidenceScores(0.0, 1.0 - positive, positive),
+                            new IterableStream<>(Collections.emptyList()),
+                            new IterableStream<>(Collections.emptyList()))));
+                }
+            }
+            return new AnalyzeSentimentResultCollection(results, "2024-03-01", null);
+        });
+    }
+
+    private static double positiveScoreFor(String text) {
+        return (Math.abs(text.hashCode()) % 100) / 100.0;
+    }
+}
@@ -0,0 +1,108 @@
+package com.journaly.api.service;
+
+import com.azure.ai.textanalytics.models.DocumentSentiment;
+import com.azure.ai.textanalytics.models.SentimentConfidenceScores;
+import com.azure.ai.textanalytics.models.TextSentiment;
+import com.azure.core.util.IterableStream;
+import com.journaly.api.dto.EntrySentimentSnapshot;
+import com.journaly.api.entity.SentimentStatus;
+import com.journaly.api.repository.JournalEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SentimentEnrichmentServiceTest {
+
+    @Mock
+    private AIService aiService;
+
+    @Mock
+    private JournalEntryRepository journalEntryRepository;
+
+    @Mock
+    private MoodRollupService moodRollupService;
+
+    @Mock
+    private EntryStatsService entryStatsService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private SentimentEnrichmentService service;
+
+    private final UUID entryId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void shouldStoreScoresAndLabel() {
+        when(journalEntryRepository.findContentById(entryId)).thenReturn(Optional.of("content"));
+        when(aiService.analyzeSentimentOrThrow("content")).thenReturn(new DocumentSentiment(TextSentiment.NEGATIVE,
+                new SentimentConfidenceScores(0.7, 0.2, 0.1),
+                new IterableStream<>(Collections.emptyList()),
+                new IterableStream<>(Collections.emptyList())));
+
+        EntrySentimentSnapshot previous = new EntrySentimentSnapshot(UUID.randomUUID(), OffsetDateTime.now(),
+                null, null, null, null);
+        when(journalEntryRepository.findSentimentSnapshotForUpdate(entryId)).thenReturn(Optional.of(previous));
+
+        service.enrich(entryId);
+
+        verify(journalEntryRepository).updateSentiment(eq(entryId), eq("negative"), eq(BigDecimal.valueOf(0.1)),
+                eq(BigDecimal.valueOf(0.7)), eq(BigDecimal.valueOf(0.2)), eq(SentimentStatus.COMPLETED),
+                any(OffsetDateTime.class));
+        verify(entryStatsService).recordChangedEntry(previous.userId());
+        verify(moodRollupService).recordRescore(previous, "negative",
+                BigDecimal.valueOf(0.1), BigDecimal.valueOf(0.7), BigDecimal.valueOf(0.2));
+    }
+
+    @Test
+    void shouldPropagateFailureSoTheJobIsRetried() {
+        when(journalEntryRepository.findContentById(entryId)).thenReturn(Optional.of("content"));
+        when(aiService.analyzeSentimentOrThrow("content")).thenThrow(new IllegalStateException("boom"));
+
+        assertThrows(IllegalStateException.class, () -> service.enrich(entryId));
+
+        verify(journalEntryRepository, never()).updateSentiment(eq(entryId), anyString(), any(), any(), any(), any(),
+                any());
+    }
+
+    @Test
+    void shouldSkipEntriesThatNoLongerExist() {
+        when(journalEntryRepository.findContentById(entryId)).thenReturn(Optional.empty());
+
+        service.enrich(entryId);
+
+        verifyNoInteractions(aiService);
+    }
+}
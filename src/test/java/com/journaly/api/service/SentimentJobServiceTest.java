@@ -0,0 +1,131 @@
+package com.journaly.api.service;
+
+import com.journaly.api.entity.JournalEntry;
+import com.journaly.api.entity.SentimentJob;
+import com.journaly.api.entity.SentimentJobStatus;
+import com.journaly.api.entity.SentimentStatus;
+import com.journaly.api.entity.User;
+import com.journaly.api.repository.JournalEntryRepository;
+import com.journaly.api.repository.SentimentJobRepository;
+import com.journaly.api.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "sentiment.jobs.max-attempts=2",
+        "sentiment.jobs.base-backoff=10s",
+        "sentiment.jobs.lease=1m"
+})
+@ActiveProfiles("test")
+class SentimentJobServiceTest {
+
+    @Autowired
+    private SentimentJobService jobService;
+
+    @Autowired
+    private SentimentJobRepository jobRepository;
+
+    @Autowired
+    private JournalEntryRepository journalEntryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private UUID entryId;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("jobs-" + UUID.randomUUID() + "@journaly.com");
+        user.setPasswordHash("hash");
+        user = userRepository.save(user);
+
+        JournalEntry entry = new JournalEntry();
+        entry.setUser(user);
+        entry.setContent("Hôm nay trời đẹp");
+        entry.setSentimentStatus(SentimentStatus.PENDING);
+        entryId = journalEntryRepository.save(entry).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobRepository.deleteAll();
+        journalEntryRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void claimedJobsAreLeasedUntilCompleted() {
+        jobService.enqueue(entryId);
+
+        List<SentimentJob> claimed = jobService.claim(10, "worker-1");
+        assertEquals(1, claimed.size());
+        assertEquals(1, claimed.get(0).getAttempts());
+
+        // Đang được lease nên worker khác không nhận được
+        assertTrue(jobService.claim(10, "worker-2").isEmpty());
+
+        jobService.complete(claimed.get(0).getId());
+        assertEquals(0, jobRepository.count());
+    }
+
+    @Test
+    void expiredLeaseIsReclaimed() {
+        SentimentJob job = jobService.enqueue(entryId);
+        jobService.claim(10, "crashed-worker");
+        job = jobRepository.findById(job.getId()).orElseThrow();
+        job.setLockedUntil(OffsetDateTime.now().minusSeconds(1));
+        jobRepository.save(job);
+
+        List<SentimentJob> claimed = jobService.claim(10, "worker-2");
+
+        assertEquals(1, claimed.size());
+        assertEquals("worker-2", claimed.get(0).getLockedBy());
+        assertEquals(2, claimed.get(0).getAttempts());
+    }
+
+    @Test
+    void failedJobIsRetriedWithBackoffThenDeadLettered() {
+        SentimentJob job = jobService.enqueue(entryId);
+
+        jobService.claim(10, "worker-1");
+        assertEquals(SentimentJobService.FailureOutcome.RETRY, jobService.fail(job.getId(), new IllegalStateException("boom")));
+
+        SentimentJob retried = jobRepository.findById(job.getId()).orElseThrow();
+        assertEquals(SentimentJobStatus.PENDING, retried.getStatus());
+        assertNull(retried.getLockedBy());
+        assertTrue(retried.getNextAttemptAt().isAfter(OffsetDateTime.now()));
+        assertTrue(jobService.claim(10, "worker-1").isEmpty(), "job must wait for its backoff");
+
+        retried.setNextAttemptAt(OffsetDateTime.now().minusSeconds(1));
+        jobRepository.save(retried);
+        jobService.claim(10, "worker-1");
+        assertEquals(SentimentJobService.FailureOutcome.DEAD, jobService.fail(job.getId(), new IllegalStateException("boom")));
+
+        assertEquals(SentimentJobStatus.DEAD, jobRepository.findById(job.getId()).orElseThrow().getStatus());
+        assertEquals(SentimentStatus.FAILED, journalEntryRepository.findById(entryId).orElseThrow().getSentimentStatus());
+        assertEquals(1L, jobService.countByStatus().get(SentimentJobStatus.DEAD));
+    }
+
+    @Test
+    void backoffGrowsExponentiallyWithJitter() {
+        Duration first = jobService.backoff(1);
+        Duration third = jobService.backoff(3);
+
+        assertTrue(first.compareTo(Duration.ofSeconds(5)) >= 0 && first.compareTo(Duration.ofSeconds(10)) < 0);
+        assertTrue(third.compareTo(Duration.ofSeconds(20)) >= 0 && third.compareTo(Duration.ofSeconds(40)) < 0);
+    }
+}
@@ -0,0 +1,86 @@
+package com.journaly.api.service;
+
+import com.journaly.api.dto.ImportResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Worker chạy với cấu hình mặc định (profile test tắt worker, ở đây bật lại như application.properties).
+ */
+@SpringBootTest(properties = {
+        "sentiment.jobs.enabled=true",
+        "sentiment.jobs.poll-interval=100ms"
+})
+@ActiveProfiles("test")
+@DirtiesContext
+class SentimentJobWorkerTest {
+
+    @Autowired
+    private EntryImportService entryImportService;
+
+    @Autowired
+    private SentimentJobWorker sentimentJobWorker;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${journal.sentiment.async-enrichment}")
+    private boolean asyncEnrichment;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            List.of("entry_tags", "sentiment_jobs", "user_entry_stats", "mood_daily_rollups", "journal_entries",
+                    "tags", "entry_imports", "users").forEach(table -> jdbcTemplate.update("delete from " + table));
+            jdbcTemplate.update("insert into users (id, email, password_hash, created_at) values (?, ?, 'hash', ?)",
+                    UUID.randomUUID(), "worker@journaly.com", Timestamp.from(Instant.parse("2020-01-01T00:00:00Z")));
+        });
+    }
+
+    @Test
+    void scoresImportedEntriesWhenAsyncEnrichmentIsOff() throws Exception {
+        assertThat(asyncEnrichment).isFalse();
+        assertThat(sentimentJobWorker.isRunning()).isTrue();
+
+        // Engine cục bộ không chắc chắn và Azure không được cấu hình: import để các bài viết PENDING
+        String file = """
+                {"content": "Buổi chiều họp nhóm rồi về nhà"}
+                {"content": "Sáng đi chợ, trưa nấu cơm"}
+                """;
+        ImportResult result = entryImportService.importEntries(null,
+                new ByteArrayInputStream(file.getBytes(StandardCharsets.UTF_8)));
+        assertThat(result.getSentimentPending()).isEqualTo(2);
+
+        // Bài viết được ghi điểm trước, job bị xóa sau trong transaction riêng
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (remainingJobs() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(remainingJobs()).isZero();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from journal_entries " +
+                "where sentiment_status = 'COMPLETED' and sentiment_label is not null", Long.class)).isEqualTo(2);
+    }
+
+    private long remainingJobs() {
+        return jdbcTemplate.queryForObject("select count(*) from sentiment_jobs", Long.class);
+    }
+}
@@ -0,0 +1,165 @@
+package com.journaly.api.service;
+
+import com.journaly.api.cache.TagDictionary;
+import com.journaly.api.entity.JournalEntry;
+import com.journaly.api.entity.SentimentStatus;
+import com.journaly.api.entity.Tag;
+import com.journaly.api.entity.User;
+import com.journaly.api.repository.JournalEntryRepository;
+import com.journaly.api.repository.TagRepository;
+import com.journaly.api.repository.UserRepository;
+import com.journaly.api.support.SqlStatementCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(SqlStatementCounter.Config.class)
+class TagServiceTest {
+
+    @Autowired
+    private JournalService journalService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private TagDictionary tagDictionary;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private JournalEntryRepository journalEntryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+    private UUID entryId;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("tags-" + UUID.randomUUID() + "@journaly.com");
+        user.setPasswordHash("hash");
+        user = userRepository.save(user);
+
+        JournalEntry entry = new JournalEntry();
+        entry.setUser(user);
+        entry.setContent("Hôm nay trời đẹp");
+        entry.setSentimentStatus(SentimentStatus.COMPLETED);
+        entryId = journalEntryRepository.save(entry).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update("delete from entry_tags"));
+        tagRepository.deleteAll();
+        journalEntryRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithTheNumberOfTags() {
+        journalService.updateTagsForEntry(entryId, List.of("#a", "#b", "#c"));
+
+        List<String> names = new ArrayList<>(List.of("#b", "#c"));
+        IntStream.range(0, 18).forEach(i -> names.add("#new-" + i));
+
+        try (SqlStatementCounter.Recording sql = SqlStatementCounter.start()) {
+            journalService.updateTagsForEntry(entryId, names);
+
+            // entry + entry_tags hiện tại, hai câu IN trên tags, một batch tạo tag,
+            // một câu xóa "#a" và một batch thêm 18 dòng entry_tags; thêm hai câu UPDATE tăng phiên bản
+            // (user_entry_stats và version/updated_at của bài viết)
+            assertThat(sql.count("select")).as(sql.statements().toString()).isEqualTo(4);
+            assertThat(sql.count("[batch] merge into tags") + sql.count("[batch] insert into tags")).isEqualTo(1);
+            assertThat(sql.count("[batch] delete from entry_tags")).isEqualTo(1);
+            assertThat(sql.count("[batch] insert into entry_tags")).isEqualTo(1);
+            assertThat(sql.count("update user_entry_stats")).isEqualTo(1);
+            assertThat(sql.count("[batch] update journal_entries")).isEqualTo(1);
+            assertThat(sql.count()).as(sql.statements().toString()).isEqualTo(9);
+        }
+
+        assertThat(tagNamesOfEntry()).containsExactlyInAnyOrderElementsOf(names);
+    }
+
+    @Test
+    void unchangedTagsDoNotRewriteTheJoinTable() {
+        journalService.updateTagsForEntry(entryId, List.of("#a", "#b"));
+
+        try (SqlStatementCounter.Recording sql = SqlStatementCounter.start()) {
+            journalService.updateTagsForEntry(entryId, List.of("#b", "#a"));
+
+            assertThat(sql.statements()).noneMatch(statement -> statement.contains("entry_tags")
+                    && !statement.startsWith("select"));
+            assertThat(sql.statements()).noneMatch(statement -> statement.contains("into tags"));
+        }
+    }
+
+    @Test
+    void knownTagsAreResolvedFromTheDictionaryWithoutQueries() {
+        List<Long> ids = tagService.resolve(user.getId(), List.of("#vui_vẻ", "#biết_ơn")).stream().map(Tag::getId).toList();
+
+        try (SqlStatementCounter.Recording sql = SqlStatementCounter.start()) {
+            List<Tag> tags = tagService.resolve(user.getId(), List.of("#biết_ơn", "#vui_vẻ"));
+
+            assertThat(tags).extracting(Tag::getId).containsExactly(ids.get(1), ids.get(0));
+            assertThat(sql.count()).as(sql.statements().toString()).isZero();
+        }
+    }
+
+    @Test
+    void warmUpLoadsExistingTags() {
+        tagService.resolve(user.getId(), List.of("#bình_yên"));
+        tagDictionary.invalidateAll();
+
+        tagDictionary.warmUp();
+
+        try (SqlStatementCounter.Recording sql = SqlStatementCounter.start()) {
+            tagService.resolve(user.getId(), List.of("#bình_yên"));
+            assertThat(sql.count()).isZero();
+        }
+    }
+
+    @Test
+    void resolveTrimsDeduplicatesAndScopesTagsToTheUser() {
+        User other = new User();
+        other.setEmail("tags-other-" + UUID.randomUUID() + "@journaly.com");
+        other.setPasswordHash("hash");
+        other = userRepository.save(other);
+        Tag foreign = tagService.resolve(other.getId(), List.of("#vui")).get(0);
+
+        List<Tag> tags = tagService.resolve(user.getId(), List.of(" #vui ", "#vui", "", "#buồn"));
+
+        assertThat(tags).extracting(Tag::getName).containsExactly("#vui", "#buồn");
+        assertThat(tags.get(0).getId()).isNotEqualTo(foreign.getId());
+        assertThat(tagService.resolve(user.getId(), List.of("#buồn")).get(0).getId()).isEqualTo(tags.get(1).getId());
+    }
+
+    private List<String> tagNamesOfEntry() {
+        return jdbcTemplate.queryForList("select t.name from tags t join entry_tags et on et.tag_id = t.id " +
+                "where et.entry_id = ?", String.class, entryId);
+    }
+}
@@ -0,0 +1,123 @@
+package com.journaly.api.service;
+
+import com.azure.ai.textanalytics.models.DocumentSentiment;
+import com.azure.ai.textanalytics.models.SentimentConfidenceScores;
+import com.azure.ai.textanalytics.models.TextSentiment;
+import com.azure.core.util.IterableStream;
+import com.journaly.api.entity.User;
+import com.journaly.api.repository.UserRepository;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Chạy luồng tạo bài viết qua HTTP ở chế độ virtual thread và kiểm tra không có virtual thread nào
+ * bị pin (park trong khối synchronized) trên đường xử lý chính.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.threads.virtual.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:virtual-threads;DB_CLOSE_DELAY=-1",
+        "execution.virtual.max-concurrent-requests=8"
+})
+@ActiveProfiles("test")
+class VirtualThreadExecutionTest {
+
+    private static final int CONCURRENT_REQUESTS = 32;
+
+    @LocalServerPort
+    private int port;
+
+    @MockitoBean
+    private AIService aiService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        if (userRepository.count() == 0) {
+            User user = new User();
+            user.setEmail("virtual@journaly.com");
+            user.setPasswordHash("hash");
+            userRepository.save(user);
+        }
+    }
+
+    @Test
+    void createPathRunsOnVirtualThreadsWithoutPinning() throws Exception {
+        List<Boolean> handledOnVirtualThread = new CopyOnWriteArrayList<>();
+        when(aiService.analyzeSentiment(anyString())).thenAnswer(invocation -> {
+            handledOnVirtualThread.add(Thread.currentThread().isVirtual());
+            Thread.sleep(50); // Azure chậm
+            return new DocumentSentiment(TextSentiment.POSITIVE, new SentimentConfidenceScores(0.1, 0.1, 0.8),
+                    new IterableStream<>(Collections.emptyList()), new IterableStream<>(Collections.emptyList()));
+        });
+
+        List<RecordedEvent> pinned = new CopyOnWriteArrayList<>();
+        HttpClient http = HttpClient.newHttpClient();
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(10)).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", pinned::add);
+            recording.startAsync();
+
+            List<Integer> statuses = new ArrayList<>();
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<Integer>> responses = new ArrayList<>();
+                for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                    String body = "{\"content\":\"Hôm nay là một ngày tuyệt vời số " + i + "\"}";
+                    responses.add(clients.submit(() -> http.send(HttpRequest.newBuilder()
+                                    .uri(URI.create("http://localhost:" + port + "/api/entries/create"))
+                                    .header("Content-Type", "application/json")
+                                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                                    .build(), HttpResponse.BodyHandlers.discarding()).statusCode()));
+                }
+                for (Future<Integer> response : responses) {
+                    statuses.add(response.get());
+                }
+            }
+            // Đảm bảo các event JFR đã được đẩy ra stream trước khi kiểm tra
+            Thread.sleep(1500);
+
+            assertThat(statuses).containsOnly(201);
+        }
+
+        assertThat(handledOnVirtualThread).hasSize(CONCURRENT_REQUESTS).containsOnly(true);
+        assertThat(pinned)
+                .withFailMessage(() -> "Pinned virtual threads:\n" + pinned.stream()
+                        .map(VirtualThreadExecutionTest::describe)
+                        .collect(Collectors.joining("\n---\n")))
+                .isEmpty();
+    }
+
+    private static String describe(RecordedEvent event) {
+        return event.getStackTrace().getFrames().stream()
+                .limit(12)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n  at "));
+    }
+}
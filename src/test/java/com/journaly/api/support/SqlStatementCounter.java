@@ -0,0 +1,137 @@
+package com.journaly.api.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Đếm số lần gửi câu lệnh tới database (round trip) trên thread hiện tại.
+ * <p>
+ * Bọc DataSource của context test bằng proxy; mỗi lần gọi {@code execute*} trên Statement được ghi lại,
+ * một {@code executeBatch} tính là một round trip dù chứa nhiều dòng. Dùng bằng cách
+ * {@code @Import(SqlStatementCounter.Config.class)} rồi {@code try (var recording = SqlStatementCounter.start())}.
+ */
+public final class SqlStatementCounter {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+    private static final Set<String> STATEMENT_FACTORIES = Set.of("createStatement", "prepareStatement", "prepareCall");
+
+    private static final ThreadLocal<Recording> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    public static Recording start() {
+        Recording recording = new Recording();
+        CURRENT.set(recording);
+        return recording;
+    }
+
+    public static final class Recording implements AutoCloseable {
+        private final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+
+        public int count() {
+            return statements.size();
+        }
+
+        /** Các câu lệnh đã chạy; câu batch có tiền tố {@code [batch]}. */
+        public List<String> statements() {
+            return List.copyOf(statements);
+        }
+
+        public long count(String sqlPrefix) {
+            return statements().stream().filter(sql -> sql.toLowerCase().startsWith(sqlPrefix.toLowerCase())).count();
+        }
+
+        public void reset() {
+            statements.clear();
+        }
+
+        @Override
+        public void close() {
+            CURRENT.remove();
+        }
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    public static class Config {
+
+        @Bean
+        static BeanPostProcessor sqlStatementCountingPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    static DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, (method, args, result) -> {
+            if (result instanceof Connection connection && method.getName().startsWith("getConnection")) {
+                return wrap(connection);
+            }
+            return result;
+        });
+    }
+
+    private static Connection wrap(Connection connection) {
+        return proxy(Connection.class, connection, (method, args, result) -> {
+            if (result instanceof Statement statement && STATEMENT_FACTORIES.contains(method.getName())) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                return wrap(statement, sql);
+            }
+            return result;
+        });
+    }
+
+    private static Statement wrap(Statement statement, String preparedSql) {
+        Class<? extends Statement> type = statement instanceof java.sql.CallableStatement
+                ? java.sql.CallableStatement.class
+                : statement instanceof java.sql.PreparedStatement ? java.sql.PreparedStatement.class : Statement.class;
+        return proxy(type, statement, (method, args, result) -> {
+            Recording recording = CURRENT.get();
+            if (recording != null && EXECUTE_METHODS.contains(method.getName())) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+                recording.statements.add(method.getName().contains("Batch") ? "[batch] " + sql : sql);
+            }
+            return result;
+        });
+    }
+
+    private interface ResultMapper {
+        Object map(Method method, Object[] args, Object result) throws Exception;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<? super T> type, Object target, ResultMapper mapper) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getName().equals("unwrap") || method.getName().equals("isWrapperFor")) {
+                Class<?> requested = (Class<?>) args[0];
+                if (requested.isInstance(target)) {
+                    return method.getName().equals("unwrap") ? target : true;
+                }
+            }
+            try {
+                return mapper.map(method, args, method.invoke(target, args));
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return (T) Proxy.newProxyInstance(SqlStatementCounter.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
@@ -0,0 +1,83 @@
+package com.journaly.api.trace;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:request-trace;DB_CLOSE_DELAY=-1",
+        "tracing.slow-requests.threshold=0ms",
+        "tracing.slow-requests.capacity=4"
+})
+@ActiveProfiles("test")
+class RequestTraceTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private SlowRequestLog slowRequestLog;
+
+    @Test
+    void formatsServerTimingAndAccumulatesRepeatedStages() {
+        RequestTrace trace = RequestTrace.start();
+        try {
+            RequestTrace.record("db_wait", 1_500_000);
+            RequestTrace.record("sentiment", "cached", 120_000);
+            RequestTrace.record("db_wait", 500_000);
+        } finally {
+            RequestTrace.end();
+        }
+        // Ngoài request không còn trace nào để ghi
+        RequestTrace.record("db_wait", 1_000_000);
+
+        assertThat(trace.serverTiming(12_345_678))
+                .isEqualTo("db_wait;dur=2.00, sentiment;desc=\"cached\";dur=0.12, total;dur=12.34");
+        assertThat(trace.stages()).containsExactly(
+                new RequestTrace.Stage("db_wait", null, 2, 2.0),
+                new RequestTrace.Stage("sentiment", "cached", 1, 0.12));
+    }
+
+    @Test
+    void emitsServerTimingAndKeepsTheSlowestRequests() throws Exception {
+        slowRequestLog.clear();
+        HttpClient http = HttpClient.newHttpClient();
+        HttpResponse<String> created = http.send(HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/api/entries/create"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"content\":\"Hôm nay đi dạo công viên\"}"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(created.statusCode()).isEqualTo(201);
+
+        String serverTiming = created.headers().firstValue("Server-Timing").orElseThrow();
+        assertThat(serverTiming)
+                .contains("sentiment;desc=\"", "user_lookup;dur=", "count;dur=", "save;dur=", "db_wait;dur=")
+                .matches(".*total;dur=\\d+\\.\\d{2}$");
+
+        HttpResponse<String> list = http.send(HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + "/api/entries/scroll")).build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(list.headers().firstValue("Server-Timing")).hasValueSatisfying(value -> assertThat(value).contains("total;dur="));
+
+        List<SlowRequestLog.SlowRequest> slowest = slowRequestLog.slowest();
+        assertThat(slowest).extracting(SlowRequestLog.SlowRequest::uri)
+                .contains("/api/entries/create", "/api/entries/scroll");
+        assertThat(slowest).isSortedAccordingTo((a, b) -> Double.compare(b.totalMillis(), a.totalMillis()));
+        SlowRequestLog.SlowRequest create = slowest.stream()
+                .filter(request -> request.uri().equals("/api/entries/create")).findFirst().orElseThrow();
+        assertThat(create.method()).isEqualTo("POST");
+        assertThat(create.status()).isEqualTo(201);
+        assertThat(create.stages()).extracting(RequestTrace.Stage::name)
+                .contains("sentiment", "user_lookup", "count", "interpret", "save", "side_effects", "transaction");
+    }
+}